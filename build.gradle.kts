@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "br.com.dio"
@@ -9,14 +10,47 @@ repositories {
     mavenCentral()
 }
 
+// Testes contra um banco real, configurado como o da aplicação (DB_HOST, DB_PASSWORD, BOARD_CONFIG...).
+// Ficam fora do check: rode com ./gradlew integrationTest
+val integrationTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[integrationTest.implementationConfigurationName]
+    .extendsFrom(configurations.implementation.get(), configurations.testImplementation.get())
+configurations[integrationTest.runtimeOnlyConfigurationName]
+    .extendsFrom(configurations.runtimeOnly.get(), configurations.testRuntimeOnly.get())
+
 dependencies {
     implementation("org.liquibase:liquibase-core:4.29.1")
     implementation("mysql:mysql-connector-java:8.0.33")
+    implementation("com.zaxxer:HikariCP:5.1.0")
+    runtimeOnly("org.slf4j:slf4j-nop:2.0.13")
     implementation("org.projectlombok:lombok:1.18.34")
 
     annotationProcessor("org.projectlombok:lombok:1.18.34")
+
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+tasks.register<Test>("integrationTest") {
+    description = "Executa os testes de integração contra o banco configurado."
+    group = "verification"
+    testClassesDirs = integrationTest.output.classesDirs
+    classpath = integrationTest.runtimeClasspath
+    useJUnitPlatform()
+    shouldRunAfter(tasks.test)
+    // As migrations gravam liquibase.log no diretório de trabalho
+    workingDir = layout.buildDirectory.dir("integrationTest").get().asFile.also { it.mkdirs() }
+}
+
+jmh {
+    profilers.add("gc")
+}
@@ -0,0 +1,315 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.exception.CardFinishedException;
+import br.com.dio.exception.WipLimitExceededException;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.migration.MigrationStrategy;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.persistence.shard.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Admissão concorrente em uma coluna com limite de WIP, contra um banco real configurado como o da
+ * aplicação. Movimentos paralelos disputam as vagas da coluna enquanto outras threads a esvaziam, e um
+ * monitor conta os cards confirmados na coluna durante todo o teste: a contagem nunca pode passar do
+ * limite, e ao final o contador {@code card_count} de cada coluna deve bater com os cards dela.
+ */
+class WipLimitStressTest {
+
+    private static final int MOVERS = 64;
+    private static final int DRAINERS = 4;
+    private static final int CARDS = 384;
+    private static final int LIMIT = 20;
+
+    private final List<Long> boards = new ArrayList<>();
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        for (var shard : ShardRouter.getInstance().getShardIds()) {
+            try (var connection = ConnectionConfig.getConnection(shard)) {
+                new MigrationStrategy(connection, shard).executeMigration();
+            }
+        }
+    }
+
+    @AfterEach
+    void deleteBoards() throws SQLException {
+        for (var boardId : boards) {
+            DatabaseExecutor.getInstance().write(boardId, connection -> new BoardService(connection).delete(boardId));
+        }
+    }
+
+    @Test
+    void parallelMoversNeverExceedTheColumnLimit() throws Exception {
+        var board = createBoard("wip-stress", LIMIT);
+        var columns = columnsInfo(board);
+        var limited = column(board, PENDING);
+        var finalColumn = column(board, FINAL);
+        Queue<Long> waiting = new ConcurrentLinkedQueue<>(createCards(board, CARDS));
+
+        var finished = new AtomicInteger();
+        var rejections = new AtomicInteger();
+        var maxObserved = new LongAccumulator(Math::max, 0);
+        var done = new AtomicBoolean();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        var pool = Executors.newFixedThreadPool(MOVERS + DRAINERS + 1);
+        try {
+            pool.submit(() -> {
+                // Lê sem passar pelo serviço, direto do primário, o que já foi confirmado
+                try (var connection = ConnectionConfig.getConnection(0)) {
+                    connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                    while (!done.get()) {
+                        maxObserved.accumulate(countCards(connection, limited));
+                        connection.commit();
+                    }
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            });
+            for (var i = 0; i < MOVERS; i++) {
+                pool.submit(() -> {
+                    Long cardId;
+                    while (!done.get() && (cardId = waiting.poll()) != null) {
+                        final var id = cardId;
+                        while (!done.get()) {
+                            try {
+                                DatabaseExecutor.getInstance().write(board.getId(), connection ->
+                                        moveToNext(connection, id, columns));
+                                break;
+                            } catch (WipLimitExceededException ex) {
+                                rejections.incrementAndGet();
+                                pause();
+                            } catch (Throwable ex) {
+                                failures.add(ex);
+                                return;
+                            }
+                        }
+                    }
+                });
+            }
+            for (var i = 0; i < DRAINERS; i++) {
+                pool.submit(() -> {
+                    while (!done.get() && finished.get() < CARDS) {
+                        try {
+                            var cards = DatabaseExecutor.getInstance().read(board.getId(), connection ->
+                                    new BoardQueryService(connection).findColumnSnapshot(board.getId(), limited)).orElseThrow().cards();
+                            if (cards.isEmpty()) {
+                                pause();
+                                continue;
+                            }
+                            var card = cards.get(ThreadLocalRandom.current().nextInt(cards.size()));
+                            DatabaseExecutor.getInstance().write(board.getId(), connection ->
+                                    moveToNext(connection, card.id(), columns));
+                            finished.incrementAndGet();
+                        } catch (IllegalStateException | CardFinishedException ex) {
+                            // Outra thread moveu o mesmo card entre a leitura e a escrita: o filtro pela coluna
+                            // de origem desfez esta tentativa, ou o card já estava na coluna final
+                        } catch (Throwable ex) {
+                            failures.add(ex);
+                            return;
+                        }
+                    }
+                });
+            }
+            var deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(3);
+            while (finished.get() < CARDS && failures.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        } finally {
+            done.set(true);
+            shutdown(pool);
+        }
+
+        assertTrue(failures.isEmpty(), () -> "Falhas inesperadas: " + failures);
+        assertEquals(CARDS, finished.get(), "Todos os cards devem chegar à coluna final");
+        assertTrue(maxObserved.get() <= LIMIT, "A coluna chegou a %d cards, acima do limite de %d"
+                .formatted(maxObserved.get(), LIMIT));
+        assertTrue(rejections.get() > 0, "Os movimentos deveriam ter disputado as vagas da coluna");
+        assertCountersMatch(board);
+        try (var connection = ConnectionConfig.getConnection(0)) {
+            assertEquals(CARDS, countCards(connection, finalColumn));
+        }
+    }
+
+    @Test
+    void concurrentMovesOfTheSameCardKeepCountersConsistent() throws Exception {
+        var board = createBoard("wip-same-card", LIMIT);
+        var columns = columnsInfo(board);
+        var pool = Executors.newFixedThreadPool(16);
+        try {
+            for (var cardId : createCards(board, 20)) {
+                var start = new CountDownLatch(1);
+                var successes = new AtomicInteger();
+                Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+                var tasks = new ArrayList<Future<?>>();
+                for (var i = 0; i < 16; i++) {
+                    tasks.add(pool.submit(() -> {
+                        try {
+                            start.await();
+                            DatabaseExecutor.getInstance().write(board.getId(), connection ->
+                                    moveToNext(connection, cardId, columns));
+                            successes.incrementAndGet();
+                        } catch (IllegalStateException ex) {
+                            // Movido por outra transação depois da leitura
+                        } catch (CardFinishedException ex) {
+                            // Outra transação já levou o card à coluna final
+                        } catch (Throwable ex) {
+                            failures.add(ex);
+                        }
+                    }));
+                }
+                start.countDown();
+                for (var task : tasks) {
+                    task.get(1, TimeUnit.MINUTES);
+                }
+                assertTrue(failures.isEmpty(), () -> "Falhas inesperadas: " + failures);
+                assertTrue(successes.get() >= 1 && successes.get() <= 2,
+                        "O card anda no máximo até a coluna final, mas houve %d movimentos".formatted(successes.get()));
+                try (var connection = ConnectionConfig.getConnection(0);
+                     var statement = connection.prepareStatement(
+                             "SELECT COUNT(*) FROM CARD_HISTORY WHERE card_id = ?")) {
+                    statement.setLong(1, cardId);
+                    var resultSet = statement.executeQuery();
+                    resultSet.next();
+                    assertEquals(successes.get() + 1, resultSet.getInt(1), "Um registro de histórico por movimento confirmado");
+                }
+            }
+        } finally {
+            shutdown(pool);
+        }
+        assertCountersMatch(board);
+    }
+
+    private Void moveToNext(final Connection connection, final Long cardId,
+                            final List<BoardColumnInfoDTO> columns) throws SQLException {
+        new CardService(connection).moveToNextColumn(cardId, columns);
+        return null;
+    }
+
+    private BoardEntity createBoard(final String name, final int limit) throws SQLException {
+        List<BoardColumnEntity> columns = new ArrayList<>();
+        var kinds = List.of(INITIAL, PENDING, FINAL, CANCEL);
+        for (var i = 0; i < kinds.size(); i++) {
+            var column = new BoardColumnEntity();
+            column.setName(kinds.get(i).name());
+            column.setKind(kinds.get(i));
+            column.setOrder(i);
+            columns.add(column);
+        }
+        var entity = new BoardEntity();
+        entity.setName(name);
+        entity.setBoardColumns(columns);
+        entity.setId(ShardRouter.getInstance().reserveBoard());
+        var executor = DatabaseExecutor.getInstance();
+        executor.write(entity.getId(), connection -> new BoardService(connection).insert(entity));
+        boards.add(entity.getId());
+        var board = executor.read(entity.getId(), connection -> new BoardQueryService(connection).findById(entity.getId()))
+                .orElseThrow();
+        executor.write(board.getId(), connection -> {
+            new BoardColumnService(connection).updateWipLimit(column(board, PENDING), limit);
+            return null;
+        });
+        return board;
+    }
+
+    private List<Long> createCards(final BoardEntity board, final int amount) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        for (var i = 0; i < amount; i++) {
+            var card = new CardEntity();
+            card.setTitle("Card " + i);
+            card.setBoardColumn(board.getInitialColumn());
+            DatabaseExecutor.getInstance().write(board.getId(), connection -> new CardService(connection).create(card));
+            ids.add(card.getId());
+        }
+        return ids;
+    }
+
+    private void assertCountersMatch(final BoardEntity board) throws SQLException {
+        var sql = """
+                SELECT bc.id, bc.card_count, COUNT(c.id), COUNT(DISTINCT c.lexo_rank)
+                  FROM BOARDS_COLUMNS bc
+                  LEFT JOIN CARDS c
+                    ON c.board_column_id = bc.id
+                 WHERE bc.board_id = ?
+                 GROUP BY bc.id, bc.card_count;
+                """;
+        try (var connection = ConnectionConfig.getConnection(0);
+             var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, board.getId());
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                var columnId = resultSet.getLong(1);
+                assertEquals(resultSet.getInt(3), resultSet.getInt(2), "card_count da coluna " + columnId);
+                assertEquals(resultSet.getInt(3), resultSet.getInt(4), "ranks repetidos na coluna " + columnId);
+            }
+        }
+    }
+
+    private static long countCards(final Connection connection, final long columnId) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT COUNT(*) FROM CARDS WHERE board_column_id = ?")) {
+            statement.setLong(1, columnId);
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static Long column(final BoardEntity board, final BoardColumnKindEnum kind) {
+        return board.getBoardColumns().stream().filter(c -> c.getKind() == kind).findFirst().orElseThrow().getId();
+    }
+
+    private static List<BoardColumnInfoDTO> columnsInfo(final BoardEntity board) {
+        return board.getBoardColumns().stream()
+                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
+                .toList();
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(1, 5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Espera as threads terminarem o que estão fazendo; só interrompe as que não terminarem a tempo
+     */
+    private static void shutdown(final ExecutorService pool) throws InterruptedException {
+        pool.shutdown();
+        if (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+            pool.shutdownNow();
+        }
+    }
+
+}
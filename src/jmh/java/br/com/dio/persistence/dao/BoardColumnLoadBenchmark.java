@@ -0,0 +1,100 @@
+package br.com.dio.persistence.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo de carregar uma coluna com {@link BoardColumnDAO#findById(Long)}, sem banco: a consulta
+ * devolve um {@link CachedRowSet} já preenchido, então o que sobra é o mapeamento das linhas. Com
+ * {@code -prof gc}, {@code gc.alloc.rate.norm} dividido por {@code cards} dá os bytes alocados por card
+ * (o que inclui a leitura de cada campo no row set, igual para qualquer modelo).
+ * <p>
+ * {@code gradle jmh} roda com o profiler de GC configurado no build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardColumnLoadBenchmark {
+
+    private static final String[] COLUMNS = {"bc.id", "bc.name", "bc.kind", "c.id", "c.title", "c.description"};
+
+    @Param({"100", "10000"})
+    private int cards;
+
+    private CachedRowSet rows;
+    private BoardColumnDAO dao;
+
+    @Setup
+    public void setup() throws SQLException {
+        var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS.length);
+        for (var i = 0; i < COLUMNS.length; i++) {
+            metaData.setColumnName(i + 1, COLUMNS[i]);
+            metaData.setColumnLabel(i + 1, COLUMNS[i]);
+            metaData.setColumnType(i + 1, COLUMNS[i].endsWith(".id") ? Types.BIGINT : Types.VARCHAR);
+        }
+        rows = RowSetProvider.newFactory().createCachedRowSet();
+        rows.setMetaData(metaData);
+        for (var card = 1; card <= cards; card++) {
+            rows.moveToInsertRow();
+            rows.updateLong(1, 1L);
+            rows.updateString(2, "Em andamento");
+            rows.updateString(3, "PENDING");
+            rows.updateLong(4, card);
+            rows.updateString(5, "Card " + card);
+            rows.updateString(6, "Descrição do card " + card);
+            rows.insertRow();
+        }
+        rows.moveToCurrentRow();
+        dao = new BoardColumnDAO(stubConnection());
+    }
+
+    @Benchmark
+    public Object loadColumn() throws SQLException {
+        return dao.findById(1L);
+    }
+
+    /**
+     * Conexão cujo único statement devolve o row set, posicionado antes da primeira linha
+     */
+    private Connection stubConnection() {
+        var statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "executeQuery", "getResultSet" -> {
+                        rows.beforeFirst();
+                        yield rows;
+                    }
+                    case "execute" -> true;
+                    default -> null;
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> statement;
+                    case "getAutoCommit" -> false;
+                    default -> null;
+                });
+    }
+
+}
@@ -0,0 +1,129 @@
+package br.com.dio.persistence.mapper;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Compara o mapeamento das mesmas linhas por rótulo, como os DAOs faziam (busca do rótulo a cada
+ * leitura e tipo da coluna procurado com um {@link Stream} sobre {@code values()}), com o mapeamento por
+ * {@link RowMapperFactory}, que resolve os índices uma vez por result set.
+ * <p>
+ * As linhas vêm de um {@link CachedRowSet} em memória, que resolve rótulos percorrendo as colunas; no
+ * Connector/J a busca é por mapa, então o ganho no banco real é menor que o medido aqui.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    private static final String[] COLUMNS = {"b.id", "b.name", "bc.id", "bc.name", "bc.order", "bc.kind",
+            "c.id", "c.title", "c.description", "bl.id", "br.label"};
+
+    private static final RowMapperFactory<Row> ROW_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("c.id");
+        var title = resultSet.findColumn("c.title");
+        var description = resultSet.findColumn("c.description");
+        var kind = resultSet.findColumn("bc.kind");
+        var blockId = resultSet.findColumn("bl.id");
+        return rs -> {
+            rs.getLong(blockId);
+            var blocked = !rs.wasNull();
+            return new Row(rs.getLong(id), rs.getString(title), rs.getString(description),
+                    BoardColumnKindEnum.findByName(rs.getString(kind)), blocked);
+        };
+    };
+
+    @Param({"10000"})
+    private int rows;
+
+    private CachedRowSet resultSet;
+
+    @Setup
+    public void setup() throws SQLException {
+        var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS.length);
+        for (var i = 0; i < COLUMNS.length; i++) {
+            metaData.setColumnName(i + 1, COLUMNS[i]);
+            metaData.setColumnLabel(i + 1, COLUMNS[i]);
+            metaData.setColumnType(i + 1, COLUMNS[i].endsWith(".id") || COLUMNS[i].endsWith(".order") ?
+                    Types.BIGINT : Types.VARCHAR);
+        }
+        var kinds = BoardColumnKindEnum.values();
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        for (var row = 1; row <= rows; row++) {
+            var i = 1;
+            resultSet.moveToInsertRow();
+            resultSet.updateLong(i ++, 1L);
+            resultSet.updateString(i ++, "Board");
+            resultSet.updateLong(i ++, row % kinds.length);
+            resultSet.updateString(i ++, "Coluna");
+            resultSet.updateLong(i ++, row % kinds.length);
+            resultSet.updateString(i ++, kinds[row % kinds.length].name());
+            resultSet.updateLong(i ++, row);
+            resultSet.updateString(i ++, "Card " + row);
+            resultSet.updateString(i ++, "Descrição do card " + row);
+            if (row % 10 == 0) {
+                resultSet.updateLong(i ++, row);
+                resultSet.updateString(i, "Aguardando revisão");
+            } else {
+                resultSet.updateNull(i ++);
+                resultSet.updateNull(i);
+            }
+            resultSet.insertRow();
+        }
+        resultSet.moveToCurrentRow();
+    }
+
+    @Benchmark
+    public List<Row> byLabel() throws SQLException {
+        resultSet.beforeFirst();
+        List<Row> mapped = new ArrayList<>(rows);
+        while (resultSet.next()) {
+            var kind = resultSet.getString("bc.kind");
+            mapped.add(new Row(
+                    resultSet.getLong("c.id"),
+                    resultSet.getString("c.title"),
+                    resultSet.getString("c.description"),
+                    Stream.of(BoardColumnKindEnum.values()).filter(k -> k.name().equals(kind)).findFirst().orElseThrow(),
+                    nonNull(resultSet.getObject("bl.id"))
+            ));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public List<Row> byIndex() throws SQLException {
+        resultSet.beforeFirst();
+        return ResultSets.list(resultSet, ROW_MAPPER);
+    }
+
+    public record Row(long id, String title, String description, BoardColumnKindEnum kind, boolean blocked) {
+    }
+
+}
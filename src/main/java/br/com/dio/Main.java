@@ -1,8 +1,17 @@
 package br.com.dio;
 
+import br.com.dio.event.ChangeFeed;
+import br.com.dio.persistence.config.ConnectionConfig;
 import br.com.dio.persistence.migration.MigrationStrategy;
+import br.com.dio.persistence.rank.RankRebalancer;
+import br.com.dio.persistence.shard.ShardRouter;
+import br.com.dio.service.BoardCheckpointer;
+import br.com.dio.service.BoardPurger;
 import br.com.dio.ui.MainMenu;
+import br.com.dio.ui.batch.BatchRunner;
+import br.com.dio.ui.util.Terminal;
 
+import java.io.IOException;
 import java.sql.SQLException;
 
 import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
@@ -10,10 +19,31 @@ import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
 
 public class Main {
 
-    public static void main(String[] args) throws SQLException {
-        try(var connection = getConnection()){
-            new MigrationStrategy(connection).executeMigration();
+    /**
+     * Sem argumentos, abre os menus. Com {@code --batch [arquivo]}, executa os comandos do arquivo, ou da
+     * entrada padrão, e encerra com código 1 se algum comando falhou ({@link BatchRunner}).
+     */
+    public static void main(String[] args) throws SQLException, IOException {
+        var batch = args.length > 0 && "--batch".equals(args[0]);
+        Terminal.install();
+        // Falha antes de abrir qualquer conexão se a configuração do banco estiver incompleta (db.password)
+        ConnectionConfig.getDatabaseConfig();
+        ShardRouter.getInstance().validate();
+        for (var shard : ShardRouter.getInstance().getShardIds()) {
+            try(var connection = getConnection(shard)){
+                new MigrationStrategy(connection, shard).executeMigration();
+            }
         }
+        BoardPurger.getInstance().start();
+        RankRebalancer.getInstance().start();
+        BoardCheckpointer.getInstance().start();
+        if (batch) {
+            // Sem telas para atualizar, o feed de alterações não é iniciado
+            var exitCode = BatchRunner.of(args.length > 1 ? args[1] : null, System.out).execute();
+            System.out.flush();
+            System.exit(exitCode);
+        }
+        ChangeFeed.getInstance().start();
         new MainMenu().execute();
     }
 
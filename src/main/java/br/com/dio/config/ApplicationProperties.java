@@ -0,0 +1,130 @@
+package br.com.dio.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Configuração da aplicação carregada em camadas, da menor para a maior prioridade:
+ * <ol>
+ *     <li>{@code application.properties} do classpath (valores padrão)</li>
+ *     <li>arquivo externo informado em {@code -Dboard.config} ou na variável {@code BOARD_CONFIG}</li>
+ *     <li>variáveis de ambiente ({@code db.pool.max-size} vira {@code DB_POOL_MAX_SIZE})</li>
+ *     <li>propriedades de sistema ({@code -Ddb.pool.max-size=20})</li>
+ * </ol>
+ */
+public final class ApplicationProperties {
+
+    private static final String DEFAULT_RESOURCE = "/application.properties";
+
+    private static volatile ApplicationProperties instance;
+
+    private final Properties properties;
+
+    private ApplicationProperties(final Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Obtém a configuração da aplicação, carregando-a na primeira chamada
+     *
+     * @return Configuração carregada
+     */
+    public static ApplicationProperties getInstance() {
+        if (isNull(instance)) {
+            synchronized (ApplicationProperties.class) {
+                if (isNull(instance)) {
+                    instance = load();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static ApplicationProperties load() {
+        var properties = new Properties();
+        try (InputStream in = ApplicationProperties.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (nonNull(in)) {
+                properties.load(in);
+            }
+            var externalFile = System.getProperty("board.config", System.getenv("BOARD_CONFIG"));
+            if (nonNull(externalFile) && !externalFile.isBlank()) {
+                try (var external = Files.newInputStream(Path.of(externalFile))) {
+                    properties.load(external);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Não foi possível carregar a configuração da aplicação", ex);
+        }
+        return new ApplicationProperties(properties);
+    }
+
+    /**
+     * Busca o valor de uma chave, aplicando as sobrescritas de ambiente e de sistema
+     *
+     * @param key Chave no formato {@code grupo.sub-chave}
+     * @param defaultValue Valor usado quando a chave não estiver configurada
+     * @return Valor configurado ou o padrão
+     */
+    public String getString(final String key, final String defaultValue) {
+        var value = System.getProperty(key);
+        if (isNull(value)) {
+            value = System.getenv(toEnvironmentName(key));
+        }
+        if (isNull(value)) {
+            value = properties.getProperty(key);
+        }
+        return isNull(value) || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Busca o valor de uma chave que não tem padrão, como credenciais, que devem vir do ambiente, das
+     * propriedades de sistema ou do arquivo externo. Um valor vazio informado explicitamente é aceito.
+     *
+     * @param key Chave no formato {@code grupo.sub-chave}
+     * @return Valor configurado, sem espaços nas pontas
+     * @throws IllegalStateException se a chave não estiver configurada em nenhuma das camadas
+     */
+    public String getRequiredString(final String key) {
+        var value = System.getProperty(key);
+        if (isNull(value)) {
+            value = System.getenv(toEnvironmentName(key));
+        }
+        if (isNull(value)) {
+            value = properties.getProperty(key);
+        }
+        if (isNull(value)) {
+            throw new IllegalStateException(("A configuração %s é obrigatória: informe-a na variável de ambiente %s, " +
+                    "em -D%s ou no arquivo externo (-Dboard.config / BOARD_CONFIG)")
+                    .formatted(key, toEnvironmentName(key), key));
+        }
+        return value.trim();
+    }
+
+    public int getInt(final String key, final int defaultValue) {
+        var value = getString(key, null);
+        return isNull(value) ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(final String key, final long defaultValue) {
+        var value = getString(key, null);
+        return isNull(value) ? defaultValue : Long.parseLong(value);
+    }
+
+    public boolean getBoolean(final String key, final boolean defaultValue) {
+        var value = getString(key, null);
+        return isNull(value) ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private static String toEnvironmentName(final String key) {
+        return key.replace('.', '_').replace('-', '_').toUpperCase(Locale.ROOT);
+    }
+
+}
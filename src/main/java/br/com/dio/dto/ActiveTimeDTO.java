@@ -0,0 +1,52 @@
+package br.com.dio.dto;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * DTO com o tempo ativo e o tempo bloqueado de um board, separados por coluna e por card.
+ * Tempo ativo é o tempo de permanência em uma coluna descontados os bloqueios sofridos nela.
+ *
+ * @param columns Tempos por coluna, na ordem do board
+ * @param cards Tempos por card nas colunas de trabalho (fora das colunas final e de cancelamento),
+ *              do card mais bloqueado para o menos bloqueado
+ */
+public record ActiveTimeDTO(
+        List<ColumnActiveTimeDTO> columns,
+        List<CardActiveTimeDTO> cards
+) {
+
+    /**
+     * Tempos somados de todos os cards que passaram por uma coluna
+     */
+    public record ColumnActiveTimeDTO(String columnName, int cards, Duration activeTime, Duration blockedTime) {
+
+        /**
+         * @return Percentual do tempo na coluna em que os cards estavam bloqueados
+         */
+        public double getBlockedPercent() {
+            var total = activeTime.plus(blockedTime);
+            return total.isZero() ? 0 : blockedTime.toMillis() * 100.0 / total.toMillis();
+        }
+    }
+
+    /**
+     * Tempos de um card nas colunas de trabalho do board
+     */
+    public record CardActiveTimeDTO(Long cardId, Duration activeTime, Duration blockedTime) {
+    }
+
+    /**
+     * Eficiência de fluxo do board: fração do tempo nas colunas de trabalho em que os cards não estavam bloqueados
+     * @return Percentual entre 0 e 100
+     */
+    public double getFlowEfficiency() {
+        var active = 0L;
+        var blocked = 0L;
+        for (var card : cards) {
+            active += card.activeTime().toMillis();
+            blocked += card.blockedTime().toMillis();
+        }
+        return active + blocked == 0 ? 0 : active * 100.0 / (active + blocked);
+    }
+}
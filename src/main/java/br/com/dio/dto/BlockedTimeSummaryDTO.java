@@ -0,0 +1,33 @@
+package br.com.dio.dto;
+
+import java.time.Duration;
+
+/**
+ * DTO com o tempo bloqueado agregado no banco para um agrupamento (card, motivo, categoria ou coluna)
+ */
+public record BlockedTimeSummaryDTO(
+        Long id,
+        String label,
+        int blocks,
+        int openBlocks,
+        Duration totalBlockedTime,
+        Duration maxBlockedTime
+) {
+    /**
+     * Retorna o tempo total bloqueado formatado
+     * @return String com a duração formatada em dias, horas e minutos
+     */
+    public String getFormattedTotalBlockedTime() {
+        long days = totalBlockedTime.toDays();
+        long hours = totalBlockedTime.toHoursPart();
+        long minutes = totalBlockedTime.toMinutesPart();
+
+        if (days > 0) {
+            return String.format("%d dias, %d horas e %d minutos", days, hours, minutes);
+        } else if (hours > 0) {
+            return String.format("%d horas e %d minutos", hours, minutes);
+        } else {
+            return String.format("%d minutos", minutes);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.dio.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * DTO com o retrato de um board reconstruído em uma data passada
+ *
+ * @param board Colunas com os cards que estavam nelas na data; a última movimentação de cada card é a
+ *              entrada dele na coluna e os cards ficam na ordem de entrada
+ * @param asOf Data consultada
+ * @param checkpointAt Data do checkpoint usado como ponto de partida, ou null se o histórico foi lido desde o início
+ * @param replayedEvents Eventos do histórico aplicados depois do checkpoint
+ */
+public record BoardAsOfDTO(
+        BoardSnapshotDTO board,
+        LocalDateTime asOf,
+        LocalDateTime checkpointAt,
+        long replayedEvents
+) {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    /**
+     * @return Data do checkpoint formatada, ou "nenhum" se não houve checkpoint
+     */
+    public String getFormattedCheckpointAt() {
+        return nonNull(checkpointAt) ? checkpointAt.format(DATE_FORMATTER) : "nenhum";
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.dio.dto;
+
+/**
+ * DTO com o resultado da exportação ou da restauração de um board
+ */
+public record BoardBackupResultDTO(
+        Long boardId,
+        String file,
+        long columns,
+        long cards,
+        long blocks,
+        long history,
+        long bytes,
+        long elapsedMs
+) {
+}
@@ -0,0 +1,16 @@
+package br.com.dio.dto;
+
+/**
+ * Checkpoint do estado de um board, no formato de {@link br.com.dio.service.history.BoardState#encode()}
+ *
+ * @param takenAt Instante do checkpoint em epoch seconds; o estado inclui todos os eventos até ele
+ * @param events Quantidade de eventos do board aplicados até o checkpoint
+ * @param state Estado comprimido
+ */
+public record BoardCheckpointDTO(
+        Long boardId,
+        long takenAt,
+        long events,
+        byte[] state
+) {
+}
@@ -0,0 +1,7 @@
+package br.com.dio.dto;
+
+/**
+ * DTO com o resultado da cópia de um board
+ */
+public record BoardCloneResultDTO(Long boardId, int columns, int cards, long elapsedMs) {
+}
@@ -0,0 +1,14 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.util.List;
+
+/**
+ * Coluna com os seus cards, para leitura
+ */
+public record BoardColumnCardsDTO(long id,
+                                  String name,
+                                  BoardColumnKindEnum kind,
+                                  List<ColumnCardDTO> cards) {
+}
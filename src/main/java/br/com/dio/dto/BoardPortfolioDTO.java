@@ -0,0 +1,37 @@
+package br.com.dio.dto;
+
+import java.time.Duration;
+
+/**
+ * DTO com os indicadores de um board no painel de portfólio
+ */
+public record BoardPortfolioDTO(
+        Long boardId,
+        String name,
+        int cards,
+        int wip,
+        int blocked,
+        int throughput,
+        Duration averageLeadTime
+) {
+    /**
+     * Retorna o lead time médio formatado ou "-" se nenhum card foi concluído na janela
+     * @return String com a duração formatada em dias e horas
+     */
+    public String getFormattedAverageLeadTime() {
+        if (throughput == 0) {
+            return "-";
+        }
+        long days = averageLeadTime.toDays();
+        long hours = averageLeadTime.toHoursPart();
+        long minutes = averageLeadTime.toMinutesPart();
+
+        if (days > 0) {
+            return String.format("%dd %dh", days, hours);
+        } else if (hours > 0) {
+            return String.format("%dh %dmin", hours, minutes);
+        } else {
+            return String.format("%dmin", minutes);
+        }
+    }
+}
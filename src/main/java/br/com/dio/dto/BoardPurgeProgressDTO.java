@@ -0,0 +1,24 @@
+package br.com.dio.dto;
+
+/**
+ * DTO com o andamento da remoção em segundo plano de um board excluído
+ */
+public record BoardPurgeProgressDTO(
+        Long boardId,
+        String name,
+        long totalRows,
+        long purgedRows,
+        double rowsPerSecond,
+        boolean finished
+) {
+    /**
+     * Retorna o percentual removido, limitado a 100% pois o total é estimado no início da remoção
+     * @return Percentual entre 0 e 100
+     */
+    public double getPercent() {
+        if (finished || totalRows == 0) {
+            return finished ? 100 : 0;
+        }
+        return Math.min(100, purgedRows * 100.0 / totalRows);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+/**
+ * Retrato completo de um board (colunas e cards) carregado em uma única consulta
+ */
+public record BoardSnapshotDTO(Long id,
+                               String name,
+                               List<ColumnSnapshotDTO> columns) {
+
+    /**
+     * Retorna o total de cards do board
+     * @return quantidade de cards em todas as colunas
+     */
+    public int getTotalCards() {
+        return columns.stream().mapToInt(ColumnSnapshotDTO::getCardsAmount).sum();
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.dio.dto;
+
+/**
+ * DTO com um template de board e a quantidade de colunas que ele define
+ */
+public record BoardTemplateDTO(Long id, String name, int columns) {
+}
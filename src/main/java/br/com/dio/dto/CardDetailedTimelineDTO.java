@@ -11,7 +11,8 @@ public record CardDetailedTimelineDTO(
         String cardTitle,
         CardCompletionTimeDTO completionTime,
         List<ColumnTimeDTO> columnTimes,
-        List<CardBlockingReportDTO> blockingHistory
+        List<CardBlockingReportDTO> blockingHistory,
+        List<CardTimelineEventDTO> events
 ) {
     /**
      * Verifica se o card foi concluído
@@ -38,4 +39,14 @@ public record CardDetailedTimelineDTO(
                 .map(CardBlockingReportDTO::blockedTime)
                 .reduce(Duration.ZERO, Duration::plus);
     }
+
+    /**
+     * Calcula o tempo em que o card esteve nas colunas sem estar bloqueado
+     * @return Duration com o tempo de permanência descontados os bloqueios
+     */
+    public Duration getTotalActiveTime() {
+        return columnTimes.stream()
+                .map(c -> c.timeSpent().minus(c.blockedTime()))
+                .reduce(Duration.ZERO, Duration::plus);
+    }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ public record CardDetailsDTO(Long id,
                              String blockReason,
                              int blocksAmount,
                              Long columnId,
-                             String columnName
+                             String columnName,
+                             Long boardId
 ) {
 }
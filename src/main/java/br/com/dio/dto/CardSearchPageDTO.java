@@ -0,0 +1,15 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+/**
+ * DTO que representa uma página de resultados da busca de cards, ordenada por relevância
+ */
+public record CardSearchPageDTO(
+        String query,
+        int page,
+        int pageSize,
+        List<CardSearchResultDTO> results,
+        boolean hasNextPage
+) {
+}
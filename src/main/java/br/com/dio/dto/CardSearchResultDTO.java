@@ -0,0 +1,13 @@
+package br.com.dio.dto;
+
+/**
+ * DTO que representa um card encontrado pela busca textual
+ */
+public record CardSearchResultDTO(
+        Long cardId,
+        String title,
+        Long boardId,
+        String boardName,
+        double score
+) {
+}
@@ -0,0 +1,27 @@
+package br.com.dio.dto;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Card de um {@link BoardSnapshotDTO} com status de bloqueio e data da última movimentação
+ */
+public record CardSnapshotDTO(Long id,
+                              String title,
+                              String description,
+                              boolean blocked,
+                              String blockReason,
+                              OffsetDateTime lastMovedAt) {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    /**
+     * Retorna a data da última movimentação formatada
+     * @return String formatada ou "-" se o card não tiver histórico
+     */
+    public String getFormattedLastMovedAt() {
+        return nonNull(lastMovedAt) ? lastMovedAt.format(DATE_FORMATTER) : "-";
+    }
+}
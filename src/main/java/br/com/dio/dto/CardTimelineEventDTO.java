@@ -0,0 +1,29 @@
+package br.com.dio.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * DTO que representa um evento na timeline de um card: criação, movimentação, bloqueio ou desbloqueio
+ */
+public record CardTimelineEventDTO(
+        Type type,
+        LocalDateTime occurredAt,
+        Long columnId,
+        String columnName,
+        String reason
+) {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    public enum Type {
+        CREATED, MOVED, BLOCKED, UNBLOCKED
+    }
+
+    /**
+     * Retorna a data do evento formatada
+     * @return String formatada com data e hora do evento
+     */
+    public String getFormattedOccurredAt() {
+        return occurredAt.format(DATE_FORMATTER);
+    }
+}
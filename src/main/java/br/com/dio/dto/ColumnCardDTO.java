@@ -0,0 +1,11 @@
+package br.com.dio.dto;
+
+/**
+ * Card carregado com uma coluna em {@link BoardColumnCardsDTO}. Referencia a coluna pelo id, sem
+ * montar o grafo de entidades coluna/board de cada card.
+ */
+public record ColumnCardDTO(long id,
+                            String title,
+                            String description,
+                            long boardColumnId) {
+}
@@ -0,0 +1,39 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.util.List;
+
+/**
+ * Coluna de um {@link BoardSnapshotDTO} com os cards que estão nela
+ */
+public record ColumnSnapshotDTO(Long id,
+                                String name,
+                                int order,
+                                BoardColumnKindEnum kind,
+                                Integer wipLimit,
+                                List<CardSnapshotDTO> cards) {
+
+    /**
+     * Retorna a quantidade de cards na coluna
+     * @return quantidade de cards
+     */
+    public int getCardsAmount() {
+        return cards.size();
+    }
+
+    /**
+     * @return true se a coluna tiver limite de WIP e ele já tiver sido atingido
+     */
+    public boolean isAtWipLimit() {
+        return wipLimit != null && cards.size() >= wipLimit;
+    }
+
+    /**
+     * Retorna a quantidade de cards bloqueados na coluna
+     * @return quantidade de cards bloqueados
+     */
+    public long getBlockedAmount() {
+        return cards.stream().filter(CardSnapshotDTO::blocked).count();
+    }
+}
@@ -8,16 +8,29 @@ import java.time.Duration;
 public record ColumnTimeDTO(
         Long columnId,
         String columnName,
-        Duration timeSpent
+        Duration timeSpent,
+        Duration blockedTime
 ) {
     /**
      * Retorna a duração do tempo na coluna formatada
      * @return String com a duração formatada em dias, horas e minutos
      */
     public String getFormattedDuration() {
-        long days = timeSpent.toDays();
-        long hours = timeSpent.toHoursPart();
-        long minutes = timeSpent.toMinutesPart();
+        return format(timeSpent);
+    }
+
+    /**
+     * Retorna o tempo bloqueado na coluna formatado
+     * @return String com a duração formatada em dias, horas e minutos
+     */
+    public String getFormattedBlockedTime() {
+        return format(blockedTime);
+    }
+
+    private static String format(final Duration duration) {
+        long days = duration.toDays();
+        long hours = duration.toHoursPart();
+        long minutes = duration.toMinutesPart();
 
         if (days > 0) {
             return String.format("%d dias, %d horas e %d minutos", days, hours, minutes);
@@ -0,0 +1,21 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+/**
+ * Ocupação de uma coluna em relação ao seu limite de WIP
+ */
+public record ColumnWipDTO(Long id,
+                           String name,
+                           BoardColumnKindEnum kind,
+                           Integer wipLimit,
+                           int cardCount) {
+
+    /**
+     * @return true se a coluna tiver limite de WIP e ele já tiver sido atingido
+     */
+    public boolean isFull() {
+        return wipLimit != null && cardCount >= wipLimit;
+    }
+
+}
@@ -0,0 +1,42 @@
+package br.com.dio.dto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO com as métricas de fluxo de um board: diagrama de fluxo cumulativo, vazão semanal,
+ * percentis de cycle time e idade do trabalho em andamento por coluna
+ *
+ * @param columnNames Nomes das colunas, na ordem do board
+ * @param firstDay Dia da primeira linha de {@code cumulativeFlow}
+ * @param cumulativeFlow Quantidade de cards em cada coluna ao fim de cada dia ({@code [dia][coluna]})
+ */
+public record FlowMetricsDTO(
+        List<String> columnNames,
+        LocalDate firstDay,
+        int[][] cumulativeFlow,
+        List<WeeklyThroughputDTO> weeklyThroughput,
+        CycleTimeDTO cycleTime,
+        List<WipAgeDTO> wipAge,
+        long processedMovements
+) {
+
+    /**
+     * Vazão de uma semana (segunda a domingo)
+     */
+    public record WeeklyThroughputDTO(LocalDate weekStart, int completedCards) {
+    }
+
+    /**
+     * Percentis do tempo entre o início do trabalho e a conclusão dos cards
+     */
+    public record CycleTimeDTO(int completedCards, Duration p50, Duration p85, Duration p95, Duration max) {
+    }
+
+    /**
+     * Idade dos cards que estão atualmente em uma coluna
+     */
+    public record WipAgeDTO(String columnName, int cards, Duration averageAge, Duration maxAge) {
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado de uma simulação de carga: a janela medida, sem o aquecimento, e as estatísticas
+ * de cada tipo de operação
+ */
+public record LoadSimulationResultDTO(
+        int users,
+        long measuredMs,
+        long operations,
+        long errors,
+        List<OperationLatencyDTO> operationStats
+) {
+
+    /**
+     * @return Operações por segundo, de todos os tipos
+     */
+    public double getThroughput() {
+        return measuredMs == 0 ? 0 : operations * 1000.0 / measuredMs;
+    }
+}
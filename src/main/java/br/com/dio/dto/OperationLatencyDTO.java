@@ -0,0 +1,17 @@
+package br.com.dio.dto;
+
+/**
+ * DTO com a vazão e os percentis de latência de um tipo de operação da simulação de carga
+ */
+public record OperationLatencyDTO(
+        String operation,
+        long count,
+        long errors,
+        double perSecond,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs
+) {
+}
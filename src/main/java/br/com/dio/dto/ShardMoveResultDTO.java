@@ -0,0 +1,16 @@
+package br.com.dio.dto;
+
+/**
+ * DTO com o resultado da mudança de um board para outro shard
+ */
+public record ShardMoveResultDTO(
+        Long boardId,
+        int fromShard,
+        int toShard,
+        long columns,
+        long cards,
+        long blocks,
+        long history,
+        long elapsedMs
+) {
+}
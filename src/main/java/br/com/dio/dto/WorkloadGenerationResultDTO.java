@@ -0,0 +1,17 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado da geração de boards sintéticos
+ */
+public record WorkloadGenerationResultDTO(
+        long seed,
+        List<Long> boardIds,
+        long columns,
+        long cards,
+        long blocks,
+        long history,
+        long elapsedMs
+) {
+}
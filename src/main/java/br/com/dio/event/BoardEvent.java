@@ -0,0 +1,33 @@
+package br.com.dio.event;
+
+/**
+ * Alteração ocorrida em um board
+ *
+ * @param type Tipo da alteração
+ * @param boardId Board afetado
+ * @param cardId Card afetado, ou null em eventos de board
+ * @param fromColumnId Coluna de origem em movimentações, ou null
+ * @param toColumnId Coluna de destino em criações e movimentações, ou null
+ * @param detail Motivo de bloqueio/desbloqueio ou nome do board, quando houver
+ * @param remote true se a alteração foi lida do banco pelo {@link ChangeFeed} (feita por outro processo),
+ *               false se foi publicada por este processo
+ */
+public record BoardEvent(BoardEventType type,
+                         Long boardId,
+                         Long cardId,
+                         Long fromColumnId,
+                         Long toColumnId,
+                         String detail,
+                         boolean remote) {
+
+    public static BoardEvent local(final BoardEventType type, final Long boardId, final Long cardId,
+                                   final Long fromColumnId, final Long toColumnId, final String detail) {
+        return new BoardEvent(type, boardId, cardId, fromColumnId, toColumnId, detail, false);
+    }
+
+    public static BoardEvent remote(final BoardEventType type, final Long boardId, final Long cardId,
+                                    final Long fromColumnId, final Long toColumnId, final String detail) {
+        return new BoardEvent(type, boardId, cardId, fromColumnId, toColumnId, detail, true);
+    }
+
+}
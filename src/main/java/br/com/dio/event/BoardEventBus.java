@@ -0,0 +1,156 @@
+package br.com.dio.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Barramento de eventos em memória do processo. Os serviços publicam aqui as alterações depois do
+ * commit e o {@link ChangeFeed} publica as alterações feitas por outros processos.
+ * <p>
+ * A entrega é síncrona, na thread de quem publica, então os ouvintes devem ser rápidos e não
+ * bloquear. Uma falha em um ouvinte não interrompe a entrega aos demais nem a operação que
+ * gerou o evento, que já foi confirmada no banco.
+ * <p>
+ * Os demais efeitos locais de uma escrita confirmada (leitura das próprias escritas, índice de busca)
+ * passam por {@link #afterCommit(Runnable)}, para seguirem o mesmo caminho dos eventos.
+ * <p>
+ * Quem junta várias operações em uma transação só confirmada no fim usa {@link #defer()}: os eventos
+ * e efeitos da thread ficam retidos, na ordem em que chegaram, e são liberados por
+ * {@link #release(List)} depois do commit. Se a transação for repetida ou desfeita, a retenção é
+ * descartada e nada do que ela guardou acontece.
+ */
+public final class BoardEventBus {
+
+    private static final BoardEventBus INSTANCE = new BoardEventBus();
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Deferral> deferrals = new ThreadLocal<>();
+
+    private BoardEventBus() {
+    }
+
+    public static BoardEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registra um ouvinte
+     *
+     * @param boardId Board de interesse, ou null para receber eventos de todos os boards
+     * @param listener Ouvinte a ser chamado a cada evento
+     * @return Inscrição, que deve ser fechada quando o ouvinte não for mais necessário
+     */
+    public Subscription subscribe(final Long boardId, final BoardEventListener listener) {
+        var subscription = new Subscription(boardId, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public void publish(final BoardEvent event) {
+        var deferral = deferrals.get();
+        if (deferral != null) {
+            deferral.pending.add(() -> publish(event));
+            return;
+        }
+        for (var subscription : subscriptions) {
+            if (isNull(subscription.boardId) || subscription.boardId.equals(event.boardId())) {
+                try {
+                    subscription.listener.onEvent(event);
+                } catch (RuntimeException ex) {
+                    System.err.println("Falha ao entregar o evento " + event.type() + ": " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Executa um efeito local de uma escrita que o chamador acabou de confirmar, ou o retém junto com os
+     * eventos se houver uma retenção aberta na thread. Como o efeito de um ouvinte, uma falha é apenas
+     * registrada: a escrita já foi confirmada.
+     *
+     * @param effect Efeito, que não deve acessar o banco
+     */
+    public void afterCommit(final Runnable effect) {
+        var deferral = deferrals.get();
+        if (deferral != null) {
+            deferral.pending.add(() -> afterCommit(effect));
+            return;
+        }
+        try {
+            effect.run();
+        } catch (RuntimeException ex) {
+            System.err.println("Falha ao aplicar um efeito depois do commit: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Libera, na ordem, os eventos e efeitos de uma retenção ({@link Deferral#pending()}) depois que a
+     * transação deles foi confirmada. Não pode ser chamado com uma retenção aberta na thread, onde tudo
+     * seria apenas retido de novo.
+     *
+     * @throws IllegalStateException se houver uma retenção aberta na thread atual
+     */
+    public void release(final List<Runnable> pending) {
+        if (deferrals.get() != null) {
+            throw new IllegalStateException("Não é possível liberar eventos com uma retenção aberta");
+        }
+        pending.forEach(Runnable::run);
+    }
+
+    /**
+     * Retém os eventos e efeitos da thread atual até o fechamento da retenção
+     *
+     * @return Retenção, que deve ser fechada na mesma thread; o que foi retido não é liberado no fechamento
+     */
+    public Deferral defer() {
+        var deferral = new Deferral(deferrals.get());
+        deferrals.set(deferral);
+        return deferral;
+    }
+
+    public final class Deferral implements AutoCloseable {
+
+        private final Deferral previous;
+        private final List<Runnable> pending = new ArrayList<>();
+
+        private Deferral(final Deferral previous) {
+            this.previous = previous;
+        }
+
+        /**
+         * @return Eventos e efeitos retidos até agora, na ordem em que chegaram, para {@link #release(List)}
+         */
+        public List<Runnable> pending() {
+            return List.copyOf(pending);
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                deferrals.remove();
+            } else {
+                deferrals.set(previous);
+            }
+        }
+    }
+
+    public final class Subscription implements AutoCloseable {
+
+        private final Long boardId;
+        private final BoardEventListener listener;
+
+        private Subscription(final Long boardId, final BoardEventListener listener) {
+            this.boardId = boardId;
+            this.listener = listener;
+        }
+
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+
+}
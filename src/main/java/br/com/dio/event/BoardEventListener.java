@@ -0,0 +1,8 @@
+package br.com.dio.event;
+
+@FunctionalInterface
+public interface BoardEventListener {
+
+    void onEvent(BoardEvent event);
+
+}
@@ -0,0 +1,7 @@
+package br.com.dio.event;
+
+public enum BoardEventType {
+
+    BOARD_CREATED, BOARD_DELETED, BOARD_RENAMED, CARD_CREATED, CARD_MOVED, CARD_CANCELED, CARD_BLOCKED, CARD_UNBLOCKED
+
+}
@@ -0,0 +1,403 @@
+package br.com.dio.event;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.shard.ShardRouter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Feed de alterações por polling para enxergar o que outros processos fizeram no banco.
+ * <p>
+ * Guarda uma marca d'água com o último id lido de {@code CARD_HISTORY} (criações e movimentações)
+ * e de {@code BLOCKS} (bloqueios), que crescem monotonicamente, e lê apenas as linhas acima dela,
+ * em lotes. Desbloqueios atualizam uma linha existente, então usam a marca
+ * {@code (unblocked_at, id)}, gravada com o relógio do banco. As linhas viram eventos remotos no
+ * {@link BoardEventBus}; as que correspondem a eventos publicados por este próprio processo são
+ * descartadas.
+ * <p>
+ * Uma transação que confirme depois de outra com id maior pode ficar abaixo da marca e não ser
+ * notificada; o feed é pensado para atualizar telas, não para auditoria. Alterações do próprio board,
+ * como a troca de nome ({@link BoardEventType#BOARD_RENAMED}), não passam por essas tabelas e só são
+ * vistas pelo processo que as fez.
+ * <p>
+ * Com shards, cada shard tem as suas marcas d'água. Um board movido de shard chega ao destino com
+ * histórico e bloqueios em ids novos, acima das marcas; por isso, com shards, linhas com data anterior
+ * ao início do feed não são notificadas.
+ * <p>
+ * Cargas em massa (restauração de backup, boards sintéticos) não são alterações a mostrar nas telas:
+ * quem as grava confirma a transação dentro de {@link #suspend(int, long)}, e o feed pula as linhas do
+ * board carregado gravadas até o fim da suspensão. As linhas dos demais boards continuam sendo notificadas.
+ */
+public final class ChangeFeed {
+
+    private static final int RECENT_LOCAL_CAPACITY = 1024;
+
+    private static final ChangeFeed INSTANCE = new ChangeFeed(
+            ApplicationProperties.getInstance().getBoolean("events.change-feed.enabled", true),
+            ApplicationProperties.getInstance().getLong("events.change-feed.poll-interval-ms", 3_000),
+            ApplicationProperties.getInstance().getInt("events.change-feed.batch-size", 500));
+
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final Set<LocalKey> recentLocal = Collections.synchronizedSet(Collections.newSetFromMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<LocalKey, Boolean> eldest) {
+                    return size() > RECENT_LOCAL_CAPACITY;
+                }
+            }));
+
+    private ScheduledExecutorService scheduler;
+    private BoardEventBus.Subscription localSubscription;
+    private final Map<Integer, Watermarks> watermarks = new HashMap<>();
+    private final List<QuietBoard> quietBoards = new CopyOnWriteArrayList<>();
+    // Uma rodada de polling e a abertura de uma suspensão não se intercalam
+    private final Object pollLock = new Object();
+
+    private ChangeFeed(final boolean enabled, final long pollIntervalMs, final int batchSize) {
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+    }
+
+    public static ChangeFeed getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Inicia o polling a partir do estado atual do banco, sem reproduzir o histórico anterior.
+     * Não faz nada se o feed estiver desabilitado ({@code events.change-feed.enabled=false}) ou já iniciado.
+     *
+     * @throws SQLException se ocorrer erro ao ler as marcas d'água iniciais
+     */
+    public synchronized void start() throws SQLException {
+        if (!enabled || nonNull(scheduler)) {
+            return;
+        }
+        for (var shard : ShardRouter.getInstance().getShardIds()) {
+            try (var connection = ConnectionConfig.getConnection(shard)) {
+                watermarks.put(shard, initWatermarks(connection));
+            }
+        }
+        localSubscription = BoardEventBus.getInstance().subscribe(null, event -> {
+            if (!event.remote()) {
+                recentLocal.add(LocalKey.of(event));
+            }
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (nonNull(scheduler)) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            localSubscription.close();
+        }
+    }
+
+    /**
+     * Suspende a notificação das linhas de um board até o {@link Suspension#close()}: as linhas do board
+     * gravadas até lá não são notificadas, e as dos demais boards seguem normalmente. Deve ser aberta
+     * antes do commit da carga em massa e fechada depois dele; espera o polling em andamento terminar.
+     * Sem o feed iniciado, não faz nada.
+     *
+     * @param shard Id do shard em que a carga é gravada
+     * @param boardId ID do board carregado
+     */
+    public Suspension suspend(final int shard, final long boardId) {
+        synchronized (this) {
+            if (isNull(scheduler)) {
+                return new Suspension(null);
+            }
+        }
+        var quiet = new QuietBoard(shard, boardId);
+        synchronized (pollLock) {
+            quietBoards.add(quiet);
+        }
+        return new Suspension(quiet);
+    }
+
+    /**
+     * Fixa o limite das suspensões já fechadas do shard nas marcas atuais do banco, que incluem as linhas
+     * da carga. Linhas do board gravadas por outros entre o commit da carga e este polling também são puladas.
+     *
+     * @return Suspensões do shard
+     */
+    private List<QuietBoard> quietBoards(final Connection connection, final int shard) throws SQLException {
+        for (var quiet : quietBoards) {
+            if (quiet.shard == shard && quiet.closed && isNull(quiet.bounds)) {
+                quiet.bounds = initWatermarks(connection);
+            }
+        }
+        return quietBoards.stream().filter(quiet -> quiet.shard == shard).toList();
+    }
+
+    /**
+     * Descarta as suspensões do shard cujas linhas já ficaram todas abaixo das marcas d'água
+     */
+    private void expire(final int shard, final Watermarks shardWatermarks) {
+        quietBoards.removeIf(quiet -> quiet.shard == shard && nonNull(quiet.bounds)
+                && quiet.bounds.history <= shardWatermarks.history
+                && quiet.bounds.block <= shardWatermarks.block
+                && !quiet.bounds.unblock.after(shardWatermarks.unblock));
+    }
+
+    private void poll() {
+        synchronized (pollLock) {
+            watermarks.forEach((shard, shardWatermarks) -> {
+                try (var connection = ConnectionConfig.getConnection(shard)) {
+                    var quiet = quietBoards(connection, shard);
+                    while (pollHistory(connection, shardWatermarks, quiet) == batchSize) {
+                        // lê o próximo lote
+                    }
+                    while (pollBlocks(connection, shardWatermarks, quiet) == batchSize) {
+                        // lê o próximo lote
+                    }
+                    while (pollUnblocks(connection, shardWatermarks, quiet) == batchSize) {
+                        // lê o próximo lote
+                    }
+                    expire(shard, shardWatermarks);
+                } catch (SQLException ex) {
+                    // Tenta de novo no próximo ciclo a partir da mesma marca d'água
+                    System.err.println("Falha ao consultar o feed de alterações do shard " + shard + ": " + ex.getMessage());
+                }
+            });
+        }
+    }
+
+    private Watermarks initWatermarks(final Connection connection) throws SQLException {
+        var sql = """
+                SELECT (SELECT COALESCE(MAX(id), 0) FROM CARD_HISTORY) history_id,
+                       (SELECT COALESCE(MAX(id), 0) FROM BLOCKS) block_id,
+                       NOW() now_at;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            var initial = new Watermarks();
+            initial.history = resultSet.getLong("history_id");
+            initial.block = resultSet.getLong("block_id");
+            initial.unblock = resultSet.getTimestamp("now_at");
+            initial.unblockId = Long.MAX_VALUE;
+            initial.notBefore = ShardRouter.getInstance().isSharded() ? initial.unblock : new Timestamp(0);
+            return initial;
+        }
+    }
+
+    private int pollHistory(final Connection connection, final Watermarks watermarks,
+                            final List<QuietBoard> quiet) throws SQLException {
+        var sql = """
+                SELECT ch.id, ch.card_id, ch.from_column_id, ch.to_column_id, bc.board_id, bc.kind
+                  FROM CARD_HISTORY ch
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = ch.to_column_id
+                 WHERE ch.id > ?
+                   AND ch.moved_at >= ?
+                 ORDER BY ch.id
+                 LIMIT ?;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, watermarks.history);
+            statement.setTimestamp(i ++, watermarks.notBefore);
+            statement.setInt(i, batchSize);
+            var resultSet = statement.executeQuery();
+            var rows = 0;
+            while (resultSet.next()) {
+                rows++;
+                watermarks.history = resultSet.getLong("ch.id");
+                var boardId = resultSet.getLong("bc.board_id");
+                if (isQuiet(quiet, boardId, bounds -> watermarks.history <= bounds.history)) {
+                    continue;
+                }
+                var fromColumnId = resultSet.getObject("ch.from_column_id") != null ? resultSet.getLong("ch.from_column_id") : null;
+                var type = fromColumnId == null ? BoardEventType.CARD_CREATED
+                        : "CANCEL".equals(resultSet.getString("bc.kind")) ? BoardEventType.CARD_CANCELED
+                        : BoardEventType.CARD_MOVED;
+                emit(BoardEvent.remote(type, boardId, resultSet.getLong("ch.card_id"),
+                        fromColumnId, resultSet.getLong("ch.to_column_id"), null));
+            }
+            return rows;
+        }
+    }
+
+    private int pollBlocks(final Connection connection, final Watermarks watermarks,
+                           final List<QuietBoard> quiet) throws SQLException {
+        var sql = """
+                SELECT bl.id, bl.card_id, bc.board_id, br.label
+                  FROM BLOCKS bl
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = bl.board_column_id
+                 INNER JOIN BLOCK_REASONS br
+                    ON br.id = bl.block_reason_id
+                 WHERE bl.id > ?
+                   AND bl.blocked_at >= ?
+                 ORDER BY bl.id
+                 LIMIT ?;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, watermarks.block);
+            statement.setTimestamp(i ++, watermarks.notBefore);
+            statement.setInt(i, batchSize);
+            var resultSet = statement.executeQuery();
+            var rows = 0;
+            while (resultSet.next()) {
+                rows++;
+                watermarks.block = resultSet.getLong("bl.id");
+                var boardId = resultSet.getLong("bc.board_id");
+                if (isQuiet(quiet, boardId, bounds -> watermarks.block <= bounds.block)) {
+                    continue;
+                }
+                emit(BoardEvent.remote(BoardEventType.CARD_BLOCKED, boardId,
+                        resultSet.getLong("bl.card_id"), null, null, resultSet.getString("br.label")));
+            }
+            return rows;
+        }
+    }
+
+    private int pollUnblocks(final Connection connection, final Watermarks watermarks,
+                             final List<QuietBoard> quiet) throws SQLException {
+        var sql = """
+                SELECT bl.id, bl.card_id, bl.unblocked_at, bc.board_id, br.label
+                  FROM BLOCKS bl
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = bl.board_column_id
+                  LEFT JOIN BLOCK_REASONS br
+                    ON br.id = bl.unblock_reason_id
+                 WHERE bl.unblocked_at >= ?
+                   AND (bl.unblocked_at > ? OR bl.id > ?)
+                 ORDER BY bl.unblocked_at, bl.id
+                 LIMIT ?;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setTimestamp(i ++, watermarks.unblock);
+            statement.setTimestamp(i ++, watermarks.unblock);
+            statement.setLong(i ++, watermarks.unblockId);
+            statement.setInt(i, batchSize);
+            var resultSet = statement.executeQuery();
+            var rows = 0;
+            while (resultSet.next()) {
+                rows++;
+                watermarks.unblock = resultSet.getTimestamp("bl.unblocked_at");
+                watermarks.unblockId = resultSet.getLong("bl.id");
+                var boardId = resultSet.getLong("bc.board_id");
+                if (isQuiet(quiet, boardId, bounds -> !watermarks.unblock.after(bounds.unblock))) {
+                    continue;
+                }
+                emit(BoardEvent.remote(BoardEventType.CARD_UNBLOCKED, boardId,
+                        resultSet.getLong("bl.card_id"), null, null, resultSet.getString("br.label")));
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * @param withinBounds Se a linha está dentro do limite de uma suspensão já fechada
+     * @return true se a linha é de um board suspenso: com a suspensão aberta, todas as linhas do board; depois
+     * de fechada, as gravadas até o fechamento
+     */
+    private static boolean isQuiet(final List<QuietBoard> quiet, final long boardId,
+                                   final Predicate<Watermarks> withinBounds) {
+        for (var board : quiet) {
+            if (board.boardId == boardId && (isNull(board.bounds) || withinBounds.test(board.bounds))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void emit(final BoardEvent event) {
+        if (!recentLocal.remove(LocalKey.of(event))) {
+            BoardEventBus.getInstance().publish(event);
+        }
+    }
+
+    /**
+     * Suspensão das notificações de um board, aberta por {@link #suspend(int, long)}
+     */
+    public final class Suspension implements AutoCloseable {
+
+        private final QuietBoard quiet;
+
+        private Suspension(final QuietBoard quiet) {
+            this.quiet = quiet;
+        }
+
+        /**
+         * Encerra a suspensão; o próximo polling do shard fixa até onde as linhas do board são puladas
+         */
+        @Override
+        public void close() {
+            if (nonNull(quiet)) {
+                quiet.closed = true;
+            }
+        }
+    }
+
+    /**
+     * Board com notificações suspensas. Enquanto {@code bounds} for null, todas as linhas do board são
+     * puladas; depois, apenas as que estão dentro das marcas gravadas em {@code bounds}.
+     */
+    private static final class QuietBoard {
+
+        private final int shard;
+        private final long boardId;
+        private volatile boolean closed;
+        private Watermarks bounds;
+
+        private QuietBoard(final int shard, final long boardId) {
+            this.shard = shard;
+            this.boardId = boardId;
+        }
+
+    }
+
+    /**
+     * Marcas d'água de um shard, lidas e atualizadas apenas pela thread do feed
+     */
+    private static final class Watermarks {
+
+        private long history;
+        private long block;
+        private Timestamp unblock;
+        private long unblockId;
+        private Timestamp notBefore;
+
+    }
+
+    /**
+     * Identifica uma alteração independentemente de ter sido publicada localmente ou lida do banco
+     */
+    private record LocalKey(BoardEventType type, Long cardId, Long toColumnId) {
+
+        private static LocalKey of(final BoardEvent event) {
+            return new LocalKey(event.type(), event.cardId(), event.toColumnId());
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package br.com.dio.exception;
+
+public class BoardMovingException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public BoardMovingException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.dio.exception;
+
+/**
+ * Indica que o banco de dados não está acessível: a conexão falhou mesmo após as novas tentativas
+ * ou o circuito está aberto e a chamada nem chegou a ser feita
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DatabaseUnavailableException(final String message) {
+        super(message);
+    }
+
+    public DatabaseUnavailableException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -1,5 +1,6 @@
 package br.com.dio.exception;
 
+import br.com.dio.ui.util.Terminal;
 import br.com.dio.ui.util.TerminalColors;
 
 import java.sql.SQLException;
@@ -18,12 +19,18 @@ public class ExceptionHandler {
     public static void handle(Exception ex) {
         if (ex instanceof SQLException) {
             handleSQLException((SQLException) ex);
+        } else if (ex instanceof DatabaseUnavailableException) {
+            handleDatabaseUnavailableException((DatabaseUnavailableException) ex);
         } else if (ex instanceof EntityNotFoundException) {
             handleEntityNotFoundException((EntityNotFoundException) ex);
         } else if (ex instanceof CardBlockedException) {
             handleCardBlockedException((CardBlockedException) ex);
         } else if (ex instanceof CardFinishedException) {
             handleCardFinishedException((CardFinishedException) ex);
+        } else if (ex instanceof WipLimitExceededException) {
+            handleWipLimitExceededException((WipLimitExceededException) ex);
+        } else if (ex instanceof BoardMovingException) {
+            handleBoardMovingException((BoardMovingException) ex);
         } else if (ex instanceof IllegalArgumentException) {
             handleIllegalArgumentException((IllegalArgumentException) ex);
         } else {
@@ -47,6 +54,16 @@ public class ExceptionHandler {
         }
     }
 
+    /**
+     * Trata a indisponibilidade do banco, sem stack trace: a causa já vem resumida na mensagem
+     *
+     * @param ex Exceção de banco indisponível
+     */
+    private static void handleDatabaseUnavailableException(DatabaseUnavailableException ex) {
+        System.out.println(TerminalColors.RED_BOLD + "Banco de dados indisponível: " + TerminalColors.RESET +
+                TerminalColors.RED + ex.getMessage() + TerminalColors.RESET);
+    }
+
     /**
      * Trata exceções de entidade não encontrada
      *
@@ -77,6 +94,26 @@ public class ExceptionHandler {
                 ex.getMessage() + TerminalColors.RESET);
     }
 
+    /**
+     * Trata exceções de limite de WIP atingido
+     *
+     * @param ex Exceção de limite de WIP atingido
+     */
+    private static void handleWipLimitExceededException(WipLimitExceededException ex) {
+        System.out.println(TerminalColors.YELLOW + "Limite de WIP atingido: " +
+                ex.getMessage() + TerminalColors.RESET);
+    }
+
+    /**
+     * Trata escritas em um board que está mudando de shard
+     *
+     * @param ex Exceção de board em mudança
+     */
+    private static void handleBoardMovingException(BoardMovingException ex) {
+        System.out.println(TerminalColors.YELLOW + "Board em manutenção: " +
+                ex.getMessage() + TerminalColors.RESET);
+    }
+
     /**
      * Trata exceções de argumento ilegal
      *
@@ -120,13 +157,6 @@ public class ExceptionHandler {
      */
     public static void handleAndWait(Exception ex) {
         handle(ex);
-
-        System.out.println("\n" + TerminalColors.YELLOW +
-                "Pressione ENTER para continuar..." + TerminalColors.RESET);
-        try {
-            System.in.read();
-        } catch (Exception e) {
-            // Ignorar exceção
-        }
+        Terminal.waitForEnter();
     }
 }
\ No newline at end of file
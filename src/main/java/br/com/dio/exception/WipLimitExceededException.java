@@ -0,0 +1,10 @@
+package br.com.dio.exception;
+
+public class WipLimitExceededException extends RuntimeException{
+
+    private static final long serialVersionUID = 1L;
+
+    public WipLimitExceededException(final String message) {
+        super(message);
+    }
+}
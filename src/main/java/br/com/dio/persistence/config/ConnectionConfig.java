@@ -1,33 +1,177 @@
 package br.com.dio.persistence.config;
 
+import br.com.dio.config.ApplicationProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.NoArgsConstructor;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static lombok.AccessLevel.PRIVATE;
 
 /**
  * Configuração de conexão com o banco de dados
- * Esta classe fornece acesso ao banco de dados MySQL hospedado no Railway
+ * Esta classe fornece conexões de um pool configurado por {@link DatabaseConfig}: conexões de escrita
+ * vêm sempre do primário e conexões de leitura podem ser roteadas para réplicas ({@link ReplicaRouter}).
+ * <p>
+ * Com shards configurados ({@code db.shards}), cada shard tem o seu próprio pool, criado no primeiro uso.
+ * O shard 0 é o banco principal; as réplicas de leitura valem apenas para ele.
  */
 @NoArgsConstructor(access = PRIVATE)
 public final class ConnectionConfig {
 
+    private static volatile HikariDataSource dataSource;
+    private static volatile ReplicaRouter replicaRouter;
+    private static final Map<Integer, HikariDataSource> SHARD_DATA_SOURCES = new ConcurrentHashMap<>();
+
     /**
-     * Obtém uma conexão com o banco de dados
+     * Obtém uma conexão com o banco de dados. Fechar a conexão a devolve para o pool.
      *
-     * @return Conexão com o banco de dados
+     * @return Conexão com o banco de dados, sem auto commit
      * @throws SQLException se ocorrer erro ao conectar ao banco
      */
     public static Connection getConnection() throws SQLException {
-        var url = "jdbc:mysql://shortline.proxy.rlwy.net:56967/railway";
-        var user = "root";
-        var password = "EVKYcvbbiapdQKkyQkcTUBcCKgQkHllZ";
-        var connection = DriverManager.getConnection(url, user, password);
-        connection.setAutoCommit(false);
+        return getDataSource().getConnection();
+    }
+
+    /**
+     * Obtém uma conexão somente leitura, de uma réplica quando houver alguma saudável e o processo não
+     * tiver escrito nos últimos {@code db.replica.read-your-writes-ms}, ou do primário caso contrário.
+     * Deve ser usada apenas por consultas que toleram o atraso de replicação.
+     *
+     * @return Conexão somente leitura, sem auto commit
+     * @throws SQLException se ocorrer erro ao conectar ao banco
+     */
+    public static Connection getReadConnection() throws SQLException {
+        return getReplicaRouter().getReadConnection();
+    }
+
+    /**
+     * Obtém uma conexão com o primário de um shard
+     *
+     * @param shard Id do shard, 0 para o banco principal
+     * @return Conexão com o shard, sem auto commit
+     * @throws SQLException se ocorrer erro ao conectar ao banco
+     * @throws IllegalArgumentException se o shard não estiver configurado
+     */
+    public static Connection getConnection(final int shard) throws SQLException {
+        return shard == 0 ? getConnection() : getShardDataSource(shard).getConnection();
+    }
+
+    /**
+     * Obtém uma conexão somente leitura de um shard. No shard 0 segue as regras de
+     * {@link #getReadConnection()}; nos demais a conexão vem do primário do shard.
+     *
+     * @param shard Id do shard, 0 para o banco principal
+     * @return Conexão somente leitura, sem auto commit
+     * @throws SQLException se ocorrer erro ao conectar ao banco
+     * @throws IllegalArgumentException se o shard não estiver configurado
+     */
+    public static Connection getReadConnection(final int shard) throws SQLException {
+        if (shard == 0) {
+            return getReadConnection();
+        }
+        var connection = getShardDataSource(shard).getConnection();
+        connection.setReadOnly(true);
         return connection;
     }
 
-}
\ No newline at end of file
+    /**
+     * @return Ids dos shards configurados, começando pelo 0
+     */
+    public static List<Integer> getShardIds() {
+        List<Integer> ids = new ArrayList<>();
+        ids.add(0);
+        ids.addAll(getDatabaseConfig().shards().keySet());
+        return ids;
+    }
+
+    /**
+     * Registra que o processo acabou de confirmar uma escrita no primário, para que as leituras
+     * seguintes enxerguem a escrita mesmo que as réplicas ainda não a tenham recebido
+     */
+    public static void recordWrite() {
+        if (nonNull(replicaRouter)) {
+            replicaRouter.recordWrite();
+        }
+    }
+
+    /**
+     * Obtém a configuração do banco em uso
+     *
+     * @return Configuração do banco
+     */
+    public static DatabaseConfig getDatabaseConfig() {
+        return DatabaseConfig.from(ApplicationProperties.getInstance());
+    }
+
+    private static HikariDataSource getDataSource() {
+        if (isNull(dataSource)) {
+            synchronized (ConnectionConfig.class) {
+                if (isNull(dataSource)) {
+                    dataSource = createDataSource(getDatabaseConfig());
+                    Runtime.getRuntime().addShutdownHook(new Thread(dataSource::close));
+                }
+            }
+        }
+        return dataSource;
+    }
+
+    private static HikariDataSource getShardDataSource(final int shard) {
+        return SHARD_DATA_SOURCES.computeIfAbsent(shard, id -> {
+            var config = getDatabaseConfig();
+            var shardDataSource = new HikariDataSource(createConfig(config, "board-shard-" + id, config.shardJdbcUrl(id)));
+            Runtime.getRuntime().addShutdownHook(new Thread(shardDataSource::close));
+            return shardDataSource;
+        });
+    }
+
+    private static ReplicaRouter getReplicaRouter() {
+        if (isNull(replicaRouter)) {
+            synchronized (ConnectionConfig.class) {
+                if (isNull(replicaRouter)) {
+                    var config = getDatabaseConfig();
+                    replicaRouter = new ReplicaRouter(getDataSource(), config, replica -> {
+                        var replicaConfig = createConfig(config, "board-replica-" + replica, config.replicaJdbcUrl(replica));
+                        replicaConfig.setReadOnly(true);
+                        // Uma réplica fora do ar não deve impedir a aplicação de subir nem segurar a leitura,
+                        // que cai para o primário
+                        replicaConfig.setInitializationFailTimeout(-1);
+                        replicaConfig.setConnectionTimeout(Math.min(config.poolConnectionTimeoutMs(), 2_000));
+                        return new HikariDataSource(replicaConfig);
+                    });
+                    Runtime.getRuntime().addShutdownHook(new Thread(replicaRouter::close));
+                }
+            }
+        }
+        return replicaRouter;
+    }
+
+    private static HikariDataSource createDataSource(final DatabaseConfig config) {
+        return new HikariDataSource(createConfig(config, "board-pool", config.jdbcUrl()));
+    }
+
+    private static HikariConfig createConfig(final DatabaseConfig config, final String poolName, final String jdbcUrl) {
+        var hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName(poolName);
+        hikariConfig.setJdbcUrl(jdbcUrl);
+        hikariConfig.setUsername(config.user());
+        hikariConfig.setPassword(config.password());
+        hikariConfig.setAutoCommit(false);
+        hikariConfig.setMaximumPoolSize(config.poolMaxSize());
+        hikariConfig.setMinimumIdle(config.poolMinIdle());
+        hikariConfig.setConnectionTimeout(config.poolConnectionTimeoutMs());
+        hikariConfig.setIdleTimeout(config.poolIdleTimeoutMs());
+        hikariConfig.setMaxLifetime(config.poolMaxLifetimeMs());
+        hikariConfig.setDataSourceProperties(config.driverProperties());
+        return hikariConfig;
+    }
+
+}
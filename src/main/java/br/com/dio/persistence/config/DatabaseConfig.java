@@ -0,0 +1,164 @@
+package br.com.dio.persistence.config;
+
+import br.com.dio.config.ApplicationProperties;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Configuração tipada de acesso ao banco de dados, montada a partir de {@link ApplicationProperties}
+ * (chaves {@code db.*}). É compartilhada pela aplicação e pelas migrations. As réplicas de leitura
+ * ({@code db.replicas}) usam o mesmo banco, usuário, senha e propriedades do driver do primário.
+ * <p>
+ * Os shards adicionais ({@code db.shards}, no formato {@code id=host:porta/banco}) usam o mesmo usuário,
+ * senha e propriedades do driver; o shard 0 é sempre o banco de {@code db.host}, que guarda o catálogo.
+ */
+public record DatabaseConfig(String host,
+                             int port,
+                             String database,
+                             String user,
+                             String password,
+                             int poolMaxSize,
+                             int poolMinIdle,
+                             long poolConnectionTimeoutMs,
+                             long poolIdleTimeoutMs,
+                             long poolMaxLifetimeMs,
+                             boolean rewriteBatchedStatements,
+                             boolean useCursorFetch,
+                             int defaultFetchSize,
+                             int connectTimeoutMs,
+                             int socketTimeoutMs,
+                             boolean useCompression,
+                             String sslMode,
+                             boolean cachePreparedStatements,
+                             int preparedStatementCacheSize,
+                             List<String> replicas,
+                             long replicaMaxLagMs,
+                             long replicaLagCheckIntervalMs,
+                             long readYourWritesWindowMs,
+                             Map<Integer, String> shards,
+                             long shardMapCacheMs) {
+
+    /**
+     * Lê a configuração do banco a partir das propriedades da aplicação
+     *
+     * @param properties Propriedades carregadas
+     * @return Configuração tipada
+     * @throws IllegalStateException se {@code db.password} não tiver sido informado
+     */
+    public static DatabaseConfig from(final ApplicationProperties properties) {
+        return new DatabaseConfig(
+                properties.getString("db.host", "localhost"),
+                properties.getInt("db.port", 3306),
+                properties.getString("db.name", "board"),
+                properties.getString("db.user", "root"),
+                properties.getRequiredString("db.password"),
+                properties.getInt("db.pool.max-size", 10),
+                properties.getInt("db.pool.min-idle", 2),
+                properties.getLong("db.pool.connection-timeout-ms", 30_000),
+                properties.getLong("db.pool.idle-timeout-ms", 600_000),
+                properties.getLong("db.pool.max-lifetime-ms", 1_800_000),
+                properties.getBoolean("db.jdbc.rewrite-batched-statements", true),
+                properties.getBoolean("db.jdbc.use-cursor-fetch", false),
+                properties.getInt("db.jdbc.default-fetch-size", 0),
+                properties.getInt("db.jdbc.connect-timeout-ms", 10_000),
+                properties.getInt("db.jdbc.socket-timeout-ms", 60_000),
+                properties.getBoolean("db.jdbc.use-compression", false),
+                properties.getString("db.jdbc.ssl-mode", "PREFERRED"),
+                properties.getBoolean("db.jdbc.cache-prepared-statements", true),
+                properties.getInt("db.jdbc.prepared-statement-cache-size", 250),
+                Stream.of(properties.getString("db.replicas", "").split(","))
+                        .map(String::trim)
+                        .filter(replica -> !replica.isEmpty())
+                        .toList(),
+                properties.getLong("db.replica.max-lag-ms", 5_000),
+                properties.getLong("db.replica.lag-check-interval-ms", 2_000),
+                properties.getLong("db.replica.read-your-writes-ms", 5_000),
+                parseShards(properties.getString("db.shards", "")),
+                properties.getLong("db.shards.map-cache-ms", 5_000)
+        );
+    }
+
+    public String jdbcUrl() {
+        return "jdbc:mysql://%s:%d/%s".formatted(host, port, database);
+    }
+
+    /**
+     * @param replica Réplica no formato {@code host} ou {@code host:porta}, como em {@code db.replicas}
+     * @return URL JDBC da réplica, com o mesmo banco do primário
+     */
+    public String replicaJdbcUrl(final String replica) {
+        return replica.contains(":") ?
+                "jdbc:mysql://%s/%s".formatted(replica, database) :
+                "jdbc:mysql://%s:%d/%s".formatted(replica, port, database);
+    }
+
+    /**
+     * @param shard Id do shard, 0 para o banco principal
+     * @return URL JDBC do shard
+     * @throws IllegalArgumentException se o shard não estiver configurado
+     */
+    public String shardJdbcUrl(final int shard) {
+        if (shard == 0) {
+            return jdbcUrl();
+        }
+        var location = shards.get(shard);
+        if (location == null) {
+            throw new IllegalArgumentException("O shard %s não está configurado em db.shards".formatted(shard));
+        }
+        var slash = location.indexOf('/');
+        var server = slash < 0 ? location : location.substring(0, slash);
+        var shardDatabase = slash < 0 ? database : location.substring(slash + 1);
+        return server.contains(":") ?
+                "jdbc:mysql://%s/%s".formatted(server, shardDatabase) :
+                "jdbc:mysql://%s:%d/%s".formatted(server, port, shardDatabase);
+    }
+
+    /**
+     * Propriedades de desempenho repassadas ao driver MySQL Connector/J
+     *
+     * @return Propriedades do driver
+     */
+    public Properties driverProperties() {
+        var props = new Properties();
+        props.setProperty("rewriteBatchedStatements", String.valueOf(rewriteBatchedStatements));
+        props.setProperty("useCursorFetch", String.valueOf(useCursorFetch));
+        props.setProperty("defaultFetchSize", String.valueOf(defaultFetchSize));
+        props.setProperty("connectTimeout", String.valueOf(connectTimeoutMs));
+        props.setProperty("socketTimeout", String.valueOf(socketTimeoutMs));
+        props.setProperty("useCompression", String.valueOf(useCompression));
+        props.setProperty("sslMode", sslMode);
+        props.setProperty("cachePrepStmts", String.valueOf(cachePreparedStatements));
+        props.setProperty("prepStmtCacheSize", String.valueOf(preparedStatementCacheSize));
+        props.setProperty("prepStmtCacheSqlLimit", "2048");
+        props.setProperty("tcpKeepAlive", "true");
+        return props;
+    }
+
+    private static Map<Integer, String> parseShards(final String value) {
+        Map<Integer, String> shards = new LinkedHashMap<>();
+        for (var entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            var parts = entry.split("=", 2);
+            int id;
+            try {
+                id = Integer.parseInt(parts[0].trim());
+            } catch (NumberFormatException ex) {
+                id = -1;
+            }
+            if (parts.length != 2 || id <= 0 || parts[1].isBlank() || shards.put(id, parts[1].trim()) != null) {
+                throw new IllegalArgumentException(
+                        "Shard inválido em db.shards: '%s' (use id=host:porta/banco, com ids positivos e distintos)"
+                                .formatted(entry.trim()));
+            }
+        }
+        return Collections.unmodifiableMap(shards);
+    }
+
+}
@@ -0,0 +1,150 @@
+package br.com.dio.persistence.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Roteia as conexões de leitura entre as réplicas configuradas em {@code db.replicas}, em rodízio.
+ * <p>
+ * Uma thread consulta periodicamente o atraso de cada réplica ({@code SHOW REPLICA STATUS}); réplicas
+ * inacessíveis, com a replicação parada ou atrasadas mais que {@code db.replica.max-lag-ms} saem do
+ * rodízio até a próxima verificação. Um servidor que não é réplica de ninguém é tratado como sem
+ * atraso, o que permite apontar para uma segunda instância local em testes.
+ * <p>
+ * Para que o usuário leia o que acabou de gravar, as leituras vão para o primário durante
+ * {@code db.replica.read-your-writes-ms} após cada escrita registrada em {@link #recordWrite()}.
+ * Sem réplicas saudáveis, as leituras também vão para o primário.
+ */
+final class ReplicaRouter {
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final long readYourWritesWindowNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService lagProbe;
+
+    private volatile long lastWriteNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    ReplicaRouter(final HikariDataSource primary, final DatabaseConfig config,
+                  final Function<String, HikariDataSource> replicaFactory) {
+        this.primary = primary;
+        this.replicas = config.replicas().stream()
+                .map(name -> new Replica(name, replicaFactory.apply(name)))
+                .toList();
+        this.maxLagMs = config.replicaMaxLagMs();
+        this.readYourWritesWindowNanos = TimeUnit.MILLISECONDS.toNanos(config.readYourWritesWindowMs());
+        if (replicas.isEmpty()) {
+            lagProbe = null;
+            return;
+        }
+        lagProbe = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "replica-lag-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A primeira verificação roda antes de qualquer leitura ir para as réplicas
+        probeLag();
+        lagProbe.scheduleWithFixedDelay(this::probeLag, config.replicaLagCheckIntervalMs(),
+                config.replicaLagCheckIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    Connection getReadConnection() throws SQLException {
+        if (!replicas.isEmpty() && System.nanoTime() - lastWriteNanos >= readYourWritesWindowNanos) {
+            var start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (var i = 0; i < replicas.size(); i++) {
+                var replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException ex) {
+                    replica.healthy = false;
+                    System.err.println("Réplica " + replica.name + " indisponível: " + ex.getMessage());
+                }
+            }
+        }
+        var connection = primary.getConnection();
+        connection.setReadOnly(true);
+        return connection;
+    }
+
+    void recordWrite() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    void close() {
+        if (lagProbe != null) {
+            lagProbe.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private void probeLag() {
+        for (var replica : replicas) {
+            try (var connection = replica.dataSource.getConnection()) {
+                var lagSeconds = readLagSeconds(connection);
+                replica.healthy = lagSeconds != null && lagSeconds * 1000 <= maxLagMs;
+                if (!replica.healthy) {
+                    System.err.println("Réplica " + replica.name + " fora do rodízio: " +
+                            (lagSeconds == null ? "replicação parada" : "atraso de " + lagSeconds + "s"));
+                }
+            } catch (SQLException ex) {
+                replica.healthy = false;
+            }
+        }
+    }
+
+    /**
+     * @return Atraso em segundos, 0 se o servidor não for réplica, ou null se a replicação estiver parada
+     */
+    private static Long readLagSeconds(final Connection connection) throws SQLException {
+        try (var statement = connection.createStatement(); var resultSet = showReplicaStatus(statement)) {
+            if (!resultSet.next()) {
+                return 0L;
+            }
+            var columns = resultSet.getMetaData();
+            for (var i = 1; i <= columns.getColumnCount(); i++) {
+                var label = columns.getColumnLabel(i);
+                if (label.equals("Seconds_Behind_Source") || label.equals("Seconds_Behind_Master")) {
+                    var lag = resultSet.getObject(i);
+                    return lag == null ? null : resultSet.getLong(i);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static ResultSet showReplicaStatus(final Statement statement) throws SQLException {
+        try {
+            return statement.executeQuery("SHOW REPLICA STATUS");
+        } catch (SQLException ex) {
+            // Servidores anteriores ao MySQL 8.0.22 só conhecem a sintaxe antiga
+            return statement.executeQuery("SHOW SLAVE STATUS");
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+
+        private Replica(final String name, final HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+}
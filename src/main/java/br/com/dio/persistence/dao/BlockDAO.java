@@ -4,9 +4,6 @@ import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.time.OffsetDateTime;
-
-import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
 
 @AllArgsConstructor
 public class BlockDAO {
@@ -14,22 +11,29 @@ public class BlockDAO {
     private final Connection connection;
 
     public void block(final String reason, final Long cardId) throws SQLException {
-        var sql = "INSERT INTO BLOCKS (blocked_at, block_reason, card_id) VALUES (?, ?, ?);";
+        var reasonId = new BlockReasonDAO(connection).findOrCreateId(reason);
+        // Usa o relógio do banco, o mesmo de CARD_HISTORY.moved_at, para que as durações sejam consistentes,
+        // e guarda a coluna em que o card estava para as agregações por coluna
+        var sql = """
+                INSERT INTO BLOCKS (blocked_at, block_reason_id, board_column_id, card_id)
+                SELECT CURRENT_TIMESTAMP, ?, c.board_column_id, c.id
+                  FROM CARDS c
+                 WHERE c.id = ?;
+                """;
         try(var statement = connection.prepareStatement(sql)){
             var i = 1;
-            statement.setTimestamp(i ++, toTimestamp(OffsetDateTime.now()));
-            statement.setString(i ++, reason);
+            statement.setLong(i ++, reasonId);
             statement.setLong(i, cardId);
             statement.executeUpdate();
         }
     }
 
     public void unblock(final String reason, final Long cardId) throws SQLException{
-        var sql = "UPDATE BLOCKS SET unblocked_at = ?, unblock_reason = ? WHERE card_id = ? AND unblock_reason IS NULL;";
+        var reasonId = new BlockReasonDAO(connection).findOrCreateId(reason);
+        var sql = "UPDATE BLOCKS SET unblocked_at = CURRENT_TIMESTAMP, unblock_reason_id = ? WHERE card_id = ? AND unblocked_at IS NULL;";
         try(var statement = connection.prepareStatement(sql)){
             var i = 1;
-            statement.setTimestamp(i ++, toTimestamp(OffsetDateTime.now()));
-            statement.setString(i ++, reason);
+            statement.setLong(i ++, reasonId);
             statement.setLong(i, cardId);
             statement.executeUpdate();
         }
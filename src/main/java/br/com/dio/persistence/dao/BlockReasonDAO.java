@@ -0,0 +1,103 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.persistence.entity.BlockReasonCategoryEnum;
+import br.com.dio.persistence.shard.ShardRouter;
+import com.mysql.cj.jdbc.StatementImpl;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Acesso ao dicionário de motivos de bloqueio. Cada motivo distinto é gravado uma única vez em
+ * {@code BLOCK_REASONS} e referenciado por id em {@code BLOCKS}.
+ * <p>
+ * Os ids já confirmados no banco ficam em cache no processo, de modo que motivos repetidos não
+ * custam consulta. Ids criados pela própria transação não entram no cache, pois a transação ainda
+ * pode ser desfeita; eles passam a ser cacheados na próxima vez em que forem lidos. Cada shard tem
+ * o seu dicionário, com ids próprios, então o cache é separado por shard.
+ */
+@AllArgsConstructor
+public class BlockReasonDAO {
+
+    private static final int CANONICAL_MAX_LENGTH = 191;
+    private static final int LABEL_MAX_LENGTH = 255;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Map<Integer, Map<String, Long>> CACHE = new ConcurrentHashMap<>();
+
+    private final Connection connection;
+
+    /**
+     * Obtém o id do motivo no dicionário, criando-o se ainda não existir
+     *
+     * @param reason Motivo como digitado pelo usuário
+     * @return ID do motivo em {@code BLOCK_REASONS}
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public long findOrCreateId(final String reason) throws SQLException {
+        var canonical = canonicalize(reason);
+        var cache = CACHE.computeIfAbsent(ShardRouter.getInstance().shardOf(connection), shard -> new ConcurrentHashMap<>());
+        var cached = cache.get(canonical);
+        if (cached != null){
+            return cached;
+        }
+        var sql = "SELECT id FROM BLOCK_REASONS WHERE canonical = ?;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setString(1, canonical);
+            var resultSet = statement.executeQuery();
+            if (resultSet.next()){
+                var id = resultSet.getLong(1);
+                cache.put(canonical, id);
+                return id;
+            }
+        }
+        return insert(canonical, toLabel(reason));
+    }
+
+    /**
+     * Reduz o motivo à forma usada para identificar duplicados: sem acentos, em minúsculas e com
+     * espaços normalizados
+     *
+     * @param reason Motivo como digitado pelo usuário
+     * @return Forma canônica do motivo
+     */
+    public static String canonicalize(final String reason) {
+        var withoutDiacritics = DIACRITICS.matcher(Normalizer.normalize(reason, Normalizer.Form.NFD)).replaceAll("");
+        var canonical = WHITESPACE.matcher(withoutDiacritics.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return truncate(canonical, CANONICAL_MAX_LENGTH);
+    }
+
+    private long insert(final String canonical, final String label) throws SQLException {
+        // Se outra transação gravou o mesmo motivo nesse meio tempo, LAST_INSERT_ID(id) devolve o id existente
+        var sql = """
+                INSERT INTO BLOCK_REASONS (canonical, label, category) VALUES (?, ?, ?)
+                    ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id);
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setString(i ++, canonical);
+            statement.setString(i ++, label);
+            statement.setString(i, BlockReasonCategoryEnum.classify(canonical).name());
+            statement.executeUpdate();
+            if (statement.isWrapperFor(StatementImpl.class)){
+                return statement.unwrap(StatementImpl.class).getLastInsertID();
+            }
+        }
+        throw new SQLException("Não foi possível obter o id do motivo de bloqueio '%s'".formatted(label));
+    }
+
+    private static String toLabel(final String reason) {
+        return truncate(WHITESPACE.matcher(reason).replaceAll(" ").trim(), LABEL_MAX_LENGTH);
+    }
+
+    private static String truncate(final String value, final int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+}
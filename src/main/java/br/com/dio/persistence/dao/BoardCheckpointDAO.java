@@ -0,0 +1,83 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.BoardCheckpointDTO;
+import br.com.dio.persistence.mapper.RowMapperFactory;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.dio.persistence.mapper.ResultSets.first;
+
+/**
+ * Checkpoints do estado dos boards em {@code BOARD_CHECKPOINTS}. As datas trafegam em epoch seconds,
+ * convertidas no banco com {@code UNIX_TIMESTAMP}/{@code FROM_UNIXTIME}, como nas métricas de fluxo.
+ */
+@AllArgsConstructor
+public class BoardCheckpointDAO {
+
+    private static final RowMapperFactory<BoardCheckpointDTO> CHECKPOINT_MAPPER = resultSet -> {
+        var boardId = resultSet.findColumn("board_id");
+        var takenAt = resultSet.findColumn("taken_at");
+        var events = resultSet.findColumn("events");
+        var state = resultSet.findColumn("state");
+        return rs -> new BoardCheckpointDTO(rs.getLong(boardId), rs.getLong(takenAt), rs.getLong(events),
+                rs.getBytes(state));
+    };
+
+    private final Connection connection;
+
+    /**
+     * Busca o checkpoint mais recente do board que não passa da data informada
+     *
+     * @param boardId ID do board
+     * @param at Data limite em epoch seconds
+     * @return O checkpoint, ou vazio se o board não tiver checkpoint até a data
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public Optional<BoardCheckpointDTO> findLatest(final Long boardId, final long at) throws SQLException {
+        var sql = """
+                SELECT board_id,
+                       UNIX_TIMESTAMP(taken_at) taken_at,
+                       events,
+                       state
+                  FROM BOARD_CHECKPOINTS
+                 WHERE board_id = ?
+                   AND taken_at <= FROM_UNIXTIME(?)
+                 ORDER BY taken_at DESC
+                 LIMIT 1;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, boardId);
+            statement.setLong(i, at);
+            return first(statement.executeQuery(), CHECKPOINT_MAPPER);
+        }
+    }
+
+    /**
+     * Grava checkpoints em lote. Um checkpoint que já exista na mesma data, gravado por outro processo,
+     * é mantido: os dois descrevem o mesmo estado.
+     *
+     * @param checkpoints Checkpoints a gravar
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void insert(final List<BoardCheckpointDTO> checkpoints) throws SQLException {
+        // Sem ";" no fim: com rewriteBatchedStatements o driver junta os comandos do lote
+        var sql = "INSERT IGNORE INTO BOARD_CHECKPOINTS (board_id, taken_at, events, state) VALUES (?, FROM_UNIXTIME(?), ?, ?)";
+        try (var statement = connection.prepareStatement(sql)) {
+            for (var checkpoint : checkpoints) {
+                var i = 1;
+                statement.setLong(i ++, checkpoint.boardId());
+                statement.setLong(i ++, checkpoint.takenAt());
+                statement.setLong(i ++, checkpoint.events());
+                statement.setBytes(i, checkpoint.state());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+}
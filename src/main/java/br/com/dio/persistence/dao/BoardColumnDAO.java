@@ -1,95 +1,140 @@
 package br.com.dio.persistence.dao;
 
-import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.dto.BoardColumnCardsDTO;
+import br.com.dio.dto.ColumnCardDTO;
+import br.com.dio.dto.ColumnWipDTO;
 import br.com.dio.persistence.entity.BoardColumnEntity;
-import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.id.IdAllocator;
+import br.com.dio.persistence.mapper.RowMapperFactory;
 import com.mysql.cj.jdbc.StatementImpl;
 import lombok.RequiredArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
-import static java.util.Objects.isNull;
+import static br.com.dio.persistence.id.IdEntityEnum.BOARD_COLUMN;
+import static br.com.dio.persistence.mapper.ResultSets.first;
+import static br.com.dio.persistence.mapper.ResultSets.getNullableInt;
+import static br.com.dio.persistence.mapper.ResultSets.list;
+import static java.util.Objects.nonNull;
 
 @RequiredArgsConstructor
 public class BoardColumnDAO {
 
+    private static final RowMapperFactory<BoardColumnEntity> COLUMN_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("id");
+        var name = resultSet.findColumn("name");
+        var order = resultSet.findColumn("order");
+        var kind = resultSet.findColumn("kind");
+        var wipLimit = resultSet.findColumn("wip_limit");
+        return rs -> {
+            var entity = new BoardColumnEntity();
+            entity.setId(rs.getLong(id));
+            entity.setName(rs.getString(name));
+            entity.setOrder(rs.getInt(order));
+            entity.setKind(findByName(rs.getString(kind)));
+            entity.setWipLimit(getNullableInt(rs, wipLimit));
+            return entity;
+        };
+    };
+
+    private static final RowMapperFactory<ColumnWipDTO> WIP_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("id");
+        var name = resultSet.findColumn("name");
+        var kind = resultSet.findColumn("kind");
+        var wipLimit = resultSet.findColumn("wip_limit");
+        var cardCount = resultSet.findColumn("card_count");
+        return rs -> new ColumnWipDTO(rs.getLong(id), rs.getString(name), findByName(rs.getString(kind)),
+                getNullableInt(rs, wipLimit), rs.getInt(cardCount));
+    };
+
     private final Connection connection;
 
     public BoardColumnEntity insert(final BoardColumnEntity entity) throws SQLException {
-        var sql = "INSERT INTO BOARDS_COLUMNS (name, `order`, kind, board_id) VALUES (?, ?, ?, ?);";
+        var id = IdAllocator.getInstance().nextId(BOARD_COLUMN);
+        var sql = "INSERT INTO BOARDS_COLUMNS (id, name, `order`, kind, wip_limit, board_id) VALUES (?, ?, ?, ?, ?, ?);";
         try(var statement = connection.prepareStatement(sql)){
             var i = 1;
+            statement.setObject(i ++, id, Types.BIGINT);
             statement.setString(i ++, entity.getName());
             statement.setInt(i ++, entity.getOrder());
             statement.setString(i ++, entity.getKind().name());
+            statement.setObject(i ++, entity.getWipLimit(), Types.INTEGER);
             statement.setLong(i, entity.getBoard().getId());
             statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
-            }
+            entity.setId(nonNull(id) ? id : statement.unwrap(StatementImpl.class).getLastInsertID());
             return entity;
         }
     }
 
-    public List<BoardColumnEntity> findByBoardId(final Long boardId) throws SQLException{
-        List<BoardColumnEntity> entities = new ArrayList<>();
-        var sql = "SELECT id, name, `order`, kind FROM BOARDS_COLUMNS WHERE board_id = ? ORDER BY `order`";
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, boardId);
-            statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            while (resultSet.next()){
-                var entity = new BoardColumnEntity();
-                entity.setId(resultSet.getLong("id"));
-                entity.setName(resultSet.getString("name"));
-                entity.setOrder(resultSet.getInt("order"));
-                entity.setKind(findByName(resultSet.getString("kind")));
-                entities.add(entity);
+    /**
+     * Insere as colunas de um board em um único lote, que o driver envia como um só INSERT
+     *
+     * @param entities Colunas, todas com o board preenchido
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void insertAll(final List<BoardColumnEntity> entities) throws SQLException {
+        if (entities.isEmpty()) {
+            return;
+        }
+        var generated = IdAllocator.getInstance().isDatabaseGenerated(BOARD_COLUMN);
+        // Sem ";" no fim: com rewriteBatchedStatements o driver junta o lote em um único INSERT
+        var sql = "INSERT INTO BOARDS_COLUMNS (id, name, `order`, kind, wip_limit, board_id) VALUES (?, ?, ?, ?, ?, ?)";
+        try(var statement = generated ?
+                connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) :
+                connection.prepareStatement(sql)){
+            for (var entity : entities) {
+                entity.setId(IdAllocator.getInstance().nextId(BOARD_COLUMN));
+                var i = 1;
+                statement.setObject(i ++, entity.getId(), Types.BIGINT);
+                statement.setString(i ++, entity.getName());
+                statement.setInt(i ++, entity.getOrder());
+                statement.setString(i ++, entity.getKind().name());
+                statement.setObject(i ++, entity.getWipLimit(), Types.INTEGER);
+                statement.setLong(i, entity.getBoard().getId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            if (generated) {
+                var keys = statement.getGeneratedKeys();
+                for (var entity : entities) {
+                    if (!keys.next()) {
+                        throw new IllegalStateException("O banco não devolveu os ids de todas as colunas");
+                    }
+                    entity.setId(keys.getLong(1));
+                }
             }
-            return entities;
         }
     }
 
-    public List<BoardColumnDTO> findByBoardIdWithDetails(final Long boardId) throws SQLException {
-        List<BoardColumnDTO> dtos = new ArrayList<>();
-        var sql =
-                """
-                SELECT bc.id,
-                       bc.name,
-                       bc.kind,
-                       (SELECT COUNT(c.id)
-                               FROM CARDS c
-                              WHERE c.board_column_id = bc.id) cards_amount
-                  FROM BOARDS_COLUMNS bc
-                 WHERE board_id = ?
-                 ORDER BY `order`;
-                """;
+    public List<BoardColumnEntity> findByBoardId(final Long boardId) throws SQLException{
+        var sql = "SELECT id, name, `order`, kind, wip_limit FROM BOARDS_COLUMNS WHERE board_id = ? ORDER BY `order`";
         try(var statement = connection.prepareStatement(sql)){
             statement.setLong(1, boardId);
             statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            while (resultSet.next()){
-                var dto = new BoardColumnDTO(
-                        resultSet.getLong("bc.id"),
-                        resultSet.getString("bc.name"),
-                        findByName(resultSet.getString("bc.kind")),
-                        resultSet.getInt("cards_amount")
-                );
-                dtos.add(dto);
-            }
-            return dtos;
+            return list(statement.getResultSet(), COLUMN_MAPPER);
         }
     }
 
-    public Optional<BoardColumnEntity> findById(final Long boardId) throws SQLException{
+    /**
+     * Carrega uma coluna com os seus cards, na ordem de rank. Cada card vira um {@link ColumnCardDTO} que referencia a
+     * coluna pelo id, então colunas grandes não alocam uma entidade de coluna e de board por card.
+     *
+     * @param id ID da coluna
+     * @return Coluna com os cards, ou vazio se não existir
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public Optional<BoardColumnCardsDTO> findById(final Long id) throws SQLException{
         var sql =
         """
-        SELECT bc.name,
+        SELECT bc.id,
+               bc.name,
                bc.kind,
                c.id,
                c.title,
@@ -97,29 +142,102 @@ public class BoardColumnDAO {
           FROM BOARDS_COLUMNS bc
           LEFT JOIN CARDS c
             ON c.board_column_id = bc.id
-         WHERE bc.id = ?;
+         WHERE bc.id = ?
+         ORDER BY c.lexo_rank;
         """;
         try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, boardId);
+            statement.setLong(1, id);
             statement.executeQuery();
             var resultSet = statement.getResultSet();
-            if (resultSet.next()){
-                var entity = new BoardColumnEntity();
-                entity.setName(resultSet.getString("bc.name"));
-                entity.setKind(findByName(resultSet.getString("bc.kind")));
-                do {
-                    var card = new CardEntity();
-                    if (isNull(resultSet.getString("c.title"))){
-                        break;
-                    }
-                    card.setId(resultSet.getLong("c.id"));
-                    card.setTitle(resultSet.getString("c.title"));
-                    card.setDescription(resultSet.getString("c.description"));
-                    entity.getCards().add(card);
-                }while (resultSet.next());
-                return Optional.of(entity);
+            if (!resultSet.next()){
+                return Optional.empty();
             }
-            return Optional.empty();
+            var columnId = resultSet.getLong(resultSet.findColumn("bc.id"));
+            var name = resultSet.getString(resultSet.findColumn("bc.name"));
+            var kind = findByName(resultSet.getString(resultSet.findColumn("bc.kind")));
+            var cardIdIndex = resultSet.findColumn("c.id");
+            var title = resultSet.findColumn("c.title");
+            var description = resultSet.findColumn("c.description");
+            List<ColumnCardDTO> cards = new ArrayList<>();
+            do {
+                var cardId = resultSet.getLong(cardIdIndex);
+                if (resultSet.wasNull()){
+                    break;
+                }
+                cards.add(new ColumnCardDTO(cardId, resultSet.getString(title), resultSet.getString(description), columnId));
+            } while (resultSet.next());
+            return Optional.of(new BoardColumnCardsDTO(columnId, name, kind, cards));
+        }
+    }
+
+    /**
+     * Reserva uma vaga para um card na coluna. O contador só é incrementado se a coluna não tiver limite ou
+     * ainda estiver abaixo dele, em um único UPDATE: a linha da coluna fica bloqueada até o fim da transação,
+     * então admissões concorrentes na mesma coluna são serializadas e o limite nunca é ultrapassado.
+     *
+     * @param id ID da coluna
+     * @return true se o card foi admitido, false se a coluna não existe ou já atingiu o limite
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public boolean admit(final Long id) throws SQLException {
+        var sql = """
+                UPDATE BOARDS_COLUMNS
+                   SET card_count = card_count + 1
+                 WHERE id = ?
+                   AND (wip_limit IS NULL OR card_count < wip_limit);
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, id);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Libera a vaga de um card que saiu da coluna
+     *
+     * @param id ID da coluna
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void release(final Long id) throws SQLException {
+        var sql = "UPDATE BOARDS_COLUMNS SET card_count = card_count - 1 WHERE id = ? AND card_count > 0;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, id);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Altera o limite de WIP de uma coluna. Um limite menor que a quantidade atual de cards não remove
+     * nenhum card, apenas impede a entrada de novos até a coluna esvaziar.
+     *
+     * @param id ID da coluna
+     * @param wipLimit Novo limite, ou null para remover o limite
+     * @return true se a coluna existe
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public boolean updateWipLimit(final Long id, final Integer wipLimit) throws SQLException {
+        var sql = "UPDATE BOARDS_COLUMNS SET wip_limit = ? WHERE id = ?;";
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setObject(i ++, wipLimit, Types.INTEGER);
+            statement.setLong(i, id);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    public Optional<ColumnWipDTO> findWipById(final Long id) throws SQLException {
+        var sql = "SELECT id, name, kind, wip_limit, card_count FROM BOARDS_COLUMNS WHERE id = ?;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, id);
+            return first(statement.executeQuery(), WIP_MAPPER);
+        }
+    }
+
+    public List<ColumnWipDTO> findWipByBoardId(final Long boardId) throws SQLException {
+        var sql = "SELECT id, name, kind, wip_limit, card_count FROM BOARDS_COLUMNS WHERE board_id = ? ORDER BY `order`;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, boardId);
+            return list(statement.executeQuery(), WIP_MAPPER);
         }
     }
 
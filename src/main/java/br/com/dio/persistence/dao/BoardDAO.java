@@ -1,21 +1,93 @@
 package br.com.dio.persistence.dao;
 
+import br.com.dio.dto.BoardSnapshotDTO;
+import br.com.dio.dto.CardSnapshotDTO;
+import br.com.dio.dto.ColumnSnapshotDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.id.IdAllocator;
+import br.com.dio.persistence.mapper.RowMapperFactory;
 import com.mysql.cj.jdbc.StatementImpl;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static br.com.dio.persistence.id.IdEntityEnum.BOARD;
+import static br.com.dio.persistence.mapper.ResultSets.first;
+import static br.com.dio.persistence.mapper.ResultSets.getNullableInt;
+import static br.com.dio.persistence.mapper.ResultSets.getOffsetDateTime;
+import static br.com.dio.persistence.mapper.ResultSets.list;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
 /**
  * Classe DAO para operações relacionadas a Boards
  */
 @AllArgsConstructor
 public class BoardDAO {
 
+    private static final RowMapperFactory<BoardEntity> BOARD_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("id");
+        var name = resultSet.findColumn("name");
+        return rs -> {
+            var entity = new BoardEntity();
+            entity.setId(rs.getLong(id));
+            entity.setName(rs.getString(name));
+            return entity;
+        };
+    };
+
+    private static final RowMapperFactory<BoardColumnEntity> COLUMN_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("bc.id");
+        var name = resultSet.findColumn("bc.name");
+        var order = resultSet.findColumn("bc.order");
+        var kind = resultSet.findColumn("bc.kind");
+        var wipLimit = resultSet.findColumn("bc.wip_limit");
+        return rs -> {
+            var column = new BoardColumnEntity();
+            column.setId(rs.getLong(id));
+            column.setName(rs.getString(name));
+            column.setOrder(rs.getInt(order));
+            column.setKind(findByName(rs.getString(kind)));
+            column.setWipLimit(getNullableInt(rs, wipLimit));
+            return column;
+        };
+    };
+
+    private static final RowMapperFactory<ColumnSnapshotDTO> COLUMN_SNAPSHOT_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("bc.id");
+        var name = resultSet.findColumn("bc.name");
+        var order = resultSet.findColumn("bc.order");
+        var kind = resultSet.findColumn("bc.kind");
+        var wipLimit = resultSet.findColumn("bc.wip_limit");
+        return rs -> new ColumnSnapshotDTO(rs.getLong(id), rs.getString(name), rs.getInt(order),
+                findByName(rs.getString(kind)), getNullableInt(rs, wipLimit), new ArrayList<>());
+    };
+
+    private static final RowMapperFactory<CardSnapshotDTO> CARD_SNAPSHOT_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("c.id");
+        var title = resultSet.findColumn("c.title");
+        var description = resultSet.findColumn("c.description");
+        var blockId = resultSet.findColumn("bl.id");
+        var blockReason = resultSet.findColumn("br.label");
+        var lastMovedAt = resultSet.findColumn("last_moved_at");
+        return rs -> {
+            var cardId = rs.getLong(id);
+            var cardTitle = rs.getString(title);
+            var cardDescription = rs.getString(description);
+            rs.getLong(blockId);
+            var blocked = !rs.wasNull();
+            return new CardSnapshotDTO(cardId, cardTitle, cardDescription, blocked, rs.getString(blockReason),
+                    getOffsetDateTime(rs, lastMovedAt));
+        };
+    };
+
     private Connection connection;
 
     /**
@@ -26,28 +98,32 @@ public class BoardDAO {
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
     public BoardEntity insert(final BoardEntity entity) throws SQLException {
-        var sql = "INSERT INTO BOARDS (name) values (?);";
+        // Com shards o id já vem reservado no catálogo (ShardRouter.reserveBoard)
+        var id = nonNull(entity.getId()) ? entity.getId() : IdAllocator.getInstance().nextId(BOARD);
+        var sql = "INSERT INTO BOARDS (id, name) values (?, ?);";
         try(var statement = connection.prepareStatement(sql)){
-            statement.setString(1, entity.getName());
+            var i = 1;
+            statement.setObject(i ++, id, Types.BIGINT);
+            statement.setString(i, entity.getName());
             statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
-            }
+            entity.setId(nonNull(id) ? id : statement.unwrap(StatementImpl.class).getLastInsertID());
         }
         return entity;
     }
 
     /**
-     * Exclui um board pelo ID
+     * Marca um board como excluído. O board deixa de aparecer nas consultas e suas colunas, cards
+     * e históricos são removidos depois pelo {@link br.com.dio.service.BoardPurger}
      *
      * @param id ID do board a ser excluído
+     * @return true se o board foi marcado, false se não existia ou já estava excluído
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
-    public void delete(final Long id) throws SQLException {
-        var sql = "DELETE FROM BOARDS WHERE id = ?;";
+    public boolean softDelete(final Long id) throws SQLException {
+        var sql = "UPDATE BOARDS SET deleted_at = CURRENT_TIMESTAMP WHERE id = ? AND deleted_at IS NULL;";
         try(var statement = connection.prepareStatement(sql)){
             statement.setLong(1, id);
-            statement.executeUpdate();
+            return statement.executeUpdate() > 0;
         }
     }
 
@@ -59,7 +135,7 @@ public class BoardDAO {
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
     public void updateName(final Long id, final String newName) throws SQLException {
-        var sql = "UPDATE BOARDS SET name = ? WHERE id = ?;";
+        var sql = "UPDATE BOARDS SET name = ? WHERE id = ? AND deleted_at IS NULL;";
         try(var statement = connection.prepareStatement(sql)){
             statement.setString(1, newName);
             statement.setLong(2, id);
@@ -75,115 +151,258 @@ public class BoardDAO {
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
     public Optional<BoardEntity> findById(final Long id) throws SQLException {
-        var sql = "SELECT id, name FROM BOARDS WHERE id = ?;";
+        var sql = "SELECT id, name FROM BOARDS WHERE id = ? AND deleted_at IS NULL;";
         try(var statement = connection.prepareStatement(sql)){
             statement.setLong(1, id);
             statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            if (resultSet.next()){
-                var entity = new BoardEntity();
-                entity.setId(resultSet.getLong("id"));
-                entity.setName(resultSet.getString("name"));
-                return Optional.of(entity);
-            }
-            return Optional.empty();
+            return first(statement.getResultSet(), BOARD_MAPPER);
         }
     }
 
     /**
-     * Lista todos os boards
+     * Busca um board pelo ID já com suas colunas, em uma única consulta
      *
-     * @return Lista de todos os boards
+     * @param id ID do board a buscar
+     * @return Optional contendo o board com as colunas ordenadas ou vazio se não encontrado
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
-    public List<BoardEntity> findAll() throws SQLException {
-        List<BoardEntity> boards = new ArrayList<>();
-        var sql = "SELECT id, name FROM BOARDS ORDER BY id;";
+    public Optional<BoardEntity> findByIdWithColumns(final Long id) throws SQLException {
+        var sql =
+                """
+                SELECT b.id,
+                       b.name,
+                       bc.id,
+                       bc.name,
+                       bc.`order`,
+                       bc.kind,
+                       bc.wip_limit
+                  FROM BOARDS b
+                  LEFT JOIN BOARDS_COLUMNS bc
+                    ON bc.board_id = b.id
+                 WHERE b.id = ?
+                   AND b.deleted_at IS NULL
+                 ORDER BY bc.`order`;
+                """;
         try(var statement = connection.prepareStatement(sql)){
-            statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            while (resultSet.next()){
-                var entity = new BoardEntity();
-                entity.setId(resultSet.getLong("id"));
-                entity.setName(resultSet.getString("name"));
-                boards.add(entity);
+            statement.setLong(1, id);
+            var resultSet = statement.executeQuery();
+            if (!resultSet.next()){
+                return Optional.empty();
             }
+            var entity = new BoardEntity();
+            entity.setId(resultSet.getLong(resultSet.findColumn("b.id")));
+            entity.setName(resultSet.getString(resultSet.findColumn("b.name")));
+            var columnId = resultSet.findColumn("bc.id");
+            var columnMapper = COLUMN_MAPPER.create(resultSet);
+            do {
+                resultSet.getLong(columnId);
+                if (resultSet.wasNull()){
+                    break;
+                }
+                var column = columnMapper.mapRow(resultSet);
+                column.setBoard(entity);
+                entity.getBoardColumns().add(column);
+            } while (resultSet.next());
+            return Optional.of(entity);
         }
-        return boards;
     }
 
     /**
-     * Verifica se um board existe pelo ID
+     * Carrega o retrato completo de um board (colunas, cards na ordem de rank, bloqueios abertos e última
+     * movimentação de cada card) em uma única consulta, sem idas ao banco por coluna ou por card. A última
+     * movimentação vem de uma agregação do histórico dos cards do board, feita uma vez, unida aos cards.
      *
-     * @param id ID do board a verificar
-     * @return true se o board existe, false caso contrário
+     * @param id ID do board
+     * @return Optional contendo o retrato do board ou vazio se não encontrado
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
-    public boolean exists(final Long id) throws SQLException {
-        var sql = "SELECT 1 FROM BOARDS WHERE id = ?;";
+    public Optional<BoardSnapshotDTO> findSnapshotById(final Long id) throws SQLException {
+        var sql =
+                """
+                SELECT b.id,
+                       b.name,
+                       bc.id,
+                       bc.name,
+                       bc.`order`,
+                       bc.kind,
+                       bc.wip_limit,
+                       c.id,
+                       c.title,
+                       c.description,
+                       bl.id,
+                       br.label,
+                       lm.last_moved_at
+                  FROM BOARDS b
+                  LEFT JOIN BOARDS_COLUMNS bc
+                    ON bc.board_id = b.id
+                  LEFT JOIN CARDS c
+                    ON c.board_column_id = bc.id
+                  LEFT JOIN BLOCKS bl
+                    ON bl.card_id = c.id
+                   AND bl.unblocked_at IS NULL
+                  LEFT JOIN BLOCK_REASONS br
+                    ON br.id = bl.block_reason_id
+                  LEFT JOIN (SELECT ch.card_id, MAX(ch.moved_at) last_moved_at
+                               FROM CARD_HISTORY ch
+                              INNER JOIN CARDS hc
+                                 ON hc.id = ch.card_id
+                              INNER JOIN BOARDS_COLUMNS hbc
+                                 ON hbc.id = hc.board_column_id
+                              WHERE hbc.board_id = ?
+                              GROUP BY ch.card_id) lm
+                    ON lm.card_id = c.id
+                 WHERE b.id = ?
+                   AND b.deleted_at IS NULL
+                 ORDER BY bc.`order`, c.lexo_rank;
+                """;
         try(var statement = connection.prepareStatement(sql)){
             statement.setLong(1, id);
-            statement.executeQuery();
-            return statement.getResultSet().next();
+            statement.setLong(2, id);
+            var resultSet = statement.executeQuery();
+            if (!resultSet.next()){
+                return Optional.empty();
+            }
+            var boardId = resultSet.getLong(resultSet.findColumn("b.id"));
+            var boardName = resultSet.getString(resultSet.findColumn("b.name"));
+            var columnIdIndex = resultSet.findColumn("bc.id");
+            var cardIdIndex = resultSet.findColumn("c.id");
+            var columnMapper = COLUMN_SNAPSHOT_MAPPER.create(resultSet);
+            var cardMapper = CARD_SNAPSHOT_MAPPER.create(resultSet);
+            List<ColumnSnapshotDTO> columns = new ArrayList<>();
+            List<CardSnapshotDTO> cards = null;
+            var currentColumnId = 0L;
+            do {
+                var columnId = resultSet.getLong(columnIdIndex);
+                if (resultSet.wasNull()){
+                    break;
+                }
+                if (isNull(cards) || columnId != currentColumnId){
+                    var column = columnMapper.mapRow(resultSet);
+                    cards = column.cards();
+                    columns.add(column);
+                    currentColumnId = columnId;
+                }
+                resultSet.getLong(cardIdIndex);
+                if (!resultSet.wasNull()){
+                    cards.add(cardMapper.mapRow(resultSet));
+                }
+            } while (resultSet.next());
+            return Optional.of(new BoardSnapshotDTO(boardId, boardName, columns));
         }
     }
 
     /**
-     * Conta o número total de boards
+     * Carrega uma única coluna de um board, com os cards na ordem de rank, os bloqueios abertos e a última
+     * movimentação de cada card, sem ler as demais colunas
      *
-     * @return Número total de boards
+     * @param boardId ID do board
+     * @param columnId ID da coluna
+     * @return Optional contendo a coluna ou vazio se ela não existir, não for do board ou o board tiver sido excluído
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
-    public int countAll() throws SQLException {
-        var sql = "SELECT COUNT(*) AS total FROM BOARDS;";
+    public Optional<ColumnSnapshotDTO> findColumnSnapshotById(final Long boardId, final Long columnId) throws SQLException {
+        var sql =
+                """
+                SELECT bc.id,
+                       bc.name,
+                       bc.`order`,
+                       bc.kind,
+                       bc.wip_limit,
+                       c.id,
+                       c.title,
+                       c.description,
+                       bl.id,
+                       br.label,
+                       lm.last_moved_at
+                  FROM BOARDS_COLUMNS bc
+                 INNER JOIN BOARDS b
+                    ON b.id = bc.board_id
+                   AND b.deleted_at IS NULL
+                  LEFT JOIN CARDS c
+                    ON c.board_column_id = bc.id
+                  LEFT JOIN BLOCKS bl
+                    ON bl.card_id = c.id
+                   AND bl.unblocked_at IS NULL
+                  LEFT JOIN BLOCK_REASONS br
+                    ON br.id = bl.block_reason_id
+                  LEFT JOIN (SELECT ch.card_id, MAX(ch.moved_at) last_moved_at
+                               FROM CARD_HISTORY ch
+                              INNER JOIN CARDS hc
+                                 ON hc.id = ch.card_id
+                              WHERE hc.board_column_id = ?
+                              GROUP BY ch.card_id) lm
+                    ON lm.card_id = c.id
+                 WHERE bc.id = ?
+                   AND bc.board_id = ?
+                 ORDER BY c.lexo_rank;
+                """;
         try(var statement = connection.prepareStatement(sql)){
-            statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            if (resultSet.next()){
-                return resultSet.getInt("total");
+            statement.setLong(1, columnId);
+            statement.setLong(2, columnId);
+            statement.setLong(3, boardId);
+            var resultSet = statement.executeQuery();
+            if (!resultSet.next()){
+                return Optional.empty();
             }
-            return 0;
+            var column = COLUMN_SNAPSHOT_MAPPER.create(resultSet).mapRow(resultSet);
+            var cardIdIndex = resultSet.findColumn("c.id");
+            var cardMapper = CARD_SNAPSHOT_MAPPER.create(resultSet);
+            do {
+                resultSet.getLong(cardIdIndex);
+                if (!resultSet.wasNull()){
+                    column.cards().add(cardMapper.mapRow(resultSet));
+                }
+            } while (resultSet.next());
+            return Optional.of(column);
         }
     }
 
     /**
-     * Busca o maior ID de board atualmente em uso
+     * Lista todos os boards
      *
-     * @return Maior ID em uso ou 0 se não houver boards
+     * @return Lista de todos os boards
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
-    public long findMaxId() throws SQLException {
-        var sql = "SELECT MAX(id) AS max_id FROM BOARDS;";
+    public List<BoardEntity> findAll() throws SQLException {
+        var sql = "SELECT id, name FROM BOARDS WHERE deleted_at IS NULL ORDER BY id;";
         try(var statement = connection.prepareStatement(sql)){
             statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            if (resultSet.next() && resultSet.getObject("max_id") != null){
-                return resultSet.getLong("max_id");
-            }
-            return 0;
+            return list(statement.getResultSet(), BOARD_MAPPER);
         }
     }
 
     /**
-     * Busca o menor ID disponível (não utilizado) para boards
+     * Verifica se um board existe pelo ID
      *
-     * @return Menor ID disponível
+     * @param id ID do board a verificar
+     * @return true se o board existe, false caso contrário
      * @throws SQLException se ocorrer erro no acesso ao banco
      */
-    public long findMinAvailableId() throws SQLException {
-        var sql = """
-            SELECT MIN(t.id + 1) AS next_id 
-            FROM (SELECT 0 AS id UNION SELECT id FROM BOARDS) t 
-            WHERE NOT EXISTS (SELECT 1 FROM BOARDS b WHERE b.id = t.id + 1) 
-            AND t.id + 1 > 0;
-        """;
+    public boolean exists(final Long id) throws SQLException {
+        var sql = "SELECT 1 FROM BOARDS WHERE id = ? AND deleted_at IS NULL;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, id);
+            statement.executeQuery();
+            return statement.getResultSet().next();
+        }
+    }
+
+    /**
+     * Conta o número total de boards
+     *
+     * @return Número total de boards
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public int countAll() throws SQLException {
+        var sql = "SELECT COUNT(*) AS total FROM BOARDS WHERE deleted_at IS NULL;";
         try(var statement = connection.prepareStatement(sql)){
             statement.executeQuery();
             var resultSet = statement.getResultSet();
-            if (resultSet.next() && resultSet.getObject("next_id") != null){
-                return resultSet.getLong("next_id");
+            if (resultSet.next()){
+                return resultSet.getInt(1);
             }
-            return 1; // Padrão se não houver lacunas
+            return 0;
         }
     }
-}
\ No newline at end of file
+
+}
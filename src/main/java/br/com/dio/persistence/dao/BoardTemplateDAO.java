@@ -0,0 +1,144 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.BoardTemplateDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.mapper.RowMapperFactory;
+import com.mysql.cj.jdbc.StatementImpl;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static br.com.dio.persistence.mapper.ResultSets.first;
+import static br.com.dio.persistence.mapper.ResultSets.getNullableInt;
+import static br.com.dio.persistence.mapper.ResultSets.list;
+
+/**
+ * Acesso aos templates de board ({@code BOARD_TEMPLATES} e {@code BOARD_TEMPLATE_COLUMNS}), que ficam
+ * no shard 0, como o catálogo de shards
+ */
+@AllArgsConstructor
+public class BoardTemplateDAO {
+
+    private static final RowMapperFactory<BoardTemplateDTO> TEMPLATE_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("id");
+        var name = resultSet.findColumn("name");
+        var columns = resultSet.findColumn("columns");
+        return rs -> new BoardTemplateDTO(rs.getLong(id), rs.getString(name), rs.getInt(columns));
+    };
+
+    private static final RowMapperFactory<BoardColumnEntity> COLUMN_MAPPER = resultSet -> {
+        var name = resultSet.findColumn("name");
+        var order = resultSet.findColumn("order");
+        var kind = resultSet.findColumn("kind");
+        var wipLimit = resultSet.findColumn("wip_limit");
+        return rs -> {
+            var entity = new BoardColumnEntity();
+            entity.setName(rs.getString(name));
+            entity.setOrder(rs.getInt(order));
+            entity.setKind(findByName(rs.getString(kind)));
+            entity.setWipLimit(getNullableInt(rs, wipLimit));
+            return entity;
+        };
+    };
+
+    private final Connection connection;
+
+    public List<BoardTemplateDTO> findAll() throws SQLException {
+        var sql = """
+                SELECT t.id, t.name, COUNT(tc.template_id) columns
+                  FROM BOARD_TEMPLATES t
+                  LEFT JOIN BOARD_TEMPLATE_COLUMNS tc
+                    ON tc.template_id = t.id
+                 GROUP BY t.id, t.name
+                 ORDER BY t.name;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            return list(statement.executeQuery(), TEMPLATE_MAPPER);
+        }
+    }
+
+    public Optional<BoardTemplateDTO> findById(final Long id) throws SQLException {
+        var sql = """
+                SELECT t.id, t.name, COUNT(tc.template_id) columns
+                  FROM BOARD_TEMPLATES t
+                  LEFT JOIN BOARD_TEMPLATE_COLUMNS tc
+                    ON tc.template_id = t.id
+                 WHERE t.id = ?
+                 GROUP BY t.id, t.name;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, id);
+            return first(statement.executeQuery(), TEMPLATE_MAPPER);
+        }
+    }
+
+    /**
+     * @param templateId ID do template
+     * @return Colunas do template, sem id e sem board, na ordem
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public List<BoardColumnEntity> findColumns(final Long templateId) throws SQLException {
+        var sql = """
+                SELECT name, `order`, kind, wip_limit
+                  FROM BOARD_TEMPLATE_COLUMNS
+                 WHERE template_id = ?
+                 ORDER BY `order`;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, templateId);
+            return list(statement.executeQuery(), COLUMN_MAPPER);
+        }
+    }
+
+    /**
+     * Grava o template e suas colunas, estas em um único lote
+     *
+     * @param name Nome do template
+     * @param columns Colunas, na ordem
+     * @return ID do template
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public long insert(final String name, final List<BoardColumnEntity> columns) throws SQLException {
+        long id;
+        try (var statement = connection.prepareStatement("INSERT INTO BOARD_TEMPLATES (name) VALUES (?);")) {
+            statement.setString(1, name);
+            statement.executeUpdate();
+            id = statement.unwrap(StatementImpl.class).getLastInsertID();
+        }
+        // Sem ";" no fim: com rewriteBatchedStatements o driver junta o lote em um único INSERT
+        var sql = "INSERT INTO BOARD_TEMPLATE_COLUMNS (template_id, `order`, name, kind, wip_limit) VALUES (?, ?, ?, ?, ?)";
+        try (var statement = connection.prepareStatement(sql)) {
+            for (var column : columns) {
+                var i = 1;
+                statement.setLong(i ++, id);
+                statement.setInt(i ++, column.getOrder());
+                statement.setString(i ++, column.getName());
+                statement.setString(i ++, column.getKind().name());
+                statement.setObject(i, column.getWipLimit(), Types.INTEGER);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return id;
+    }
+
+    public boolean existsByName(final String name) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT 1 FROM BOARD_TEMPLATES WHERE name = ?;")) {
+            statement.setString(1, name);
+            return statement.executeQuery().next();
+        }
+    }
+
+    public boolean delete(final Long id) throws SQLException {
+        try (var statement = connection.prepareStatement("DELETE FROM BOARD_TEMPLATES WHERE id = ?;")) {
+            statement.setLong(1, id);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+}
@@ -1,16 +1,25 @@
 package br.com.dio.persistence.dao;
 
 import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.CardSearchResultDTO;
+import br.com.dio.exception.EntityNotFoundException;
 import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.id.IdAllocator;
+import br.com.dio.persistence.mapper.RowMapperFactory;
+import br.com.dio.persistence.wip.WipAdmission;
 import com.mysql.cj.jdbc.StatementImpl;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.time.OffsetDateTime;
+import java.sql.Types;
+import java.util.List;
 import java.util.Optional;
 
-import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.id.IdEntityEnum.CARD;
+import static br.com.dio.persistence.mapper.ResultSets.first;
+import static br.com.dio.persistence.mapper.ResultSets.getOffsetDateTime;
+import static br.com.dio.persistence.mapper.ResultSets.list;
 import static java.util.Objects.nonNull;
 
 /**
@@ -19,6 +28,39 @@ import static java.util.Objects.nonNull;
 @AllArgsConstructor
 public class CardDAO {
 
+    private static final RowMapperFactory<CardDetailsDTO> DETAILS_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("c.id");
+        var title = resultSet.findColumn("c.title");
+        var description = resultSet.findColumn("c.description");
+        var blockId = resultSet.findColumn("b.id");
+        var blockedAt = resultSet.findColumn("b.blocked_at");
+        var blockReason = resultSet.findColumn("br.label");
+        var columnId = resultSet.findColumn("c.board_column_id");
+        var columnName = resultSet.findColumn("bc.name");
+        var boardId = resultSet.findColumn("bc.board_id");
+        var blocksAmount = resultSet.findColumn("blocks_amount");
+        return rs -> {
+            var cardId = rs.getLong(id);
+            var cardTitle = rs.getString(title);
+            var cardDescription = rs.getString(description);
+            rs.getLong(blockId);
+            var blocked = !rs.wasNull();
+            return new CardDetailsDTO(cardId, cardTitle, cardDescription, blocked, getOffsetDateTime(rs, blockedAt),
+                    rs.getString(blockReason), rs.getInt(blocksAmount), rs.getLong(columnId), rs.getString(columnName),
+                    rs.getLong(boardId));
+        };
+    };
+
+    private static final RowMapperFactory<CardSearchResultDTO> SEARCH_RESULT_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("c.id");
+        var title = resultSet.findColumn("c.title");
+        var boardId = resultSet.findColumn("b.id");
+        var boardName = resultSet.findColumn("b.name");
+        var score = resultSet.findColumn("score");
+        return rs -> new CardSearchResultDTO(rs.getLong(id), rs.getString(title), rs.getLong(boardId),
+                rs.getString(boardName), rs.getDouble(score));
+    };
+
     private Connection connection;
 
     /**
@@ -27,18 +69,24 @@ public class CardDAO {
      * @param entity Entidade do card a ser inserida
      * @return Entidade do card com ID atualizado
      * @throws SQLException se ocorrer erro no acesso ao banco
+     * @throws br.com.dio.exception.WipLimitExceededException se a coluna já atingiu o limite de WIP
      */
     public CardEntity insert(final CardEntity entity) throws SQLException {
-        var sql = "INSERT INTO CARDS (title, description, board_column_id) values (?, ?, ?);";
+        // A vaga é reservada antes de qualquer outra escrita, então uma coluna cheia recusa o card sem ter gravado nada
+        WipAdmission.getInstance().admit(new BoardColumnDAO(connection), entity.getBoardColumn().getId());
+        var id = IdAllocator.getInstance().nextId(CARD);
+        // O card entra no fim da coluna
+        var rank = new CardRankDAO(connection).rankForAppend(entity.getBoardColumn().getId());
+        var sql = "INSERT INTO CARDS (id, title, description, board_column_id, lexo_rank) values (?, ?, ?, ?, ?);";
         try(var statement = connection.prepareStatement(sql)){
             var i = 1;
+            statement.setObject(i ++, id, Types.BIGINT);
             statement.setString(i ++, entity.getTitle());
             statement.setString(i ++, entity.getDescription());
-            statement.setLong(i, entity.getBoardColumn().getId());
+            statement.setLong(i ++, entity.getBoardColumn().getId());
+            statement.setString(i, rank);
             statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
-            }
+            entity.setId(nonNull(id) ? id : statement.unwrap(StatementImpl.class).getLastInsertID());
 
             // Registra a criação do card no histórico (considera como primeira movimentação)
             registerInitialPlacement(entity.getId(), entity.getBoardColumn().getId());
@@ -52,23 +100,50 @@ public class CardDAO {
      * @param columnId ID da coluna de destino
      * @param cardId ID do card a ser movido
      * @throws SQLException se ocorrer erro no acesso ao banco
+     * @throws br.com.dio.exception.WipLimitExceededException se a coluna de destino já atingiu o limite de WIP
+     * @throws IllegalStateException se o card foi movido por outra transação durante o movimento
      */
     public void moveToColumn(final Long columnId, final Long cardId) throws SQLException {
         // Primeiro, obtém a coluna atual do card
         Long currentColumnId = getCurrentColumnId(cardId);
+        if (currentColumnId == null) {
+            throw new EntityNotFoundException("O card de id %s não foi encontrado".formatted(cardId));
+        }
+
+        // Reserva a vaga no destino antes de liberar a da origem. Os bloqueios das colunas vêm antes dos
+        // bloqueios de cards, e cards só andam para colunas de ordem maior, então movimentos concorrentes
+        // tomam os bloqueios sempre na mesma ordem
+        var columnDAO = new BoardColumnDAO(connection);
+        WipAdmission.getInstance().admit(columnDAO, columnId);
+        WipAdmission.getInstance().release(columnDAO, currentColumnId);
 
         // Registra a movimentação no histórico
-        if (currentColumnId != null) {
-            registerMovement(cardId, currentColumnId, columnId);
-        }
+        registerMovement(cardId, currentColumnId, columnId);
 
-        // Atualiza a coluna do card
-        var sql = "UPDATE CARDS SET board_column_id = ? WHERE id = ?;";
+        // Atualiza a coluna do card, que entra no fim da coluna de destino, registrando a conclusão quando
+        // a coluna de destino é a final. A coluna de origem entra no filtro: se outra transação moveu o card
+        // depois da leitura acima, nada é atualizado e a vaga liberada é devolvida no rollback
+        var rank = new CardRankDAO(connection).rankForAppend(columnId);
+        var sql = """
+                UPDATE CARDS
+                   SET board_column_id = ?,
+                       lexo_rank = ?,
+                       completed_at = (SELECT IF(kind = 'FINAL', CURRENT_TIMESTAMP, NULL)
+                                         FROM BOARDS_COLUMNS
+                                        WHERE id = ?)
+                 WHERE id = ?
+                   AND board_column_id = ?;
+                """;
         try(var statement = connection.prepareStatement(sql)){
             var i = 1;
             statement.setLong(i ++, columnId);
-            statement.setLong(i, cardId);
-            statement.executeUpdate();
+            statement.setString(i ++, rank);
+            statement.setLong(i ++, columnId);
+            statement.setLong(i ++, cardId);
+            statement.setLong(i, currentColumnId);
+            if (statement.executeUpdate() == 0) {
+                throw new IllegalStateException("O card %s foi movido por outra operação".formatted(cardId));
+            }
         }
     }
 
@@ -125,7 +200,7 @@ public class CardDAO {
             statement.setLong(1, cardId);
             var resultSet = statement.executeQuery();
             if (resultSet.next()) {
-                return resultSet.getLong("board_column_id");
+                return resultSet.getLong(1);
             }
             return null;
         }
@@ -149,7 +224,7 @@ public class CardDAO {
             statement.setString(1, tableName);
             var resultSet = statement.executeQuery();
             if (resultSet.next()) {
-                return resultSet.getInt("table_exists") > 0;
+                return resultSet.getInt(1) > 0;
             }
             return false;
         }
@@ -168,10 +243,12 @@ public class CardDAO {
                 SELECT c.id,
                        c.title,
                        c.description,
+                       b.id,
                        b.blocked_at,
-                       b.block_reason,
+                       br.label,
                        c.board_column_id,
                        bc.name,
+                       bc.board_id,
                        (SELECT COUNT(sub_b.id)
                                FROM BLOCKS sub_b
                               WHERE sub_b.card_id = c.id) blocks_amount
@@ -179,6 +256,8 @@ public class CardDAO {
                   LEFT JOIN BLOCKS b
                     ON c.id = b.card_id
                    AND b.unblocked_at IS NULL
+                  LEFT JOIN BLOCK_REASONS br
+                    ON br.id = b.block_reason_id
                  INNER JOIN BOARDS_COLUMNS bc
                     ON bc.id = c.board_column_id
                   WHERE c.id = ?;
@@ -186,22 +265,153 @@ public class CardDAO {
         try(var statement = connection.prepareStatement(sql)){
             statement.setLong(1, id);
             statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            if (resultSet.next()){
-                var dto = new CardDetailsDTO(
-                        resultSet.getLong("c.id"),
-                        resultSet.getString("c.title"),
-                        resultSet.getString("c.description"),
-                        nonNull(resultSet.getString("b.block_reason")),
-                        toOffsetDateTime(resultSet.getTimestamp("b.blocked_at")),
-                        resultSet.getString("b.block_reason"),
-                        resultSet.getInt("blocks_amount"),
-                        resultSet.getLong("c.board_column_id"),
-                        resultSet.getString("bc.name")
+            return first(statement.getResultSet(), DETAILS_MAPPER);
+        }
+    }
+
+    /**
+     * Busca cards em todos os boards usando os índices FULLTEXT de título/descrição do card
+     * e de motivo de bloqueio. Cada termo precisa aparecer em ao menos um dos campos, mas não
+     * necessariamente no mesmo, e a relevância soma a do card com a de cada motivo de bloqueio
+     * distinto, uma única vez mesmo que o card tenha sido bloqueado várias vezes pelo mesmo motivo
+     *
+     * @param tokens Termos já normalizados, apenas letras e dígitos, buscados por prefixo
+     * @param limit Quantidade máxima de resultados
+     * @param offset Quantidade de resultados a pular
+     * @return Lista de cards encontrados, do mais para o menos relevante
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public List<CardSearchResultDTO> search(final List<String> tokens, final int limit, final int offset) throws SQLException {
+        // Uma linha por termo e card encontrado, em cada índice: o card fica se tiver todos os termos
+        var termMatches = new StringBuilder();
+        for (var term = 0; term < tokens.size(); term++) {
+            if (term > 0) {
+                termMatches.append(" UNION ALL ");
+            }
+            termMatches.append(
+                    """
+                    SELECT id card_id, %1$d term FROM CARDS WHERE MATCH(title, description) AGAINST (? IN BOOLEAN MODE) \
+                    UNION ALL \
+                    SELECT bl.card_id, %1$d FROM BLOCK_REASONS br INNER JOIN BLOCKS bl ON bl.block_reason_id = br.id \
+                    WHERE MATCH(br.label) AGAINST (? IN BOOLEAN MODE)""".formatted(term));
+        }
+        var sql =
+                """
+                SELECT c.id,
+                       c.title,
+                       b.id,
+                       b.name,
+                       MATCH(c.title, c.description) AGAINST (? IN BOOLEAN MODE) + COALESCE(r.score, 0) score
+                  FROM (SELECT t.card_id
+                          FROM (%s) t
+                         GROUP BY t.card_id
+                        HAVING COUNT(DISTINCT t.term) = ?) m
+                 INNER JOIN CARDS c
+                    ON c.id = m.card_id
+                  LEFT JOIN (SELECT d.card_id,
+                                    SUM(d.score) score
+                               FROM (SELECT DISTINCT bl.card_id,
+                                            br.id,
+                                            MATCH(br.label) AGAINST (? IN BOOLEAN MODE) score
+                                       FROM BLOCK_REASONS br
+                                      INNER JOIN BLOCKS bl
+                                         ON bl.block_reason_id = br.id
+                                      WHERE MATCH(br.label) AGAINST (? IN BOOLEAN MODE)) d
+                              GROUP BY d.card_id) r
+                    ON r.card_id = c.id
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                 INNER JOIN BOARDS b
+                    ON b.id = bc.board_id
+                 WHERE b.deleted_at IS NULL
+                 ORDER BY score DESC, c.id
+                 LIMIT ? OFFSET ?;
+                """.formatted(termMatches);
+        var anyTerm = prefixQuery(tokens);
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setString(i ++, anyTerm);
+            for (var token : tokens) {
+                var term = prefixQuery(List.of(token));
+                statement.setString(i ++, term);
+                statement.setString(i ++, term);
+            }
+            statement.setInt(i ++, tokens.size());
+            statement.setString(i ++, anyTerm);
+            statement.setString(i ++, anyTerm);
+            statement.setInt(i ++, limit);
+            statement.setInt(i, offset);
+            return list(statement.executeQuery(), SEARCH_RESULT_MAPPER);
+        }
+    }
+
+    /**
+     * Monta uma expressão BOOLEAN MODE em que cada termo é buscado por prefixo. Sem o operador
+     * {@code +}, basta um dos termos para o registro ser encontrado e pontuar.
+     */
+    private static String prefixQuery(final List<String> tokens) {
+        var builder = new StringBuilder();
+        for (var token : tokens) {
+            if (!builder.isEmpty()) {
+                builder.append(' ');
+            }
+            builder.append(token).append('*');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Lista todos os cards com o board a que pertencem e seus motivos de bloqueio,
+     * usado para carregar o índice de busca em memória
+     *
+     * @param consumer Recebe uma linha por card ou por bloqueio do card
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void forEachSearchableCard(final SearchableCardConsumer consumer) throws SQLException {
+        var sql =
+                """
+                SELECT c.id,
+                       c.title,
+                       c.description,
+                       b.id,
+                       b.name,
+                       br.label
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                 INNER JOIN BOARDS b
+                    ON b.id = bc.board_id
+                  LEFT JOIN BLOCKS bl
+                    ON bl.card_id = c.id
+                  LEFT JOIN BLOCK_REASONS br
+                    ON br.id = bl.block_reason_id
+                 WHERE b.deleted_at IS NULL
+                 ORDER BY c.id;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            var resultSet = statement.executeQuery();
+            var cardId = resultSet.findColumn("c.id");
+            var title = resultSet.findColumn("c.title");
+            var description = resultSet.findColumn("c.description");
+            var boardId = resultSet.findColumn("b.id");
+            var boardName = resultSet.findColumn("b.name");
+            var blockReason = resultSet.findColumn("br.label");
+            while (resultSet.next()){
+                consumer.accept(
+                        resultSet.getLong(cardId),
+                        resultSet.getString(title),
+                        resultSet.getString(description),
+                        resultSet.getLong(boardId),
+                        resultSet.getString(boardName),
+                        resultSet.getString(blockReason)
                 );
-                return Optional.of(dto);
             }
         }
-        return Optional.empty();
     }
-}
\ No newline at end of file
+
+    @FunctionalInterface
+    public interface SearchableCardConsumer {
+        void accept(long cardId, String title, String description, long boardId, String boardName,
+                    String blockReason);
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.persistence.rank.LexoRank;
+import br.com.dio.persistence.rank.RankRebalancer;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Atribuição dos ranks que ordenam os cards dentro de cada coluna ({@code CARDS.lexo_rank}).
+ * <p>
+ * Toda operação que escolhe um rank bloqueia antes a linha da coluna em {@code BOARDS_COLUMNS}, então
+ * duas transações nunca calculam o mesmo rank para a mesma coluna e o índice único
+ * {@code (board_column_id, lexo_rank)} não é violado. As leituras de vizinhos usam esse índice.
+ * <p>
+ * Essas leituras são feitas com {@code FOR UPDATE}: em REPEATABLE READ uma leitura comum usaria o
+ * snapshot aberto pela primeira consulta da transação, que pode ser anterior ao bloqueio da coluna, e
+ * não veria os ranks gravados por quem tinha o bloqueio antes.
+ */
+@AllArgsConstructor
+public class CardRankDAO {
+
+    private final Connection connection;
+
+    /**
+     * Calcula o rank de um card que vai entrar no fim da coluna. Deve ser chamado na mesma transação
+     * que grava o card, que mantém a coluna bloqueada até o commit.
+     *
+     * @param columnId ID da coluna de destino
+     * @return Rank depois do último card da coluna
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public String rankForAppend(final long columnId) throws SQLException {
+        lockColumn(columnId);
+        var rank = LexoRank.between(findLastRank(columnId), null);
+        if (rank.length() > LexoRank.MAX_LENGTH) {
+            respaceLocked(columnId);
+            rank = LexoRank.between(findLastRank(columnId), null);
+        }
+        RankRebalancer.getInstance().onRankAssigned(connection, columnId, rank);
+        return rank;
+    }
+
+    /**
+     * Move um card para logo depois de outro na mesma coluna, alterando apenas o rank dele
+     *
+     * @param cardId ID do card a reposicionar
+     * @param columnId ID da coluna do card
+     * @param previousCardId ID do card que deve ficar imediatamente antes, ou null para o topo da coluna
+     * @return true se o rank foi alterado, false se o card já estava na posição
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     * @throws IllegalStateException se algum dos cards não estiver mais na coluna
+     */
+    public boolean moveAfter(final long cardId, final long columnId, final Long previousCardId) throws SQLException {
+        lockColumn(columnId);
+        var currentRank = findRank(cardId, columnId);
+        var previousRank = isNull(previousCardId) ? null : findRank(previousCardId, columnId);
+        var nextRank = findNextRank(columnId, previousRank, cardId);
+        var inPlace = (isNull(previousRank) || currentRank.compareTo(previousRank) > 0) &&
+                (isNull(nextRank) || currentRank.compareTo(nextRank) < 0);
+        if (inPlace) {
+            return false;
+        }
+        var rank = LexoRank.between(previousRank, nextRank);
+        if (rank.length() > LexoRank.MAX_LENGTH) {
+            respaceLocked(columnId);
+            previousRank = isNull(previousCardId) ? null : findRank(previousCardId, columnId);
+            rank = LexoRank.between(previousRank, findNextRank(columnId, previousRank, cardId));
+        }
+        var sql = "UPDATE CARDS SET lexo_rank = ? WHERE id = ?;";
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setString(i ++, rank);
+            statement.setLong(i, cardId);
+            statement.executeUpdate();
+        }
+        RankRebalancer.getInstance().onRankAssigned(connection, columnId, rank);
+        return true;
+    }
+
+    /**
+     * Redistribui os ranks de uma coluna com {@link LexoRank#spaced(int)}, mantendo a ordem atual
+     *
+     * @param columnId ID da coluna
+     * @return Quantidade de cards da coluna
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public int respace(final long columnId) throws SQLException {
+        lockColumn(columnId);
+        return respaceLocked(columnId);
+    }
+
+    private int respaceLocked(final long columnId) throws SQLException {
+        List<Long> cardIds = new ArrayList<>();
+        var selectSql = "SELECT id FROM CARDS WHERE board_column_id = ? ORDER BY lexo_rank FOR UPDATE;";
+        try (var statement = connection.prepareStatement(selectSql)) {
+            statement.setLong(1, columnId);
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                cardIds.add(resultSet.getLong(1));
+            }
+        }
+        if (cardIds.isEmpty()) {
+            return 0;
+        }
+        // Os ranks novos podem coincidir com antigos de outros cards, o que o índice único recusaria no meio
+        // da atualização; por isso todos passam antes por um valor provisório único ('~' é maior que os dígitos)
+        var clearSql = "UPDATE CARDS SET lexo_rank = CONCAT('~', id) WHERE board_column_id = ?;";
+        try (var statement = connection.prepareStatement(clearSql)) {
+            statement.setLong(1, columnId);
+            statement.executeUpdate();
+        }
+        var ranks = LexoRank.spaced(cardIds.size());
+        // Sem ";" no fim: com rewriteBatchedStatements o driver junta os comandos do lote com ";"
+        var updateSql = "UPDATE CARDS SET lexo_rank = ? WHERE id = ?";
+        try (var statement = connection.prepareStatement(updateSql)) {
+            for (var i = 0; i < cardIds.size(); i++) {
+                statement.setString(1, ranks.get(i));
+                statement.setLong(2, cardIds.get(i));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return cardIds.size();
+    }
+
+    private void lockColumn(final long columnId) throws SQLException {
+        var sql = "SELECT id FROM BOARDS_COLUMNS WHERE id = ? FOR UPDATE;";
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, columnId);
+            if (!statement.executeQuery().next()) {
+                throw new IllegalStateException("A coluna %s não existe".formatted(columnId));
+            }
+        }
+    }
+
+    private String findLastRank(final long columnId) throws SQLException {
+        var sql = """
+                SELECT lexo_rank
+                  FROM CARDS
+                 WHERE board_column_id = ?
+                 ORDER BY lexo_rank DESC
+                 LIMIT 1
+                   FOR UPDATE;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, columnId);
+            var resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+
+    private String findRank(final long cardId, final long columnId) throws SQLException {
+        var sql = "SELECT lexo_rank FROM CARDS WHERE id = ? AND board_column_id = ? FOR UPDATE;";
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, cardId);
+            statement.setLong(i, columnId);
+            var resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
+                throw new IllegalStateException("O card %s não está na coluna %s".formatted(cardId, columnId));
+            }
+            return resultSet.getString(1);
+        }
+    }
+
+    /**
+     * @return O menor rank da coluna depois de {@code previousRank} (ou o primeiro da coluna, se null),
+     * ignorando o card que está sendo movido
+     */
+    private String findNextRank(final long columnId, final String previousRank, final long excludedCardId) throws SQLException {
+        var sql = """
+                SELECT lexo_rank
+                  FROM CARDS
+                 WHERE board_column_id = ?
+                   AND lexo_rank > ?
+                   AND id <> ?
+                 ORDER BY lexo_rank
+                 LIMIT 1
+                   FOR UPDATE;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, columnId);
+            statement.setString(i ++, nonNull(previousRank) ? previousRank : "");
+            statement.setLong(i, excludedCardId);
+            var resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.persistence.shard.ShardLocation;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static br.com.dio.persistence.mapper.ResultSets.getNullableInt;
+
+/**
+ * Acesso ao catálogo de shards ({@code BOARD_SHARDS}), que fica no shard 0. Um board sem linha no
+ * catálogo está no shard 0, o que mantém válidos os boards criados antes do sharding.
+ */
+@AllArgsConstructor
+public class ShardCatalogDAO {
+
+    private final Connection connection;
+
+    /**
+     * @param boardId ID do board
+     * @return Localização do board, ou vazio se o board não estiver no catálogo
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public Optional<ShardLocation> findByBoardId(final long boardId) throws SQLException {
+        var sql = "SELECT shard_id, moving_to FROM BOARD_SHARDS WHERE board_id = ?;";
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            var resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
+                return Optional.empty();
+            }
+            return Optional.of(new ShardLocation(resultSet.getInt(1), getNullableInt(resultSet, 2)));
+        }
+    }
+
+    /**
+     * Registra o shard de um board novo
+     *
+     * @param boardId ID reservado para o board
+     * @param shardId Shard onde o board será gravado
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void insert(final long boardId, final int shardId) throws SQLException {
+        var sql = "INSERT INTO BOARD_SHARDS (board_id, shard_id) VALUES (?, ?);";
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, boardId);
+            statement.setInt(i, shardId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Marca o início da mudança de um board para outro shard. A partir daí as escritas no board são recusadas.
+     *
+     * @param boardId ID do board
+     * @param fromShard Shard atual do board
+     * @param toShard Shard de destino
+     * @return true se a marca foi gravada, false se o board não estava no shard de origem ou já estava mudando
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public boolean markMoving(final long boardId, final int fromShard, final int toShard) throws SQLException {
+        // Boards anteriores ao catálogo não têm linha; sem linha o board está no shard 0
+        var insertSql = "INSERT IGNORE INTO BOARD_SHARDS (board_id, shard_id) VALUES (?, 0);";
+        try (var statement = connection.prepareStatement(insertSql)) {
+            statement.setLong(1, boardId);
+            statement.executeUpdate();
+        }
+        var sql = """
+                UPDATE BOARD_SHARDS
+                   SET moving_to = ?,
+                       updated_at = CURRENT_TIMESTAMP
+                 WHERE board_id = ?
+                   AND shard_id = ?
+                   AND moving_to IS NULL;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setInt(i ++, toShard);
+            statement.setLong(i ++, boardId);
+            statement.setInt(i, fromShard);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Conclui a mudança, passando o board para o shard de destino
+     *
+     * @param boardId ID do board
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void completeMove(final long boardId) throws SQLException {
+        var sql = """
+                UPDATE BOARD_SHARDS
+                   SET shard_id = moving_to,
+                       moving_to = NULL,
+                       updated_at = CURRENT_TIMESTAMP
+                 WHERE board_id = ?
+                   AND moving_to IS NOT NULL;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Desiste da mudança; o board continua no shard de origem e volta a aceitar escritas
+     *
+     * @param boardId ID do board
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void cancelMove(final long boardId) throws SQLException {
+        var sql = "UPDATE BOARD_SHARDS SET moving_to = NULL, updated_at = CURRENT_TIMESTAMP WHERE board_id = ?;";
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Remove o board do catálogo, depois que os dados dele foram removidos do seu shard
+     *
+     * @param boardId ID do board
+     * @param shardId Shard de onde o board foi removido; a linha só é apagada se o board ainda for desse shard
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void delete(final long boardId, final int shardId) throws SQLException {
+        var sql = "DELETE FROM BOARD_SHARDS WHERE board_id = ? AND shard_id = ? AND moving_to IS NULL;";
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, boardId);
+            statement.setInt(i, shardId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Conta os boards ativos de cada shard. Os boards do shard 0 que não estão no catálogo entram
+     * na contagem do shard 0.
+     *
+     * @return Quantidade de boards por shard; shards sem boards ficam de fora
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public Map<Integer, Long> countByShard() throws SQLException {
+        var sql = """
+                SELECT shard_id, COUNT(*) total
+                  FROM BOARD_SHARDS
+                 GROUP BY shard_id
+                 UNION ALL
+                SELECT 0, COUNT(*)
+                  FROM BOARDS b
+                 WHERE b.deleted_at IS NULL
+                   AND NOT EXISTS (SELECT 1 FROM BOARD_SHARDS s WHERE s.board_id = b.id);
+                """;
+        Map<Integer, Long> counts = new HashMap<>();
+        try (var statement = connection.prepareStatement(sql)) {
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                counts.merge(resultSet.getInt(1), resultSet.getLong(2), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+}
@@ -0,0 +1,64 @@
+package br.com.dio.persistence.entity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+
+/**
+ * Categoria de um motivo de bloqueio, deduzida por palavras-chave da forma canônica do motivo
+ */
+public enum BlockReasonCategoryEnum {
+
+    DEPENDENCY(List.of("aguardando", "depende", "dependemos", "dependencia", "dependencias", "terceiro", "terceiros",
+            "fornecedor", "fornecedores", "waiting", "depends", "dependency", "dependencies", "blocked by")),
+    REVIEW(List.of("revisao", "revisoes", "review", "reviews", "aprovacao", "approval", "validacao", "homologacao")),
+    ENVIRONMENT(List.of("ambiente", "ambientes", "servidor", "servidores", "deploy", "infra", "infraestrutura", "acesso",
+            "acessos", "permissao", "permissoes", "environment", "server", "servers", "access")),
+    REQUIREMENT(List.of("requisito", "requisitos", "definicao", "duvida", "duvidas", "escopo", "especificacao",
+            "requirement", "requirements", "scope", "spec", "specs", "specification")),
+    CAPACITY(List.of("ferias", "ausente", "ausencia", "prioridade", "prioridades", "capacidade", "vacation", "priority",
+            "capacity")),
+    OTHER(List.of());
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Map<String, BlockReasonCategoryEnum> BY_NAME = Stream.of(values())
+            .collect(toUnmodifiableMap(Enum::name, identity()));
+
+    private final List<String> keywords;
+
+    BlockReasonCategoryEnum(final List<String> keywords) {
+        this.keywords = keywords;
+    }
+
+    /**
+     * Classifica um motivo de bloqueio já canonicalizado (minúsculo e sem acentos). As palavras-chave
+     * casam com palavras inteiras do motivo, ou com uma sequência delas, para que "independente" não
+     * conte como dependência nem "preview" como revisão.
+     *
+     * @param canonical Forma canônica do motivo
+     * @return Primeira categoria com alguma palavra-chave no motivo, ou {@link #OTHER}
+     */
+    public static BlockReasonCategoryEnum classify(final String canonical) {
+        var words = " " + String.join(" ", NON_WORD.split(canonical)).trim() + " ";
+        return Stream.of(values())
+                .filter(c -> c.keywords.stream().anyMatch(keyword -> words.contains(" " + keyword + " ")))
+                .findFirst()
+                .orElse(OTHER);
+    }
+
+    public static BlockReasonCategoryEnum findByName(final String name){
+        var category = isNull(name) ? null : BY_NAME.get(name);
+        if (isNull(category)){
+            throw new NoSuchElementException("Categoria de bloqueio desconhecida: " + name);
+        }
+        return category;
+    }
+
+}
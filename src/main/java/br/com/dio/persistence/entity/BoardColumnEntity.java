@@ -7,6 +7,8 @@ import lombok.ToString;
 import java.util.ArrayList;
 import java.util.List;
 
+import static java.util.Objects.isNull;
+
 @Data
 public class BoardColumnEntity {
 
@@ -14,9 +16,23 @@ public class BoardColumnEntity {
     private String name;
     private int order;
     private BoardColumnKindEnum kind;
-    private BoardEntity board = new BoardEntity();
+    /** Máximo de cards na coluna, ou null se a coluna não tiver limite */
+    private Integer wipLimit;
+    private BoardEntity board;
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    private List<CardEntity> cards = new ArrayList<>();
+    private List<CardEntity> cards;
+
+    /**
+     * A lista é criada só quando usada; colunas carregadas apenas como referência não alocam nenhuma
+     *
+     * @return Cards da coluna
+     */
+    public List<CardEntity> getCards() {
+        if (isNull(cards)) {
+            cards = new ArrayList<>();
+        }
+        return cards;
+    }
 
 }
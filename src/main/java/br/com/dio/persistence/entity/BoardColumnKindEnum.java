@@ -1,15 +1,27 @@
 package br.com.dio.persistence.entity;
 
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 
+import static java.util.Objects.isNull;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+
 public enum BoardColumnKindEnum {
 
     INITIAL, FINAL, CANCEL, PENDING;
 
+    // Chamado a cada linha lida do banco, então a busca é feita em um mapa em vez de percorrer values()
+    private static final Map<String, BoardColumnKindEnum> BY_NAME = Stream.of(values())
+            .collect(toUnmodifiableMap(Enum::name, identity()));
+
     public static BoardColumnKindEnum findByName(final String name){
-        return Stream.of(BoardColumnKindEnum.values())
-                .filter(b -> b.name().equals(name))
-                .findFirst().orElseThrow();
+        var kind = isNull(name) ? null : BY_NAME.get(name);
+        if (isNull(kind)){
+            throw new NoSuchElementException("Tipo de coluna desconhecido: " + name);
+        }
+        return kind;
     }
 
 }
@@ -10,6 +10,7 @@ import java.util.function.Predicate;
 
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static java.util.Objects.isNull;
 
 @Data
 public class BoardEntity {
@@ -18,7 +19,19 @@ public class BoardEntity {
     private String name;
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    private List<BoardColumnEntity> boardColumns = new ArrayList<>();
+    private List<BoardColumnEntity> boardColumns;
+
+    /**
+     * A lista é criada só quando usada; boards carregados apenas como referência não alocam nenhuma
+     *
+     * @return Colunas do board
+     */
+    public List<BoardColumnEntity> getBoardColumns() {
+        if (isNull(boardColumns)) {
+            boardColumns = new ArrayList<>();
+        }
+        return boardColumns;
+    }
 
     public BoardColumnEntity getInitialColumn(){
         return getFilteredColumn(bc -> bc.getKind().equals(INITIAL));
@@ -29,7 +42,7 @@ public class BoardEntity {
     }
 
     private BoardColumnEntity getFilteredColumn(Predicate<BoardColumnEntity> filter){
-        return boardColumns.stream()
+        return getBoardColumns().stream()
                 .filter(filter)
                 .findFirst().orElseThrow();
     }
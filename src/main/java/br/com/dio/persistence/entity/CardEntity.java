@@ -8,6 +8,6 @@ public class CardEntity {
     private Long id;
     private String title;
     private String description;
-    private BoardColumnEntity boardColumn = new BoardColumnEntity();
+    private BoardColumnEntity boardColumn;
 
 }
@@ -0,0 +1,19 @@
+package br.com.dio.persistence.id;
+
+/**
+ * Estratégia {@code auto}: não gera ids, o INSERT omite o id e o banco o atribui pelo AUTO_INCREMENT.
+ * Os ids só são únicos dentro de um banco.
+ */
+public class AutoIncrementIdGenerator implements IdGenerator {
+
+    @Override
+    public Long nextId() {
+        return null;
+    }
+
+    @Override
+    public IdRange reserve(final int count) {
+        return null;
+    }
+
+}
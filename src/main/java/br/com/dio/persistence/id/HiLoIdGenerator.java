@@ -0,0 +1,87 @@
+package br.com.dio.persistence.id;
+
+import br.com.dio.persistence.config.ConnectionConfig;
+
+import java.sql.SQLException;
+
+/**
+ * Gerador hi/lo: reserva blocos de ids na tabela {@code ID_SEQUENCES} e os distribui em memória,
+ * de modo que apenas um INSERT a cada {@code blockSize} vai ao banco buscar ids.
+ * <p>
+ * A reserva roda em uma conexão própria do pool e é confirmada imediatamente, sem segurar o lock da
+ * sequência durante a transação de quem insere; ids reservados e não usados, por rollback ou pelo
+ * encerramento do processo, são simplesmente perdidos. Na primeira reserva a sequência começa acima
+ * do maior id da tabela, então a troca de {@code AUTO} para {@code HILO} não gera colisões. Todos os
+ * processos que gravam na tabela devem usar a mesma estratégia.
+ */
+public class HiLoIdGenerator implements IdGenerator {
+
+    private final IdEntityEnum entity;
+    private final int blockSize;
+
+    private long next;
+    private long limit;
+
+    public HiLoIdGenerator(final IdEntityEnum entity, final int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("O tamanho do bloco de ids deve ser positivo");
+        }
+        this.entity = entity;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public synchronized Long nextId() throws SQLException {
+        if (next >= limit) {
+            reserveBlock();
+        }
+        return next++;
+    }
+
+    /**
+     * Reserva uma faixa própria, contínua, sem consumir o bloco em uso
+     */
+    @Override
+    public IdRange reserve(final int count) throws SQLException {
+        var end = reserveIds(count);
+        return IdRange.contiguous(end - count, count);
+    }
+
+    private void reserveBlock() throws SQLException {
+        limit = reserveIds(blockSize);
+        next = limit - blockSize;
+    }
+
+    /**
+     * @return Id seguinte ao último id reservado
+     */
+    private long reserveIds(final int count) throws SQLException {
+        // O nome da tabela vem do enum, nunca de entrada do usuário
+        var initSql = """
+                INSERT IGNORE INTO ID_SEQUENCES (name, next_value)
+                SELECT ?, COALESCE(MAX(id), 0) + 1 FROM %s;
+                """.formatted(entity.getTable());
+        var reserveSql = "UPDATE ID_SEQUENCES SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?;";
+        try (var connection = ConnectionConfig.getConnection()) {
+            try (var statement = connection.prepareStatement(initSql)) {
+                statement.setString(1, entity.getTable());
+                statement.executeUpdate();
+            }
+            try (var statement = connection.prepareStatement(reserveSql)) {
+                var i = 1;
+                statement.setInt(i ++, count);
+                statement.setString(i, entity.getTable());
+                statement.executeUpdate();
+            }
+            long end;
+            try (var statement = connection.prepareStatement("SELECT LAST_INSERT_ID();")) {
+                var resultSet = statement.executeQuery();
+                resultSet.next();
+                end = resultSet.getLong(1);
+            }
+            connection.commit();
+            return end;
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package br.com.dio.persistence.id;
+
+import br.com.dio.config.ApplicationProperties;
+
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Ponto único de alocação de ids. A estratégia de cada entidade vem da configuração
+ * ({@code ids.board.strategy}, {@code ids.board-column.strategy}, {@code ids.card.strategy}), com
+ * {@code auto} como padrão; {@code ids.hilo.block-size} e {@code ids.node-id} ajustam os geradores
+ * {@code hilo} e {@code time-ordered}.
+ * <p>
+ * Como nenhuma estratégia reaproveita ids, excluir registros não exige ajustar contadores.
+ */
+public final class IdAllocator {
+
+    private static final IdAllocator INSTANCE = new IdAllocator(ApplicationProperties.getInstance());
+
+    private final Map<IdEntityEnum, IdGenerator> generators = new EnumMap<>(IdEntityEnum.class);
+    private final Map<IdEntityEnum, IdStrategyEnum> strategies = new EnumMap<>(IdEntityEnum.class);
+
+    private IdAllocator(final ApplicationProperties properties) {
+        var blockSize = properties.getInt("ids.hilo.block-size", 50);
+        // Um único gerador por processo, para que entidades diferentes não repitam a sequência
+        var timeOrdered = new TimeOrderedIdGenerator(properties.getLong("ids.node-id", 0));
+        for (var entity : IdEntityEnum.values()) {
+            var strategy = IdStrategyEnum.findByName(
+                    properties.getString("ids." + entity.getConfigKey() + ".strategy", "auto"));
+            strategies.put(entity, strategy);
+            generators.put(entity, switch (strategy) {
+                case AUTO -> new AutoIncrementIdGenerator();
+                case HILO -> new HiLoIdGenerator(entity, blockSize);
+                case TIME_ORDERED -> timeOrdered;
+            });
+        }
+    }
+
+    public static IdAllocator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param entity Entidade que será inserida
+     * @return Id a ser gravado no INSERT, ou null para usar o AUTO_INCREMENT do banco
+     * @throws SQLException se ocorrer erro ao reservar ids no banco
+     */
+    public Long nextId(final IdEntityEnum entity) throws SQLException {
+        return generators.get(entity).nextId();
+    }
+
+    /**
+     * Reserva os ids de um {@code INSERT ... SELECT}, em que as linhas recebem os ids da faixa na ordem
+     * em que são selecionadas
+     *
+     * @param entity Entidade que será inserida
+     * @param count Quantidade de linhas
+     * @return Faixa reservada, ou null para usar o AUTO_INCREMENT do banco
+     * @throws SQLException se ocorrer erro ao reservar ids no banco
+     */
+    public IdRange reserveRange(final IdEntityEnum entity, final int count) throws SQLException {
+        return generators.get(entity).reserve(count);
+    }
+
+    /**
+     * @param entity Entidade
+     * @return true se o id da entidade vem do AUTO_INCREMENT do banco, e portanto só é único dentro de um banco
+     */
+    public boolean isDatabaseGenerated(final IdEntityEnum entity) {
+        return strategies.get(entity) == IdStrategyEnum.AUTO;
+    }
+
+}
@@ -0,0 +1,28 @@
+package br.com.dio.persistence.id;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Entidades cujo id pode ser gerado pela aplicação. {@code CARD_HISTORY} e {@code BLOCKS} ficam de
+ * fora porque o {@link br.com.dio.event.ChangeFeed} depende de ids crescentes entre processos.
+ */
+@Getter
+@AllArgsConstructor
+public enum IdEntityEnum {
+
+    BOARD("BOARDS", "board"),
+    BOARD_COLUMN("BOARDS_COLUMNS", "board-column"),
+    CARD("CARDS", "card");
+
+    /**
+     * Tabela da entidade, também usada como nome da sequência em {@code ID_SEQUENCES}
+     */
+    private final String table;
+
+    /**
+     * Trecho da chave de configuração ({@code ids.<configKey>.strategy})
+     */
+    private final String configKey;
+
+}
@@ -0,0 +1,26 @@
+package br.com.dio.persistence.id;
+
+import java.sql.SQLException;
+
+/**
+ * Gera os ids de uma entidade antes do INSERT
+ */
+public interface IdGenerator {
+
+    /**
+     * @return Próximo id, ou null quando o id deve ser atribuído pelo AUTO_INCREMENT do banco
+     * @throws SQLException se a geração precisar do banco e ocorrer erro no acesso
+     */
+    Long nextId() throws SQLException;
+
+    /**
+     * Reserva de uma vez os ids de um insert em lote feito pelo banco
+     *
+     * @param count Quantidade de ids
+     * @return Faixa com os ids reservados, ou null quando os ids devem ser atribuídos pelo AUTO_INCREMENT
+     * do banco
+     * @throws SQLException se a reserva precisar do banco e ocorrer erro no acesso
+     */
+    IdRange reserve(int count) throws SQLException;
+
+}
@@ -0,0 +1,31 @@
+package br.com.dio.persistence.id;
+
+/**
+ * Faixa de ids reservada de uma vez, para inserts feitos em lote pelo próprio banco
+ * ({@code INSERT ... SELECT}). A faixa é formada por blocos de {@code blockSize} ids consecutivos,
+ * com {@code blockStride} entre o início de um bloco e o do seguinte; uma faixa contínua tem um
+ * único bloco.
+ *
+ * @param first Primeiro id da faixa
+ * @param blockSize Ids consecutivos em cada bloco
+ * @param blockStride Distância entre o primeiro id de um bloco e o do bloco seguinte
+ * @param size Quantidade de ids reservados
+ */
+public record IdRange(long first, long blockSize, long blockStride, long size) {
+
+    public static IdRange contiguous(final long first, final long size) {
+        return new IdRange(first, Math.max(1, size), Math.max(1, size), size);
+    }
+
+    /**
+     * @param n Posição na faixa, a partir de 0
+     * @return Id reservado na posição
+     */
+    public long idAt(final long n) {
+        if (n < 0 || n >= size) {
+            throw new IndexOutOfBoundsException("Posição %s fora da faixa de %s ids".formatted(n, size));
+        }
+        return first + n / blockSize * blockStride + n % blockSize;
+    }
+
+}
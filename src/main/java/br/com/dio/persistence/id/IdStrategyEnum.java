@@ -0,0 +1,30 @@
+package br.com.dio.persistence.id;
+
+import java.util.stream.Stream;
+
+/**
+ * Estratégias de geração de ids disponíveis para as entidades
+ */
+public enum IdStrategyEnum {
+
+    /**
+     * Id monotônico atribuído pelo AUTO_INCREMENT do banco
+     */
+    AUTO,
+    /**
+     * Id reservado em blocos na tabela {@code ID_SEQUENCES} e distribuído em memória
+     */
+    HILO,
+    /**
+     * Id ordenado pelo tempo, gerado no processo a partir do relógio e do id do nó
+     */
+    TIME_ORDERED;
+
+    public static IdStrategyEnum findByName(final String name){
+        return Stream.of(IdStrategyEnum.values())
+                .filter(s -> s.name().equalsIgnoreCase(name.trim().replace('-', '_')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Estratégia de id desconhecida: " + name));
+    }
+
+}
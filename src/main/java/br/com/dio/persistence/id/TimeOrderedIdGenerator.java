@@ -0,0 +1,74 @@
+package br.com.dio.persistence.id;
+
+import java.time.Instant;
+
+/**
+ * Gerador de ids ordenados pelo tempo, sem acesso ao banco. O id de 63 bits é composto por
+ * 41 bits de milissegundos desde {@link #EPOCH}, 10 bits com o id do nó e 12 bits de sequência
+ * dentro do mesmo milissegundo, permitindo até 4096 ids por milissegundo em cada nó.
+ * <p>
+ * Os ids crescem dentro de um processo; entre nós a ordem é apenas aproximada, limitada pela
+ * diferença entre os relógios. Cada processo deve usar um {@code ids.node-id} distinto. Se o relógio
+ * voltar ou a sequência se esgotar, o gerador avança a partir do último milissegundo usado em vez
+ * de esperar ou repetir ids.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    private long lastMillis = -1;
+    private long sequence;
+
+    public TimeOrderedIdGenerator(final long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("O id do nó deve estar entre 0 e " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public synchronized Long nextId() {
+        var now = Math.max(System.currentTimeMillis(), lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // Sequência esgotada neste milissegundo: avança para o próximo sem esperar o relógio
+                now = lastMillis + 1;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return ((now - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * Reserva milissegundos inteiros, a partir do seguinte ao último usado: em cada um, os 4096 ids
+     * da sequência deste nó formam um bloco da faixa
+     */
+    @Override
+    public synchronized IdRange reserve(final int count) {
+        var start = Math.max(System.currentTimeMillis(), lastMillis + 1);
+        var millis = Math.max(1, (count + SEQUENCE_MASK) >> SEQUENCE_BITS);
+        lastMillis = start + millis - 1;
+        // Sequência esgotada: o próximo nextId no último milissegundo reservado já avança para o seguinte
+        sequence = SEQUENCE_MASK;
+        var first = ((start - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS);
+        return new IdRange(first, SEQUENCE_MASK + 1, 1L << (NODE_BITS + SEQUENCE_BITS), count);
+    }
+
+    /**
+     * @return Instante em que o id foi gerado
+     */
+    public static Instant timestampOf(final long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+}
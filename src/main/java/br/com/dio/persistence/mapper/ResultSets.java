@@ -0,0 +1,96 @@
+package br.com.dio.persistence.mapper;
+
+import lombok.NoArgsConstructor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static java.time.ZoneOffset.UTC;
+import static java.util.Objects.isNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Leitura de result sets com {@link RowMapperFactory} e leitura por índice dos tipos que o JDBC não
+ * devolve diretamente como primitivos ou datas do {@code java.time}
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class ResultSets {
+
+    /**
+     * Mapeia todas as linhas restantes do result set
+     *
+     * @param resultSet Result set ainda não percorrido
+     * @param factory Mapeamento das linhas
+     * @return Uma entrada por linha, na ordem do result set
+     * @throws SQLException se ocorrer erro ao ler o result set
+     */
+    public static <T> List<T> list(final ResultSet resultSet, final RowMapperFactory<T> factory) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        var mapper = factory.create(resultSet);
+        while (resultSet.next()) {
+            rows.add(mapper.mapRow(resultSet));
+        }
+        return rows;
+    }
+
+    /**
+     * Mapeia apenas a primeira linha do result set
+     *
+     * @param resultSet Result set ainda não percorrido
+     * @param factory Mapeamento da linha
+     * @return A primeira linha mapeada, ou vazio se o result set não tiver linhas
+     * @throws SQLException se ocorrer erro ao ler o result set
+     */
+    public static <T> Optional<T> first(final ResultSet resultSet, final RowMapperFactory<T> factory) throws SQLException {
+        if (!resultSet.next()) {
+            return Optional.empty();
+        }
+        return Optional.of(factory.create(resultSet).mapRow(resultSet));
+    }
+
+    /**
+     * @return O valor da coluna, ou null se for SQL NULL
+     */
+    public static Long getNullableLong(final ResultSet resultSet, final int index) throws SQLException {
+        var value = resultSet.getLong(index);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * @return O valor da coluna, ou null se for SQL NULL
+     */
+    public static Integer getNullableInt(final ResultSet resultSet, final int index) throws SQLException {
+        var value = resultSet.getInt(index);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Lê um {@code TIMESTAMP} diretamente como {@link OffsetDateTime} (JDBC 4.2), sem passar por
+     * {@link java.sql.Timestamp}. O resultado é normalizado para UTC, como em
+     * {@link br.com.dio.persistence.converter.OffsetDateTimeConverter#toOffsetDateTime}.
+     *
+     * @return O instante em UTC, ou null se for SQL NULL
+     */
+    public static OffsetDateTime getOffsetDateTime(final ResultSet resultSet, final int index) throws SQLException {
+        var value = resultSet.getObject(index, OffsetDateTime.class);
+        if (isNull(value) || UTC.equals(value.getOffset())) {
+            return value;
+        }
+        return value.withOffsetSameInstant(UTC);
+    }
+
+    /**
+     * Lê um {@code TIMESTAMP} diretamente como {@link LocalDateTime} (JDBC 4.2)
+     *
+     * @return A data e hora, ou null se for SQL NULL
+     */
+    public static LocalDateTime getLocalDateTime(final ResultSet resultSet, final int index) throws SQLException {
+        return resultSet.getObject(index, LocalDateTime.class);
+    }
+
+}
@@ -0,0 +1,17 @@
+package br.com.dio.persistence.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte a linha corrente de um {@link ResultSet} em um objeto. É criado por um {@link RowMapperFactory}
+ * para um result set específico, com os índices das colunas já resolvidos, e lê os valores apenas por índice.
+ *
+ * @param <T> Tipo produzido para cada linha
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T mapRow(final ResultSet resultSet) throws SQLException;
+
+}
@@ -0,0 +1,25 @@
+package br.com.dio.persistence.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Define como mapear as linhas de uma consulta. A fábrica resolve os rótulos das colunas (como
+ * {@code "bc.name"}) em índices uma única vez por {@link ResultSet}, com {@link ResultSet#findColumn(String)},
+ * e devolve um {@link RowMapper} que não faz mais nenhuma busca por rótulo a cada linha.
+ * <p>
+ * As fábricas não guardam estado e podem ser declaradas como constantes nos DAOs.
+ *
+ * @param <T> Tipo produzido para cada linha
+ */
+@FunctionalInterface
+public interface RowMapperFactory<T> {
+
+    /**
+     * @param resultSet Result set cujas colunas serão resolvidas
+     * @return Mapeador para as linhas deste result set
+     * @throws SQLException se alguma coluna esperada não existir no result set
+     */
+    RowMapper<T> create(final ResultSet resultSet) throws SQLException;
+
+}
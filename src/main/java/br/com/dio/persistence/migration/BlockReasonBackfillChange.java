@@ -0,0 +1,125 @@
+package br.com.dio.persistence.migration;
+
+import br.com.dio.persistence.dao.BlockReasonDAO;
+import br.com.dio.persistence.entity.BlockReasonCategoryEnum;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.change.custom.CustomTaskRollback;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Corrige o dicionário de motivos de bloqueio preenchido pela migração 5. Ela montou a forma canônica em
+ * SQL, sem remover os acentos, e gravou todos os motivos antigos na categoria {@code OTHER}. Aqui a forma
+ * canônica e a categoria são recalculadas com {@link BlockReasonDAO#canonicalize(String)} e
+ * {@link BlockReasonCategoryEnum#classify(String)}, as mesmas regras usadas ao gravar um motivo novo.
+ * Motivos que passam a ter a mesma forma canônica são unidos no de menor id, e os bloqueios que
+ * apontavam para os demais passam a apontar para ele.
+ * <p>
+ * O desfazer não faz nada: o dicionário corrigido continua válido para o esquema anterior.
+ */
+public class BlockReasonBackfillChange implements CustomTaskChange, CustomTaskRollback {
+
+    private int merged;
+    private int updated;
+
+    @Override
+    public void execute(final Database database) throws CustomChangeException {
+        try {
+            backfill(((JdbcConnection) database.getConnection()).getUnderlyingConnection());
+        } catch (SQLException ex) {
+            throw new CustomChangeException("Não foi possível corrigir o dicionário de motivos de bloqueio", ex);
+        }
+    }
+
+    private void backfill(final Connection connection) throws SQLException {
+        Map<String, Long> survivors = new LinkedHashMap<>();
+        Map<Long, Long> merges = new LinkedHashMap<>();
+        Map<Long, String> canonicals = new HashMap<>();
+        Map<Long, BlockReasonCategoryEnum> categories = new LinkedHashMap<>();
+        var select = "SELECT id, canonical, label, category FROM BLOCK_REASONS ORDER BY id;";
+        try(var statement = connection.prepareStatement(select)){
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()){
+                var id = resultSet.getLong(1);
+                var canonical = BlockReasonDAO.canonicalize(resultSet.getString(3));
+                var survivor = survivors.putIfAbsent(canonical, id);
+                if (survivor != null){
+                    merges.put(id, survivor);
+                    continue;
+                }
+                var category = BlockReasonCategoryEnum.classify(canonical);
+                if (!canonical.equals(resultSet.getString(2)) || !category.name().equals(resultSet.getString(4))){
+                    canonicals.put(id, canonical);
+                    categories.put(id, category);
+                }
+            }
+        }
+        if (!merges.isEmpty()){
+            try(var blocks = connection.prepareStatement("UPDATE BLOCKS SET block_reason_id = ? WHERE block_reason_id = ?");
+                var unblocks = connection.prepareStatement("UPDATE BLOCKS SET unblock_reason_id = ? WHERE unblock_reason_id = ?");
+                var delete = connection.prepareStatement("DELETE FROM BLOCK_REASONS WHERE id = ?")){
+                for (var merge : merges.entrySet()){
+                    blocks.setLong(1, merge.getValue());
+                    blocks.setLong(2, merge.getKey());
+                    blocks.addBatch();
+                    unblocks.setLong(1, merge.getValue());
+                    unblocks.setLong(2, merge.getKey());
+                    unblocks.addBatch();
+                    delete.setLong(1, merge.getKey());
+                    delete.addBatch();
+                }
+                blocks.executeBatch();
+                unblocks.executeBatch();
+                // Só depois de apagar os duplicados a forma canônica corrigida cabe no índice único
+                delete.executeBatch();
+            }
+        }
+        if (!categories.isEmpty()){
+            var update = "UPDATE BLOCK_REASONS SET canonical = ?, category = ? WHERE id = ?";
+            try(var statement = connection.prepareStatement(update)){
+                for (var entry : categories.entrySet()){
+                    statement.setString(1, canonicals.get(entry.getKey()));
+                    statement.setString(2, entry.getValue().name());
+                    statement.setLong(3, entry.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        merged = merges.size();
+        updated = categories.size();
+    }
+
+    @Override
+    public void rollback(final Database database) {
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Motivos de bloqueio corrigidos: %d unidos a outro motivo, %d com forma canônica ou categoria recalculada"
+                .formatted(merged, updated);
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(final ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(final Database database) {
+        return new ValidationErrors();
+    }
+
+}
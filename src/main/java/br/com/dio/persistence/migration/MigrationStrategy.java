@@ -4,42 +4,58 @@ import liquibase.Liquibase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.LiquibaseException;
 import liquibase.resource.ClassLoaderResourceAccessor;
-import lombok.AllArgsConstructor;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.sql.Connection;
-import java.sql.SQLException;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
-@AllArgsConstructor
+/**
+ * Aplica as migrations na conexão recebida. A conexão continua aberta depois da migração: quem a
+ * abriu é quem a fecha. A saída do Liquibase vai para {@code liquibase.log} no banco principal e para
+ * {@code liquibase-shard-N.log} nos demais shards, para que a migração de um shard não apague o log
+ * de outro.
+ */
 public class MigrationStrategy {
 
     private final Connection connection;
+    private final String logFile;
+
+    /**
+     * Migra o banco principal (shard 0)
+     */
+    public MigrationStrategy(final Connection connection) {
+        this(connection, 0);
+    }
+
+    /**
+     * @param shard Id do shard a que a conexão pertence, que dá nome ao arquivo de log
+     */
+    public MigrationStrategy(final Connection connection, final int shard) {
+        this.connection = connection;
+        this.logFile = shard == 0 ? "liquibase.log" : "liquibase-shard-%d.log".formatted(shard);
+    }
 
-    public void executeMigration(){
+    /**
+     * @throws IOException se o arquivo de log não puder ser criado
+     * @throws IllegalStateException se alguma migration falhar; a aplicação não deve seguir com o
+     * esquema pela metade
+     */
+    public void executeMigration() throws IOException {
         var originalOut = System.out;
         var originalErr = System.err;
-        try(var fos = new FileOutputStream("liquibase.log")){
+        try(var fos = new FileOutputStream(logFile)){
             System.setOut(new PrintStream(fos));
             System.setErr(new PrintStream(fos));
-            try(
-                    var connection = getConnection();
-                    var jdbcConnection = new JdbcConnection(connection);
-            ){
-                var liquibase = new Liquibase(
-                        "/db/changelog/db.changelog-master.yml",
-                        new ClassLoaderResourceAccessor(),
-                        jdbcConnection);
-                liquibase.update();
-            } catch (SQLException | LiquibaseException e) {
-                e.printStackTrace();
-                System.setErr(originalErr);
-            }
-        } catch (IOException ex){
-            ex.printStackTrace();
+            // Liquibase.close() fecharia a conexão do chamador, então o objeto não é fechado aqui
+            var liquibase = new Liquibase(
+                    "/db/changelog/db.changelog-master.yml",
+                    new ClassLoaderResourceAccessor(),
+                    new JdbcConnection(connection));
+            liquibase.update();
+        } catch (LiquibaseException ex) {
+            throw new IllegalStateException("Falha ao executar as migrations (detalhes em %s): %s"
+                    .formatted(logFile, ex.getMessage()), ex);
         } finally {
             System.setOut(originalOut);
             System.setErr(originalErr);
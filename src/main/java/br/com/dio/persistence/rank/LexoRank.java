@@ -0,0 +1,157 @@
+package br.com.dio.persistence.rank;
+
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Ranks lexicográficos que ordenam os cards dentro de uma coluna ({@code CARDS.lexo_rank}).
+ * <p>
+ * Um rank é uma parte inteira de {@value #INTEGER_DIGITS} dígitos em base 36 ({@code 0-9A-Z}) seguida,
+ * opcionalmente, de uma parte fracionária sem zeros à direita. Como os dígitos estão em ordem ASCII e a
+ * coluna usa collation binária, comparar os textos equivale a comparar os números, e sempre existe um
+ * rank entre dois ranks distintos. Assim, mover um card só altera o rank dele.
+ * <p>
+ * Cards novos entram {@link #STEP} posições depois do último, e um card colocado entre outros dois
+ * recebe o ponto médio. Quando os vizinhos ficam colados, a parte fracionária cresce. O
+ * {@link RankRebalancer} redistribui a coluna quando os ranks ficam longos demais.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class LexoRank {
+
+    public static final int INTEGER_DIGITS = 6;
+
+    /**
+     * Tamanho da coluna {@code CARDS.lexo_rank}
+     */
+    public static final int MAX_LENGTH = 64;
+
+    /**
+     * Distância entre cards consecutivos quando há espaço: 36³, o que deixa cerca de 15 inserções
+     * pelo ponto médio no mesmo lugar antes de surgir a parte fracionária
+     */
+    public static final long STEP = 46_656L;
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int BASE = DIGITS.length();
+    private static final long RANGE = 2_176_782_336L; // 36^6
+
+    /**
+     * Calcula um rank estritamente entre dois ranks
+     *
+     * @param before Rank do card anterior, ou null para o início da coluna
+     * @param after Rank do card seguinte, ou null para o fim da coluna
+     * @return Rank entre os dois, o mais curto possível
+     * @throws IllegalArgumentException se os dois ranks forem informados e {@code before} não for menor que {@code after}
+     */
+    public static String between(final String before, final String after) {
+        if (nonNull(before) && nonNull(after) && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("O rank '%s' não é menor que '%s'".formatted(before, after));
+        }
+        // O início e o fim da coluna são tratados como os inteiros 0 e 36^6, que nunca são gerados
+        var low = isNull(before) ? 0 : integerPart(before);
+        var lowFraction = isNull(before) ? "" : fractionPart(before);
+        var high = isNull(after) ? RANGE : integerPart(after);
+        var highFraction = isNull(after) ? null : fractionPart(after);
+
+        if (high - low > 1) {
+            // Em coluna vazia começa no meio; no fim e no início da coluna anda STEP, para deixar espaço
+            var preferred = isNull(before) == isNull(after) ? low + (high - low) / 2
+                    : isNull(after) ? low + STEP : high - STEP;
+            var value = preferred > low && preferred < high ? preferred : low + (high - low) / 2;
+            return integer(value);
+        }
+        if (high - low == 1) {
+            return integer(low) + midpoint(lowFraction, null);
+        }
+        if (isNull(highFraction) || highFraction.isEmpty()) {
+            throw new IllegalArgumentException("Não há rank antes de '%s'".formatted(after));
+        }
+        return integer(low) + midpoint(lowFraction, highFraction);
+    }
+
+    /**
+     * Distribui ranks para uma coluna inteira, com espaçamento {@link #STEP} (ou menor, se a coluna
+     * não couber) e centralizados, de modo que sobre espaço para inserir no início e no fim
+     *
+     * @param count Quantidade de cards da coluna
+     * @return Ranks crescentes, um por card
+     */
+    public static List<String> spaced(final int count) {
+        List<String> ranks = new ArrayList<>(count);
+        if (count == 0) {
+            return ranks;
+        }
+        var gap = Math.min(RANGE / (count + 1L), STEP);
+        var first = (RANGE - gap * (count - 1L)) / 2;
+        for (var i = 0; i < count; i++) {
+            ranks.add(integer(first + gap * i));
+        }
+        return ranks;
+    }
+
+    /**
+     * Ponto médio entre duas partes fracionárias, comparadas como dígitos depois da vírgula.
+     * {@code low} pode ser vazio (zero) e {@code high} pode ser null (um); nenhuma das duas termina em zero.
+     */
+    private static String midpoint(final String low, final String high) {
+        if (nonNull(high)) {
+            var common = 0;
+            while (common < high.length() && digitAt(low, common) == digit(high.charAt(common))) {
+                common++;
+            }
+            if (common == high.length()) {
+                throw new IllegalArgumentException("A fração '%s' não é menor que '%s'".formatted(low, high));
+            }
+            if (common > 0) {
+                var lowRest = low.length() > common ? low.substring(common) : "";
+                return high.substring(0, common) + midpoint(lowRest, high.substring(common));
+            }
+        }
+        var lowDigit = digitAt(low, 0);
+        var highDigit = nonNull(high) ? digit(high.charAt(0)) : BASE;
+        if (highDigit - lowDigit > 1) {
+            return String.valueOf(DIGITS.charAt((lowDigit + highDigit) / 2));
+        }
+        if (nonNull(high) && high.length() > 1) {
+            // O primeiro dígito de high sozinho já é maior que low e menor que high
+            return high.substring(0, 1);
+        }
+        return DIGITS.charAt(lowDigit) + midpoint(low.length() > 1 ? low.substring(1) : "", null);
+    }
+
+    private static long integerPart(final String rank) {
+        if (rank.length() < INTEGER_DIGITS) {
+            throw new IllegalArgumentException("Rank inválido: '%s'".formatted(rank));
+        }
+        return Long.parseLong(rank, 0, INTEGER_DIGITS, BASE);
+    }
+
+    private static String fractionPart(final String rank) {
+        return rank.substring(INTEGER_DIGITS);
+    }
+
+    private static String integer(final long value) {
+        var digits = Long.toString(value, BASE).toUpperCase(Locale.ROOT);
+        return "0".repeat(INTEGER_DIGITS - digits.length()) + digits;
+    }
+
+    private static int digitAt(final String value, final int index) {
+        return index < value.length() ? digit(value.charAt(index)) : 0;
+    }
+
+    private static int digit(final char c) {
+        var digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Dígito de rank inválido: '%s'".formatted(c));
+        }
+        return digit;
+    }
+
+}
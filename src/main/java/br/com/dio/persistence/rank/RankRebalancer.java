@@ -0,0 +1,111 @@
+package br.com.dio.persistence.rank;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.CardRankDAO;
+import br.com.dio.persistence.shard.ShardRouter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Redistribui em segundo plano os ranks das colunas em que algum rank atribuído passou de
+ * {@code rank.max-length} caracteres, o que só acontece depois de muitas inserções no mesmo ponto da
+ * coluna. A redistribuição reescreve os ranks de todos os cards da coluna, em uma transação que
+ * mantém a coluna bloqueada, e não muda a ordem.
+ * <p>
+ * Se o rebalanceamento estiver desligado ({@code rank.rebalance.enabled=false}), a coluna só é
+ * redistribuída quando um rank não couber mais em {@code CARDS.lexo_rank}, no meio da própria operação.
+ * <p>
+ * A redistribuição roda no shard da conexão que atribuiu o rank, que é o shard do board da coluna.
+ */
+public final class RankRebalancer {
+
+    private static final RankRebalancer INSTANCE = new RankRebalancer(
+            ApplicationProperties.getInstance().getBoolean("rank.rebalance.enabled", true),
+            ApplicationProperties.getInstance().getInt("rank.max-length", 16));
+
+    private final boolean enabled;
+    private final int maxLength;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService executor;
+
+    private RankRebalancer(final boolean enabled, final int maxLength) {
+        if (maxLength <= LexoRank.INTEGER_DIGITS || maxLength >= LexoRank.MAX_LENGTH) {
+            throw new IllegalArgumentException("O tamanho máximo de rank deve estar entre %s e %s"
+                    .formatted(LexoRank.INTEGER_DIGITS + 1, LexoRank.MAX_LENGTH - 1));
+        }
+        this.enabled = enabled;
+        this.maxLength = maxLength;
+    }
+
+    public static RankRebalancer getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (!enabled || nonNull(executor)) {
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "rank-rebalancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void stop() {
+        if (nonNull(executor)) {
+            executor.shutdownNow();
+            executor = null;
+            pending.clear();
+        }
+    }
+
+    /**
+     * Agenda a redistribuição da coluna se o rank atribuído for longo demais. Pode ser chamado dentro
+     * da transação que atribuiu o rank: a redistribuição espera o bloqueio da coluna ser liberado.
+     *
+     * @param connection Conexão da transação que atribuiu o rank
+     * @param columnId ID da coluna
+     * @param rank Rank que acabou de ser atribuído
+     * @throws SQLException se ocorrer erro ao identificar o shard da conexão
+     */
+    public void onRankAssigned(final Connection connection, final long columnId, final String rank) throws SQLException {
+        if (rank.length() > maxLength && pending.add(columnId)) {
+            var shard = ShardRouter.getInstance().shardOf(connection);
+            synchronized (this) {
+                if (nonNull(executor)) {
+                    executor.execute(() -> rebalance(shard, columnId));
+                    return;
+                }
+            }
+            pending.remove(columnId);
+        }
+    }
+
+    private void rebalance(final int shard, final long columnId) {
+        // Sai de pending antes de ler a coluna, para que um rank longo atribuído durante a execução agende outra
+        pending.remove(columnId);
+        try (var connection = ConnectionConfig.getConnection(shard)) {
+            try {
+                new CardRankDAO(connection).respace(columnId);
+                connection.commit();
+            } catch (SQLException | IllegalStateException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        } catch (SQLException | IllegalStateException ex) {
+            // A coluna continua ordenada; o próximo rank longo atribuído nela agenda outra tentativa
+            System.err.println("Falha ao redistribuir os ranks da coluna " + columnId + ": " + ex.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package br.com.dio.persistence.resilience;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Resultado de uma chamada executada em lote por {@link DatabaseExecutor#writeBatch(Long, java.util.List)}
+ *
+ * @param result Valor retornado pela chamada, ou null se ela falhou
+ * @param error Falha da chamada, desfeita sem afetar as demais do lote, ou null se ela foi confirmada
+ * @param elapsedNanos Tempo gasto na chamada, sem o commit do lote
+ */
+public record BatchOutcome<T>(T result, Exception error, long elapsedNanos) {
+
+    public boolean succeeded() {
+        return isNull(error);
+    }
+
+}
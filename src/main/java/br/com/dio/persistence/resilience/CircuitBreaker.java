@@ -0,0 +1,87 @@
+package br.com.dio.persistence.resilience;
+
+import br.com.dio.exception.DatabaseUnavailableException;
+
+/**
+ * Circuit breaker das chamadas ao banco. Depois de {@code failureThreshold} falhas de conexão
+ * seguidas o circuito abre e as chamadas falham na hora, sem esperar o timeout do pool, por
+ * {@code openMs}. Passado esse tempo uma única chamada de teste é liberada: se o banco responder o
+ * circuito fecha, senão abre de novo.
+ * <p>
+ * Só falhas de conexão contam; erros devolvidos pelo banco mostram que ele está no ar. A chamada de
+ * teste sempre termina em {@link #onSuccess()}, {@link #onFailure()} ou {@link #releaseProbe()}; uma
+ * chamada de teste que não chegou a uma resposta do banco conta como falha.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private Thread probe;
+
+    CircuitBreaker(final int failureThreshold, final long openMs) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+    }
+
+    /**
+     * @throws DatabaseUnavailableException se o circuito estiver aberto ou a chamada de teste já
+     * estiver em andamento
+     */
+    synchronized void acquirePermission() {
+        if (failureThreshold <= 0 || state == State.CLOSED) {
+            return;
+        }
+        var remainingMs = openedAt + openMs - System.currentTimeMillis();
+        if (state == State.OPEN && remainingMs <= 0) {
+            state = State.HALF_OPEN;
+            probe = Thread.currentThread();
+            return;
+        }
+        throw new DatabaseUnavailableException(state == State.HALF_OPEN ?
+                "O banco de dados está indisponível; uma chamada de teste já está em andamento" :
+                "O banco de dados está indisponível; nova tentativa em %d s".formatted(Math.max(1, remainingMs / 1000)));
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probe = null;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Encerra a chamada de teste da thread atual, se ela ainda não tiver informado o resultado, como uma
+     * falha. Chamado ao fim de toda tentativa; fora da chamada de teste não faz nada.
+     */
+    synchronized void releaseProbe() {
+        if (state == State.HALF_OPEN && probe == Thread.currentThread()) {
+            open();
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        if (state != State.OPEN) {
+            System.err.println("Banco de dados indisponível; chamadas suspensas por " + openMs + " ms");
+        }
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        probe = null;
+    }
+
+}
@@ -0,0 +1,21 @@
+package br.com.dio.persistence.resilience;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Origem das conexões usadas pelo {@link DatabaseExecutor}: na aplicação, os pools de
+ * {@link br.com.dio.persistence.config.ConnectionConfig}
+ */
+@FunctionalInterface
+interface ConnectionSource {
+
+    /**
+     * @param type Tipo da operação; leituras e relatórios podem usar uma conexão somente leitura
+     * @param shard Id do shard
+     * @return Conexão sem auto commit, fechada pelo executor
+     * @throws SQLException se não for possível obter a conexão
+     */
+    Connection open(OperationTypeEnum type, int shard) throws SQLException;
+
+}
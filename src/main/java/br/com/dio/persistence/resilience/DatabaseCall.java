@@ -0,0 +1,15 @@
+package br.com.dio.persistence.resilience;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Chamada ao banco executada pelo {@link DatabaseExecutor}. Pode ser executada mais de uma vez,
+ * sempre em uma conexão nova, então não deve produzir efeitos fora do banco antes do commit.
+ */
+@FunctionalInterface
+public interface DatabaseCall<T> {
+
+    T execute(Connection connection) throws SQLException;
+
+}
@@ -0,0 +1,352 @@
+package br.com.dio.persistence.resilience;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.exception.BoardMovingException;
+import br.com.dio.exception.DatabaseUnavailableException;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.shard.ShardRouter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Executa chamadas de serviços e DAOs com timeout de consulta, novas tentativas e circuit breaker.
+ * <p>
+ * Cada tentativa abre uma conexão nova (de leitura para {@link OperationTypeEnum#READ} e
+ * {@link OperationTypeEnum#REPORT}, do primário para {@link OperationTypeEnum#WRITE}) e todo
+ * statement criado nela recebe o timeout do tipo da operação. Leituras são repetidas quando a
+ * conexão cai, por exemplo uma conexão do pool derrubada pelo proxy; escritas só são repetidas em
+ * deadlocks e esperas de lock, em que a transação inteira foi desfeita, porque se a conexão cair
+ * durante o commit não há como saber se ele foi aplicado. O intervalo entre tentativas cresce
+ * exponencialmente a partir de {@code db.retry.initial-backoff-ms} e é sorteado entre zero e esse
+ * valor, para que processos diferentes não repitam juntos.
+ * <p>
+ * Consultas que estouram o timeout não são repetidas: a mesma consulta tenderia a estourar de novo.
+ * <p>
+ * Com shards ({@link ShardRouter}), as chamadas que recebem o id de um board rodam no shard do board,
+ * e as demais no shard 0; escritas em um board que está mudando de shard são recusadas. Consultas
+ * que abrangem todos os boards usam {@link #fanOut(OperationTypeEnum, DatabaseCall)}. Cada shard tem o
+ * seu circuit breaker, para que um shard fora do ar não derrube os demais.
+ * <p>
+ * {@link #writeBatch(Long, List)} junta várias escritas em uma transação: cada chamada roda depois de um
+ * savepoint e a falha de uma desfaz só o que ela gravou, então o lote paga um único commit.
+ */
+public final class DatabaseExecutor {
+
+    private static final String BATCH_SAVEPOINT = "batch_call";
+
+    private static final DatabaseExecutor INSTANCE = new DatabaseExecutor(
+            ResilienceConfig.from(ApplicationProperties.getInstance()),
+            (type, shard) -> type.isReadOnly() ? ConnectionConfig.getReadConnection(shard) : ConnectionConfig.getConnection(shard));
+
+    private static final ExecutorService FAN_OUT = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "shard-fan-out");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ResilienceConfig config;
+    private final ConnectionSource connections;
+    private final Map<Integer, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    DatabaseExecutor(final ResilienceConfig config, final ConnectionSource connections) {
+        this.config = config;
+        this.connections = connections;
+    }
+
+    public static DatabaseExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    public <T> T read(final DatabaseCall<T> call) throws SQLException {
+        return execute(OperationTypeEnum.READ, call);
+    }
+
+    public <T> T report(final DatabaseCall<T> call) throws SQLException {
+        return execute(OperationTypeEnum.REPORT, call);
+    }
+
+    public <T> T write(final DatabaseCall<T> call) throws SQLException {
+        return execute(OperationTypeEnum.WRITE, call);
+    }
+
+    public <T> T read(final Long boardId, final DatabaseCall<T> call) throws SQLException {
+        return execute(OperationTypeEnum.READ, boardId, call);
+    }
+
+    public <T> T report(final Long boardId, final DatabaseCall<T> call) throws SQLException {
+        return execute(OperationTypeEnum.REPORT, boardId, call);
+    }
+
+    public <T> T write(final Long boardId, final DatabaseCall<T> call) throws SQLException {
+        return execute(OperationTypeEnum.WRITE, boardId, call);
+    }
+
+    /**
+     * Executa as chamadas de escrita, em ordem, em uma única transação no shard do board. Os commits e
+     * rollbacks feitos pelas próprias chamadas (os serviços confirmam cada operação) são ignorados: cada
+     * chamada começa em um savepoint, uma falha de regra de negócio ou do SQL volta até ele e as demais
+     * continuam, e o lote é confirmado no fim. Deadlocks e esperas de lock desfazem a transação inteira,
+     * então o lote todo é repetido, como uma escrita comum; as chamadas não devem produzir efeitos fora do
+     * banco, e os eventos e efeitos locais devem ser retidos ({@code BoardEventBus.defer()}) até o retorno.
+     *
+     * @param boardId ID do board das chamadas, ou null para o shard 0
+     * @param calls Chamadas do lote
+     * @return Resultado de cada chamada, na ordem do lote, já confirmado no banco
+     * @throws SQLException se o lote falhar como um todo, inclusive no commit
+     * @throws DatabaseUnavailableException se o banco estiver inacessível
+     * @throws BoardMovingException se o board estiver mudando de shard
+     */
+    public <T> List<BatchOutcome<T>> writeBatch(final Long boardId, final List<? extends DatabaseCall<T>> calls)
+            throws SQLException {
+        return execute(OperationTypeEnum.WRITE, boardId, connection -> {
+            var isolated = withoutTransactionControl(connection);
+            List<BatchOutcome<T>> outcomes = new ArrayList<>(calls.size());
+            try {
+                for (var call : calls) {
+                    var savepoint = connection.setSavepoint(BATCH_SAVEPOINT);
+                    var startedAt = System.nanoTime();
+                    try {
+                        var result = call.execute(isolated);
+                        outcomes.add(new BatchOutcome<>(result, null, System.nanoTime() - startedAt));
+                    } catch (SQLException ex) {
+                        if (SqlErrors.isConnectionFailure(ex) || SqlErrors.isTransactionConflict(ex) ||
+                                SqlErrors.isQueryTimeout(ex)) {
+                            throw ex;
+                        }
+                        connection.rollback(savepoint);
+                        outcomes.add(new BatchOutcome<>(null, ex, System.nanoTime() - startedAt));
+                    } catch (DatabaseUnavailableException | BoardMovingException ex) {
+                        throw ex;
+                    } catch (RuntimeException ex) {
+                        connection.rollback(savepoint);
+                        outcomes.add(new BatchOutcome<>(null, ex, System.nanoTime() - startedAt));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+            return outcomes;
+        });
+    }
+
+    /**
+     * Executa a chamada no shard 0, repetindo-a quando a falha permitir
+     *
+     * @param type Tipo da operação
+     * @param call Chamada, que recebe a conexão e é responsável pelo commit
+     * @return Resultado da chamada
+     * @throws SQLException se a chamada falhar com um erro que não pode ser repetido ou esgotar as tentativas
+     * @throws DatabaseUnavailableException se o banco estiver inacessível
+     */
+    public <T> T execute(final OperationTypeEnum type, final DatabaseCall<T> call) throws SQLException {
+        return execute(type, null, call);
+    }
+
+    /**
+     * Executa a chamada no shard do board
+     *
+     * @param type Tipo da operação
+     * @param boardId ID do board da operação, ou null para o shard 0
+     * @param call Chamada, que recebe a conexão e é responsável pelo commit
+     * @return Resultado da chamada
+     * @throws SQLException se a chamada falhar com um erro que não pode ser repetido ou esgotar as tentativas
+     * @throws DatabaseUnavailableException se o banco estiver inacessível
+     * @throws BoardMovingException se for uma escrita em um board que está mudando de shard
+     */
+    public <T> T execute(final OperationTypeEnum type, final Long boardId, final DatabaseCall<T> call) throws SQLException {
+        var location = ShardRouter.getInstance().locate(boardId);
+        if (!type.isReadOnly() && location.isMoving()) {
+            throw new BoardMovingException(("O board %s está sendo movido para outro shard; " +
+                    "ele pode ser consultado, mas só aceita alterações quando a mudança terminar").formatted(boardId));
+        }
+        return executeOnShard(type, location.shardId(), call);
+    }
+
+    /**
+     * Executa a mesma chamada em todos os shards, em paralelo, cada um com as suas novas tentativas
+     *
+     * @param type Tipo da operação
+     * @param call Chamada executada uma vez em cada shard
+     * @return Resultado de cada shard, na ordem dos shards
+     * @throws SQLException se a chamada falhar em algum shard
+     * @throws DatabaseUnavailableException se algum shard estiver inacessível
+     */
+    public <T> Map<Integer, T> fanOut(final OperationTypeEnum type, final DatabaseCall<T> call) throws SQLException {
+        var shardIds = ShardRouter.getInstance().getShardIds();
+        Map<Integer, T> results = new LinkedHashMap<>();
+        if (shardIds.size() == 1) {
+            results.put(shardIds.get(0), executeOnShard(type, shardIds.get(0), call));
+            return results;
+        }
+        Map<Integer, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (var shard : shardIds) {
+            futures.put(shard, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return executeOnShard(type, shard, call);
+                } catch (SQLException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, FAN_OUT));
+        }
+        for (var entry : futures.entrySet()) {
+            try {
+                results.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                if (ex.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw ex;
+            }
+        }
+        return results;
+    }
+
+    private <T> T executeOnShard(final OperationTypeEnum type, final int shard, final DatabaseCall<T> call) throws SQLException {
+        var circuitBreaker = circuitBreaker(shard);
+        var timeoutSeconds = config.queryTimeoutSeconds().get(type);
+        for (var attempt = 1; ; attempt++) {
+            circuitBreaker.acquirePermission();
+            try (var connection = acquire(type, shard, circuitBreaker)) {
+                var result = call.execute(withQueryTimeout(connection, timeoutSeconds));
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (SQLException ex) {
+                var connectionFailure = SqlErrors.isConnectionFailure(ex);
+                if (connectionFailure) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+                var retryable = SqlErrors.isTransactionConflict(ex) || (connectionFailure && type.isReadOnly());
+                if (!retryable || attempt >= config.maxAttempts()) {
+                    if (connectionFailure) {
+                        throw unavailable(type, ex);
+                    }
+                    throw SqlErrors.isQueryTimeout(ex) ? timeout(type, ex) : ex;
+                }
+                sleep(attempt, ex);
+            } catch (RuntimeException ex) {
+                // Regras de negócio e falhas do próprio executor; o banco respondeu ou nem foi chamado
+                if (!(ex instanceof DatabaseUnavailableException)) {
+                    circuitBreaker.onSuccess();
+                }
+                throw ex;
+            } finally {
+                // Se esta era a chamada de teste e terminou sem mostrar se o banco está no ar (por exemplo, o
+                // pool não entregou conexão a tempo), o circuito volta a abrir em vez de ficar meio aberto
+                circuitBreaker.releaseProbe();
+            }
+        }
+    }
+
+    CircuitBreaker circuitBreaker(final int shard) {
+        return circuitBreakers.computeIfAbsent(shard,
+                id -> new CircuitBreaker(config.circuitFailureThreshold(), config.circuitOpenMs()));
+    }
+
+    /**
+     * Obtém a conexão da tentativa, já liberada pelo circuit breaker. O pool já espera e tenta abrir
+     * conexões até o seu próprio timeout, então uma falha aqui não é repetida.
+     */
+    private Connection acquire(final OperationTypeEnum type, final int shard, final CircuitBreaker circuitBreaker) {
+        try {
+            return connections.open(type, shard);
+        } catch (SQLException ex) {
+            if (SqlErrors.isConnectionFailure(ex)) {
+                circuitBreaker.onFailure();
+                throw new DatabaseUnavailableException("Não foi possível conectar ao banco de dados: " + ex.getMessage(), ex);
+            }
+            throw new DatabaseUnavailableException("Nenhuma conexão livre no pool: " + ex.getMessage(), ex);
+        }
+    }
+
+    private DatabaseUnavailableException unavailable(final OperationTypeEnum type, final SQLException ex) {
+        return new DatabaseUnavailableException(type.isReadOnly() ?
+                "A conexão com o banco de dados caiu: " + ex.getMessage() :
+                "A conexão com o banco de dados caiu durante a gravação; confira se a operação foi aplicada antes de repeti-la",
+                ex);
+    }
+
+    private SQLException timeout(final OperationTypeEnum type, final SQLException ex) {
+        return new SQLException("A consulta excedeu o tempo limite de %d s".formatted(
+                config.queryTimeoutSeconds().get(type)), ex.getSQLState(), ex.getErrorCode(), ex);
+    }
+
+    private void sleep(final int attempt, final SQLException cause) throws SQLException {
+        var ceiling = Math.min(config.maxBackoffMs(), config.initialBackoffMs() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    /**
+     * Embrulha a conexão para que todo statement criado nela receba o timeout, sem que os DAOs precisem
+     * saber da configuração.
+     * <p>
+     * O pool descarta a conexão quando uma consulta estoura o timeout, e o servidor desfaz a transação
+     * ao perder a conexão; o {@code rollback()} que os serviços fazem em seguida é ignorado para não
+     * esconder o erro original atrás de "Connection is closed".
+     */
+    private static Connection withQueryTimeout(final Connection connection, final int timeoutSeconds) {
+        if (timeoutSeconds <= 0) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        if ("rollback".equals(method.getName()) && method.getParameterCount() == 0 && connection.isClosed()) {
+                            return null;
+                        }
+                        var result = method.invoke(connection, args);
+                        if (result instanceof Statement statement) {
+                            statement.setQueryTimeout(timeoutSeconds);
+                        }
+                        return result;
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Embrulha a conexão de um lote para que {@code commit()} e {@code rollback()} sem savepoint, chamados
+     * pelos serviços ao fim de cada operação, não encerrem a transação do lote
+     */
+    private static Connection withoutTransactionControl(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (("commit".equals(method.getName()) || "rollback".equals(method.getName()))
+                            && method.getParameterCount() == 0) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,25 @@
+package br.com.dio.persistence.resilience;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Tipos de operação no banco. O tipo define o timeout das consultas
+ * ({@code db.timeout.<chave>-seconds}), a conexão usada e se a operação pode ser repetida
+ * quando a conexão cai no meio da chamada.
+ */
+@Getter
+@AllArgsConstructor
+public enum OperationTypeEnum {
+
+    /** Consultas das telas, curtas e repetíveis */
+    READ("read", true),
+    /** Relatórios e métricas, que percorrem o histórico do board e podem demorar mais */
+    REPORT("report", true),
+    /** Transações de escrita; só são repetidas em conflitos de lock, em que o banco desfaz tudo */
+    WRITE("write", false);
+
+    private final String configKey;
+    private final boolean readOnly;
+
+}
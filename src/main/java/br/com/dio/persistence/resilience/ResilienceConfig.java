@@ -0,0 +1,34 @@
+package br.com.dio.persistence.resilience;
+
+import br.com.dio.config.ApplicationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuração de timeouts, novas tentativas e circuit breaker das chamadas ao banco
+ * ({@code db.timeout.*}, {@code db.retry.*} e {@code db.circuit.*})
+ */
+record ResilienceConfig(Map<OperationTypeEnum, Integer> queryTimeoutSeconds,
+                        int maxAttempts,
+                        long initialBackoffMs,
+                        long maxBackoffMs,
+                        int circuitFailureThreshold,
+                        long circuitOpenMs) {
+
+    static ResilienceConfig from(final ApplicationProperties properties) {
+        Map<OperationTypeEnum, Integer> timeouts = new EnumMap<>(OperationTypeEnum.class);
+        timeouts.put(OperationTypeEnum.READ, properties.getInt("db.timeout.read-seconds", 15));
+        timeouts.put(OperationTypeEnum.REPORT, properties.getInt("db.timeout.report-seconds", 50));
+        timeouts.put(OperationTypeEnum.WRITE, properties.getInt("db.timeout.write-seconds", 10));
+        return new ResilienceConfig(
+                timeouts,
+                Math.max(1, properties.getInt("db.retry.max-attempts", 3)),
+                properties.getLong("db.retry.initial-backoff-ms", 100),
+                properties.getLong("db.retry.max-backoff-ms", 2_000),
+                properties.getInt("db.circuit.failure-threshold", 5),
+                properties.getLong("db.circuit.open-ms", 15_000)
+        );
+    }
+
+}
@@ -0,0 +1,64 @@
+package br.com.dio.persistence.resilience;
+
+import lombok.NoArgsConstructor;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Classifica as falhas do banco para decidir o que pode ser repetido
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class SqlErrors {
+
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    /**
+     * Falha de comunicação com o servidor (SQLState da classe 08), em qualquer ponto da cadeia de
+     * causas. O pool repassa a falha original quando não consegue abrir conexões, então um pool
+     * apenas esgotado não conta como banco fora do ar. As exceções suprimidas também são olhadas: quando
+     * a conexão cai no meio de uma consulta o driver pode lançar "statement closed" e a falha de
+     * comunicação só aparece ao fechar a conexão.
+     */
+    static boolean isConnectionFailure(final SQLException ex) {
+        return isConnectionFailure(ex, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static boolean isConnectionFailure(final Throwable ex, final Set<Throwable> visited) {
+        if (ex == null || !visited.add(ex)) {
+            return false;
+        }
+        if (ex instanceof SQLException sqlException && nonNullState(sqlException).startsWith("08")) {
+            return true;
+        }
+        for (var suppressed : ex.getSuppressed()) {
+            if (isConnectionFailure(suppressed, visited)) {
+                return true;
+            }
+        }
+        return isConnectionFailure(ex.getCause(), visited);
+    }
+
+    /**
+     * Deadlock ou espera de lock esgotada. O chamador desfaz a transação, então repeti-la inteira é seguro.
+     */
+    static boolean isTransactionConflict(final SQLException ex) {
+        return ex.getErrorCode() == ER_LOCK_DEADLOCK || ex.getErrorCode() == ER_LOCK_WAIT_TIMEOUT ||
+                "40001".equals(ex.getSQLState());
+    }
+
+    static boolean isQueryTimeout(final SQLException ex) {
+        return ex instanceof SQLTimeoutException;
+    }
+
+    private static String nonNullState(final SQLException ex) {
+        return ex.getSQLState() == null ? "" : ex.getSQLState();
+    }
+
+}
@@ -0,0 +1,15 @@
+package br.com.dio.persistence.shard;
+
+/**
+ * Onde um board está gravado
+ *
+ * @param shardId Shard que atende leituras e escritas do board
+ * @param movingTo Shard para onde o board está sendo movido, ou null se não houver mudança em andamento
+ */
+public record ShardLocation(int shardId, Integer movingTo) {
+
+    public boolean isMoving() {
+        return movingTo != null;
+    }
+
+}
@@ -0,0 +1,228 @@
+package br.com.dio.persistence.shard;
+
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.config.DatabaseConfig;
+import br.com.dio.persistence.dao.ShardCatalogDAO;
+import br.com.dio.persistence.id.IdAllocator;
+import br.com.dio.persistence.id.IdEntityEnum;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Distribui os boards entre os shards configurados em {@code db.shards}.
+ * <p>
+ * Um board fica inteiro em um único shard, com suas colunas, cards, bloqueios e histórico, então
+ * toda operação sobre um board roda em um só banco. O catálogo {@code BOARD_SHARDS}, no shard 0, diz
+ * em qual; boards fora do catálogo estão no shard 0, o que mantém uma instalação sem shards
+ * funcionando como antes. As localizações lidas ficam em cache por {@code db.shards.map-cache-ms}:
+ * uma mudança de shard feita por outro processo só é vista depois desse prazo, e o
+ * {@link br.com.dio.service.ShardMover} espera por ele antes de copiar o board.
+ * <p>
+ * Ids de boards, colunas e cards precisam ser únicos entre os shards, por isso com shards
+ * configurados essas entidades não podem usar a estratégia {@code auto} ({@link #validate()}).
+ */
+public final class ShardRouter {
+
+    public static final int CATALOG_SHARD = 0;
+
+    private static final ShardLocation CATALOG_LOCATION = new ShardLocation(CATALOG_SHARD, null);
+
+    private static final ShardRouter INSTANCE = new ShardRouter(ConnectionConfig.getDatabaseConfig());
+
+    private final List<Integer> shardIds;
+    private final Map<String, Integer> shardsByUrl = new HashMap<>();
+    private final long mapCacheMs;
+    private final Map<Long, CachedLocation> locations = new ConcurrentHashMap<>();
+
+    private ShardRouter(final DatabaseConfig config) {
+        this.shardIds = ConnectionConfig.getShardIds();
+        this.mapCacheMs = config.shardMapCacheMs();
+        for (var shard : shardIds) {
+            shardsByUrl.put(config.shardJdbcUrl(shard), shard);
+        }
+    }
+
+    public static ShardRouter getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isSharded() {
+        return shardIds.size() > 1;
+    }
+
+    /**
+     * @return Ids dos shards, começando pelo 0
+     */
+    public List<Integer> getShardIds() {
+        return shardIds;
+    }
+
+    /**
+     * @return Por quanto tempo uma localização lida do catálogo é reaproveitada
+     */
+    public long getMapCacheMs() {
+        return mapCacheMs;
+    }
+
+    /**
+     * Confere se a geração de ids permite o sharding
+     *
+     * @throws IllegalStateException se houver shards e alguma entidade usar ids do AUTO_INCREMENT
+     */
+    public void validate() {
+        if (!isSharded()) {
+            return;
+        }
+        for (var entity : IdEntityEnum.values()) {
+            if (IdAllocator.getInstance().isDatabaseGenerated(entity)) {
+                throw new IllegalStateException(("Com db.shards configurado, ids.%s.strategy deve ser hilo ou " +
+                        "time-ordered: ids do AUTO_INCREMENT se repetiriam entre os shards").formatted(entity.getConfigKey()));
+            }
+        }
+    }
+
+    /**
+     * Localiza o board, consultando o catálogo se a localização não estiver em cache
+     *
+     * @param boardId ID do board, ou null para operações que não pertencem a um board
+     * @return Localização do board; sem shards ou sem board, sempre o shard 0
+     * @throws SQLException se ocorrer erro ao consultar o catálogo
+     */
+    public ShardLocation locate(final Long boardId) throws SQLException {
+        if (!isSharded() || isNull(boardId)) {
+            return CATALOG_LOCATION;
+        }
+        var now = System.currentTimeMillis();
+        var cached = locations.get(boardId);
+        if (nonNull(cached) && now < cached.until()) {
+            return cached.location();
+        }
+        ShardLocation location;
+        try (var connection = ConnectionConfig.getConnection(CATALOG_SHARD)) {
+            location = new ShardCatalogDAO(connection).findByBoardId(boardId).orElse(CATALOG_LOCATION);
+            connection.commit();
+        }
+        locations.put(boardId, new CachedLocation(location, now + mapCacheMs));
+        return location;
+    }
+
+    /**
+     * Descarta a localização em cache do board, depois que este processo alterou o catálogo
+     *
+     * @param boardId ID do board
+     */
+    public void invalidate(final long boardId) {
+        locations.remove(boardId);
+    }
+
+    /**
+     * Descobre o shard de uma conexão pela URL. Conexões de réplicas, cuja URL não é de nenhum shard,
+     * são do shard 0, o único com réplicas.
+     *
+     * @param connection Conexão aberta por {@link ConnectionConfig}
+     * @return Id do shard
+     * @throws SQLException se ocorrer erro ao ler os metadados da conexão
+     */
+    public int shardOf(final Connection connection) throws SQLException {
+        if (!isSharded()) {
+            return CATALOG_SHARD;
+        }
+        return shardsByUrl.getOrDefault(connection.getMetaData().getURL(), CATALOG_SHARD);
+    }
+
+    /**
+     * Reserva o id de um board novo e o registra no catálogo, no shard com menos boards, antes de o
+     * board ser gravado
+     *
+     * @return ID que o board deve usar, ou null sem shards
+     * @throws SQLException se ocorrer erro ao reservar o id ou gravar o catálogo
+     */
+    public Long reserveBoard() throws SQLException {
+        return reserveBoard(null);
+    }
+
+    /**
+     * Reserva o id de um board novo em um shard determinado, como o de um board que será copiado
+     * com {@code INSERT ... SELECT}, que só funciona dentro de um mesmo banco
+     *
+     * @param shardId Shard do board, ou null para o shard com menos boards
+     * @return ID que o board deve usar, ou null sem shards
+     * @throws SQLException se ocorrer erro ao reservar o id ou gravar o catálogo
+     */
+    public Long reserveBoard(final Integer shardId) throws SQLException {
+        if (!isSharded()) {
+            return null;
+        }
+        var boardId = IdAllocator.getInstance().nextId(IdEntityEnum.BOARD);
+        try (var connection = ConnectionConfig.getConnection(CATALOG_SHARD)) {
+            try {
+                var dao = new ShardCatalogDAO(connection);
+                int shard;
+                if (nonNull(shardId)) {
+                    shard = shardId;
+                } else {
+                    var counts = dao.countByShard();
+                    shard = shardIds.stream()
+                            .min(Comparator.comparingLong(id -> counts.getOrDefault(id, 0L)))
+                            .orElse(CATALOG_SHARD);
+                }
+                dao.insert(boardId, shard);
+                connection.commit();
+                locations.put(boardId, new CachedLocation(new ShardLocation(shard, null),
+                        System.currentTimeMillis() + mapCacheMs));
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        }
+        return boardId;
+    }
+
+    /**
+     * Junta as linhas de uma consulta feita em todos os shards, na ordem dos shards. Um board que
+     * aparece em mais de um shard, o que só acontece perto do fim de uma mudança de shard, fica
+     * apenas com as linhas do shard indicado pelo catálogo.
+     *
+     * @param perShard Linhas de cada shard
+     * @param boardId Extrai o id do board de uma linha
+     * @return Linhas de todos os shards, sem duplicatas de boards em mudança
+     * @throws SQLException se ocorrer erro ao consultar o catálogo
+     */
+    public <T> List<T> merge(final Map<Integer, List<T>> perShard, final ToLongFunction<T> boardId) throws SQLException {
+        Map<Long, Integer> firstShard = new HashMap<>();
+        Set<Long> duplicated = new HashSet<>();
+        perShard.forEach((shard, rows) -> rows.forEach(row -> {
+            var id = boardId.applyAsLong(row);
+            if (!firstShard.computeIfAbsent(id, k -> shard).equals(shard)) {
+                duplicated.add(id);
+            }
+        }));
+        List<T> merged = new ArrayList<>();
+        for (var entry : perShard.entrySet()) {
+            for (var row : entry.getValue()) {
+                var id = boardId.applyAsLong(row);
+                if (!duplicated.contains(id) || locate(id).shardId() == entry.getKey()) {
+                    merged.add(row);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private record CachedLocation(ShardLocation location, long until) {
+    }
+
+}
@@ -0,0 +1,108 @@
+package br.com.dio.persistence.wip;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.exception.WipLimitExceededException;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Admissão de cards nas colunas com limite de WIP.
+ * <p>
+ * Quem decide é sempre o banco: {@link BoardColumnDAO#admit(Long)} incrementa {@code BOARDS_COLUMNS.card_count}
+ * só se o limite permitir, e a linha da coluna fica bloqueada até o commit. Quando o banco recusa, a recusa
+ * fica guardada por {@code wip.reject-cache-ms}, e novas tentativas na mesma coluna são recusadas no
+ * processo, sem ir ao banco nem esperar pelo bloqueio da coluna. A recusa guardada deixa de valer assim que
+ * um card sai da coluna por este processo: as saídas são contadas em um {@link LongAdder}, que não
+ * disputa uma única variável entre as threads que movem cards ao mesmo tempo, e a recusa só é reaproveitada
+ * se a contagem ainda for a mesma de antes da ida ao banco. Saídas feitas por outros processos e limites
+ * aumentados por eles só são vistos depois que a recusa guardada expira.
+ */
+public final class WipAdmission {
+
+    private static final WipAdmission INSTANCE = new WipAdmission(
+            ApplicationProperties.getInstance().getLong("wip.reject-cache-ms", 1000));
+
+    private final long rejectCacheMs;
+    private final Map<Long, ColumnState> columns = new ConcurrentHashMap<>();
+
+    private WipAdmission(final long rejectCacheMs) {
+        this.rejectCacheMs = rejectCacheMs;
+    }
+
+    public static WipAdmission getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Reserva uma vaga para um card na coluna, na transação da conexão do DAO
+     *
+     * @param dao DAO de colunas na conexão da transação que move ou cria o card
+     * @param columnId ID da coluna de destino
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     * @throws WipLimitExceededException se a coluna já atingiu o limite de WIP
+     * @throws IllegalStateException se a coluna não existir
+     */
+    public void admit(final BoardColumnDAO dao, final long columnId) throws SQLException {
+        var state = columns.computeIfAbsent(columnId, id -> new ColumnState());
+        var departures = state.departures.sum();
+        var rejection = state.rejection;
+        if (nonNull(rejection) && rejection.departures() == departures && System.currentTimeMillis() < rejection.until()) {
+            throw exceeded(rejection.columnName(), rejection.wipLimit());
+        }
+        if (dao.admit(columnId)) {
+            return;
+        }
+        var wip = dao.findWipById(columnId).orElseThrow(
+                () -> new IllegalStateException("A coluna %s não existe".formatted(columnId)));
+        // As saídas foram lidas antes do UPDATE; se alguma terminou depois, a recusa já nasce vencida
+        state.rejection = new Rejection(departures, System.currentTimeMillis() + rejectCacheMs,
+                wip.name(), wip.wipLimit());
+        throw exceeded(wip.name(), wip.wipLimit());
+    }
+
+    /**
+     * Libera a vaga de um card que está saindo da coluna, na transação da conexão do DAO
+     *
+     * @param dao DAO de colunas na conexão da transação que move o card
+     * @param columnId ID da coluna de origem
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void release(final BoardColumnDAO dao, final long columnId) throws SQLException {
+        dao.release(columnId);
+        var state = columns.get(columnId);
+        if (nonNull(state)) {
+            state.departures.increment();
+        }
+    }
+
+    /**
+     * Descarta a recusa guardada da coluna, depois que o limite dela foi alterado por este processo
+     *
+     * @param columnId ID da coluna
+     */
+    public void onLimitChanged(final long columnId) {
+        columns.remove(columnId);
+    }
+
+    private WipLimitExceededException exceeded(final String columnName, final Integer wipLimit) {
+        return new WipLimitExceededException("A coluna %s já atingiu o limite de %s cards em andamento"
+                .formatted(columnName, wipLimit));
+    }
+
+    private static final class ColumnState {
+
+        private final LongAdder departures = new LongAdder();
+        private volatile Rejection rejection;
+
+    }
+
+    private record Rejection(long departures, long until, String columnName, Integer wipLimit) {
+    }
+
+}
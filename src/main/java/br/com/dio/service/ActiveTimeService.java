@@ -0,0 +1,78 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.ActiveTimeDTO;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.service.metrics.ActiveTimeEngine;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Serviço que separa o tempo ativo do tempo bloqueado de um board, por coluna e por card
+ */
+@AllArgsConstructor
+public class ActiveTimeService {
+
+    private final Connection connection;
+
+    /**
+     * Lê em streaming as movimentações e os bloqueios do board e os cruza no {@link ActiveTimeEngine}
+     *
+     * @param boardId ID do board
+     * @return Tempos ativo e bloqueado do board
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public ActiveTimeDTO getActiveTime(final Long boardId) throws SQLException {
+        var engine = new ActiveTimeEngine(new BoardColumnDAO(connection).findByBoardId(boardId));
+        var nowMillis = getServerNowMillis();
+
+        // Sem ORDER BY: o engine ordena os intervalos
+        String movesSql = """
+            SELECT ch.card_id, ch.to_column_id, UNIX_TIMESTAMP(ch.moved_at) * 1000 AS moved_at_ms, ch.id
+            FROM CARD_HISTORY ch
+            INNER JOIN BOARDS_COLUMNS bc ON ch.to_column_id = bc.id
+            WHERE bc.board_id = ?;
+        """;
+        String blocksSql = """
+            SELECT b.card_id,
+                   UNIX_TIMESTAMP(b.blocked_at) * 1000 AS blocked_at_ms,
+                   UNIX_TIMESTAMP(b.unblocked_at) * 1000 AS unblocked_at_ms
+            FROM BLOCKS b
+            INNER JOIN BOARDS_COLUMNS bc ON b.board_column_id = bc.id
+            WHERE bc.board_id = ?;
+        """;
+
+        try (var statement = connection.prepareStatement(movesSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setLong(1, boardId);
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    engine.acceptMove(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4));
+                }
+            }
+        }
+        try (var statement = connection.prepareStatement(blocksSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setLong(1, boardId);
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    // unblocked_at nulo chega como 0, que o engine trata como bloqueio aberto
+                    engine.acceptBlock(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3));
+                }
+            }
+        }
+
+        return engine.finish(nowMillis);
+    }
+
+    private long getServerNowMillis() throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT UNIX_TIMESTAMP(NOW()) * 1000;")) {
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+}
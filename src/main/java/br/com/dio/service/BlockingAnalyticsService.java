@@ -0,0 +1,275 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BlockedTimeSummaryDTO;
+import br.com.dio.dto.CardBlockingReportDTO;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serviço de análise de bloqueios. As durações são calculadas pelo banco com um único
+ * instante de referência ({@code NOW()} avaliado uma vez por consulta) para os bloqueios abertos,
+ * usando o mesmo relógio que grava {@code blocked_at} e {@code unblocked_at}.
+ */
+@AllArgsConstructor
+public class BlockingAnalyticsService {
+
+    private final Connection connection;
+
+    /**
+     * Recebe os bloqueios de um board como valores primitivos, sem criar objetos por linha
+     */
+    @FunctionalInterface
+    public interface BlockIntervalConsumer {
+
+        /**
+         * @param cardId ID do card
+         * @param blockedAtMillis Momento do bloqueio em epoch millis
+         * @param unblockedAtMillis Momento do desbloqueio em epoch millis ou -1 se ainda bloqueado
+         * @param durationMillis Duração do bloqueio até o desbloqueio ou até o instante da consulta
+         */
+        void accept(long cardId, long blockedAtMillis, long unblockedAtMillis, long durationMillis);
+    }
+
+    /**
+     * Lista os bloqueios dos cards de um board com a duração calculada no banco
+     *
+     * @param boardId ID do board
+     * @return Lista de bloqueios ordenada por card e data de bloqueio
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public List<CardBlockingReportDTO> getBlockingReport(final Long boardId) throws SQLException {
+        String sql = """
+            SELECT c.id, c.title,
+                   b.blocked_at, br.label AS block_reason,
+                   b.unblocked_at, ur.label AS unblock_reason,
+                   TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now)) AS blocked_seconds
+            FROM BLOCKS b
+            INNER JOIN CARDS c ON c.id = b.card_id
+            INNER JOIN BOARDS_COLUMNS bc ON b.board_column_id = bc.id
+            INNER JOIN BLOCK_REASONS br ON b.block_reason_id = br.id
+            LEFT JOIN BLOCK_REASONS ur ON b.unblock_reason_id = ur.id
+            CROSS JOIN (SELECT NOW() AS snapshot_now) n
+            WHERE bc.board_id = ?
+            ORDER BY c.id, b.blocked_at;
+        """;
+        return queryBlockings(sql, boardId);
+    }
+
+    /**
+     * Lista os bloqueios de um card com a duração calculada no banco
+     *
+     * @param cardId ID do card
+     * @return Lista de bloqueios ordenada por data de bloqueio
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public List<CardBlockingReportDTO> getCardBlockings(final Long cardId) throws SQLException {
+        String sql = """
+            SELECT c.id, c.title,
+                   b.blocked_at, br.label AS block_reason,
+                   b.unblocked_at, ur.label AS unblock_reason,
+                   TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now)) AS blocked_seconds
+            FROM BLOCKS b
+            INNER JOIN CARDS c ON b.card_id = c.id
+            INNER JOIN BLOCK_REASONS br ON b.block_reason_id = br.id
+            LEFT JOIN BLOCK_REASONS ur ON b.unblock_reason_id = ur.id
+            CROSS JOIN (SELECT NOW() AS snapshot_now) n
+            WHERE c.id = ?
+            ORDER BY b.blocked_at;
+        """;
+        return queryBlockings(sql, cardId);
+    }
+
+    /**
+     * Soma, no banco, o tempo bloqueado de cada card do board
+     *
+     * @param boardId ID do board
+     * @return Resumo por card, do mais para o menos bloqueado
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public List<BlockedTimeSummaryDTO> getBlockedTimeByCard(final Long boardId) throws SQLException {
+        String sql = """
+            SELECT c.id AS group_id, c.title AS label,
+                   COUNT(*) AS blocks,
+                   SUM(b.unblocked_at IS NULL) AS open_blocks,
+                   SUM(TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now))) AS total_seconds,
+                   MAX(TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now))) AS max_seconds
+            FROM BLOCKS b
+            INNER JOIN CARDS c ON b.card_id = c.id
+            INNER JOIN BOARDS_COLUMNS bc ON b.board_column_id = bc.id
+            CROSS JOIN (SELECT NOW() AS snapshot_now) n
+            WHERE bc.board_id = ?
+            GROUP BY c.id, c.title
+            ORDER BY total_seconds DESC;
+        """;
+        return querySummaries(sql, boardId);
+    }
+
+    /**
+     * Soma, no banco, o tempo bloqueado por motivo de bloqueio no board. A agregação percorre apenas
+     * o índice {@code (board_column_id, block_reason_id, blocked_at, unblocked_at)} de {@code BLOCKS};
+     * o dicionário só é consultado para os motivos resultantes.
+     *
+     * @param boardId ID do board
+     * @return Resumo por motivo, do que mais bloqueou para o que menos bloqueou
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public List<BlockedTimeSummaryDTO> getBlockedTimeByReason(final Long boardId) throws SQLException {
+        String sql = """
+            SELECT br.id AS group_id, br.label AS label,
+                   t.blocks, t.open_blocks, t.total_seconds, t.max_seconds
+            FROM (SELECT b.block_reason_id,
+                         COUNT(*) AS blocks,
+                         SUM(b.unblocked_at IS NULL) AS open_blocks,
+                         SUM(TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now))) AS total_seconds,
+                         MAX(TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now))) AS max_seconds
+                  FROM BLOCKS b
+                  INNER JOIN BOARDS_COLUMNS bc ON b.board_column_id = bc.id
+                  CROSS JOIN (SELECT NOW() AS snapshot_now) n
+                  WHERE bc.board_id = ?
+                  GROUP BY b.block_reason_id) t
+            INNER JOIN BLOCK_REASONS br ON t.block_reason_id = br.id
+            ORDER BY t.total_seconds DESC;
+        """;
+        return querySummaries(sql, boardId);
+    }
+
+    /**
+     * Soma, no banco, o tempo bloqueado por categoria de motivo no board
+     *
+     * @param boardId ID do board
+     * @return Resumo por categoria, da que mais bloqueou para a que menos bloqueou
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public List<BlockedTimeSummaryDTO> getBlockedTimeByCategory(final Long boardId) throws SQLException {
+        String sql = """
+            SELECT NULL AS group_id, br.category AS label,
+                   SUM(t.blocks) AS blocks,
+                   SUM(t.open_blocks) AS open_blocks,
+                   SUM(t.total_seconds) AS total_seconds,
+                   MAX(t.max_seconds) AS max_seconds
+            FROM (SELECT b.block_reason_id,
+                         COUNT(*) AS blocks,
+                         SUM(b.unblocked_at IS NULL) AS open_blocks,
+                         SUM(TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now))) AS total_seconds,
+                         MAX(TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now))) AS max_seconds
+                  FROM BLOCKS b
+                  INNER JOIN BOARDS_COLUMNS bc ON b.board_column_id = bc.id
+                  CROSS JOIN (SELECT NOW() AS snapshot_now) n
+                  WHERE bc.board_id = ?
+                  GROUP BY b.block_reason_id) t
+            INNER JOIN BLOCK_REASONS br ON t.block_reason_id = br.id
+            GROUP BY br.category
+            ORDER BY total_seconds DESC;
+        """;
+        return querySummaries(sql, boardId);
+    }
+
+    /**
+     * Soma, no banco, o tempo bloqueado por coluna em que os cards estavam ao serem bloqueados
+     *
+     * @param boardId ID do board
+     * @return Resumo por coluna, na ordem das colunas do board
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public List<BlockedTimeSummaryDTO> getBlockedTimeByColumn(final Long boardId) throws SQLException {
+        String sql = """
+            SELECT bc.id AS group_id, bc.name AS label,
+                   COUNT(*) AS blocks,
+                   SUM(b.unblocked_at IS NULL) AS open_blocks,
+                   SUM(TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now))) AS total_seconds,
+                   MAX(TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now))) AS max_seconds
+            FROM BLOCKS b
+            INNER JOIN BOARDS_COLUMNS bc ON b.board_column_id = bc.id
+            CROSS JOIN (SELECT NOW() AS snapshot_now) n
+            WHERE bc.board_id = ?
+            GROUP BY bc.id, bc.name, bc.`order`
+            ORDER BY bc.`order`;
+        """;
+        return querySummaries(sql, boardId);
+    }
+
+    /**
+     * Percorre em streaming os bloqueios do board entregando os instantes como epoch millis
+     *
+     * @param boardId ID do board
+     * @param consumer Recebe uma chamada por bloqueio, em ordem de card e data de bloqueio
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public void streamBlockIntervals(final Long boardId, final BlockIntervalConsumer consumer) throws SQLException {
+        String sql = """
+            SELECT b.card_id,
+                   UNIX_TIMESTAMP(b.blocked_at) * 1000 AS blocked_at_ms,
+                   COALESCE(UNIX_TIMESTAMP(b.unblocked_at) * 1000, -1) AS unblocked_at_ms,
+                   TIMESTAMPDIFF(SECOND, b.blocked_at, COALESCE(b.unblocked_at, n.snapshot_now)) * 1000 AS duration_ms
+            FROM BLOCKS b
+            INNER JOIN BOARDS_COLUMNS bc ON b.board_column_id = bc.id
+            CROSS JOIN (SELECT NOW() AS snapshot_now) n
+            WHERE bc.board_id = ?
+            ORDER BY b.card_id, b.blocked_at;
+        """;
+
+        try (var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Faz o driver entregar as linhas em streaming em vez de materializar o resultado
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setLong(1, boardId);
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4));
+                }
+            }
+        }
+    }
+
+    private List<CardBlockingReportDTO> queryBlockings(final String sql, final Long id) throws SQLException {
+        List<CardBlockingReportDTO> report = new ArrayList<>();
+
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, id);
+            var resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                var unblockedAt = resultSet.getTimestamp("unblocked_at");
+                report.add(new CardBlockingReportDTO(
+                        resultSet.getLong("id"),
+                        resultSet.getString("title"),
+                        resultSet.getTimestamp("blocked_at").toLocalDateTime(),
+                        resultSet.getString("block_reason"),
+                        unblockedAt != null ? unblockedAt.toLocalDateTime() : null,
+                        resultSet.getString("unblock_reason"),
+                        Duration.ofSeconds(resultSet.getLong("blocked_seconds"))
+                ));
+            }
+        }
+
+        return report;
+    }
+
+    private List<BlockedTimeSummaryDTO> querySummaries(final String sql, final Long boardId) throws SQLException {
+        List<BlockedTimeSummaryDTO> summaries = new ArrayList<>();
+
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            var resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                summaries.add(new BlockedTimeSummaryDTO(
+                        resultSet.getObject("group_id") != null ? resultSet.getLong("group_id") : null,
+                        resultSet.getString("label"),
+                        resultSet.getInt("blocks"),
+                        resultSet.getInt("open_blocks"),
+                        Duration.ofSeconds(resultSet.getLong("total_seconds")),
+                        Duration.ofSeconds(resultSet.getLong("max_seconds"))
+                ));
+            }
+        }
+
+        return summaries;
+    }
+
+}
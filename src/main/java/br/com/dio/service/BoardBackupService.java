@@ -0,0 +1,509 @@
+package br.com.dio.service;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.dto.BoardBackupResultDTO;
+import br.com.dio.event.BoardEvent;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.event.ChangeFeed;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.BlockReasonDAO;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.id.IdAllocator;
+import br.com.dio.persistence.shard.ShardRouter;
+import br.com.dio.service.backup.BoardArchiveReader;
+import br.com.dio.service.backup.BoardArchiveVisitor;
+import br.com.dio.service.backup.BoardArchiveWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static br.com.dio.event.BoardEventType.BOARD_CREATED;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static br.com.dio.persistence.id.IdEntityEnum.CARD;
+import static br.com.dio.persistence.mapper.ResultSets.getNullableLong;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Exporta um board, com colunas, cards, bloqueios e histórico, para um arquivo binário e restaura
+ * esse arquivo como um board novo (formato em {@code br.com.dio.service.backup}).
+ * <p>
+ * A exportação lê as tabelas em streaming, dentro de uma única transação, então o arquivo é uma foto
+ * consistente do board mesmo com escritas em andamento; o arquivo é gravado com a extensão
+ * {@code .tmp} e só é renomeado no fim. A memória usada não depende do tamanho do board, além de um
+ * {@code long} por card para traduzir ids em posições no arquivo.
+ * <p>
+ * A restauração cria um board com ids novos em uma única transação, com as linhas gravadas em lotes
+ * de {@code backup.batch-size}: até o commit o board não aparece para ninguém, e uma falha não deixa
+ * nada para trás. Os motivos de bloqueio são procurados ou criados no dicionário pelo rótulo e o
+ * contador de cards das colunas (limite de WIP) é gravado a partir dos cards restaurados. Os
+ * checkpoints de {@link BoardHistoryService} não são exportados: o {@link BoardCheckpointer} os
+ * recria a partir do histórico.
+ */
+public final class BoardBackupService {
+
+    private static final BoardBackupService INSTANCE = new BoardBackupService(
+            ApplicationProperties.getInstance().getString("backup.directory", "backups"),
+            ApplicationProperties.getInstance().getInt("backup.batch-size", 5_000));
+
+    private final Path directory;
+    private final int batchSize;
+
+    private BoardBackupService(final String directory, final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote de restauração deve ser positivo");
+        }
+        this.directory = Path.of(directory);
+        this.batchSize = batchSize;
+    }
+
+    public static BoardBackupService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Resolve o nome de um arquivo de backup: caminhos relativos ficam em {@code backup.directory}
+     *
+     * @param fileName Nome ou caminho do arquivo
+     * @return Caminho do arquivo
+     */
+    public Path resolve(final String fileName) {
+        return directory.resolve(fileName);
+    }
+
+    /**
+     * Exporta o board para o arquivo, substituindo um arquivo existente
+     *
+     * @param boardId ID do board
+     * @param file Arquivo de destino
+     * @return Resumo da exportação
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     * @throws IOException se ocorrer erro ao gravar o arquivo
+     * @throws EntityNotFoundException se o board não existir
+     */
+    public BoardBackupResultDTO export(final long boardId, final Path file) throws SQLException, IOException {
+        var startedAt = System.currentTimeMillis();
+        if (nonNull(file.getParent())) {
+            Files.createDirectories(file.getParent());
+        }
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        var shard = ShardRouter.getInstance().locate(boardId).shardId();
+        long[] counts;
+        long bytes;
+        try (var connection = ConnectionConfig.getReadConnection(shard);
+             var writer = BoardArchiveWriter.create(temporary)) {
+            try {
+                counts = export(connection, writer, boardId);
+                bytes = writer.getBytesWritten();
+            } finally {
+                // Só leitura: encerra a transação que manteve a foto do board
+                connection.rollback();
+            }
+        } catch (SQLException | IOException | RuntimeException ex) {
+            Files.deleteIfExists(temporary);
+            throw ex;
+        }
+        Files.move(temporary, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        return new BoardBackupResultDTO(boardId, file.toString(), counts[0], counts[1], counts[2], counts[3], bytes,
+                System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Restaura o backup como um board novo
+     *
+     * @param file Arquivo de backup
+     * @param name Nome do board restaurado, ou null para manter o nome gravado no arquivo
+     * @return Resumo da restauração, com o id do board criado
+     * @throws SQLException se ocorrer erro no acesso ao banco; nada é gravado
+     * @throws IOException se o arquivo não puder ser lido ou estiver corrompido; nada é gravado
+     */
+    public BoardBackupResultDTO restore(final Path file, final String name) throws SQLException, IOException {
+        var startedAt = System.currentTimeMillis();
+        // Com shards, o id é reservado no catálogo e define em qual shard o board será gravado
+        var reservedId = ShardRouter.getInstance().reserveBoard();
+        var shard = ShardRouter.getInstance().locate(reservedId).shardId();
+        Restorer restorer;
+        try (var reader = BoardArchiveReader.open(file);
+             var connection = ConnectionConfig.getConnection(shard)) {
+            restorer = new Restorer(connection, reservedId, name);
+            try {
+                reader.read(restorer);
+                restorer.finish();
+                // O histórico e os bloqueios restaurados não são alterações novas para o feed
+                var suspension = ChangeFeed.getInstance().suspend(shard, restorer.board.getId());
+                try {
+                    connection.commit();
+                } finally {
+                    suspension.close();
+                }
+            } catch (SQLException | IOException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                restorer.close();
+            }
+        }
+        BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+        BoardEventBus.getInstance().publish(BoardEvent.local(BOARD_CREATED, restorer.board.getId(), null,
+                null, null, restorer.board.getName()));
+        return new BoardBackupResultDTO(restorer.board.getId(), file.toString(), restorer.columnIds.length,
+                restorer.cards, restorer.blocks, restorer.history, Files.size(file),
+                System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * @return Colunas, cards, bloqueios e linhas de histórico exportados
+     */
+    private long[] export(final Connection connection, final BoardArchiveWriter writer, final long boardId)
+            throws SQLException, IOException {
+        // A primeira leitura abre a foto (REPEATABLE READ) usada por todas as seguintes
+        var board = new BoardDAO(connection).findByIdWithColumns(boardId)
+                .orElseThrow(() -> new EntityNotFoundException("O board de id %s não foi encontrado".formatted(boardId)));
+        writer.writeBoard(board.getName());
+        Map<Long, Integer> columnIndexes = new HashMap<>();
+        for (var column : board.getBoardColumns()) {
+            columnIndexes.put(column.getId(), columnIndexes.size());
+            writer.writeColumn(column.getId(), column.getName(), column.getOrder(), column.getKind().name(),
+                    column.getWipLimit());
+        }
+
+        var cardsSql = """
+                SELECT c.id, c.board_column_id, c.title, c.description, c.lexo_rank,
+                       UNIX_TIMESTAMP(c.created_at), UNIX_TIMESTAMP(c.completed_at)
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                 WHERE bc.board_id = ?
+                 ORDER BY c.id;
+                """;
+        var cardIds = new long[1024];
+        var cards = 0;
+        try (var statement = prepareStreaming(connection, cardsSql, boardId);
+             var resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                var id = resultSet.getLong(1);
+                if (cards == cardIds.length) {
+                    cardIds = Arrays.copyOf(cardIds, cards * 2);
+                }
+                cardIds[cards] = id;
+                writer.writeCard(id, columnIndex(columnIndexes, resultSet.getLong(2)), resultSet.getString(3),
+                        resultSet.getString(4), resultSet.getString(5), resultSet.getLong(6), getNullableLong(resultSet, 7));
+                cards++;
+            }
+        }
+
+        var blocksSql = """
+                SELECT bl.card_id, bl.board_column_id, UNIX_TIMESTAMP(bl.blocked_at), br.label,
+                       UNIX_TIMESTAMP(bl.unblocked_at), ur.label
+                  FROM BLOCKS bl
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = bl.board_column_id
+                 INNER JOIN BLOCK_REASONS br
+                    ON br.id = bl.block_reason_id
+                  LEFT JOIN BLOCK_REASONS ur
+                    ON ur.id = bl.unblock_reason_id
+                 WHERE bc.board_id = ?
+                 ORDER BY bl.id;
+                """;
+        var blocks = 0L;
+        try (var statement = prepareStreaming(connection, blocksSql, boardId);
+             var resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                writer.writeBlock(cardIndex(cardIds, cards, resultSet.getLong(1)),
+                        columnIndex(columnIndexes, resultSet.getLong(2)), resultSet.getLong(3), resultSet.getString(4),
+                        getNullableLong(resultSet, 5), resultSet.getString(6));
+                blocks++;
+            }
+        }
+
+        var historySql = """
+                SELECT ch.card_id, ch.from_column_id, ch.to_column_id, UNIX_TIMESTAMP(ch.moved_at)
+                  FROM CARD_HISTORY ch
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = ch.to_column_id
+                 WHERE bc.board_id = ?
+                 ORDER BY ch.id;
+                """;
+        var history = 0L;
+        try (var statement = prepareStreaming(connection, historySql, boardId);
+             var resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                var fromColumnId = getNullableLong(resultSet, 2);
+                writer.writeHistory(cardIndex(cardIds, cards, resultSet.getLong(1)),
+                        isNull(fromColumnId) ? null : columnIndex(columnIndexes, fromColumnId),
+                        columnIndex(columnIndexes, resultSet.getLong(3)), resultSet.getLong(4));
+                history++;
+            }
+        }
+        writer.finish(columnIndexes.size(), cards, blocks, history);
+        return new long[]{columnIndexes.size(), cards, blocks, history};
+    }
+
+    private PreparedStatement prepareStreaming(final Connection connection, final String sql, final long boardId)
+            throws SQLException {
+        var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(Integer.MIN_VALUE);
+        statement.setLong(1, boardId);
+        return statement;
+    }
+
+    private int columnIndex(final Map<Long, Integer> columnIndexes, final long columnId) {
+        var index = columnIndexes.get(columnId);
+        if (isNull(index)) {
+            throw new IllegalStateException("A coluna %s não pertence ao board exportado".formatted(columnId));
+        }
+        return index;
+    }
+
+    private int cardIndex(final long[] cardIds, final int cards, final long cardId) {
+        var index = Arrays.binarySearch(cardIds, 0, cards, cardId);
+        if (index < 0) {
+            throw new IllegalStateException("O card %s não pertence ao board exportado".formatted(cardId));
+        }
+        return index;
+    }
+
+    /**
+     * Grava os registros do arquivo no banco, em lotes, traduzindo as posições do arquivo para os ids novos
+     */
+    private final class Restorer implements BoardArchiveVisitor {
+
+        private final Connection connection;
+        private final Long reservedId;
+        private final String name;
+        private final boolean cardIdsGenerated = IdAllocator.getInstance().isDatabaseGenerated(CARD);
+        private final Map<String, Long> reasonIds = new HashMap<>();
+
+        private BoardEntity board;
+        private long[] columnIds = new long[0];
+        private int[] columnCards = new int[0];
+        private long[] cardIds = new long[1024];
+        private final List<Long> pendingCardIds = new ArrayList<>();
+        private int cards;
+        private long blocks;
+        private long history;
+
+        private PreparedStatement cardStatement;
+        private PreparedStatement blockStatement;
+        private PreparedStatement historyStatement;
+        private int cardBatch;
+        private int blockBatch;
+        private int historyBatch;
+
+        private Restorer(final Connection connection, final Long reservedId, final String name) {
+            this.connection = connection;
+            this.reservedId = reservedId;
+            this.name = name;
+        }
+
+        @Override
+        public void board(final String archivedName) throws SQLException {
+            board = new BoardEntity();
+            board.setId(reservedId);
+            board.setName(isNull(name) || name.isBlank() ? archivedName : name);
+            new BoardDAO(connection).insert(board);
+        }
+
+        @Override
+        public void column(final int index, final long originalId, final String name, final int order,
+                           final String kind, final Integer wipLimit) throws SQLException {
+            var column = new BoardColumnEntity();
+            column.setName(name);
+            column.setOrder(order);
+            column.setKind(findByName(kind));
+            column.setWipLimit(wipLimit);
+            column.setBoard(requireBoard());
+            new BoardColumnDAO(connection).insert(column);
+            columnIds = Arrays.copyOf(columnIds, index + 1);
+            columnIds[index] = column.getId();
+            columnCards = Arrays.copyOf(columnCards, index + 1);
+        }
+
+        @Override
+        public void card(final int index, final long originalId, final int columnIndex, final String title,
+                         final String description, final String lexoRank, final long createdAt, final Long completedAt)
+                throws SQLException {
+            if (isNull(cardStatement)) {
+                // Sem ";" no fim: com rewriteBatchedStatements o driver junta o lote em um único INSERT
+                var sql = """
+                        INSERT INTO CARDS (id, title, description, board_column_id, lexo_rank, created_at, completed_at)
+                        VALUES (?, ?, ?, ?, ?, FROM_UNIXTIME(?), FROM_UNIXTIME(?))
+                        """;
+                cardStatement = cardIdsGenerated ?
+                        connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) :
+                        connection.prepareStatement(sql);
+            }
+            var id = IdAllocator.getInstance().nextId(CARD);
+            var i = 1;
+            cardStatement.setObject(i ++, id, Types.BIGINT);
+            cardStatement.setString(i ++, title);
+            cardStatement.setString(i ++, description);
+            cardStatement.setLong(i ++, columnIds[columnIndex]);
+            cardStatement.setString(i ++, lexoRank);
+            cardStatement.setLong(i ++, createdAt);
+            cardStatement.setObject(i, completedAt, Types.BIGINT);
+            cardStatement.addBatch();
+            if (!cardIdsGenerated) {
+                pendingCardIds.add(id);
+            }
+            columnCards[columnIndex]++;
+            if (++cardBatch == batchSize) {
+                flushCards();
+            }
+        }
+
+        @Override
+        public void block(final int cardIndex, final int columnIndex, final long blockedAt, final String blockReason,
+                          final Long unblockedAt, final String unblockReason) throws SQLException {
+            // Os bloqueios e o histórico referenciam cards que podem estar no último lote ainda não gravado
+            flushCards();
+            if (isNull(blockStatement)) {
+                var sql = """
+                        INSERT INTO BLOCKS (card_id, board_column_id, blocked_at, block_reason_id, unblocked_at, unblock_reason_id)
+                        VALUES (?, ?, FROM_UNIXTIME(?), ?, FROM_UNIXTIME(?), ?)
+                        """;
+                blockStatement = connection.prepareStatement(sql);
+            }
+            var i = 1;
+            blockStatement.setLong(i ++, cardIds[cardIndex]);
+            blockStatement.setLong(i ++, columnIds[columnIndex]);
+            blockStatement.setLong(i ++, blockedAt);
+            blockStatement.setLong(i ++, reasonId(blockReason));
+            blockStatement.setObject(i ++, unblockedAt, Types.BIGINT);
+            blockStatement.setObject(i, isNull(unblockReason) ? null : reasonId(unblockReason), Types.BIGINT);
+            blockStatement.addBatch();
+            blocks++;
+            if (++blockBatch == batchSize) {
+                blockStatement.executeBatch();
+                blockBatch = 0;
+            }
+        }
+
+        @Override
+        public void history(final int cardIndex, final Integer fromColumnIndex, final int toColumnIndex,
+                            final long movedAt) throws SQLException {
+            flushCards();
+            if (isNull(historyStatement)) {
+                var sql = """
+                        INSERT INTO CARD_HISTORY (card_id, from_column_id, to_column_id, moved_at)
+                        VALUES (?, ?, ?, FROM_UNIXTIME(?))
+                        """;
+                historyStatement = connection.prepareStatement(sql);
+            }
+            var i = 1;
+            historyStatement.setLong(i ++, cardIds[cardIndex]);
+            historyStatement.setObject(i ++, isNull(fromColumnIndex) ? null : columnIds[fromColumnIndex], Types.BIGINT);
+            historyStatement.setLong(i ++, columnIds[toColumnIndex]);
+            historyStatement.setLong(i, movedAt);
+            historyStatement.addBatch();
+            history++;
+            if (++historyBatch == batchSize) {
+                historyStatement.executeBatch();
+                historyBatch = 0;
+            }
+        }
+
+        @Override
+        public void end(final long columns, final long cards, final long blocks, final long history) {
+            if (columns != columnIds.length || cards != this.cards + cardBatch || blocks != this.blocks ||
+                    history != this.history) {
+                throw new IllegalStateException(("O backup está incompleto: esperava %d colunas, %d cards, %d bloqueios " +
+                        "e %d linhas de histórico").formatted(columns, cards, blocks, history));
+            }
+        }
+
+        /**
+         * Grava os lotes pendentes e o contador de cards de cada coluna
+         */
+        private void finish() throws SQLException {
+            requireBoard();
+            flushCards();
+            if (blockBatch > 0) {
+                blockStatement.executeBatch();
+            }
+            if (historyBatch > 0) {
+                historyStatement.executeBatch();
+            }
+            var sql = "UPDATE BOARDS_COLUMNS SET card_count = ? WHERE id = ?";
+            try (var statement = connection.prepareStatement(sql)) {
+                for (var c = 0; c < columnIds.length; c++) {
+                    statement.setInt(1, columnCards[c]);
+                    statement.setLong(2, columnIds[c]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+
+        private void flushCards() throws SQLException {
+            if (cardBatch == 0) {
+                return;
+            }
+            cardStatement.executeBatch();
+            if (cards + cardBatch > cardIds.length) {
+                cardIds = Arrays.copyOf(cardIds, Math.max(cardIds.length * 2, cards + cardBatch));
+            }
+            if (cardIdsGenerated) {
+                var expected = cards + cardBatch;
+                try (var keys = cardStatement.getGeneratedKeys()) {
+                    while (keys.next() && cards < expected) {
+                        cardIds[cards++] = keys.getLong(1);
+                    }
+                }
+                if (cards != expected) {
+                    throw new IllegalStateException("O banco não devolveu os ids de todos os cards do lote");
+                }
+            } else {
+                for (var id : pendingCardIds) {
+                    cardIds[cards++] = id;
+                }
+                pendingCardIds.clear();
+            }
+            cardBatch = 0;
+        }
+
+        private long reasonId(final String label) throws SQLException {
+            var id = reasonIds.get(label);
+            if (isNull(id)) {
+                id = new BlockReasonDAO(connection).findOrCreateId(label);
+                reasonIds.put(label, id);
+            }
+            return id;
+        }
+
+        private BoardEntity requireBoard() {
+            if (isNull(board)) {
+                throw new IllegalStateException("O backup não tem o registro do board");
+            }
+            return board;
+        }
+
+        private void close() throws SQLException {
+            for (var statement : new PreparedStatement[]{cardStatement, blockStatement, historyStatement}) {
+                if (nonNull(statement)) {
+                    statement.close();
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package br.com.dio.service;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.event.BoardEvent;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.shard.ShardRouter;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Grava em segundo plano os checkpoints usados por {@link BoardHistoryService#findAsOf}.
+ * <p>
+ * Conta os eventos de cada board que passam pelo {@link BoardEventBus}, deste processo e de outros
+ * (via {@link br.com.dio.event.ChangeFeed}), e a cada {@code history.checkpoint.interval-events} eventos
+ * agenda a gravação dos checkpoints do board para depois de {@code history.checkpoint.lag-seconds},
+ * quando esses eventos já podem entrar em um checkpoint. A contagem é só um gatilho: a gravação parte
+ * do último checkpoint no banco, então eventos não contados (feed desligado, processo reiniciado) também
+ * entram. Uma reconstrução que precisou aplicar muitos eventos agenda a gravação na hora.
+ */
+public final class BoardCheckpointer {
+
+    private static final BoardCheckpointer INSTANCE = new BoardCheckpointer(
+            ApplicationProperties.getInstance().getBoolean("history.checkpoint.enabled", true),
+            ApplicationProperties.getInstance().getInt("history.checkpoint.interval-events", 500),
+            ApplicationProperties.getInstance().getInt("history.checkpoint.lag-seconds", 60));
+
+    private final boolean enabled;
+    private final int intervalEvents;
+    private final int lagSeconds;
+    private final Map<Long, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+    private BoardEventBus.Subscription subscription;
+
+    private BoardCheckpointer(final boolean enabled, final int intervalEvents, final int lagSeconds) {
+        if (intervalEvents <= 0) {
+            throw new IllegalArgumentException("O intervalo entre checkpoints deve ser positivo");
+        }
+        this.enabled = enabled;
+        this.intervalEvents = intervalEvents;
+        this.lagSeconds = Math.max(0, lagSeconds);
+    }
+
+    public static BoardCheckpointer getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (!enabled || nonNull(scheduler)) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "board-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        subscription = BoardEventBus.getInstance().subscribe(null, this::onEvent);
+    }
+
+    public synchronized void stop() {
+        if (nonNull(scheduler)) {
+            subscription.close();
+            scheduler.shutdownNow();
+            scheduler = null;
+            pending.clear();
+        }
+    }
+
+    /**
+     * Informa quantos eventos uma reconstrução aplicou depois do checkpoint que usou. Acima de dois
+     * intervalos, os checkpoints do board estão atrasados e a gravação é agendada imediatamente.
+     *
+     * @param boardId ID do board reconstruído
+     * @param replayed Eventos aplicados
+     */
+    public void onReplayed(final Long boardId, final long replayed) {
+        if (replayed >= 2L * intervalEvents) {
+            schedule(boardId, 0);
+        }
+    }
+
+    private void onEvent(final BoardEvent event) {
+        switch (event.type()) {
+            case CARD_CREATED, CARD_MOVED, CARD_CANCELED, CARD_BLOCKED, CARD_UNBLOCKED -> {
+                var count = counters.computeIfAbsent(event.boardId(), id -> new AtomicLong()).incrementAndGet();
+                if (count % intervalEvents == 0) {
+                    schedule(event.boardId(), lagSeconds);
+                }
+            }
+            case BOARD_DELETED -> counters.remove(event.boardId());
+            default -> {
+            }
+        }
+    }
+
+    private void schedule(final Long boardId, final long delaySeconds) {
+        if (!pending.add(boardId)) {
+            return;
+        }
+        synchronized (this) {
+            if (nonNull(scheduler)) {
+                scheduler.schedule(() -> checkpoint(boardId), delaySeconds, TimeUnit.SECONDS);
+                return;
+            }
+        }
+        pending.remove(boardId);
+    }
+
+    private void checkpoint(final Long boardId) {
+        // Sai de pending antes de ler o histórico, para que eventos que chegarem durante a execução agendem outra
+        pending.remove(boardId);
+        try {
+            var shard = ShardRouter.getInstance().locate(boardId).shardId();
+            try (var connection = ConnectionConfig.getConnection(shard)) {
+                try {
+                    new BoardHistoryService(connection).checkpoint(boardId, intervalEvents, lagSeconds);
+                    connection.commit();
+                } catch (SQLException | RuntimeException ex) {
+                    connection.rollback();
+                    throw ex;
+                }
+            }
+        } catch (SQLException | RuntimeException ex) {
+            // Sem o checkpoint a reconstrução continua correta, só aplica mais eventos
+            System.err.println("Falha ao gravar os checkpoints do board " + boardId + ": " + ex.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardCloneResultDTO;
+import br.com.dio.event.BoardEvent;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.id.IdAllocator;
+import br.com.dio.persistence.id.IdRange;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static br.com.dio.event.BoardEventType.BOARD_CREATED;
+import static br.com.dio.persistence.id.IdEntityEnum.BOARD_COLUMN;
+import static br.com.dio.persistence.id.IdEntityEnum.CARD;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Copia a estrutura de um board, e opcionalmente seus cards em aberto, para um board novo no mesmo
+ * banco, com {@code INSERT ... SELECT} executados pelo servidor: o número de comandos não depende da
+ * quantidade de colunas nem de cards.
+ * <p>
+ * As colunas novas são associadas às de origem pela posição na ordem dos ids, que o banco preserva ao
+ * inserir em ordem. Com ids gerados pela aplicação, a faixa é reservada de uma vez
+ * ({@link IdAllocator#reserveRange}) e calculada no próprio SELECT a partir do número da linha; os
+ * cards de origem são lidos com lock compartilhado, para que a quantidade usada na reserva não mude
+ * até a cópia. Os cards copiados são os das colunas inicial e pendentes, sem bloqueios nem histórico:
+ * entram no board novo como cards recém-criados, com a mesma ordem (rank) de antes.
+ */
+@AllArgsConstructor
+public class BoardCloneService {
+
+    private final Connection connection;
+
+    /**
+     * Cria o board novo como cópia do board de origem
+     *
+     * @param sourceId ID do board de origem
+     * @param boardId ID reservado para o board novo ({@code ShardRouter.reserveBoard}), ou null sem shards
+     * @param name Nome do board novo
+     * @param withOpenCards true para copiar também os cards em aberto
+     * @return Resumo da cópia
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     * @throws EntityNotFoundException se o board de origem não existir
+     */
+    public BoardCloneResultDTO clone(final Long sourceId, final Long boardId, final String name,
+                                     final boolean withOpenCards) throws SQLException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("O nome do board não pode ser vazio");
+        }
+        var startedAt = System.currentTimeMillis();
+        var boardDAO = new BoardDAO(connection);
+        var board = new BoardEntity();
+        int columns;
+        var cards = 0;
+        try {
+            var source = boardDAO.findByIdWithColumns(sourceId).orElseThrow(
+                    () -> new EntityNotFoundException("O board de id %s não foi encontrado".formatted(sourceId)));
+            board.setId(boardId);
+            board.setName(name);
+            boardDAO.insert(board);
+            columns = copyColumns(sourceId, board.getId(), source.getBoardColumns().size());
+            if (withOpenCards) {
+                cards = copyOpenCards(sourceId, board.getId());
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        }
+        BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+        BoardEventBus.getInstance().publish(BoardEvent.local(BOARD_CREATED, board.getId(), null,
+                null, null, board.getName()));
+        return new BoardCloneResultDTO(board.getId(), columns, cards, System.currentTimeMillis() - startedAt);
+    }
+
+    private int copyColumns(final Long sourceId, final Long boardId, final int count) throws SQLException {
+        var range = IdAllocator.getInstance().reserveRange(BOARD_COLUMN, count);
+        var sql = """
+                INSERT INTO BOARDS_COLUMNS (id, name, `order`, kind, wip_limit, board_id)
+                SELECT %s, s.name, s.`order`, s.kind, s.wip_limit, ?
+                  FROM (SELECT bc.id, bc.name, bc.`order`, bc.kind, bc.wip_limit,
+                               ROW_NUMBER() OVER (ORDER BY bc.id) - 1 n
+                          FROM BOARDS_COLUMNS bc
+                         WHERE bc.board_id = ?) s
+                 ORDER BY s.id;
+                """.formatted(idExpression(range, "s.n"));
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = bindRange(statement, 1, range);
+            statement.setLong(i ++, boardId);
+            statement.setLong(i, sourceId);
+            return checkCopied(statement.executeUpdate(), range, "colunas");
+        }
+    }
+
+    private int copyOpenCards(final Long sourceId, final Long boardId) throws SQLException {
+        var allocator = IdAllocator.getInstance();
+        var range = allocator.isDatabaseGenerated(CARD) ? null : allocator.reserveRange(CARD, countOpenCards(sourceId));
+        var sql = """
+                INSERT INTO CARDS (id, title, description, board_column_id, lexo_rank)
+                SELECT %s, s.title, s.description, m.new_id, s.lexo_rank
+                  FROM (SELECT c.id, c.title, c.description, c.board_column_id, c.lexo_rank,
+                               ROW_NUMBER() OVER (ORDER BY c.id) - 1 n
+                          FROM CARDS c
+                         INNER JOIN BOARDS_COLUMNS bc
+                            ON bc.id = c.board_column_id
+                         WHERE bc.board_id = ?
+                           AND bc.kind IN ('INITIAL', 'PENDING')) s
+                 INNER JOIN (SELECT o.id old_id, t.id new_id
+                               FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY id) n
+                                       FROM BOARDS_COLUMNS
+                                      WHERE board_id = ?) o
+                              INNER JOIN (SELECT id, ROW_NUMBER() OVER (ORDER BY id) n
+                                            FROM BOARDS_COLUMNS
+                                           WHERE board_id = ?) t
+                                 ON t.n = o.n) m
+                    ON m.old_id = s.board_column_id
+                 ORDER BY s.id;
+                """.formatted(idExpression(range, "s.n"));
+        int cards;
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = bindRange(statement, 1, range);
+            statement.setLong(i ++, sourceId);
+            statement.setLong(i ++, sourceId);
+            statement.setLong(i, boardId);
+            cards = checkCopied(statement.executeUpdate(), range, "cards");
+        }
+        if (cards == 0) {
+            return 0;
+        }
+        // Cada card copiado começa o histórico na sua coluna, como um card criado pelo CardService
+        var historySql = """
+                INSERT INTO CARD_HISTORY (card_id, to_column_id)
+                SELECT c.id, c.board_column_id
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                 WHERE bc.board_id = ?
+                 ORDER BY c.id;
+                """;
+        try (var statement = connection.prepareStatement(historySql)) {
+            statement.setLong(1, boardId);
+            statement.executeUpdate();
+        }
+        // As vagas de WIP das colunas novas passam a contar os cards copiados
+        var countSql = """
+                UPDATE BOARDS_COLUMNS bc
+                   SET bc.card_count = (SELECT COUNT(*)
+                                          FROM CARDS c
+                                         WHERE c.board_column_id = bc.id)
+                 WHERE bc.board_id = ?;
+                """;
+        try (var statement = connection.prepareStatement(countSql)) {
+            statement.setLong(1, boardId);
+            statement.executeUpdate();
+        }
+        return cards;
+    }
+
+    private int countOpenCards(final Long sourceId) throws SQLException {
+        var sql = """
+                SELECT COUNT(*)
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                 WHERE bc.board_id = ?
+                   AND bc.kind IN ('INITIAL', 'PENDING')
+                  LOCK IN SHARE MODE;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, sourceId);
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    /**
+     * @param position Expressão com a posição da linha na faixa, a partir de 0
+     * @return Expressão do id da linha, ou NULL para o AUTO_INCREMENT
+     */
+    private String idExpression(final IdRange range, final String position) {
+        return isNull(range) ? "NULL" : "? + (%1$s DIV ?) * ? + (%1$s MOD ?)".formatted(position);
+    }
+
+    /**
+     * @return Índice do próximo parâmetro
+     */
+    private int bindRange(final PreparedStatement statement, int i, final IdRange range) throws SQLException {
+        if (nonNull(range)) {
+            statement.setLong(i ++, range.first());
+            statement.setLong(i ++, range.blockSize());
+            statement.setLong(i ++, range.blockStride());
+            statement.setLong(i ++, range.blockSize());
+        }
+        return i;
+    }
+
+    /**
+     * Com uma faixa reservada, linhas além dela receberiam ids não reservados; a cópia é desfeita
+     */
+    private int checkCopied(final int copied, final IdRange range, final String what) {
+        if (nonNull(range) && copied > range.size()) {
+            throw new IllegalStateException("O board de origem ganhou %s durante a cópia; tente de novo".formatted(what));
+        }
+        return copied;
+    }
+
+}
@@ -1,11 +1,13 @@
 package br.com.dio.service;
 
+import br.com.dio.dto.BoardColumnCardsDTO;
+import br.com.dio.dto.ColumnWipDTO;
 import br.com.dio.persistence.dao.BoardColumnDAO;
-import br.com.dio.persistence.entity.BoardColumnEntity;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 
 @AllArgsConstructor
@@ -13,9 +15,14 @@ public class BoardColumnQueryService {
 
     private final Connection connection;
 
-    public Optional<BoardColumnEntity> findById(final Long id) throws SQLException {
+    public Optional<BoardColumnCardsDTO> findById(final Long id) throws SQLException {
         var dao = new BoardColumnDAO(connection);
         return dao.findById(id);
     }
 
+    public List<ColumnWipDTO> findWipByBoardId(final Long boardId) throws SQLException {
+        var dao = new BoardColumnDAO(connection);
+        return dao.findWipByBoardId(boardId);
+    }
+
 }
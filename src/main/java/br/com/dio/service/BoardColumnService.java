@@ -0,0 +1,56 @@
+package br.com.dio.service;
+
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.wip.WipAdmission;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static java.util.Objects.nonNull;
+
+/**
+ * Serviço responsável pelas alterações nas colunas de um board
+ */
+@AllArgsConstructor
+public class BoardColumnService {
+
+    private final Connection connection;
+
+    /**
+     * Define o limite de WIP de uma coluna. Colunas finais e de cancelamento não aceitam limite: um card
+     * concluído ou cancelado nunca deve ser impedido de sair do fluxo.
+     *
+     * @param columnId ID da coluna
+     * @param wipLimit Quantidade máxima de cards na coluna, ou null para remover o limite
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void updateWipLimit(final Long columnId, final Integer wipLimit) throws SQLException {
+        if (nonNull(wipLimit) && wipLimit < 1) {
+            throw new IllegalArgumentException("O limite de WIP deve ser maior que zero");
+        }
+        try {
+            var dao = new BoardColumnDAO(connection);
+            var column = dao.findWipById(columnId).orElseThrow(
+                    () -> new EntityNotFoundException("A coluna de id %s não foi encontrada".formatted(columnId))
+            );
+            if (nonNull(wipLimit) && (column.kind().equals(FINAL) || column.kind().equals(CANCEL))) {
+                throw new IllegalArgumentException("Colunas do tipo %s não podem ter limite de WIP"
+                        .formatted(column.kind()));
+            }
+            dao.updateWipLimit(columnId, wipLimit);
+            connection.commit();
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            BoardEventBus.getInstance().afterCommit(() -> WipAdmission.getInstance().onLimitChanged(columnId));
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+}
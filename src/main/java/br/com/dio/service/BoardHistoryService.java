@@ -0,0 +1,229 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardAsOfDTO;
+import br.com.dio.dto.BoardCheckpointDTO;
+import br.com.dio.dto.BoardSnapshotDTO;
+import br.com.dio.dto.CardSnapshotDTO;
+import br.com.dio.dto.ColumnSnapshotDTO;
+import br.com.dio.persistence.dao.BoardCheckpointDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.service.history.BoardReplay;
+import br.com.dio.service.history.BoardState;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Serviço que reconstrói um board em uma data passada a partir de {@code CARD_HISTORY} e {@code BLOCKS}.
+ * <p>
+ * A reconstrução parte do checkpoint mais recente até a data ({@code BOARD_CHECKPOINTS}) e aplica apenas
+ * os eventos entre o checkpoint e a data, então o custo depende do intervalo entre checkpoints e não do
+ * tamanho do histórico. Os checkpoints são gravados pelo {@link BoardCheckpointer} a cada
+ * {@code history.checkpoint.interval-events} eventos, sempre em um segundo já fechado há pelo menos
+ * {@code history.checkpoint.lag-seconds}: um evento gravado com a data do banco por uma transação que
+ * ainda não fez commit não pode aparecer depois com data anterior a um checkpoint.
+ * <p>
+ * Títulos, nomes de colunas e motivos de bloqueio são os atuais; o que é reconstruído é a coluna de
+ * cada card, desde quando ele está nela e se estava bloqueado. Cards criados antes de existir
+ * {@code CARD_HISTORY} não têm posição inicial no histórico e não aparecem.
+ */
+@AllArgsConstructor
+public class BoardHistoryService {
+
+    private final Connection connection;
+
+    /**
+     * Reconstrói o board como ele estava na data informada
+     *
+     * @param boardId ID do board
+     * @param asOf Data, no fuso do processo
+     * @return O board na data, ou vazio se o board não existir
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public Optional<BoardAsOfDTO> findAsOf(final Long boardId, final LocalDateTime asOf) throws SQLException {
+        var board = new BoardDAO(connection).findByIdWithColumns(boardId);
+        if (board.isEmpty()) {
+            return Optional.empty();
+        }
+        var at = asOf.atZone(ZoneId.systemDefault()).toEpochSecond();
+        var checkpoint = new BoardCheckpointDAO(connection).findLatest(boardId, at);
+        var state = checkpoint.map(c -> BoardState.decode(c.state())).orElseGet(BoardState::new);
+        var from = checkpoint.map(BoardCheckpointDTO::takenAt).orElse(0L);
+        var replayed = replay(boardId, state, from, at, 0, null);
+        BoardCheckpointer.getInstance().onReplayed(boardId, replayed);
+
+        var titles = findCards(boardId);
+        var reasons = findReasonLabels(state);
+        var byColumn = state.byColumn();
+        List<ColumnSnapshotDTO> columns = new ArrayList<>();
+        for (var column : board.get().getBoardColumns()) {
+            List<CardSnapshotDTO> cards = new ArrayList<>();
+            for (var card : byColumn.getOrDefault(column.getId(), List.of())) {
+                var current = titles.get(card.cardId());
+                if (isNull(current)) {
+                    continue;
+                }
+                cards.add(new CardSnapshotDTO(card.cardId(), current[0], current[1], card.isBlocked(),
+                        card.isBlocked() ? reasons.get(card.blockReasonId()) : null,
+                        OffsetDateTime.ofInstant(Instant.ofEpochSecond(card.enteredAt()), ZoneId.systemDefault())));
+            }
+            columns.add(new ColumnSnapshotDTO(column.getId(), column.getName(), column.getOrder(), column.getKind(),
+                    column.getWipLimit(), cards));
+        }
+        var snapshot = new BoardSnapshotDTO(board.get().getId(), board.get().getName(), columns);
+        var checkpointAt = checkpoint.map(c -> LocalDateTime.ofInstant(Instant.ofEpochSecond(c.takenAt()), ZoneId.systemDefault()))
+                .orElse(null);
+        return Optional.of(new BoardAsOfDTO(snapshot, asOf, checkpointAt, replayed));
+    }
+
+    /**
+     * Grava os checkpoints que faltam para o board: parte do último checkpoint e grava um novo a cada
+     * {@code intervalEvents} eventos, até {@code lagSeconds} antes da data do banco
+     *
+     * @param boardId ID do board
+     * @param intervalEvents Eventos entre dois checkpoints
+     * @param lagSeconds Idade mínima, em segundos, dos eventos incluídos em um checkpoint
+     * @return Quantidade de checkpoints gravados
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public int checkpoint(final Long boardId, final int intervalEvents, final int lagSeconds) throws SQLException {
+        if (!new BoardDAO(connection).exists(boardId)) {
+            return 0;
+        }
+        var cutoff = getServerNowSeconds() - lagSeconds;
+        var dao = new BoardCheckpointDAO(connection);
+        var latest = dao.findLatest(boardId, cutoff);
+        var state = latest.map(c -> BoardState.decode(c.state())).orElseGet(BoardState::new);
+        var from = latest.map(BoardCheckpointDTO::takenAt).orElse(0L);
+        var baseEvents = latest.map(BoardCheckpointDTO::events).orElse(0L);
+        List<BoardCheckpointDTO> checkpoints = new ArrayList<>();
+        replay(boardId, state, from, cutoff, intervalEvents, (takenAt, applied) ->
+                checkpoints.add(new BoardCheckpointDTO(boardId, takenAt, baseEvents + applied, state.encode())));
+        if (!checkpoints.isEmpty()) {
+            dao.insert(checkpoints);
+        }
+        return checkpoints.size();
+    }
+
+    /**
+     * Aplica ao estado, em ordem, os eventos do board depois de {@code after} e até {@code until}, inclusive.
+     * No mesmo segundo, movimentações vêm antes de bloqueios e bloqueios antes de desbloqueios.
+     *
+     * @param intervalEvents Eventos entre dois cortes, ou 0 para não cortar
+     * @param cut Cortes, como em {@link BoardReplay}, ou null
+     * @return Quantidade de eventos aplicados
+     */
+    private long replay(final Long boardId, final BoardState state, final long after, final long until,
+                        final int intervalEvents, final BoardReplay.Cut cut) throws SQLException {
+        var sql = """
+                SELECT e.at, e.kind, e.id, e.card_id, e.ref_id
+                  FROM (SELECT UNIX_TIMESTAMP(ch.moved_at) at, 0 kind, ch.id, ch.card_id, ch.to_column_id ref_id
+                          FROM CARD_HISTORY ch
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = ch.to_column_id
+                         WHERE bc.board_id = ?
+                           AND ch.moved_at > FROM_UNIXTIME(?)
+                           AND ch.moved_at <= FROM_UNIXTIME(?)
+                         UNION ALL
+                        SELECT UNIX_TIMESTAMP(bl.blocked_at), 1, bl.id, bl.card_id, bl.block_reason_id
+                          FROM BLOCKS bl
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = bl.board_column_id
+                         WHERE bc.board_id = ?
+                           AND bl.blocked_at > FROM_UNIXTIME(?)
+                           AND bl.blocked_at <= FROM_UNIXTIME(?)
+                         UNION ALL
+                        SELECT UNIX_TIMESTAMP(bl.unblocked_at), 2, bl.id, bl.card_id, 0
+                          FROM BLOCKS bl
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = bl.board_column_id
+                         WHERE bc.board_id = ?
+                           AND bl.unblocked_at > FROM_UNIXTIME(?)
+                           AND bl.unblocked_at <= FROM_UNIXTIME(?)) e
+                 ORDER BY e.at, e.kind, e.id;
+                """;
+        var replay = new BoardReplay(state, after, intervalEvents, cut);
+        try (var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(Integer.MIN_VALUE);
+            var i = 1;
+            for (var branch = 0; branch < 3; branch++) {
+                statement.setLong(i ++, boardId);
+                statement.setLong(i ++, after);
+                statement.setLong(i ++, until);
+            }
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    replay.apply(resultSet.getLong(1), resultSet.getInt(2), resultSet.getLong(3),
+                            resultSet.getLong(4), resultSet.getLong(5));
+                }
+            }
+        }
+        return replay.finish();
+    }
+
+    /**
+     * @return Título e descrição atuais de cada card do board, pelo id do card
+     */
+    private Map<Long, String[]> findCards(final Long boardId) throws SQLException {
+        var sql = """
+                SELECT c.id, c.title, c.description
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc ON bc.id = c.board_column_id
+                 WHERE bc.board_id = ?;
+                """;
+        Map<Long, String[]> cards = new HashMap<>();
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                cards.put(resultSet.getLong(1), new String[]{resultSet.getString(2), resultSet.getString(3)});
+            }
+        }
+        return cards;
+    }
+
+    private Map<Long, String> findReasonLabels(final BoardState state) throws SQLException {
+        var reasonIds = state.getCards().stream()
+                .filter(BoardState.CardState::isBlocked)
+                .map(BoardState.CardState::blockReasonId)
+                .distinct()
+                .toList();
+        if (reasonIds.isEmpty()) {
+            return Map.of();
+        }
+        var sql = "SELECT id, label FROM BLOCK_REASONS WHERE id IN (%s);"
+                .formatted(String.join(", ", Collections.nCopies(reasonIds.size(), "?")));
+        Map<Long, String> labels = new HashMap<>();
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            for (var reasonId : reasonIds) {
+                statement.setLong(i ++, reasonId);
+            }
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                labels.put(resultSet.getLong(1), resultSet.getString(2));
+            }
+        }
+        return labels;
+    }
+
+    private long getServerNowSeconds() throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT UNIX_TIMESTAMP(NOW());")) {
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+}
@@ -0,0 +1,337 @@
+package br.com.dio.service;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.dto.BoardPurgeProgressDTO;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.ShardCatalogDAO;
+import br.com.dio.persistence.shard.ShardRouter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.dio.event.BoardEventType.BOARD_DELETED;
+import static java.util.Objects.nonNull;
+
+/**
+ * Remove em segundo plano os boards marcados como excluídos por {@link BoardService#delete(Long)}.
+ * <p>
+ * Em vez de um único DELETE em cascata, que seguraria locks e acumularia undo log proporcionais ao
+ * tamanho do board, os cards são removidos coluna a coluna em lotes de {@code purge.chunk-size},
+ * cada lote em uma transação curta que apaga também os bloqueios e o histórico desses cards, e por
+ * fim o próprio board, cuja cascata já encontra apenas as colunas. A vazão é limitada a
+ * {@code purge.max-rows-per-second} linhas por segundo (0 desliga o limite).
+ * <p>
+ * A marca de exclusão fica no banco, então uma remoção interrompida é retomada na próxima execução,
+ * por este ou por outro processo; lotes concorrentes sobre o mesmo board apenas removem menos linhas.
+ * <p>
+ * Cada shard é percorrido separadamente. Além dos boards excluídos pelo usuário, o shard pode ter
+ * cópias deixadas pelo {@link ShardMover}: a origem de uma mudança concluída e o destino de uma
+ * desfeita. Elas são removidas da mesma forma, mas só o shard do board tira a linha do catálogo, e
+ * a cópia de uma mudança em andamento é ignorada.
+ */
+public final class BoardPurger {
+
+    private static final int FINISHED_CAPACITY = 20;
+
+    private static final BoardPurger INSTANCE = new BoardPurger(
+            ApplicationProperties.getInstance().getBoolean("purge.enabled", true),
+            ApplicationProperties.getInstance().getInt("purge.chunk-size", 1_000),
+            ApplicationProperties.getInstance().getInt("purge.max-rows-per-second", 5_000),
+            ApplicationProperties.getInstance().getLong("purge.poll-interval-ms", 60_000));
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int maxRowsPerSecond;
+    private final long pollIntervalMs;
+    private final Map<Long, Progress> progress = new LinkedHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private BoardEventBus.Subscription subscription;
+
+    private BoardPurger(final boolean enabled, final int chunkSize, final int maxRowsPerSecond, final long pollIntervalMs) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote de remoção deve ser positivo");
+        }
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public static BoardPurger getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Inicia a remoção periódica e retoma as exclusões pendentes. Cada board excluído neste processo
+     * dispara uma execução imediata. Não faz nada se desabilitado ({@code purge.enabled=false}) ou já iniciado.
+     */
+    public synchronized void start() {
+        if (!enabled || nonNull(scheduler)) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "board-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purgePending, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        subscription = BoardEventBus.getInstance().subscribe(null, event -> {
+            if (event.type() == BOARD_DELETED) {
+                wakeUp();
+            }
+        });
+    }
+
+    public synchronized void stop() {
+        if (nonNull(scheduler)) {
+            subscription.close();
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * @return Andamento das remoções em curso e das últimas concluídas neste processo, da mais antiga para a mais recente
+     */
+    public List<BoardPurgeProgressDTO> getProgress() {
+        synchronized (progress) {
+            List<BoardPurgeProgressDTO> result = new ArrayList<>(progress.size());
+            progress.forEach((boardId, p) -> result.add(p.toDTO(boardId)));
+            return result;
+        }
+    }
+
+    /**
+     * Antecipa a próxima execução, sem esperar {@code purge.poll-interval-ms}
+     */
+    public synchronized void wakeUp() {
+        if (nonNull(scheduler)) {
+            scheduler.execute(this::purgePending);
+        }
+    }
+
+    private void purgePending() {
+        for (var shard : ShardRouter.getInstance().getShardIds()) {
+            try (var connection = ConnectionConfig.getConnection(shard)) {
+                for (var board : findDeletedBoards(connection)) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    purgeBoard(connection, shard, board.id(), board.name());
+                }
+            } catch (SQLException ex) {
+                // As marcas continuam no banco; a próxima execução retoma de onde parou
+                System.err.println("Falha ao remover boards excluídos do shard " + shard + ": " + ex.getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<DeletedBoard> findDeletedBoards(final Connection connection) throws SQLException {
+        var sql = "SELECT id, name FROM BOARDS WHERE deleted_at IS NOT NULL ORDER BY deleted_at, id;";
+        List<DeletedBoard> boards = new ArrayList<>();
+        try (var statement = connection.prepareStatement(sql)) {
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                boards.add(new DeletedBoard(resultSet.getLong("id"), resultSet.getString("name")));
+            }
+        }
+        connection.commit();
+        return boards;
+    }
+
+    private void purgeBoard(final Connection connection, final int shard, final long boardId, final String name)
+            throws SQLException, InterruptedException {
+        var router = ShardRouter.getInstance();
+        router.invalidate(boardId);
+        var location = router.locate(boardId);
+        if (location.isMoving() && location.movingTo() == shard) {
+            // Cópia de uma mudança em andamento, que fica marcada como excluída até o fim
+            return;
+        }
+        var columnIds = findColumnIds(connection, boardId);
+        var current = new Progress(name, countRows(connection, boardId, columnIds.size()));
+        synchronized (progress) {
+            progress.put(boardId, current);
+        }
+        for (var columnId : columnIds) {
+            purgeColumnCards(connection, columnId, current);
+        }
+        // O que sobrou são as colunas, e algum card inserido por uma sessão que ainda via o board
+        var sql = "DELETE FROM BOARDS WHERE id = ? AND deleted_at IS NOT NULL;";
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            statement.executeUpdate();
+        }
+        connection.commit();
+        if (router.isSharded() && location.shardId() == shard) {
+            try (var catalog = ConnectionConfig.getConnection(ShardRouter.CATALOG_SHARD)) {
+                new ShardCatalogDAO(catalog).delete(boardId, shard);
+                catalog.commit();
+            }
+            router.invalidate(boardId);
+        }
+        current.finish(columnIds.size() + 1);
+        synchronized (progress) {
+            var iterator = progress.values().iterator();
+            while (progress.size() > FINISHED_CAPACITY && iterator.hasNext()) {
+                if (iterator.next().finished) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove os cards da coluna em lotes: lê os ids de um lote pelo índice de
+     * {@code CARDS.board_column_id} e remove bloqueios, histórico e cards desses ids em uma transação
+     */
+    private void purgeColumnCards(final Connection connection, final long columnId, final Progress current)
+            throws SQLException, InterruptedException {
+        var selectSql = "SELECT id FROM CARDS WHERE board_column_id = ? ORDER BY id LIMIT ?;";
+        try (var select = connection.prepareStatement(selectSql)) {
+            List<Long> cardIds;
+            do {
+                var startedAt = System.nanoTime();
+                var i = 1;
+                select.setLong(i ++, columnId);
+                select.setInt(i, chunkSize);
+                cardIds = new ArrayList<>(chunkSize);
+                var resultSet = select.executeQuery();
+                while (resultSet.next()) {
+                    cardIds.add(resultSet.getLong("id"));
+                }
+                if (cardIds.isEmpty()) {
+                    connection.commit();
+                    return;
+                }
+                var placeholders = String.join(", ", Collections.nCopies(cardIds.size(), "?"));
+                var deleted = 0;
+                for (var table : new String[]{"BLOCKS", "CARD_HISTORY"}) {
+                    deleted += deleteByIds(connection, "DELETE FROM %s WHERE card_id IN (%s);".formatted(table, placeholders), cardIds);
+                }
+                deleted += deleteByIds(connection, "DELETE FROM CARDS WHERE id IN (%s);".formatted(placeholders), cardIds);
+                connection.commit();
+                current.add(deleted);
+                throttle(deleted, startedAt);
+            } while (cardIds.size() == chunkSize);
+        }
+    }
+
+    private int deleteByIds(final Connection connection, final String sql, final List<Long> ids) throws SQLException {
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            for (var id : ids) {
+                statement.setLong(i ++, id);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Dorme o necessário para que o lote não ultrapasse {@code purge.max-rows-per-second}
+     */
+    private void throttle(final int rows, final long startedAt) throws InterruptedException {
+        if (maxRowsPerSecond <= 0 || rows == 0) {
+            return;
+        }
+        var minimumNanos = rows * 1_000_000_000L / maxRowsPerSecond;
+        var remainingMillis = (minimumNanos - (System.nanoTime() - startedAt)) / 1_000_000;
+        if (remainingMillis > 0) {
+            Thread.sleep(remainingMillis);
+        }
+    }
+
+    private List<Long> findColumnIds(final Connection connection, final long boardId) throws SQLException {
+        var sql = "SELECT id FROM BOARDS_COLUMNS WHERE board_id = ? ORDER BY id;";
+        List<Long> columnIds = new ArrayList<>();
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                columnIds.add(resultSet.getLong("id"));
+            }
+        }
+        connection.commit();
+        return columnIds;
+    }
+
+    /**
+     * Estima as linhas a remover, usado apenas para exibir o andamento
+     */
+    private long countRows(final Connection connection, final long boardId, final int columns) throws SQLException {
+        var sql = """
+                SELECT (SELECT COUNT(*)
+                          FROM BLOCKS bl
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = bl.board_column_id
+                         WHERE bc.board_id = ?)
+                     + (SELECT COUNT(*)
+                          FROM CARD_HISTORY ch
+                         INNER JOIN CARDS c ON c.id = ch.card_id
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = c.board_column_id
+                         WHERE bc.board_id = ?)
+                     + (SELECT COUNT(*)
+                          FROM CARDS c
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = c.board_column_id
+                         WHERE bc.board_id = ?) total;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, boardId);
+            statement.setLong(i ++, boardId);
+            statement.setLong(i, boardId);
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            var total = resultSet.getLong("total") + columns + 1;
+            connection.commit();
+            return total;
+        }
+    }
+
+    private record DeletedBoard(long id, String name) {
+    }
+
+    private static final class Progress {
+
+        private final String name;
+        private final long totalRows;
+        private final long startedAt = System.nanoTime();
+        private volatile long purgedRows;
+        private volatile long finishedAt;
+        private volatile boolean finished;
+
+        private Progress(final String name, final long totalRows) {
+            this.name = name;
+            this.totalRows = totalRows;
+        }
+
+        private void add(final int rows) {
+            purgedRows += rows;
+        }
+
+        private void finish(final int rows) {
+            purgedRows += rows;
+            finishedAt = System.nanoTime();
+            finished = true;
+        }
+
+        private BoardPurgeProgressDTO toDTO(final long boardId) {
+            var elapsedNanos = (finished ? finishedAt : System.nanoTime()) - startedAt;
+            var rowsPerSecond = elapsedNanos > 0 ? purgedRows * 1_000_000_000.0 / elapsedNanos : 0;
+            return new BoardPurgeProgressDTO(boardId, name, totalRows, purgedRows, rowsPerSecond, finished);
+        }
+    }
+
+}
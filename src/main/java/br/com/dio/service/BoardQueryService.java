@@ -1,7 +1,9 @@
 package br.com.dio.service;
 
+import br.com.dio.dto.BoardColumnDTO;
 import br.com.dio.dto.BoardDetailsDTO;
-import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.dto.BoardSnapshotDTO;
+import br.com.dio.dto.ColumnSnapshotDTO;
 import br.com.dio.persistence.dao.BoardDAO;
 import br.com.dio.persistence.entity.BoardEntity;
 import lombok.AllArgsConstructor;
@@ -17,27 +19,27 @@ public class BoardQueryService {
 
     public Optional<BoardEntity> findById(final Long id) throws SQLException {
         var dao = new BoardDAO(connection);
-        var boardColumnDAO = new BoardColumnDAO(connection);
-        var optional = dao.findById(id);
-        if (optional.isPresent()){
-            var entity = optional.get();
-            entity.setBoardColumns(boardColumnDAO.findByBoardId(entity.getId()));
-            return Optional.of(entity);
-        }
-        return Optional.empty();
+        return dao.findByIdWithColumns(id);
     }
 
     public Optional<BoardDetailsDTO> showBoardDetails(final Long id) throws SQLException {
+        return findSnapshot(id).map(snapshot -> new BoardDetailsDTO(
+                snapshot.id(),
+                snapshot.name(),
+                snapshot.columns().stream()
+                        .map(c -> new BoardColumnDTO(c.id(), c.name(), c.kind(), c.getCardsAmount()))
+                        .toList()
+        ));
+    }
+
+    public Optional<BoardSnapshotDTO> findSnapshot(final Long id) throws SQLException {
+        var dao = new BoardDAO(connection);
+        return dao.findSnapshotById(id);
+    }
+
+    public Optional<ColumnSnapshotDTO> findColumnSnapshot(final Long boardId, final Long columnId) throws SQLException {
         var dao = new BoardDAO(connection);
-        var boardColumnDAO = new BoardColumnDAO(connection);
-        var optional = dao.findById(id);
-        if (optional.isPresent()){
-            var entity = optional.get();
-            var columns = boardColumnDAO.findByBoardIdWithDetails(entity.getId());
-            var dto = new BoardDetailsDTO(entity.getId(), entity.getName(), columns);
-            return Optional.of(dto);
-        }
-        return Optional.empty();
+        return dao.findColumnSnapshotById(boardId, columnId);
     }
 
 }
@@ -1,5 +1,8 @@
 package br.com.dio.service;
 
+import br.com.dio.event.BoardEvent;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.persistence.config.ConnectionConfig;
 import br.com.dio.persistence.dao.BoardColumnDAO;
 import br.com.dio.persistence.dao.BoardDAO;
 import br.com.dio.persistence.entity.BoardEntity;
@@ -9,6 +12,10 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 
+import static br.com.dio.event.BoardEventType.BOARD_CREATED;
+import static br.com.dio.event.BoardEventType.BOARD_DELETED;
+import static br.com.dio.event.BoardEventType.BOARD_RENAMED;
+
 /**
  * Serviço responsável pelas operações de negócio relacionadas a boards
  */
@@ -38,11 +45,11 @@ public class BoardService {
                 c.setBoard(entity);
                 return c;
             }).toList();
-
-            for (var column : columns) {
-                boardColumnDAO.insert(column);
-            }
+            boardColumnDAO.insertAll(columns);
             connection.commit();
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            BoardEventBus.getInstance().publish(BoardEvent.local(BOARD_CREATED, entity.getId(), null,
+                    null, null, entity.getName()));
         } catch (SQLException e) {
             connection.rollback();
             throw e;
@@ -51,7 +58,9 @@ public class BoardService {
     }
 
     /**
-     * Exclui um board pelo ID e reseta o contador de auto incremento
+     * Exclui um board pelo ID. O board é apenas marcado como excluído, em uma transação curta;
+     * colunas, cards e históricos são removidos em segundo plano pelo {@link BoardPurger}. O id
+     * excluído não é reaproveitado (ver {@link br.com.dio.persistence.id.IdAllocator})
      *
      * @param id ID do board a ser excluído
      * @return true se o board foi excluído, false se não existia
@@ -64,16 +73,13 @@ public class BoardService {
 
         var dao = new BoardDAO(connection);
         try {
-            if (!dao.exists(id)) {
+            if (!dao.softDelete(id)) {
+                connection.rollback();
                 return false;
             }
-
-            dao.delete(id);
-
-            // Reseta o contador de auto incremento para o menor ID disponível
-            resetAutoIncrement();
-
             connection.commit();
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            BoardEventBus.getInstance().publish(BoardEvent.local(BOARD_DELETED, id, null, null, null, null));
             return true;
         } catch (SQLException e) {
             connection.rollback();
@@ -82,7 +88,9 @@ public class BoardService {
     }
 
     /**
-     * Atualiza o nome de um board existente
+     * Atualiza o nome de um board existente e publica {@code BOARD_RENAMED} neste processo.
+     * Outros processos não são avisados: o {@link br.com.dio.event.ChangeFeed} lê apenas
+     * cards e bloqueios, então eles só veem o novo nome ao recarregar o board.
      *
      * @param id ID do board a ser atualizado
      * @param newName Novo nome para o board
@@ -106,6 +114,8 @@ public class BoardService {
 
             dao.updateName(id, newName);
             connection.commit();
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            BoardEventBus.getInstance().publish(BoardEvent.local(BOARD_RENAMED, id, null, null, null, newName));
             return true;
         } catch (SQLException e) {
             connection.rollback();
@@ -113,36 +123,6 @@ public class BoardService {
         }
     }
 
-    /**
-     * Reseta o contador de auto incremento da tabela BOARDS
-     * para o menor ID disponível após exclusão
-     *
-     * @throws SQLException se ocorrer erro no acesso ao banco
-     */
-    private void resetAutoIncrement() throws SQLException {
-        // Encontra o valor mínimo disponível para o próximo ID
-        String findMinAvailableId = """
-            SELECT MIN(t.id + 1) AS next_id 
-            FROM (SELECT 0 AS id UNION SELECT id FROM BOARDS) t 
-            WHERE NOT EXISTS (SELECT 1 FROM BOARDS b WHERE b.id = t.id + 1) 
-            AND t.id + 1 > 0
-        """;
-
-        try (var findStatement = connection.prepareStatement(findMinAvailableId)) {
-            var resultSet = findStatement.executeQuery();
-            if (resultSet.next()) {
-                int nextId = resultSet.getInt("next_id");
-                if (nextId > 0) {
-                    // Ajusta o contador de auto incremento
-                    String resetSql = "ALTER TABLE BOARDS AUTO_INCREMENT = " + nextId;
-                    try (var resetStatement = connection.prepareStatement(resetSql)) {
-                        resetStatement.executeUpdate();
-                    }
-                }
-            }
-        }
-    }
-
     /**
      * Conta o número total de boards no sistema
      *
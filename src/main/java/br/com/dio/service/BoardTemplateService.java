@@ -0,0 +1,101 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardTemplateDTO;
+import br.com.dio.persistence.dao.BoardTemplateDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+
+/**
+ * Serviço dos templates de board: conjuntos de colunas, com nome, tipo e limite de WIP, a partir dos
+ * quais boards novos são criados sem definir coluna por coluna. Os templates ficam no shard 0 e a
+ * conexão deve ser desse shard.
+ */
+@AllArgsConstructor
+public class BoardTemplateService {
+
+    private final Connection connection;
+
+    public List<BoardTemplateDTO> findAll() throws SQLException {
+        return new BoardTemplateDAO(connection).findAll();
+    }
+
+    /**
+     * @param templateId ID do template
+     * @return Colunas do template, prontas para um board novo, ou uma lista vazia se o template não existir
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public List<BoardColumnEntity> findColumns(final Long templateId) throws SQLException {
+        return new BoardTemplateDAO(connection).findColumns(templateId);
+    }
+
+    /**
+     * Grava um template com as colunas informadas, renumeradas a partir de 0 na ordem atual
+     *
+     * @param name Nome do template, único
+     * @param columns Colunas, como as de um board existente
+     * @return O template gravado
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     * @throws IllegalArgumentException se o nome já existir ou as colunas não formarem um board válido
+     */
+    public BoardTemplateDTO create(final String name, final List<BoardColumnEntity> columns) throws SQLException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("O nome do template não pode ser vazio");
+        }
+        validate(columns);
+        var ordered = columns.stream().sorted(Comparator.comparingInt(BoardColumnEntity::getOrder)).toList();
+        List<BoardColumnEntity> renumbered = new ArrayList<>(ordered.size());
+        for (var column : ordered) {
+            var copy = new BoardColumnEntity();
+            copy.setName(column.getName());
+            copy.setOrder(renumbered.size());
+            copy.setKind(column.getKind());
+            copy.setWipLimit(column.getWipLimit());
+            renumbered.add(copy);
+        }
+        var dao = new BoardTemplateDAO(connection);
+        try {
+            if (dao.existsByName(name)) {
+                throw new IllegalArgumentException("Já existe um template com o nome " + name);
+            }
+            var id = dao.insert(name, renumbered);
+            connection.commit();
+            return new BoardTemplateDTO(id, name, renumbered.size());
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    public boolean delete(final Long templateId) throws SQLException {
+        try {
+            var deleted = new BoardTemplateDAO(connection).delete(templateId);
+            connection.commit();
+            return deleted;
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    /**
+     * Confere se as colunas têm o que todo board precisa: uma coluna inicial, uma final e uma de cancelamento
+     */
+    private void validate(final List<BoardColumnEntity> columns) {
+        for (var kind : List.of(INITIAL, FINAL, CANCEL)) {
+            if (columns.stream().filter(c -> c.getKind() == kind).count() != 1) {
+                throw new IllegalArgumentException("O template precisa de exatamente uma coluna do tipo " + kind);
+            }
+        }
+    }
+
+}
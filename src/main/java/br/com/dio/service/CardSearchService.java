@@ -0,0 +1,89 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.CardSearchPageDTO;
+import br.com.dio.dto.CardSearchResultDTO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.service.search.CardSearchIndex;
+import br.com.dio.service.search.SearchTokenizer;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Serviço de busca de cards por título, descrição e motivo de bloqueio em todos os boards.
+ * Usa o índice em memória quando habilitado e, caso contrário, os índices FULLTEXT do banco.
+ * <p>
+ * O índice em memória é carregado de todos os shards. Já a busca FULLTEXT cobre apenas o shard da
+ * conexão: com shards, cada um devolve os melhores resultados até a página pedida e
+ * {@link #merge(String, int, int, Collection)} monta a página final.
+ */
+@AllArgsConstructor
+public class CardSearchService {
+
+    private final Connection connection;
+
+    /**
+     * Busca cards pelo texto informado
+     *
+     * @param query Texto a ser buscado
+     * @param page Página desejada, começando em 0
+     * @param pageSize Quantidade de resultados por página
+     * @return Página de resultados ordenada por relevância
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public CardSearchPageDTO search(final String query, final int page, final int pageSize) throws SQLException {
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Página inválida");
+        }
+
+        var index = CardSearchIndex.getInstance();
+        if (index.isEnabled()) {
+            index.ensureLoaded(connection);
+            return index.search(query, page, pageSize);
+        }
+
+        var tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new CardSearchPageDTO(query, page, pageSize, List.of(), false);
+        }
+        var results = new CardDAO(connection).search(tokens, pageSize + 1, page * pageSize);
+        var hasNextPage = results.size() > pageSize;
+        return new CardSearchPageDTO(query, page, pageSize,
+                hasNextPage ? results.subList(0, pageSize) : results, hasNextPage);
+    }
+
+    /**
+     * Junta as buscas feitas em cada shard. Cada shard deve ter sido consultado na página 0 com
+     * {@code (page + 1) * pageSize} resultados, para que a página pedida esteja entre eles.
+     *
+     * @param query Texto buscado
+     * @param page Página desejada, começando em 0
+     * @param pageSize Quantidade de resultados por página
+     * @param shardPages Resultados de cada shard
+     * @return Página de resultados ordenada por relevância
+     */
+    public static CardSearchPageDTO merge(final String query, final int page, final int pageSize,
+                                         final Collection<CardSearchPageDTO> shardPages) {
+        // Um card aparece em dois shards apenas no fim de uma mudança de shard, com os mesmos dados
+        var seen = new HashSet<Long>();
+        List<CardSearchResultDTO> merged = new ArrayList<>();
+        var anyShardHasMore = false;
+        for (var shardPage : shardPages) {
+            anyShardHasMore |= shardPage.hasNextPage();
+            shardPage.results().stream().filter(r -> seen.add(r.cardId())).forEach(merged::add);
+        }
+        merged.sort(Comparator.comparingDouble(CardSearchResultDTO::score).reversed()
+                .thenComparing(CardSearchResultDTO::cardId));
+        var from = Math.min(page * pageSize, merged.size());
+        var to = Math.min(from + pageSize, merged.size());
+        return new CardSearchPageDTO(query, page, pageSize, List.copyOf(merged.subList(from, to)),
+                anyShardHasMore || to < merged.size());
+    }
+
+}
@@ -1,20 +1,31 @@
 package br.com.dio.service;
 
 import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.event.BoardEvent;
+import br.com.dio.event.BoardEventBus;
 import br.com.dio.exception.CardBlockedException;
 import br.com.dio.exception.CardFinishedException;
 import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.config.ConnectionConfig;
 import br.com.dio.persistence.dao.BlockDAO;
 import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.CardRankDAO;
 import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.service.search.CardSearchIndex;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 
+import static br.com.dio.event.BoardEventType.CARD_BLOCKED;
+import static br.com.dio.event.BoardEventType.CARD_CANCELED;
+import static br.com.dio.event.BoardEventType.CARD_CREATED;
+import static br.com.dio.event.BoardEventType.CARD_MOVED;
+import static br.com.dio.event.BoardEventType.CARD_UNBLOCKED;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static java.util.Objects.nonNull;
 
 
 @AllArgsConstructor
@@ -27,8 +38,16 @@ public class CardService {
             var dao = new CardDAO(connection);
             dao.insert(entity);
             connection.commit();
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            var board = entity.getBoardColumn().getBoard();
+            if (nonNull(board) && nonNull(board.getId())) {
+                BoardEventBus.getInstance().afterCommit(() -> CardSearchIndex.getInstance().onCardCreated(
+                        entity.getId(), entity.getTitle(), entity.getDescription(), board.getId(), board.getName()));
+                BoardEventBus.getInstance().publish(BoardEvent.local(CARD_CREATED, board.getId(), entity.getId(),
+                        null, entity.getBoardColumn().getId(), entity.getTitle()));
+            }
             return entity;
-        } catch (SQLException ex){
+        } catch (SQLException | RuntimeException ex){
             connection.rollback();
             throw ex;
         }
@@ -57,7 +76,10 @@ public class CardService {
                     .findFirst().orElseThrow(() -> new IllegalStateException("O card está cancelado"));
             dao.moveToColumn(nextColumn.id(), cardId);
             connection.commit();
-        }catch (SQLException ex){
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            BoardEventBus.getInstance().publish(BoardEvent.local(CARD_MOVED, dto.boardId(), cardId,
+                    dto.columnId(), nextColumn.id(), null));
+        }catch (SQLException | RuntimeException ex){
             connection.rollback();
             throw ex;
         }
@@ -87,7 +109,49 @@ public class CardService {
                     .findFirst().orElseThrow(() -> new IllegalStateException("O card está cancelado"));
             dao.moveToColumn(cancelColumnId, cardId);
             connection.commit();
-        }catch (SQLException ex){
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            BoardEventBus.getInstance().publish(BoardEvent.local(CARD_CANCELED, dto.boardId(), cardId,
+                    dto.columnId(), cancelColumnId, null));
+        }catch (SQLException | RuntimeException ex){
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    /**
+     * Reposiciona um card dentro da sua coluna, logo depois de outro card. Apenas o rank do card
+     * reposicionado é alterado.
+     *
+     * @param cardId ID do card a reposicionar
+     * @param previousCardId ID do card que deve ficar imediatamente antes, ou null para o topo da coluna
+     * @return true se a posição mudou, false se o card já estava nela
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public boolean reorder(final Long cardId, final Long previousCardId) throws SQLException {
+        try{
+            var dao = new CardDAO(connection);
+            var dto = dao.findById(cardId).orElseThrow(
+                    () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(cardId))
+            );
+            if (nonNull(previousCardId)){
+                if (previousCardId.equals(cardId)){
+                    throw new IllegalArgumentException("O card não pode ser posicionado depois dele mesmo");
+                }
+                var previous = dao.findById(previousCardId).orElseThrow(
+                        () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(previousCardId))
+                );
+                if (!previous.columnId().equals(dto.columnId())){
+                    throw new IllegalArgumentException("Os cards %s e %s estão em colunas diferentes"
+                            .formatted(cardId, previousCardId));
+                }
+            }
+            var moved = new CardRankDAO(connection).moveAfter(cardId, dto.columnId(), previousCardId);
+            connection.commit();
+            if (moved){
+                BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            }
+            return moved;
+        }catch (SQLException | RuntimeException ex){
             connection.rollback();
             throw ex;
         }
@@ -107,7 +171,7 @@ public class CardService {
             var currentColumn = boardColumnsInfo.stream()
                     .filter(bc -> bc.id().equals(dto.columnId()))
                     .findFirst()
-                    .orElseThrow();
+                    .orElseThrow(() -> new IllegalStateException("O card informado pertence a outro board"));
             if (currentColumn.kind().equals(FINAL) || currentColumn.kind().equals(CANCEL)){
                 var message = "O card está em uma coluna do tipo %s e não pode ser bloqueado"
                         .formatted(currentColumn.kind());
@@ -116,7 +180,11 @@ public class CardService {
             var blockDAO = new BlockDAO(connection);
             blockDAO.block(reason, id);
             connection.commit();
-        }catch (SQLException ex) {
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            BoardEventBus.getInstance().afterCommit(() -> CardSearchIndex.getInstance().onCardBlocked(id, reason));
+            BoardEventBus.getInstance().publish(BoardEvent.local(CARD_BLOCKED, dto.boardId(), id,
+                    null, null, reason));
+        }catch (SQLException | RuntimeException ex) {
             connection.rollback();
             throw ex;
         }
@@ -136,7 +204,10 @@ public class CardService {
             var blockDAO = new BlockDAO(connection);
             blockDAO.unblock(reason, id);
             connection.commit();
-        }catch (SQLException ex) {
+            BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+            BoardEventBus.getInstance().publish(BoardEvent.local(CARD_UNBLOCKED, dto.boardId(), id,
+                    null, null, reason));
+        }catch (SQLException | RuntimeException ex) {
             connection.rollback();
             throw ex;
         }
@@ -0,0 +1,232 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.CardBlockingReportDTO;
+import br.com.dio.dto.CardCompletionTimeDTO;
+import br.com.dio.dto.CardDetailedTimelineDTO;
+import br.com.dio.dto.CardTimelineEventDTO;
+import br.com.dio.dto.ColumnTimeDTO;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static br.com.dio.dto.CardTimelineEventDTO.Type.BLOCKED;
+import static br.com.dio.dto.CardTimelineEventDTO.Type.CREATED;
+import static br.com.dio.dto.CardTimelineEventDTO.Type.MOVED;
+import static br.com.dio.dto.CardTimelineEventDTO.Type.UNBLOCKED;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Monta a timeline detalhada de um card a partir de um único fluxo de eventos. Movimentações,
+ * bloqueios e desbloqueios vêm de uma só consulta, com UNION ALL, já ordenados pelo instante; uma
+ * passada linear sobre as linhas calcula o tempo em cada coluna, o tempo bloqueado dentro de cada
+ * coluna, a conclusão e a lista de eventos. O "agora" usado para o que ainda está em aberto vem do
+ * relógio do banco, o mesmo que grava os eventos.
+ */
+@AllArgsConstructor
+public class CardTimelineBuilder {
+
+    private final Connection connection;
+
+    /**
+     * Monta a timeline do card
+     *
+     * @param cardId ID do card
+     * @return Timeline do card ou null se o card não existir
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public CardDetailedTimelineDTO build(final Long cardId) throws SQLException {
+        // Em empates no mesmo instante, a movimentação vem antes do bloqueio e o bloqueio antes do desbloqueio
+        String sql = """
+            SELECT c.id, c.title, n.snapshot_now,
+                   e.event_kind, e.event_id, e.occurred_at, e.column_id, bc.name AS column_name, bc.kind AS column_kind,
+                   e.reason
+            FROM CARDS c
+            CROSS JOIN (SELECT NOW() AS snapshot_now) n
+            LEFT JOIN (SELECT 0 AS event_kind, ch.id AS event_id, ch.moved_at AS occurred_at,
+                              ch.to_column_id AS column_id, NULL AS reason
+                       FROM CARD_HISTORY ch
+                       WHERE ch.card_id = ?
+                       UNION ALL
+                       SELECT 1, b.id, b.blocked_at, b.board_column_id, br.label
+                       FROM BLOCKS b
+                       INNER JOIN BLOCK_REASONS br ON b.block_reason_id = br.id
+                       WHERE b.card_id = ?
+                       UNION ALL
+                       SELECT 2, b.id, b.unblocked_at, b.board_column_id, ur.label
+                       FROM BLOCKS b
+                       LEFT JOIN BLOCK_REASONS ur ON b.unblock_reason_id = ur.id
+                       WHERE b.card_id = ? AND b.unblocked_at IS NOT NULL) e ON TRUE
+            LEFT JOIN BOARDS_COLUMNS bc ON e.column_id = bc.id
+            WHERE c.id = ?
+            ORDER BY e.occurred_at, e.event_kind, e.event_id;
+        """;
+
+        try (var statement = connection.prepareStatement(sql)) {
+            var i = 1;
+            statement.setLong(i ++, cardId);
+            statement.setLong(i ++, cardId);
+            statement.setLong(i ++, cardId);
+            statement.setLong(i, cardId);
+            var resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
+                return null;
+            }
+            var pass = new TimelinePass(resultSet.getLong("id"), resultSet.getString("title"),
+                    resultSet.getTimestamp("snapshot_now").toLocalDateTime());
+            do {
+                if (isNull(resultSet.getObject("event_kind"))) {
+                    break;
+                }
+                var occurredAt = resultSet.getTimestamp("occurred_at").toLocalDateTime();
+                var columnId = resultSet.getLong("column_id");
+                var columnName = resultSet.getString("column_name");
+                switch (resultSet.getInt("event_kind")) {
+                    case 0 -> pass.onMove(occurredAt, columnId, columnName, resultSet.getString("column_kind"));
+                    case 1 -> pass.onBlock(resultSet.getLong("event_id"), occurredAt, columnId, columnName,
+                            resultSet.getString("reason"));
+                    default -> pass.onUnblock(resultSet.getLong("event_id"), occurredAt, columnId, columnName,
+                            resultSet.getString("reason"));
+                }
+            } while (resultSet.next());
+            return pass.finish();
+        }
+    }
+
+    /**
+     * Estado da passada linear sobre os eventos ordenados
+     */
+    private static final class TimelinePass {
+
+        private final Long cardId;
+        private final String title;
+        private final LocalDateTime now;
+        private final List<CardTimelineEventDTO> events = new ArrayList<>();
+        private final Map<Long, ColumnAccumulator> columns = new LinkedHashMap<>();
+        private final Map<Long, BlockAccumulator> blocks = new LinkedHashMap<>();
+
+        private ColumnAccumulator current;
+        private LocalDateTime enteredAt;
+        private LocalDateTime blockedSince;
+        private LocalDateTime startTime;
+        private LocalDateTime completedAt;
+
+        private TimelinePass(final Long cardId, final String title, final LocalDateTime now) {
+            this.cardId = cardId;
+            this.title = title;
+            this.now = now;
+        }
+
+        private void onMove(final LocalDateTime at, final Long columnId, final String columnName, final String kind) {
+            events.add(new CardTimelineEventDTO(isNull(startTime) ? CREATED : MOVED, at, columnId, columnName, null));
+            if (isNull(startTime)) {
+                startTime = at;
+            }
+            if (isNull(completedAt) && "FINAL".equals(kind)) {
+                completedAt = at;
+            }
+            closeSegment(at);
+            current = columns.computeIfAbsent(columnId, id -> new ColumnAccumulator(id, columnName));
+            enteredAt = at;
+        }
+
+        private void onBlock(final Long blockId, final LocalDateTime at, final Long columnId, final String columnName,
+                             final String reason) {
+            events.add(new CardTimelineEventDTO(BLOCKED, at, columnId, columnName, reason));
+            blocks.put(blockId, new BlockAccumulator(at, reason));
+            if (isNull(blockedSince)) {
+                blockedSince = at;
+            }
+        }
+
+        private void onUnblock(final Long blockId, final LocalDateTime at, final Long columnId, final String columnName,
+                               final String reason) {
+            events.add(new CardTimelineEventDTO(UNBLOCKED, at, columnId, columnName, reason));
+            var block = blocks.get(blockId);
+            if (nonNull(block)) {
+                block.unblockedAt = at;
+                block.unblockReason = reason;
+            }
+            if (nonNull(current) && nonNull(blockedSince)) {
+                current.blocked = current.blocked.plus(Duration.between(max(blockedSince, enteredAt), at));
+            }
+            blockedSince = null;
+        }
+
+        /**
+         * Encerra a permanência na coluna atual, somando também a parte bloqueada dela
+         */
+        private void closeSegment(final LocalDateTime at) {
+            if (isNull(current)) {
+                return;
+            }
+            current.spent = current.spent.plus(Duration.between(enteredAt, at));
+            if (nonNull(blockedSince)) {
+                current.blocked = current.blocked.plus(Duration.between(max(blockedSince, enteredAt), at));
+            }
+        }
+
+        private CardDetailedTimelineDTO finish() {
+            closeSegment(now);
+
+            List<ColumnTimeDTO> columnTimes = new ArrayList<>(columns.size());
+            for (var column : columns.values()) {
+                columnTimes.add(new ColumnTimeDTO(column.id, column.name, column.spent, column.blocked));
+            }
+            List<CardBlockingReportDTO> blockingHistory = new ArrayList<>(blocks.size());
+            for (var block : blocks.values()) {
+                blockingHistory.add(new CardBlockingReportDTO(
+                        cardId,
+                        title,
+                        block.blockedAt,
+                        block.blockReason,
+                        block.unblockedAt,
+                        block.unblockReason,
+                        Duration.between(block.blockedAt, nonNull(block.unblockedAt) ? block.unblockedAt : now)
+                ));
+            }
+            CardCompletionTimeDTO completion = nonNull(completedAt) ?
+                    new CardCompletionTimeDTO(cardId, title, startTime, completedAt, Duration.between(startTime, completedAt)) :
+                    null;
+            return new CardDetailedTimelineDTO(cardId, title, completion, columnTimes, blockingHistory, events);
+        }
+
+        private static LocalDateTime max(final LocalDateTime a, final LocalDateTime b) {
+            return a.isAfter(b) ? a : b;
+        }
+    }
+
+    private static final class ColumnAccumulator {
+
+        private final Long id;
+        private final String name;
+        private Duration spent = Duration.ZERO;
+        private Duration blocked = Duration.ZERO;
+
+        private ColumnAccumulator(final Long id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static final class BlockAccumulator {
+
+        private final LocalDateTime blockedAt;
+        private final String blockReason;
+        private LocalDateTime unblockedAt;
+        private String unblockReason;
+
+        private BlockAccumulator(final LocalDateTime blockedAt, final String blockReason) {
+            this.blockedAt = blockedAt;
+            this.blockReason = blockReason;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.FlowMetricsDTO;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.service.metrics.FlowMetricsEngine;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneId;
+
+/**
+ * Serviço que calcula as métricas de fluxo (kanban) de um board a partir de CARD_HISTORY
+ */
+@AllArgsConstructor
+public class FlowMetricsService {
+
+    private final Connection connection;
+
+    /**
+     * Calcula fluxo cumulativo, vazão semanal, percentis de cycle time e idade do WIP do board,
+     * lendo o histórico em streaming, sem carregá-lo inteiro em memória
+     *
+     * @param boardId ID do board
+     * @return Métricas de fluxo do board
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public FlowMetricsDTO getFlowMetrics(final Long boardId) throws SQLException {
+        var columns = new BoardColumnDAO(connection).findByBoardId(boardId);
+        var nowMillis = getServerNowMillis();
+        var engine = new FlowMetricsEngine(columns, ZoneId.systemDefault());
+
+        String sql = """
+            SELECT ch.card_id,
+                   COALESCE(ch.from_column_id, 0) AS from_column_id,
+                   ch.to_column_id,
+                   UNIX_TIMESTAMP(ch.moved_at) * 1000 AS moved_at_ms
+            FROM CARD_HISTORY ch
+            INNER JOIN BOARDS_COLUMNS bc ON ch.to_column_id = bc.id
+            WHERE bc.board_id = ?
+            ORDER BY ch.moved_at, ch.id;
+        """;
+
+        try (var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Faz o driver entregar as linhas em streaming em vez de materializar o resultado
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setLong(1, boardId);
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    engine.accept(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4));
+                }
+            }
+        }
+
+        return engine.finish(nowMillis);
+    }
+
+    private long getServerNowMillis() throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT UNIX_TIMESTAMP(NOW()) * 1000;")) {
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+}
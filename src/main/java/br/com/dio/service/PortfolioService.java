@@ -0,0 +1,186 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardPortfolioDTO;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.shard.ShardRouter;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serviço do painel de portfólio. Cada indicador é calculado por uma única consulta agrupada por
+ * board, então o número de consultas não depende da quantidade de boards. As consultas de bloqueios
+ * e de conclusões rodam em paralelo, cada uma em uma conexão de leitura própria, enquanto a contagem de
+ * cards roda na conexão recebida; os resultados são combinados em memória pelo id do board.
+ * <p>
+ * As consultas cobrem os boards do shard da conexão recebida; o painel de todos os shards junta os
+ * resultados de cada um ({@link br.com.dio.persistence.resilience.DatabaseExecutor#fanOut}).
+ */
+@AllArgsConstructor
+public class PortfolioService {
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+        var thread = new Thread(runnable, "portfolio-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Connection connection;
+
+    /**
+     * Calcula os indicadores de todos os boards
+     *
+     * @param windowDays Janela, em dias até agora, considerada para vazão e lead time
+     * @return Indicadores por board, ordenados pelo id do board
+     * @throws SQLException se houver erro no acesso ao banco
+     */
+    public List<BoardPortfolioDTO> getPortfolio(final int windowDays) throws SQLException {
+        if (windowDays <= 0) {
+            throw new IllegalArgumentException("A janela do portfólio deve ser positiva");
+        }
+        var openBlocks = submit(PortfolioService::loadOpenBlocks);
+        var completions = submit(c -> loadCompletions(c, windowDays));
+        var cardCounts = loadCardCounts(connection);
+
+        var blockedByBoard = join(openBlocks);
+        var completionsByBoard = join(completions);
+        List<BoardPortfolioDTO> portfolio = new ArrayList<>(cardCounts.size());
+        for (var entry : cardCounts.entrySet()) {
+            var counts = entry.getValue();
+            var completion = completionsByBoard.getOrDefault(entry.getKey(), new long[2]);
+            portfolio.add(new BoardPortfolioDTO(
+                    entry.getKey(),
+                    counts.name(),
+                    counts.cards(),
+                    counts.wip(),
+                    blockedByBoard.getOrDefault(entry.getKey(), 0),
+                    (int) completion[0],
+                    Duration.ofSeconds(completion[1])
+            ));
+        }
+        return portfolio;
+    }
+
+    private static Map<Long, CardCounts> loadCardCounts(final Connection connection) throws SQLException {
+        // Conta os cards por coluna primeiro, o que percorre apenas o índice de CARDS.board_column_id,
+        // e só depois soma as colunas de cada board
+        String sql = """
+            SELECT b.id, b.name,
+                   COALESCE(SUM(t.cards), 0) AS cards,
+                   COALESCE(SUM(CASE WHEN bc.kind IN ('FINAL', 'CANCEL') THEN 0 ELSE t.cards END), 0) AS wip
+            FROM BOARDS b
+            LEFT JOIN BOARDS_COLUMNS bc ON bc.board_id = b.id
+            LEFT JOIN (SELECT board_column_id, COUNT(*) AS cards
+                       FROM CARDS
+                       GROUP BY board_column_id) t ON t.board_column_id = bc.id
+            WHERE b.deleted_at IS NULL
+            GROUP BY b.id, b.name
+            ORDER BY b.id;
+        """;
+
+        Map<Long, CardCounts> counts = new LinkedHashMap<>();
+        try (var statement = connection.prepareStatement(sql)) {
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                counts.put(resultSet.getLong("id"), new CardCounts(
+                        resultSet.getString("name"),
+                        resultSet.getInt("cards"),
+                        resultSet.getInt("wip")
+                ));
+            }
+        }
+        return counts;
+    }
+
+    private static Map<Long, Integer> loadOpenBlocks(final Connection connection) throws SQLException {
+        String sql = """
+            SELECT bc.board_id, COUNT(*) AS blocked
+            FROM BLOCKS bl
+            INNER JOIN BOARDS_COLUMNS bc ON bc.id = bl.board_column_id
+            WHERE bl.unblocked_at IS NULL
+            GROUP BY bc.board_id;
+        """;
+
+        Map<Long, Integer> blocked = new HashMap<>();
+        try (var statement = connection.prepareStatement(sql)) {
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                blocked.put(resultSet.getLong("board_id"), resultSet.getInt("blocked"));
+            }
+        }
+        return blocked;
+    }
+
+    /**
+     * @return Por board, um par com a vazão e o lead time médio em segundos
+     */
+    private static Map<Long, long[]> loadCompletions(final Connection connection, final int windowDays) throws SQLException {
+        // Percorre apenas o índice (board_column_id, completed_at, created_at) de CARDS nas colunas finais,
+        // dentro da janela; o lead time vai da criação do card até a conclusão
+        String sql = """
+            SELECT bc.board_id,
+                   COUNT(*) AS throughput,
+                   AVG(TIMESTAMPDIFF(SECOND, c.created_at, c.completed_at)) AS lead_time_seconds
+            FROM BOARDS_COLUMNS bc
+            INNER JOIN CARDS c ON c.board_column_id = bc.id
+            WHERE bc.kind = 'FINAL'
+              AND c.completed_at >= NOW() - INTERVAL ? DAY
+            GROUP BY bc.board_id;
+        """;
+
+        Map<Long, long[]> completions = new HashMap<>();
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, windowDays);
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                completions.put(resultSet.getLong("board_id"), new long[]{
+                        resultSet.getInt("throughput"),
+                        Math.max(0, Math.round(resultSet.getDouble("lead_time_seconds")))
+                });
+            }
+        }
+        return completions;
+    }
+
+    private <T> CompletableFuture<T> submit(final PortfolioQuery<T> query) throws SQLException {
+        var shard = ShardRouter.getInstance().shardOf(connection);
+        return CompletableFuture.supplyAsync(() -> {
+            try (var pooled = ConnectionConfig.getReadConnection(shard)) {
+                return query.run(pooled);
+            } catch (SQLException ex) {
+                throw new CompletionException(ex);
+            }
+        }, EXECUTOR);
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw ex;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PortfolioQuery<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    private record CardCounts(String name, int cards, int wip) {
+    }
+
+}
@@ -5,21 +5,59 @@ import br.com.dio.dto.CardCompletionTimeDTO;
 import br.com.dio.dto.CardDetailedTimelineDTO;
 import br.com.dio.dto.CardHistoryDTO;
 import br.com.dio.dto.ColumnTimeDTO;
+import br.com.dio.persistence.mapper.RowMapperFactory;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+
+import static br.com.dio.persistence.mapper.ResultSets.getLocalDateTime;
+import static br.com.dio.persistence.mapper.ResultSets.getNullableLong;
+import static br.com.dio.persistence.mapper.ResultSets.list;
 
 @AllArgsConstructor
 public class ReportService {
 
+    /**
+     * Mapeamento das linhas do relatório de tempo de conclusão, que precisam das colunas
+     * {@code id}, {@code title}, {@code start_time} e {@code end_time}
+     */
+    public static final RowMapperFactory<CardCompletionTimeDTO> COMPLETION_TIME_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("id");
+        var title = resultSet.findColumn("title");
+        var start = resultSet.findColumn("start_time");
+        var end = resultSet.findColumn("end_time");
+        return rs -> {
+            var startTime = getLocalDateTime(rs, start);
+            var endTime = getLocalDateTime(rs, end);
+            return new CardCompletionTimeDTO(rs.getLong(id), rs.getString(title), startTime, endTime,
+                    Duration.between(startTime, endTime));
+        };
+    };
+
+    private static final RowMapperFactory<CardHistoryDTO> HISTORY_MAPPER = resultSet -> {
+        var id = resultSet.findColumn("id");
+        var cardId = resultSet.findColumn("card_id");
+        var cardTitle = resultSet.findColumn("card_title");
+        var fromColumnId = resultSet.findColumn("from_column_id");
+        var fromColumnName = resultSet.findColumn("from_column_name");
+        var toColumnId = resultSet.findColumn("to_column_id");
+        var toColumnName = resultSet.findColumn("to_column_name");
+        var movedAt = resultSet.findColumn("moved_at");
+        return rs -> new CardHistoryDTO(
+                rs.getLong(id),
+                rs.getLong(cardId),
+                rs.getString(cardTitle),
+                getNullableLong(rs, fromColumnId),
+                rs.getString(fromColumnName),
+                rs.getLong(toColumnId),
+                rs.getString(toColumnName),
+                getLocalDateTime(rs, movedAt)
+        );
+    };
+
     private final Connection connection;
 
     /**
@@ -30,8 +68,6 @@ public class ReportService {
      * @throws SQLException se houver erro no acesso ao banco
      */
     public List<CardCompletionTimeDTO> getCompletionTimeReport(Long boardId) throws SQLException {
-        List<CardCompletionTimeDTO> report = new ArrayList<>();
-
         // Usar a primeira entrada do histórico como data de criação
         String sql = """
             SELECT c.id, c.title, 
@@ -51,25 +87,8 @@ public class ReportService {
 
         try (var statement = connection.prepareStatement(sql)) {
             statement.setLong(1, boardId);
-            var resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                LocalDateTime startTime = resultSet.getTimestamp("start_time").toLocalDateTime();
-                LocalDateTime endTime = resultSet.getTimestamp("end_time").toLocalDateTime();
-                Duration duration = Duration.between(startTime, endTime);
-
-                CardCompletionTimeDTO dto = new CardCompletionTimeDTO(
-                        resultSet.getLong("id"),
-                        resultSet.getString("title"),
-                        startTime,
-                        endTime,
-                        duration
-                );
-                report.add(dto);
-            }
+            return list(statement.executeQuery(), COMPLETION_TIME_MAPPER);
         }
-
-        return report;
     }
 
     /**
@@ -80,49 +99,7 @@ public class ReportService {
      * @throws SQLException se houver erro no acesso ao banco
      */
     public List<CardBlockingReportDTO> getBlockingReport(Long boardId) throws SQLException {
-        List<CardBlockingReportDTO> report = new ArrayList<>();
-
-        String sql = """
-            SELECT c.id, c.title, 
-                   b.blocked_at, b.block_reason,
-                   b.unblocked_at, b.unblock_reason
-            FROM CARDS c
-            INNER JOIN BLOCKS b ON c.id = b.card_id
-            INNER JOIN BOARDS_COLUMNS bc ON c.board_column_id = bc.id
-            WHERE bc.board_id = ?
-            ORDER BY c.id, b.blocked_at;
-        """;
-
-        try (var statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, boardId);
-            var resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                LocalDateTime blockedAt = resultSet.getTimestamp("blocked_at").toLocalDateTime();
-                LocalDateTime unblockedAt = null;
-
-                if (resultSet.getTimestamp("unblocked_at") != null) {
-                    unblockedAt = resultSet.getTimestamp("unblocked_at").toLocalDateTime();
-                }
-
-                Duration blockedTime = unblockedAt != null ?
-                        Duration.between(blockedAt, unblockedAt) :
-                        Duration.between(blockedAt, LocalDateTime.now());
-
-                CardBlockingReportDTO dto = new CardBlockingReportDTO(
-                        resultSet.getLong("id"),
-                        resultSet.getString("title"),
-                        blockedAt,
-                        resultSet.getString("block_reason"),
-                        unblockedAt,
-                        resultSet.getString("unblock_reason"),
-                        blockedTime
-                );
-                report.add(dto);
-            }
-        }
-
-        return report;
+        return new BlockingAnalyticsService(connection).getBlockingReport(boardId);
     }
 
     /**
@@ -133,8 +110,6 @@ public class ReportService {
      * @throws SQLException se houver erro no acesso ao banco
      */
     public List<CardHistoryDTO> getCardMovementHistory(Long cardId) throws SQLException {
-        List<CardHistoryDTO> history = new ArrayList<>();
-
         String sql = """
             SELECT ch.id, ch.card_id, c.title AS card_title,
                    ch.from_column_id, bc_from.name AS from_column_name,
@@ -150,265 +125,30 @@ public class ReportService {
 
         try (var statement = connection.prepareStatement(sql)) {
             statement.setLong(1, cardId);
-            var resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                CardHistoryDTO dto = new CardHistoryDTO(
-                        resultSet.getLong("id"),
-                        resultSet.getLong("card_id"),
-                        resultSet.getString("card_title"),
-                        resultSet.getObject("from_column_id") != null ? resultSet.getLong("from_column_id") : null,
-                        resultSet.getString("from_column_name"),
-                        resultSet.getLong("to_column_id"),
-                        resultSet.getString("to_column_name"),
-                        resultSet.getTimestamp("moved_at").toLocalDateTime()
-                );
-                history.add(dto);
-            }
+            return list(statement.executeQuery(), HISTORY_MAPPER);
         }
-
-        return history;
     }
 
     /**
-     * Calcula o tempo que um card passou em cada coluna
+     * Calcula o tempo que um card passou em cada coluna, e quanto desse tempo ficou bloqueado
      *
      * @param cardId ID do card para análise
-     * @return Lista de DTOs com tempo em cada coluna
+     * @return Lista de DTOs com tempo em cada coluna, na ordem em que o card passou por elas
      * @throws SQLException se houver erro no acesso ao banco
      */
     public List<ColumnTimeDTO> getTimePerColumn(Long cardId) throws SQLException {
-        // Primeiro, obtenha o histórico completo de movimentação do card
-        List<CardHistoryDTO> history = getCardMovementHistory(cardId);
-
-        if (history.isEmpty()) {
-            return List.of();
-        }
-
-        // Mapa para armazenar o tempo por coluna
-        Map<Long, ColumnTimeDTO> timePerColumn = new HashMap<>();
-
-        // Informações sobre a coluna atual
-        String sql = "SELECT bc.id, bc.name FROM BOARDS_COLUMNS bc INNER JOIN CARDS c ON bc.id = c.board_column_id WHERE c.id = ?";
-
-        try (var statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, cardId);
-            var resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                Long currentColumnId = resultSet.getLong("id");
-                String currentColumnName = resultSet.getString("name");
-
-                // Processa o histórico para calcular o tempo em cada coluna
-                LocalDateTime lastMovementTime = null;
-                Long lastColumnId = null;
-
-                for (int i = 0; i < history.size(); i++) {
-                    CardHistoryDTO movement = history.get(i);
-
-                    if (i > 0) {
-                        // Calcula o tempo na coluna anterior
-                        Duration timeSpent = Duration.between(lastMovementTime, movement.movedAt());
-
-                        if (timePerColumn.containsKey(lastColumnId)) {
-                            ColumnTimeDTO existing = timePerColumn.get(lastColumnId);
-                            Duration newTotal = existing.timeSpent().plus(timeSpent);
-                            timePerColumn.put(lastColumnId, new ColumnTimeDTO(
-                                    existing.columnId(),
-                                    existing.columnName(),
-                                    newTotal
-                            ));
-                        } else {
-                            // Busque o nome da coluna
-                            String columnName = "";
-                            for (CardHistoryDTO m : history) {
-                                if (m.toColumnId().equals(lastColumnId)) {
-                                    columnName = m.toColumnName();
-                                    break;
-                                }
-                            }
-
-                            timePerColumn.put(lastColumnId, new ColumnTimeDTO(
-                                    lastColumnId,
-                                    columnName,
-                                    timeSpent
-                            ));
-                        }
-                    }
-
-                    lastMovementTime = movement.movedAt();
-                    lastColumnId = movement.toColumnId();
-                }
-
-                // Adiciona o tempo na coluna atual
-                if (lastMovementTime != null) {
-                    Duration timeInCurrentColumn = Duration.between(lastMovementTime, LocalDateTime.now());
-
-                    if (lastColumnId.equals(currentColumnId)) {
-                        // Ainda está na última coluna do histórico
-                        if (timePerColumn.containsKey(currentColumnId)) {
-                            ColumnTimeDTO existing = timePerColumn.get(currentColumnId);
-                            Duration newTotal = existing.timeSpent().plus(timeInCurrentColumn);
-                            timePerColumn.put(currentColumnId, new ColumnTimeDTO(
-                                    existing.columnId(),
-                                    existing.columnName(),
-                                    newTotal
-                            ));
-                        } else {
-                            timePerColumn.put(currentColumnId, new ColumnTimeDTO(
-                                    currentColumnId,
-                                    currentColumnName,
-                                    timeInCurrentColumn
-                            ));
-                        }
-                    } else {
-                        // Mudou para uma nova coluna que ainda não está no histórico
-                        timePerColumn.put(currentColumnId, new ColumnTimeDTO(
-                                currentColumnId,
-                                currentColumnName,
-                                timeInCurrentColumn
-                        ));
-                    }
-                }
-            }
-        }
-
-        // Converte o mapa para lista e ordena por ID da coluna (geralmente reflete a ordem no board)
-        return timePerColumn.values().stream()
-                .sorted((c1, c2) -> c1.columnId().compareTo(c2.columnId()))
-                .collect(Collectors.toList());
+        var timeline = getCardDetailedTimeline(cardId);
+        return timeline == null ? List.of() : timeline.columnTimes();
     }
 
     /**
      * Gera um relatório detalhado sobre um card específico
      *
      * @param cardId ID do card para análise
-     * @return DTO com timeline detalhada do card
+     * @return DTO com timeline detalhada do card, ou null se o card não existir
      * @throws SQLException se houver erro no acesso ao banco
      */
     public CardDetailedTimelineDTO getCardDetailedTimeline(Long cardId) throws SQLException {
-        String cardInfoSql = "SELECT c.id, c.title FROM CARDS c WHERE c.id = ?";
-
-        try (var statement = connection.prepareStatement(cardInfoSql)) {
-            statement.setLong(1, cardId);
-            var resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                Long id = resultSet.getLong("id");
-                String title = resultSet.getString("title");
-
-                // Obtém o histórico de bloqueios
-                List<CardBlockingReportDTO> blockingHistory = getCardBlockings(cardId);
-
-                // Obtém o tempo por coluna
-                List<ColumnTimeDTO> columnTimes = getTimePerColumn(cardId);
-
-                // Verifica se o card já foi concluído
-                CardCompletionTimeDTO completionTime = getCardCompletionTime(cardId);
-
-                return new CardDetailedTimelineDTO(
-                        id,
-                        title,
-                        completionTime,
-                        columnTimes,
-                        blockingHistory
-                );
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Obtém o tempo de conclusão de um card específico, se já foi concluído
-     *
-     * @param cardId ID do card
-     * @return DTO com informações de conclusão ou null se não concluído
-     * @throws SQLException se houver erro no acesso ao banco
-     */
-    private CardCompletionTimeDTO getCardCompletionTime(Long cardId) throws SQLException {
-        String sql = """
-            SELECT c.title, 
-                   (SELECT MIN(ch.moved_at) 
-                    FROM CARD_HISTORY ch 
-                    WHERE ch.card_id = c.id AND ch.from_column_id IS NULL) AS start_time,
-                   (SELECT MIN(ch.moved_at) 
-                    FROM CARD_HISTORY ch 
-                    INNER JOIN BOARDS_COLUMNS bc ON ch.to_column_id = bc.id 
-                    WHERE ch.card_id = c.id AND bc.kind = 'FINAL') AS end_time
-            FROM CARDS c
-            WHERE c.id = ?
-        """;
-
-        try (var statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, cardId);
-            var resultSet = statement.executeQuery();
-
-            if (resultSet.next() && resultSet.getTimestamp("end_time") != null) {
-                LocalDateTime startTime = resultSet.getTimestamp("start_time").toLocalDateTime();
-                LocalDateTime endTime = resultSet.getTimestamp("end_time").toLocalDateTime();
-                Duration duration = Duration.between(startTime, endTime);
-
-                return new CardCompletionTimeDTO(
-                        cardId,
-                        resultSet.getString("title"),
-                        startTime,
-                        endTime,
-                        duration
-                );
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Obtém o histórico de bloqueios de um card específico
-     *
-     * @param cardId ID do card
-     * @return Lista de bloqueios do card
-     * @throws SQLException se houver erro no acesso ao banco
-     */
-    private List<CardBlockingReportDTO> getCardBlockings(Long cardId) throws SQLException {
-        List<CardBlockingReportDTO> blockings = new ArrayList<>();
-
-        String sql = """
-            SELECT c.title, b.blocked_at, b.block_reason, b.unblocked_at, b.unblock_reason
-            FROM BLOCKS b
-            INNER JOIN CARDS c ON b.card_id = c.id
-            WHERE c.id = ?
-            ORDER BY b.blocked_at;
-        """;
-
-        try (var statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, cardId);
-            var resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                LocalDateTime blockedAt = resultSet.getTimestamp("blocked_at").toLocalDateTime();
-                LocalDateTime unblockedAt = null;
-
-                if (resultSet.getTimestamp("unblocked_at") != null) {
-                    unblockedAt = resultSet.getTimestamp("unblocked_at").toLocalDateTime();
-                }
-
-                Duration blockedTime = unblockedAt != null ?
-                        Duration.between(blockedAt, unblockedAt) :
-                        Duration.between(blockedAt, LocalDateTime.now());
-
-                CardBlockingReportDTO dto = new CardBlockingReportDTO(
-                        cardId,
-                        resultSet.getString("title"),
-                        blockedAt,
-                        resultSet.getString("block_reason"),
-                        unblockedAt,
-                        resultSet.getString("unblock_reason"),
-                        blockedTime
-                );
-                blockings.add(dto);
-            }
-        }
-
-        return blockings;
+        return new CardTimelineBuilder(connection).build(cardId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,411 @@
+package br.com.dio.service;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.dto.ShardMoveResultDTO;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.BlockReasonDAO;
+import br.com.dio.persistence.dao.ShardCatalogDAO;
+import br.com.dio.persistence.shard.ShardRouter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static br.com.dio.persistence.shard.ShardRouter.CATALOG_SHARD;
+import static java.util.Objects.isNull;
+
+/**
+ * Move um board, com colunas, cards, bloqueios e histórico, para outro shard sem tirá-lo do ar.
+ * <p>
+ * A mudança é marcada no catálogo e, a partir daí, o board continua sendo lido no shard de origem,
+ * mas as escritas são recusadas ({@link br.com.dio.exception.BoardMovingException}). Antes de copiar, a
+ * mudança espera o cache de localizações dos outros processos expirar ({@code db.shards.map-cache-ms})
+ * mais o timeout de escrita ({@code db.timeout.write-seconds}), para que nenhuma escrita iniciada antes
+ * da marca ainda esteja em andamento. A cópia é feita em lotes de {@code db.shards.move.chunk-size}
+ * linhas, cada um em uma transação curta, e o board copiado fica marcado como excluído no destino
+ * até o fim, invisível para as consultas.
+ * <p>
+ * Boards, colunas e cards mantêm os ids; bloqueios e histórico recebem ids novos do destino e os
+ * motivos de bloqueio são procurados ou criados no dicionário do destino. Se o board de origem
+ * mudar durante a cópia, ou as contagens do destino não baterem, a mudança é desfeita e o board
+ * volta a aceitar escritas na origem. Ao final o catálogo passa a apontar para o destino e, depois de
+ * mais um prazo de cache, a cópia da origem é marcada como excluída e removida pelo {@link BoardPurger}.
+ */
+public final class ShardMover {
+
+    private static final ShardMover INSTANCE = new ShardMover(
+            ApplicationProperties.getInstance().getInt("db.shards.move.chunk-size", 1_000),
+            ApplicationProperties.getInstance().getInt("db.timeout.write-seconds", 10));
+
+    private final int chunkSize;
+    private final int writeTimeoutSeconds;
+
+    private ShardMover(final int chunkSize, final int writeTimeoutSeconds) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote de cópia deve ser positivo");
+        }
+        this.chunkSize = chunkSize;
+        this.writeTimeoutSeconds = writeTimeoutSeconds;
+    }
+
+    public static ShardMover getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Move o board para o shard de destino
+     *
+     * @param boardId ID do board
+     * @param toShard Shard de destino
+     * @param progress Recebe uma mensagem a cada etapa da mudança
+     * @return Resumo da mudança
+     * @throws SQLException se ocorrer erro no acesso ao banco; a mudança é desfeita
+     * @throws InterruptedException se a thread for interrompida; a mudança é desfeita
+     * @throws IllegalArgumentException se o board ou o shard não existirem, ou o board já estiver no destino
+     * @throws IllegalStateException se o board já estiver mudando ou a cópia não conferir com a origem
+     */
+    public ShardMoveResultDTO move(final long boardId, final int toShard, final Consumer<String> progress)
+            throws SQLException, InterruptedException {
+        var router = ShardRouter.getInstance();
+        if (!router.getShardIds().contains(toShard)) {
+            throw new IllegalArgumentException("O shard %s não está configurado".formatted(toShard));
+        }
+        router.invalidate(boardId);
+        var location = router.locate(boardId);
+        var fromShard = location.shardId();
+        if (location.isMoving()) {
+            throw new IllegalStateException("O board %s já está sendo movido para o shard %s"
+                    .formatted(boardId, location.movingTo()));
+        }
+        if (fromShard == toShard) {
+            throw new IllegalArgumentException("O board %s já está no shard %s".formatted(boardId, toShard));
+        }
+        var startedAt = System.currentTimeMillis();
+        try (var source = ConnectionConfig.getConnection(fromShard);
+             var target = ConnectionConfig.getConnection(toShard)) {
+            if (!boardExists(source, boardId, false)) {
+                throw new IllegalArgumentException("Não existe um board com o id %s no shard %s".formatted(boardId, fromShard));
+            }
+            if (boardExists(target, boardId, true)) {
+                throw new IllegalStateException(("O shard %s ainda tem dados de uma mudança anterior do board %s, " +
+                        "que estão sendo removidos em segundo plano; tente de novo mais tarde").formatted(toShard, boardId));
+            }
+            if (!updateCatalog(dao -> dao.markMoving(boardId, fromShard, toShard))) {
+                throw new IllegalStateException("O board %s mudou de shard ou começou a ser movido por outro processo"
+                        .formatted(boardId));
+            }
+            router.invalidate(boardId);
+            Map<String, Long> copied;
+            try {
+                var drainMs = router.getMapCacheMs() + writeTimeoutSeconds * 1000L;
+                progress.accept("Escritas no board suspensas; aguardando %d s para que as escritas em andamento terminem"
+                        .formatted(Math.max(1, drainMs / 1000)));
+                Thread.sleep(drainMs);
+
+                var before = checksum(source, boardId);
+                copied = copy(source, target, boardId, progress);
+                var after = checksum(source, boardId);
+                if (!before.equals(after)) {
+                    throw new IllegalStateException("O board %s foi alterado durante a cópia".formatted(boardId));
+                }
+                if (!before.matchesCopy(checksum(target, boardId))) {
+                    throw new IllegalStateException("A cópia do board %s no shard %s não confere com a origem"
+                            .formatted(boardId, toShard));
+                }
+                setDeleted(target, boardId, false);
+                updateCatalog(dao -> {
+                    dao.completeMove(boardId);
+                    return true;
+                });
+            } catch (SQLException | InterruptedException | RuntimeException ex) {
+                abort(target, boardId);
+                throw ex;
+            }
+            router.invalidate(boardId);
+            progress.accept("Board disponível no shard %d; aguardando o cache dos outros processos antes de retirar a origem"
+                    .formatted(toShard));
+            try {
+                // Até o cache expirar, outros processos ainda podem ler o board na origem, que não muda mais
+                Thread.sleep(router.getMapCacheMs());
+            } finally {
+                setDeleted(source, boardId, true);
+                BoardPurger.getInstance().wakeUp();
+            }
+            return new ShardMoveResultDTO(boardId, fromShard, toShard, copied.get("BOARDS_COLUMNS"),
+                    copied.get("CARDS"), copied.get("BLOCKS"), copied.get("CARD_HISTORY"),
+                    System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    /**
+     * Desfaz uma mudança que não chegou a virar o catálogo: a cópia fica marcada como excluída no
+     * destino, e o {@link BoardPurger} a remove
+     */
+    private void abort(final Connection target, final long boardId) {
+        try {
+            target.rollback();
+            setDeleted(target, boardId, true);
+            updateCatalog(dao -> {
+                dao.cancelMove(boardId);
+                return true;
+            });
+        } catch (SQLException ex) {
+            System.err.println("Falha ao desfazer a mudança do board " + boardId + ": " + ex.getMessage());
+        }
+        ShardRouter.getInstance().invalidate(boardId);
+        BoardPurger.getInstance().wakeUp();
+    }
+
+    private Map<String, Long> copy(final Connection source, final Connection target, final long boardId,
+                                   final Consumer<String> progress) throws SQLException {
+        Map<String, Long> copied = new HashMap<>();
+        Map<Long, Long> reasonIds = new HashMap<>();
+        var deletedAt = new Timestamp(System.currentTimeMillis());
+
+        copied.put("BOARDS", copyRows(source, target, boardId, "BOARDS",
+                "SELECT b.* FROM BOARDS b WHERE b.id = ? AND b.id > ? ORDER BY b.id LIMIT ?;",
+                Set.of(), Map.of("deleted_at", value -> deletedAt)));
+        copied.put("BOARDS_COLUMNS", copyRows(source, target, boardId, "BOARDS_COLUMNS",
+                "SELECT bc.* FROM BOARDS_COLUMNS bc WHERE bc.board_id = ? AND bc.id > ? ORDER BY bc.id LIMIT ?;",
+                Set.of(), Map.of()));
+        progress.accept("Copiando cards");
+        copied.put("CARDS", copyRows(source, target, boardId, "CARDS", """
+                SELECT c.*
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                 WHERE bc.board_id = ?
+                   AND c.id > ?
+                 ORDER BY c.id
+                 LIMIT ?;
+                """, Set.of(), Map.of()));
+        progress.accept("Copiando bloqueios");
+        ColumnMapper reasonMapper = value -> isNull(value) ? null :
+                copyReason(source, target, ((Number) value).longValue(), reasonIds);
+        copied.put("BLOCKS", copyRows(source, target, boardId, "BLOCKS", """
+                SELECT bl.*
+                  FROM BLOCKS bl
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = bl.board_column_id
+                 WHERE bc.board_id = ?
+                   AND bl.id > ?
+                 ORDER BY bl.id
+                 LIMIT ?;
+                """, Set.of("id"), Map.of("block_reason_id", reasonMapper, "unblock_reason_id", reasonMapper)));
+        progress.accept("Copiando histórico");
+        copied.put("CARD_HISTORY", copyRows(source, target, boardId, "CARD_HISTORY", """
+                SELECT ch.*
+                  FROM CARD_HISTORY ch
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = ch.to_column_id
+                 WHERE bc.board_id = ?
+                   AND ch.id > ?
+                 ORDER BY ch.id
+                 LIMIT ?;
+                """, Set.of("id"), Map.of()));
+        return copied;
+    }
+
+    /**
+     * Copia as linhas devolvidas pela consulta em lotes, paginando pelo id da origem. A consulta recebe
+     * o id do board, o último id copiado e o tamanho do lote.
+     *
+     * @param skipped Colunas que não são copiadas e ficam com o valor padrão do destino
+     * @param mappers Colunas cujo valor é convertido antes da gravação
+     * @return Quantidade de linhas copiadas
+     */
+    private long copyRows(final Connection source, final Connection target, final long boardId, final String table,
+                          final String selectSql, final Set<String> skipped, final Map<String, ColumnMapper> mappers)
+            throws SQLException {
+        var total = 0L;
+        var lastId = 0L;
+        try (var select = source.prepareStatement(selectSql)) {
+            while (true) {
+                var i = 1;
+                select.setLong(i ++, boardId);
+                select.setLong(i ++, lastId);
+                select.setInt(i, chunkSize);
+                var resultSet = select.executeQuery();
+                var metaData = resultSet.getMetaData();
+                List<String> columns = new ArrayList<>();
+                List<Integer> indexes = new ArrayList<>();
+                for (var column = 1; column <= metaData.getColumnCount(); column++) {
+                    if (!skipped.contains(metaData.getColumnLabel(column))) {
+                        columns.add(metaData.getColumnLabel(column));
+                        indexes.add(column);
+                    }
+                }
+                List<Object[]> rows = new ArrayList<>(chunkSize);
+                while (resultSet.next()) {
+                    lastId = resultSet.getLong("id");
+                    var row = new Object[columns.size()];
+                    for (var c = 0; c < columns.size(); c++) {
+                        var mapper = mappers.get(columns.get(c));
+                        var value = resultSet.getObject(indexes.get(c));
+                        row[c] = isNull(mapper) ? value : mapper.map(value);
+                    }
+                    rows.add(row);
+                }
+                source.commit();
+                if (rows.isEmpty()) {
+                    return total;
+                }
+                insertRows(target, table, columns, rows);
+                target.commit();
+                total += rows.size();
+                if (rows.size() < chunkSize) {
+                    return total;
+                }
+            }
+        }
+    }
+
+    private void insertRows(final Connection target, final String table, final List<String> columns,
+                            final List<Object[]> rows) throws SQLException {
+        // Sem ";" no fim: com rewriteBatchedStatements o driver junta o lote em um único INSERT
+        var sql = "INSERT INTO %s (%s) VALUES (%s)".formatted(table,
+                String.join(", ", columns.stream().map(column -> "`" + column + "`").toList()),
+                String.join(", ", columns.stream().map(column -> "?").toList()));
+        try (var statement = target.prepareStatement(sql)) {
+            for (var row : rows) {
+                for (var c = 0; c < row.length; c++) {
+                    statement.setObject(c + 1, row[c]);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private Long copyReason(final Connection source, final Connection target, final long reasonId,
+                            final Map<Long, Long> reasonIds) throws SQLException {
+        var copied = reasonIds.get(reasonId);
+        if (!isNull(copied)) {
+            return copied;
+        }
+        var sql = "SELECT label FROM BLOCK_REASONS WHERE id = ?;";
+        try (var statement = source.prepareStatement(sql)) {
+            statement.setLong(1, reasonId);
+            var resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
+                throw new IllegalStateException("O motivo de bloqueio %s não existe na origem".formatted(reasonId));
+            }
+            // O rótulo tem a mesma forma canônica do motivo original, então cai na mesma linha do dicionário
+            copied = new BlockReasonDAO(target).findOrCreateId(resultSet.getString(1));
+        }
+        reasonIds.put(reasonId, copied);
+        return copied;
+    }
+
+    private boolean boardExists(final Connection connection, final long boardId, final boolean includeDeleted)
+            throws SQLException {
+        var sql = includeDeleted ?
+                "SELECT 1 FROM BOARDS WHERE id = ?;" :
+                "SELECT 1 FROM BOARDS WHERE id = ? AND deleted_at IS NULL;";
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            var exists = statement.executeQuery().next();
+            connection.commit();
+            return exists;
+        }
+    }
+
+    private void setDeleted(final Connection connection, final long boardId, final boolean deleted) throws SQLException {
+        var sql = deleted ?
+                "UPDATE BOARDS SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?;" :
+                "UPDATE BOARDS SET deleted_at = NULL WHERE id = ?;";
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, boardId);
+            statement.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    private boolean updateCatalog(final CatalogUpdate update) throws SQLException {
+        try (var connection = ConnectionConfig.getConnection(CATALOG_SHARD)) {
+            try {
+                var result = update.apply(new ShardCatalogDAO(connection));
+                connection.commit();
+                return result;
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Resume o conteúdo do board em contagens e somas de CRC32. Os ids de bloqueios e do histórico
+     * mudam na cópia, então a comparação com o destino usa apenas as contagens dessas tabelas.
+     */
+    private BoardChecksum checksum(final Connection connection, final long boardId) throws SQLException {
+        var sql = """
+                SELECT (SELECT COUNT(*)
+                          FROM BOARDS_COLUMNS
+                         WHERE board_id = ?) columns_total,
+                       (SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', id, name, `order`, kind, wip_limit, card_count))), 0)
+                          FROM BOARDS_COLUMNS
+                         WHERE board_id = ?) columns_crc,
+                       (SELECT COUNT(*)
+                          FROM CARDS c
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = c.board_column_id
+                         WHERE bc.board_id = ?) cards_total,
+                       (SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', c.id, c.board_column_id, c.lexo_rank, c.title,
+                                                             c.description, c.completed_at))), 0)
+                          FROM CARDS c
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = c.board_column_id
+                         WHERE bc.board_id = ?) cards_crc,
+                       (SELECT COUNT(*)
+                          FROM BLOCKS bl
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = bl.board_column_id
+                         WHERE bc.board_id = ?) blocks_total,
+                       (SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', bl.id, bl.unblocked_at))), 0)
+                          FROM BLOCKS bl
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = bl.board_column_id
+                         WHERE bc.board_id = ?) blocks_crc,
+                       (SELECT COUNT(*)
+                          FROM CARD_HISTORY ch
+                         INNER JOIN BOARDS_COLUMNS bc ON bc.id = ch.to_column_id
+                         WHERE bc.board_id = ?) history_total;
+                """;
+        try (var statement = connection.prepareStatement(sql)) {
+            for (var i = 1; i <= 7; i++) {
+                statement.setLong(i, boardId);
+            }
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            var checksum = new BoardChecksum(resultSet.getLong("columns_total"), resultSet.getLong("columns_crc"),
+                    resultSet.getLong("cards_total"), resultSet.getLong("cards_crc"),
+                    resultSet.getLong("blocks_total"), resultSet.getLong("blocks_crc"),
+                    resultSet.getLong("history_total"));
+            connection.commit();
+            return checksum;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnMapper {
+        Object map(Object value) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface CatalogUpdate {
+        boolean apply(ShardCatalogDAO dao) throws SQLException;
+    }
+
+    private record BoardChecksum(long columns, long columnsCrc, long cards, long cardsCrc,
+                                 long blocks, long blocksCrc, long history) {
+
+        private boolean matchesCopy(final BoardChecksum copy) {
+            return columns == copy.columns && columnsCrc == copy.columnsCrc && cards == copy.cards &&
+                    cardsCrc == copy.cardsCrc && blocks == copy.blocks && history == copy.history;
+        }
+    }
+
+}
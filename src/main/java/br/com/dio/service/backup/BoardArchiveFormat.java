@@ -0,0 +1,52 @@
+package br.com.dio.service.backup;
+
+import lombok.NoArgsConstructor;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Formato dos arquivos de backup de board, versão 1.
+ * <p>
+ * O arquivo começa com {@link #MAGIC} e um byte de versão, seguidos de blocos. Cada bloco tem um
+ * cabeçalho de 12 bytes (tamanho descomprimido, tamanho comprimido e CRC32 do conteúdo descomprimido,
+ * como inteiros big-endian) e o conteúdo comprimido com deflate. Os registros nunca atravessam blocos.
+ * <p>
+ * Cada registro começa com o seu tipo e é gravado na ordem: board, colunas, cards, bloqueios,
+ * histórico e o registro final com as contagens. Números são varints (LEB128); ids e datas são
+ * gravados como diferença do registro anterior do mesmo tipo, em zigzag, e datas opcionais como
+ * diferença de outra data do mesmo registro. Colunas e cards são referenciados pela posição em que
+ * aparecem no arquivo, e nunca pelos ids originais. Nomes de colunas, tipos e motivos de bloqueio vão
+ * para um dicionário: a primeira ocorrência grava o texto e as seguintes, só a posição.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class BoardArchiveFormat {
+
+    static final byte[] MAGIC = {'K', 'B', 'R', 'D'};
+    static final int VERSION = 1;
+
+    static final int BLOCK_HEADER_BYTES = 12;
+    static final int BLOCK_SIZE = 1 << 20;
+
+    static final int BOARD = 1;
+    static final int COLUMN = 2;
+    static final int CARD = 3;
+    static final int BLOCK = 4;
+    static final int HISTORY = 5;
+    static final int END = 6;
+
+    /** Referência de dicionário para texto nulo */
+    static final int DICTIONARY_NULL = 0;
+    /** Referência de dicionário seguida do texto, que recebe a próxima posição */
+    static final int DICTIONARY_NEW = 1;
+    /** Primeira referência a uma posição já existente no dicionário */
+    static final int DICTIONARY_FIRST_ENTRY = 2;
+
+    static long zigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
@@ -0,0 +1,296 @@
+package br.com.dio.service.backup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static br.com.dio.service.backup.BoardArchiveFormat.BLOCK;
+import static br.com.dio.service.backup.BoardArchiveFormat.BLOCK_HEADER_BYTES;
+import static br.com.dio.service.backup.BoardArchiveFormat.BOARD;
+import static br.com.dio.service.backup.BoardArchiveFormat.CARD;
+import static br.com.dio.service.backup.BoardArchiveFormat.COLUMN;
+import static br.com.dio.service.backup.BoardArchiveFormat.DICTIONARY_FIRST_ENTRY;
+import static br.com.dio.service.backup.BoardArchiveFormat.DICTIONARY_NEW;
+import static br.com.dio.service.backup.BoardArchiveFormat.DICTIONARY_NULL;
+import static br.com.dio.service.backup.BoardArchiveFormat.END;
+import static br.com.dio.service.backup.BoardArchiveFormat.HISTORY;
+import static br.com.dio.service.backup.BoardArchiveFormat.MAGIC;
+import static br.com.dio.service.backup.BoardArchiveFormat.VERSION;
+import static br.com.dio.service.backup.BoardArchiveFormat.unzigzag;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Lê um backup gravado por {@link BoardArchiveWriter}, bloco a bloco: o conteúdo comprimido é lido do
+ * {@link FileChannel} para um buffer direto e descomprimido em um array do heap, onde os registros são
+ * decodificados e entregues ao {@link BoardArchiveVisitor}. Cada bloco tem o CRC32 conferido antes de
+ * qualquer registro ser entregue.
+ */
+public final class BoardArchiveReader implements AutoCloseable {
+
+    /** Limite de sanidade para o tamanho de um bloco, contra cabeçalhos corrompidos */
+    private static final int MAX_BLOCK_BYTES = 64 << 20;
+
+    private final FileChannel channel;
+    private final Path file;
+    private final Inflater inflater = new Inflater();
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer header = ByteBuffer.allocateDirect(BLOCK_HEADER_BYTES);
+    private final List<String> dictionary = new ArrayList<>();
+
+    private ByteBuffer compressed = ByteBuffer.allocateDirect(0);
+    private byte[] block = new byte[0];
+    private int position;
+    private int limit;
+
+    private BoardArchiveReader(final FileChannel channel, final Path file) {
+        this.channel = channel;
+        this.file = file;
+    }
+
+    /**
+     * Abre o arquivo e confere a assinatura e a versão do formato
+     *
+     * @param file Arquivo de backup
+     * @return O reader, que deve ser fechado
+     * @throws IOException se o arquivo não puder ser lido ou não for um backup de board
+     */
+    public static BoardArchiveReader open(final Path file) throws IOException {
+        var channel = FileChannel.open(file, READ);
+        var reader = new BoardArchiveReader(channel, file);
+        try {
+            var start = ByteBuffer.allocate(MAGIC.length + 1);
+            if (!reader.readFully(start)) {
+                throw reader.invalid("não é um backup de board");
+            }
+            for (var b : MAGIC) {
+                if (start.get() != b) {
+                    throw reader.invalid("não é um backup de board");
+                }
+            }
+            var version = start.get() & 0xFF;
+            if (version != VERSION) {
+                throw reader.invalid("versão %s do formato não suportada".formatted(version));
+            }
+        } catch (IOException ex) {
+            reader.close();
+            throw ex;
+        }
+        return reader;
+    }
+
+    /**
+     * Lê todos os registros do arquivo, na ordem, até o registro final
+     *
+     * @param visitor Recebe os registros
+     * @throws IOException se o arquivo estiver truncado ou corrompido
+     * @throws SQLException se o visitor falhar ao gravar um registro
+     */
+    public void read(final BoardArchiveVisitor visitor) throws IOException, SQLException {
+        var columns = 0;
+        var cards = 0;
+        var lastColumnId = 0L;
+        var lastCardId = 0L;
+        var lastCreatedAt = 0L;
+        var lastBlockCard = 0L;
+        var lastBlockedAt = 0L;
+        var lastHistoryCard = 0L;
+        var lastMovedAt = 0L;
+        while (true) {
+            if (position == limit && !nextBlock()) {
+                throw invalid("arquivo truncado, o registro final não foi encontrado");
+            }
+            var type = (int) readVarLong();
+            switch (type) {
+                case BOARD -> visitor.board(readString());
+                case COLUMN -> {
+                    lastColumnId += unzigzag(readVarLong());
+                    var name = readDictionary();
+                    var order = (int) readVarLong();
+                    var kind = readDictionary();
+                    var wipLimit = readVarLong();
+                    visitor.column(columns++, lastColumnId, name, order, kind, wipLimit == 0 ? null : (int) (wipLimit - 1));
+                }
+                case CARD -> {
+                    lastCardId += unzigzag(readVarLong());
+                    var columnIndex = readIndex(columns);
+                    var title = readString();
+                    var description = readString();
+                    var lexoRank = readString();
+                    lastCreatedAt += unzigzag(readVarLong());
+                    var completedAt = readOptionalTime(lastCreatedAt);
+                    visitor.card(cards++, lastCardId, columnIndex, title, description, lexoRank, lastCreatedAt, completedAt);
+                }
+                case BLOCK -> {
+                    lastBlockCard += unzigzag(readVarLong());
+                    var columnIndex = readIndex(columns);
+                    lastBlockedAt += unzigzag(readVarLong());
+                    var blockReason = readDictionary();
+                    var unblockedAt = readOptionalTime(lastBlockedAt);
+                    var unblockReason = readDictionary();
+                    visitor.block(checkIndex(lastBlockCard, cards), columnIndex, lastBlockedAt, blockReason,
+                            unblockedAt, unblockReason);
+                }
+                case HISTORY -> {
+                    lastHistoryCard += unzigzag(readVarLong());
+                    var from = readVarLong();
+                    var toColumnIndex = readIndex(columns);
+                    lastMovedAt += unzigzag(readVarLong());
+                    visitor.history(checkIndex(lastHistoryCard, cards), from == 0 ? null : checkIndex(from - 1, columns),
+                            toColumnIndex, lastMovedAt);
+                }
+                case END -> {
+                    visitor.end(readVarLong(), readVarLong(), readVarLong(), readVarLong());
+                    return;
+                }
+                default -> throw invalid("tipo de registro %s desconhecido".formatted(type));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    private boolean nextBlock() throws IOException {
+        header.clear();
+        if (!readFully(header)) {
+            return false;
+        }
+        var rawLength = header.getInt();
+        var compressedLength = header.getInt();
+        var expectedCrc = header.getInt();
+        if (rawLength <= 0 || rawLength > MAX_BLOCK_BYTES || compressedLength <= 0 || compressedLength > MAX_BLOCK_BYTES) {
+            throw invalid("cabeçalho de bloco inválido");
+        }
+        if (compressed.capacity() < compressedLength) {
+            compressed = ByteBuffer.allocateDirect(compressedLength);
+        }
+        compressed.clear().limit(compressedLength);
+        if (!readFully(compressed)) {
+            throw invalid("arquivo truncado no meio de um bloco");
+        }
+        if (block.length < rawLength) {
+            block = new byte[rawLength];
+        }
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            var inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                var count = inflater.inflate(block, inflated, rawLength - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != rawLength || !inflater.finished()) {
+                throw invalid("bloco com tamanho diferente do cabeçalho");
+            }
+        } catch (DataFormatException ex) {
+            throw invalid("bloco com compressão inválida");
+        }
+        crc.reset();
+        crc.update(block, 0, rawLength);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw invalid("CRC do bloco não confere");
+        }
+        position = 0;
+        limit = rawLength;
+        return true;
+    }
+
+    /**
+     * Preenche o buffer a partir do canal e o prepara para leitura
+     *
+     * @return false se o arquivo terminou antes do primeiro byte; um fim no meio do buffer é um erro
+     */
+    private boolean readFully(final ByteBuffer buffer) throws IOException {
+        var start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (buffer.position() == start) {
+                    return false;
+                }
+                throw invalid("arquivo truncado");
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private String readDictionary() throws IOException {
+        var reference = readVarLong();
+        if (reference == DICTIONARY_NULL) {
+            return null;
+        }
+        if (reference == DICTIONARY_NEW) {
+            var value = readString();
+            dictionary.add(value);
+            return value;
+        }
+        var index = reference - DICTIONARY_FIRST_ENTRY;
+        if (index >= dictionary.size()) {
+            throw invalid("referência de dicionário inválida");
+        }
+        return dictionary.get((int) index);
+    }
+
+    private String readString() throws IOException {
+        var length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > limit - position) {
+            throw invalid("texto além do fim do bloco");
+        }
+        var value = new String(block, position, (int) (length - 1), UTF_8);
+        position += (int) (length - 1);
+        return value;
+    }
+
+    private Long readOptionalTime(final long reference) throws IOException {
+        var value = readVarLong();
+        return value == 0 ? null : reference + unzigzag(value - 1);
+    }
+
+    private int readIndex(final int count) throws IOException {
+        return checkIndex(readVarLong(), count);
+    }
+
+    private int checkIndex(final long index, final int count) throws IOException {
+        if (index < 0 || index >= count) {
+            throw invalid("referência a uma posição que não existe no arquivo");
+        }
+        return (int) index;
+    }
+
+    private long readVarLong() throws IOException {
+        var value = 0L;
+        for (var shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw invalid("registro além do fim do bloco");
+            }
+            var b = block[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw invalid("número mal formado");
+    }
+
+    private IOException invalid(final String reason) {
+        return new IOException("Backup %s inválido: %s".formatted(file.getFileName(), reason));
+    }
+
+}
@@ -0,0 +1,32 @@
+package br.com.dio.service.backup;
+
+import java.sql.SQLException;
+
+/**
+ * Recebe os registros de um backup na ordem em que foram gravados por {@link BoardArchiveReader}.
+ * Colunas e cards são identificados pela posição em que aparecem no arquivo, a partir de zero.
+ */
+public interface BoardArchiveVisitor {
+
+    void board(String name) throws SQLException;
+
+    void column(int index, long originalId, String name, int order, String kind, Integer wipLimit) throws SQLException;
+
+    /**
+     * @param createdAt Criação do card em epoch seconds
+     * @param completedAt Conclusão do card em epoch seconds, ou null
+     */
+    void card(int index, long originalId, int columnIndex, String title, String description, String lexoRank,
+              long createdAt, Long completedAt) throws SQLException;
+
+    void block(int cardIndex, int columnIndex, long blockedAt, String blockReason, Long unblockedAt,
+               String unblockReason) throws SQLException;
+
+    void history(int cardIndex, Integer fromColumnIndex, int toColumnIndex, long movedAt) throws SQLException;
+
+    /**
+     * Chamado no registro final, com as contagens gravadas pelo exportador
+     */
+    void end(long columns, long cards, long blocks, long history) throws SQLException;
+
+}
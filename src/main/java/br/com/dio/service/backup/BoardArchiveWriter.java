@@ -0,0 +1,276 @@
+package br.com.dio.service.backup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static br.com.dio.service.backup.BoardArchiveFormat.BLOCK;
+import static br.com.dio.service.backup.BoardArchiveFormat.BLOCK_HEADER_BYTES;
+import static br.com.dio.service.backup.BoardArchiveFormat.BLOCK_SIZE;
+import static br.com.dio.service.backup.BoardArchiveFormat.BOARD;
+import static br.com.dio.service.backup.BoardArchiveFormat.CARD;
+import static br.com.dio.service.backup.BoardArchiveFormat.COLUMN;
+import static br.com.dio.service.backup.BoardArchiveFormat.DICTIONARY_FIRST_ENTRY;
+import static br.com.dio.service.backup.BoardArchiveFormat.DICTIONARY_NEW;
+import static br.com.dio.service.backup.BoardArchiveFormat.DICTIONARY_NULL;
+import static br.com.dio.service.backup.BoardArchiveFormat.END;
+import static br.com.dio.service.backup.BoardArchiveFormat.HISTORY;
+import static br.com.dio.service.backup.BoardArchiveFormat.MAGIC;
+import static br.com.dio.service.backup.BoardArchiveFormat.VERSION;
+import static br.com.dio.service.backup.BoardArchiveFormat.zigzag;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.isNull;
+
+/**
+ * Grava um backup de board no formato de {@link BoardArchiveFormat}, em streaming: só o bloco atual
+ * fica em memória. Os registros são codificados em um array do heap; o bloco comprimido vai para um
+ * buffer direto e é gravado no {@link FileChannel} junto com o cabeçalho em uma escrita com vários
+ * buffers, sem cópia intermediária para o heap.
+ */
+public final class BoardArchiveWriter implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer header = ByteBuffer.allocateDirect(BLOCK_HEADER_BYTES);
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private byte[] block = new byte[BLOCK_SIZE + 4096];
+    private int position;
+    private ByteBuffer compressed = ByteBuffer.allocateDirect(BLOCK_SIZE + BLOCK_SIZE / 8);
+    private long bytesWritten;
+
+    private long lastColumnId;
+    private long lastCardId;
+    private long lastCreatedAt;
+    private long lastBlockCard;
+    private long lastBlockedAt;
+    private long lastHistoryCard;
+    private long lastMovedAt;
+
+    private BoardArchiveWriter(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Cria o arquivo, substituindo um existente, e grava o cabeçalho
+     *
+     * @param file Arquivo de destino
+     * @return O writer, que deve ser fechado
+     * @throws IOException se ocorrer erro ao gravar o arquivo
+     */
+    public static BoardArchiveWriter create(final Path file) throws IOException {
+        var channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE);
+        var writer = new BoardArchiveWriter(channel);
+        try {
+            var start = ByteBuffer.allocate(MAGIC.length + 1).put(MAGIC).put((byte) VERSION).flip();
+            writer.writeFully(start);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+        return writer;
+    }
+
+    public void writeBoard(final String name) throws IOException {
+        writeVarLong(BOARD);
+        writeString(name);
+        endRecord();
+    }
+
+    public void writeColumn(final long id, final String name, final int order, final String kind, final Integer wipLimit)
+            throws IOException {
+        writeVarLong(COLUMN);
+        writeVarLong(zigzag(id - lastColumnId));
+        writeDictionary(name);
+        writeVarLong(order);
+        writeDictionary(kind);
+        writeVarLong(isNull(wipLimit) ? 0 : wipLimit + 1L);
+        lastColumnId = id;
+        endRecord();
+    }
+
+    /**
+     * @param createdAt Criação do card em epoch seconds
+     * @param completedAt Conclusão do card em epoch seconds, ou null
+     */
+    public void writeCard(final long id, final int columnIndex, final String title, final String description,
+                          final String lexoRank, final long createdAt, final Long completedAt) throws IOException {
+        writeVarLong(CARD);
+        writeVarLong(zigzag(id - lastCardId));
+        writeVarLong(columnIndex);
+        writeString(title);
+        writeString(description);
+        writeString(lexoRank);
+        writeVarLong(zigzag(createdAt - lastCreatedAt));
+        writeOptionalTime(completedAt, createdAt);
+        lastCardId = id;
+        lastCreatedAt = createdAt;
+        endRecord();
+    }
+
+    /**
+     * @param cardIndex Posição do card no arquivo
+     * @param blockedAt Início do bloqueio em epoch seconds
+     * @param unblockedAt Fim do bloqueio em epoch seconds, ou null se ainda estiver aberto
+     */
+    public void writeBlock(final int cardIndex, final int columnIndex, final long blockedAt, final String blockReason,
+                           final Long unblockedAt, final String unblockReason) throws IOException {
+        writeVarLong(BLOCK);
+        writeVarLong(zigzag(cardIndex - lastBlockCard));
+        writeVarLong(columnIndex);
+        writeVarLong(zigzag(blockedAt - lastBlockedAt));
+        writeDictionary(blockReason);
+        writeOptionalTime(unblockedAt, blockedAt);
+        writeDictionary(unblockReason);
+        lastBlockCard = cardIndex;
+        lastBlockedAt = blockedAt;
+        endRecord();
+    }
+
+    /**
+     * @param fromColumnIndex Posição da coluna de origem, ou null na criação do card
+     * @param movedAt Data da movimentação em epoch seconds
+     */
+    public void writeHistory(final int cardIndex, final Integer fromColumnIndex, final int toColumnIndex, final long movedAt)
+            throws IOException {
+        writeVarLong(HISTORY);
+        writeVarLong(zigzag(cardIndex - lastHistoryCard));
+        writeVarLong(isNull(fromColumnIndex) ? 0 : fromColumnIndex + 1L);
+        writeVarLong(toColumnIndex);
+        writeVarLong(zigzag(movedAt - lastMovedAt));
+        lastHistoryCard = cardIndex;
+        lastMovedAt = movedAt;
+        endRecord();
+    }
+
+    /**
+     * Grava o registro final com as contagens, conferidas na restauração, e o último bloco
+     */
+    public void finish(final long columns, final long cards, final long blocks, final long history) throws IOException {
+        writeVarLong(END);
+        writeVarLong(columns);
+        writeVarLong(cards);
+        writeVarLong(blocks);
+        writeVarLong(history);
+        flushBlock();
+        channel.force(false);
+    }
+
+    /**
+     * @return Bytes gravados no arquivo até agora
+     */
+    public long getBytesWritten() {
+        return bytesWritten + MAGIC.length + 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        channel.close();
+    }
+
+    private void endRecord() throws IOException {
+        if (position >= BLOCK_SIZE) {
+            flushBlock();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        crc.reset();
+        crc.update(block, 0, position);
+        // Dados incompressíveis crescem alguns bytes a cada 16 KB no deflate; a folga cobre com sobra
+        var bound = position + position / 16 + 64;
+        if (compressed.capacity() < bound) {
+            compressed = ByteBuffer.allocateDirect(bound);
+        }
+        compressed.clear();
+        deflater.reset();
+        deflater.setInput(block, 0, position);
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflater.deflate(compressed);
+        }
+        compressed.flip();
+        header.clear();
+        header.putInt(position).putInt(compressed.remaining()).putInt((int) crc.getValue()).flip();
+        var length = header.remaining() + compressed.remaining();
+        var buffers = new ByteBuffer[]{header, compressed};
+        while (buffers[1].hasRemaining()) {
+            channel.write(buffers);
+        }
+        bytesWritten += length;
+        position = 0;
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void writeDictionary(final String value) {
+        if (isNull(value)) {
+            writeVarLong(DICTIONARY_NULL);
+            return;
+        }
+        var index = dictionary.get(value);
+        if (isNull(index)) {
+            dictionary.put(value, dictionary.size());
+            writeVarLong(DICTIONARY_NEW);
+            writeString(value);
+        } else {
+            writeVarLong(DICTIONARY_FIRST_ENTRY + (long) index);
+        }
+    }
+
+    /**
+     * Texto opcional: tamanho em bytes mais um (0 = nulo), seguido do UTF-8
+     */
+    private void writeString(final String value) {
+        if (isNull(value)) {
+            writeVarLong(0);
+            return;
+        }
+        var bytes = value.getBytes(UTF_8);
+        writeVarLong(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, block, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Data opcional como diferença de outra data do registro, em zigzag mais um (0 = nula)
+     */
+    private void writeOptionalTime(final Long value, final long reference) {
+        writeVarLong(isNull(value) ? 0 : zigzag(value - reference) + 1);
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            block[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        block[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(final int bytes) {
+        if (position + bytes > block.length) {
+            block = Arrays.copyOf(block, Math.max(block.length * 2, position + bytes));
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package br.com.dio.service.history;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Aplicação em ordem dos eventos de um board a um {@link BoardState}, com os cortes que viram checkpoints.
+ * <p>
+ * Os eventos devem chegar ordenados por data (epoch seconds), tipo e id. Um corte só acontece na virada do
+ * segundo, com o estado já aplicado até o fim do segundo anterior: assim o checkpoint tem todos os eventos
+ * da sua data, e quem parte dele aplica apenas os eventos com data maior.
+ */
+public final class BoardReplay {
+
+    public static final int MOVE = 0;
+    public static final int BLOCK = 1;
+    public static final int UNBLOCK = 2;
+
+    private final BoardState state;
+    private final int intervalEvents;
+    private final Cut cut;
+
+    private long applied;
+    private long sinceCut;
+    private long lastAt;
+
+    /**
+     * @param state Estado inicial, que é alterado a cada evento
+     * @param after Data do estado inicial; os eventos devem ser posteriores a ela
+     * @param intervalEvents Eventos entre dois cortes, ou 0 para não cortar
+     * @param cut Chamado com o estado já aplicado até o fim de um segundo, quando pelo menos
+     *            {@code intervalEvents} eventos passaram desde o corte anterior, ou null
+     */
+    public BoardReplay(final BoardState state, final long after, final int intervalEvents, final Cut cut) {
+        this.state = state;
+        this.intervalEvents = intervalEvents;
+        this.cut = cut;
+        this.lastAt = after;
+    }
+
+    /**
+     * Aplica o próximo evento
+     *
+     * @param at Data do evento, em epoch seconds
+     * @param kind {@link #MOVE}, {@link #BLOCK} ou {@link #UNBLOCK}
+     * @param id ID da movimentação ou do bloqueio
+     * @param cardId ID do card
+     * @param refId Coluna de destino (movimentação) ou motivo do bloqueio (bloqueio)
+     */
+    public void apply(final long at, final int kind, final long id, final long cardId, final long refId) {
+        if (nonNull(cut) && sinceCut >= intervalEvents && at > lastAt) {
+            cut.accept(lastAt, applied);
+            sinceCut = 0;
+        }
+        switch (kind) {
+            case MOVE -> state.place(cardId, refId, at);
+            case BLOCK -> state.block(cardId, id, refId);
+            case UNBLOCK -> state.unblock(cardId, id);
+            default -> throw new IllegalStateException("Tipo de evento desconhecido");
+        }
+        applied++;
+        sinceCut++;
+        lastAt = at;
+    }
+
+    /**
+     * Encerra a aplicação, fazendo o último corte se já passaram eventos suficientes
+     *
+     * @return Quantidade de eventos aplicados
+     */
+    public long finish() {
+        if (nonNull(cut) && sinceCut >= intervalEvents && applied > 0) {
+            cut.accept(lastAt, applied);
+            sinceCut = 0;
+        }
+        return applied;
+    }
+
+    @FunctionalInterface
+    public interface Cut {
+
+        void accept(long takenAt, long applied);
+
+    }
+
+}
@@ -0,0 +1,207 @@
+package br.com.dio.service.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Estado de um board em um instante: a coluna de cada card, desde quando ele está nela e o bloqueio
+ * aberto, se houver. É montado aplicando em ordem os eventos de {@code CARD_HISTORY} e {@code BLOCKS}.
+ * <p>
+ * O formato gravado nos checkpoints é compacto: os ids das colunas ficam em um dicionário no
+ * cabeçalho, os cards vão ordenados por id com o id como diferença do anterior, as datas como
+ * diferença da menor delas e todos os números como varints, e o resultado é comprimido com deflate.
+ */
+public final class BoardState {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Map<Long, CardState> cards = new HashMap<>();
+
+    /**
+     * Posição de um card no estado
+     *
+     * @param cardId ID do card
+     * @param columnId Coluna em que o card está
+     * @param enteredAt Entrada do card na coluna, em epoch seconds
+     * @param blockId Bloqueio aberto, ou 0 se o card não estiver bloqueado
+     * @param blockReasonId Motivo do bloqueio aberto, ou 0
+     */
+    public record CardState(long cardId, long columnId, long enteredAt, long blockId, long blockReasonId) {
+
+        public boolean isBlocked() {
+            return blockId != 0;
+        }
+
+    }
+
+    /**
+     * Registra a entrada de um card em uma coluna (criação, movimentação ou cancelamento)
+     */
+    public void place(final long cardId, final long columnId, final long at) {
+        var current = cards.get(cardId);
+        cards.put(cardId, isNull(current) ?
+                new CardState(cardId, columnId, at, 0, 0) :
+                new CardState(cardId, columnId, at, current.blockId(), current.blockReasonId()));
+    }
+
+    /**
+     * Registra a abertura de um bloqueio. Bloqueios de cards que ainda não entraram no estado são ignorados.
+     */
+    public void block(final long cardId, final long blockId, final long blockReasonId) {
+        var current = cards.get(cardId);
+        if (isNull(current)) {
+            return;
+        }
+        cards.put(cardId, new CardState(cardId, current.columnId(), current.enteredAt(), blockId, blockReasonId));
+    }
+
+    /**
+     * Registra o fim de um bloqueio. Só desbloqueia o card se o bloqueio for o que está aberto, então
+     * um desbloqueio e um novo bloqueio no mesmo segundo chegam em qualquer ordem.
+     */
+    public void unblock(final long cardId, final long blockId) {
+        var current = cards.get(cardId);
+        if (isNull(current) || current.blockId() != blockId) {
+            return;
+        }
+        cards.put(cardId, new CardState(cardId, current.columnId(), current.enteredAt(), 0, 0));
+    }
+
+    public Collection<CardState> getCards() {
+        return Collections.unmodifiableCollection(cards.values());
+    }
+
+    public int size() {
+        return cards.size();
+    }
+
+    /**
+     * @return O estado no formato dos checkpoints
+     */
+    public byte[] encode() {
+        var sorted = cards.values().stream()
+                .sorted((a, b) -> Long.compare(a.cardId(), b.cardId()))
+                .toList();
+        var columnIds = sorted.stream().mapToLong(CardState::columnId).distinct().sorted().toArray();
+        var base = sorted.stream().mapToLong(CardState::enteredAt).min().orElse(0);
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_SPEED))) {
+            writeVarLong(out, FORMAT_VERSION);
+            writeVarLong(out, base);
+            writeVarLong(out, columnIds.length);
+            var previous = 0L;
+            for (var columnId : columnIds) {
+                writeVarLong(out, columnId - previous);
+                previous = columnId;
+            }
+            writeVarLong(out, sorted.size());
+            previous = 0L;
+            for (var card : sorted) {
+                writeVarLong(out, card.cardId() - previous);
+                writeVarLong(out, Arrays.binarySearch(columnIds, card.columnId()));
+                writeVarLong(out, card.enteredAt() - base);
+                writeVarLong(out, card.blockId());
+                if (card.isBlocked()) {
+                    writeVarLong(out, card.blockReasonId());
+                }
+                previous = card.cardId();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param data Estado no formato dos checkpoints
+     * @return O estado lido
+     * @throws IllegalArgumentException se o formato não for reconhecido
+     */
+    public static BoardState decode(final byte[] data) {
+        var state = new BoardState();
+        try (var in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            var version = readVarLong(in);
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Versão de checkpoint desconhecida: " + version);
+            }
+            var base = readVarLong(in);
+            var columnIds = new long[(int) readVarLong(in)];
+            var previous = 0L;
+            for (var i = 0; i < columnIds.length; i++) {
+                columnIds[i] = previous + readVarLong(in);
+                previous = columnIds[i];
+            }
+            var size = (int) readVarLong(in);
+            previous = 0L;
+            for (var i = 0; i < size; i++) {
+                var cardId = previous + readVarLong(in);
+                var columnId = columnIds[(int) readVarLong(in)];
+                var enteredAt = base + readVarLong(in);
+                var blockId = readVarLong(in);
+                var blockReasonId = blockId != 0 ? readVarLong(in) : 0;
+                state.cards.put(cardId, new CardState(cardId, columnId, enteredAt, blockId, blockReasonId));
+                previous = cardId;
+            }
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Checkpoint corrompido", ex);
+        }
+        return state;
+    }
+
+    /**
+     * @return Os cards agrupados por coluna, cada coluna na ordem de entrada dos cards
+     */
+    public Map<Long, List<CardState>> byColumn() {
+        Map<Long, List<CardState>> result = new HashMap<>();
+        for (var card : cards.values()) {
+            result.computeIfAbsent(card.columnId(), id -> new ArrayList<>()).add(card);
+        }
+        result.values().forEach(list -> list.sort((a, b) -> a.enteredAt() != b.enteredAt() ?
+                Long.compare(a.enteredAt(), b.enteredAt()) : Long.compare(a.cardId(), b.cardId())));
+        return result;
+    }
+
+    private static void writeVarLong(final OutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Valor negativo no checkpoint: " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(final InputStream in) throws IOException {
+        var value = 0L;
+        for (var shift = 0; shift < 64; shift += 7) {
+            var b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint longo demais");
+    }
+
+}
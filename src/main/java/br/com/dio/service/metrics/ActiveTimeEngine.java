@@ -0,0 +1,250 @@
+package br.com.dio.service.metrics;
+
+import br.com.dio.dto.ActiveTimeDTO;
+import br.com.dio.dto.ActiveTimeDTO.CardActiveTimeDTO;
+import br.com.dio.dto.ActiveTimeDTO.ColumnActiveTimeDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+
+/**
+ * Separa o tempo ativo do tempo bloqueado cruzando os intervalos de permanência dos cards nas
+ * colunas com os intervalos de bloqueio.
+ * <p>
+ * Movimentações e bloqueios podem chegar em qualquer ordem e ficam em arrays primitivos. No final,
+ * os dois conjuntos são ordenados por (card, início) com um merge sort de índices, em O(n log n), e
+ * uma varredura (sweep line) percorre card a card: os bloqueios do card são unidos em intervalos
+ * disjuntos, as movimentações viram intervalos de permanência que terminam na movimentação seguinte
+ * (ou em "agora"), e a interseção de cada permanência com os bloqueios é calculada avançando dois
+ * ponteiros, em tempo linear no número de intervalos do card.
+ */
+public class ActiveTimeEngine {
+
+    private static final int NO_COLUMN = -1;
+
+    private final List<String> columnNames;
+    private final BoardColumnKindEnum[] kinds;
+    private final long[] sortedColumnIds;
+    private final int[] sortedColumnPositions;
+
+    private long[] moveCard = new long[1024];
+    private long[] moveAt = new long[1024];
+    private long[] moveSeq = new long[1024];
+    private int[] moveColumn = new int[1024];
+    private int moves;
+
+    private long[] blockCard = new long[256];
+    private long[] blockStart = new long[256];
+    private long[] blockEnd = new long[256];
+    private int blocks;
+
+    /**
+     * @param columns Colunas do board, na ordem do board
+     */
+    public ActiveTimeEngine(final List<BoardColumnEntity> columns) {
+        this.columnNames = columns.stream().map(BoardColumnEntity::getName).toList();
+        this.kinds = columns.stream().map(BoardColumnEntity::getKind).toArray(BoardColumnKindEnum[]::new);
+        this.sortedColumnIds = columns.stream().mapToLong(BoardColumnEntity::getId).sorted().toArray();
+        this.sortedColumnPositions = new int[sortedColumnIds.length];
+        for (var position = 0; position < columns.size(); position++) {
+            var index = Arrays.binarySearch(sortedColumnIds, columns.get(position).getId());
+            sortedColumnPositions[index] = position;
+        }
+    }
+
+    /**
+     * Registra a entrada de um card em uma coluna
+     *
+     * @param cardId ID do card
+     * @param toColumnId Coluna de destino
+     * @param movedAtMillis Momento da movimentação em epoch millis
+     * @param sequence Desempate entre movimentações do mesmo card no mesmo instante (o id do histórico)
+     */
+    public void acceptMove(final long cardId, final long toColumnId, final long movedAtMillis, final long sequence) {
+        var index = Arrays.binarySearch(sortedColumnIds, toColumnId);
+        if (index < 0) {
+            return;
+        }
+        if (moves == moveCard.length) {
+            var capacity = moves * 2;
+            moveCard = Arrays.copyOf(moveCard, capacity);
+            moveAt = Arrays.copyOf(moveAt, capacity);
+            moveSeq = Arrays.copyOf(moveSeq, capacity);
+            moveColumn = Arrays.copyOf(moveColumn, capacity);
+        }
+        moveCard[moves] = cardId;
+        moveAt[moves] = movedAtMillis;
+        moveSeq[moves] = sequence;
+        moveColumn[moves] = sortedColumnPositions[index];
+        moves++;
+    }
+
+    /**
+     * Registra um bloqueio
+     *
+     * @param cardId ID do card
+     * @param blockedAtMillis Início do bloqueio em epoch millis
+     * @param unblockedAtMillis Fim do bloqueio em epoch millis, ou 0 se ainda estiver aberto
+     */
+    public void acceptBlock(final long cardId, final long blockedAtMillis, final long unblockedAtMillis) {
+        if (blocks == blockCard.length) {
+            var capacity = blocks * 2;
+            blockCard = Arrays.copyOf(blockCard, capacity);
+            blockStart = Arrays.copyOf(blockStart, capacity);
+            blockEnd = Arrays.copyOf(blockEnd, capacity);
+        }
+        blockCard[blocks] = cardId;
+        blockStart[blocks] = blockedAtMillis;
+        blockEnd[blocks] = unblockedAtMillis == 0 ? Long.MAX_VALUE : unblockedAtMillis;
+        blocks++;
+    }
+
+    /**
+     * Cruza os intervalos e monta o resultado
+     *
+     * @param nowMillis Momento de referência para permanências e bloqueios ainda abertos
+     * @return Tempos ativo e bloqueado por coluna e por card
+     */
+    public ActiveTimeDTO finish(final long nowMillis) {
+        var columns = kinds.length;
+        var columnActive = new long[columns];
+        var columnBlocked = new long[columns];
+        var columnCards = new int[columns];
+        var columnLastCard = new int[columns];
+        Arrays.fill(columnLastCard, -1);
+
+        var moveOrder = sortedIndexes(moveCard, moveAt, moveSeq, moves);
+        var blockOrder = sortedIndexes(blockCard, blockStart, blockStart, blocks);
+        var unionStart = new long[16];
+        var unionEnd = new long[16];
+        List<CardActiveTimeDTO> cards = new ArrayList<>();
+
+        var b = 0;
+        var cardNumber = 0;
+        for (var m = 0; m < moves; cardNumber++) {
+            var cardId = moveCard[moveOrder[m]];
+            var groupEnd = m;
+            while (groupEnd < moves && moveCard[moveOrder[groupEnd]] == cardId) {
+                groupEnd++;
+            }
+
+            // Descarta bloqueios de cards sem movimentações e une os do card em intervalos disjuntos e ordenados
+            while (b < blocks && blockCard[blockOrder[b]] < cardId) {
+                b++;
+            }
+            var unions = 0;
+            while (b < blocks && blockCard[blockOrder[b]] == cardId) {
+                var start = blockStart[blockOrder[b]];
+                var end = Math.min(blockEnd[blockOrder[b]], nowMillis);
+                // Um bloqueio que começa depois de "agora" (relógios do banco e do processo defasados) não conta
+                if (start >= end) {
+                    b++;
+                    continue;
+                }
+                if (unions > 0 && start <= unionEnd[unions - 1]) {
+                    unionEnd[unions - 1] = Math.max(unionEnd[unions - 1], end);
+                } else {
+                    if (unions == unionStart.length) {
+                        unionStart = Arrays.copyOf(unionStart, unions * 2);
+                        unionEnd = Arrays.copyOf(unionEnd, unions * 2);
+                    }
+                    unionStart[unions] = start;
+                    unionEnd[unions] = end;
+                    unions++;
+                }
+                b++;
+            }
+
+            // Cruza cada permanência com os bloqueios, com dois ponteiros
+            var cardActive = 0L;
+            var cardBlocked = 0L;
+            var u = 0;
+            for (var k = m; k < groupEnd; k++) {
+                var move = moveOrder[k];
+                var column = moveColumn[move];
+                var start = moveAt[move];
+                var end = k + 1 < groupEnd ? moveAt[moveOrder[k + 1]] : nowMillis;
+                if (end <= start) {
+                    continue;
+                }
+                while (u < unions && unionEnd[u] <= start) {
+                    u++;
+                }
+                var blocked = 0L;
+                for (var v = u; v < unions && unionStart[v] < end; v++) {
+                    blocked += Math.min(end, unionEnd[v]) - Math.max(start, unionStart[v]);
+                }
+                var active = end - start - blocked;
+                columnActive[column] += active;
+                columnBlocked[column] += blocked;
+                if (columnLastCard[column] != cardNumber) {
+                    columnLastCard[column] = cardNumber;
+                    columnCards[column]++;
+                }
+                if (kinds[column] != FINAL && kinds[column] != CANCEL) {
+                    cardActive += active;
+                    cardBlocked += blocked;
+                }
+            }
+            cards.add(new CardActiveTimeDTO(cardId, Duration.ofMillis(cardActive), Duration.ofMillis(cardBlocked)));
+            m = groupEnd;
+        }
+
+        List<ColumnActiveTimeDTO> columnTimes = new ArrayList<>(columns);
+        for (var column = 0; column < columns; column++) {
+            columnTimes.add(new ColumnActiveTimeDTO(columnNames.get(column), columnCards[column],
+                    Duration.ofMillis(columnActive[column]), Duration.ofMillis(columnBlocked[column])));
+        }
+        cards.sort(Comparator.comparing(CardActiveTimeDTO::blockedTime).reversed()
+                .thenComparing(CardActiveTimeDTO::cardId));
+        return new ActiveTimeDTO(columnTimes, cards);
+    }
+
+    /**
+     * Ordena índices por (chave, tempo, desempate) com merge sort estável, sem boxing
+     */
+    private static int[] sortedIndexes(final long[] keys, final long[] times, final long[] ties, final int size) {
+        var order = new int[size];
+        for (var i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        var buffer = new int[size];
+        for (var width = 1; width < size; width *= 2) {
+            for (var left = 0; left < size - width; left += 2 * width) {
+                var middle = left + width;
+                var right = Math.min(left + 2 * width, size);
+                var i = left;
+                var j = middle;
+                var k = left;
+                while (i < middle && j < right) {
+                    buffer[k++] = compare(keys, times, ties, order[j], order[i]) < 0 ? order[j++] : order[i++];
+                }
+                while (i < middle) {
+                    buffer[k++] = order[i++];
+                }
+                while (j < right) {
+                    buffer[k++] = order[j++];
+                }
+                System.arraycopy(buffer, left, order, left, right - left);
+            }
+        }
+        return order;
+    }
+
+    private static int compare(final long[] keys, final long[] times, final long[] ties, final int a, final int b) {
+        var result = Long.compare(keys[a], keys[b]);
+        if (result == 0) {
+            result = Long.compare(times[a], times[b]);
+        }
+        return result != 0 ? result : Long.compare(ties[a], ties[b]);
+    }
+
+}
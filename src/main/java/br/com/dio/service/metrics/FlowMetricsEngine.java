@@ -0,0 +1,333 @@
+package br.com.dio.service.metrics;
+
+import br.com.dio.dto.FlowMetricsDTO;
+import br.com.dio.dto.FlowMetricsDTO.CycleTimeDTO;
+import br.com.dio.dto.FlowMetricsDTO.WeeklyThroughputDTO;
+import br.com.dio.dto.FlowMetricsDTO.WipAgeDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+
+/**
+ * Calcula as métricas de fluxo de um board em uma única passada pelo histórico de movimentações,
+ * que deve ser entregue em ordem de {@code moved_at}.
+ * <p>
+ * Todo o estado fica em arrays primitivos indexados pela posição da coluna no board: o fluxo
+ * cumulativo é guardado como variação diária por coluna e somado no final, e o estado de cada card
+ * fica em uma tabela hash de endereçamento aberto. O tempo é linear no número de movimentações e
+ * a memória depende apenas da quantidade de cards, colunas e dias, nunca do tamanho do histórico.
+ * <p>
+ * A virada do dia segue o fuso informado com o deslocamento vigente em cada movimentação, então
+ * movimentações de antes e depois de uma mudança de horário de verão caem no dia local correto. O
+ * deslocamento é guardado junto com o intervalo em que vale e só é recalculado ao sair dele.
+ */
+public class FlowMetricsEngine {
+
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+    private static final int NO_COLUMN = -1;
+
+    private final List<String> columnNames;
+    private final BoardColumnKindEnum[] kinds;
+    private final long[] sortedColumnIds;
+    private final int[] sortedColumnPositions;
+    private final ZoneRules zoneRules;
+    private long offsetMillis;
+    private long offsetFrom = Long.MAX_VALUE;
+    private long offsetUntil = Long.MIN_VALUE;
+    private final CardStates cards = new CardStates();
+
+    private long firstDay = Long.MIN_VALUE;
+    private int[] dailyDelta = new int[0];
+    private int days;
+    private long firstWeek = Long.MIN_VALUE;
+    private int[] weeklyThroughput = new int[0];
+    private int weeks;
+    private long[] cycleTimes = new long[64];
+    private int completed;
+    private long processedMovements;
+
+    /**
+     * @param columns Colunas do board, na ordem do board
+     * @param zone Fuso usado para definir a virada do dia
+     */
+    public FlowMetricsEngine(final List<BoardColumnEntity> columns, final ZoneId zone) {
+        this.zoneRules = zone.getRules();
+        this.columnNames = columns.stream().map(BoardColumnEntity::getName).toList();
+        this.kinds = columns.stream().map(BoardColumnEntity::getKind).toArray(BoardColumnKindEnum[]::new);
+        this.sortedColumnIds = columns.stream().mapToLong(BoardColumnEntity::getId).sorted().toArray();
+        this.sortedColumnPositions = new int[sortedColumnIds.length];
+        for (var position = 0; position < columns.size(); position++) {
+            var index = Arrays.binarySearch(sortedColumnIds, columns.get(position).getId());
+            sortedColumnPositions[index] = position;
+        }
+    }
+
+    /**
+     * Processa uma movimentação
+     *
+     * @param cardId ID do card
+     * @param fromColumnId Coluna de origem ou 0 no posicionamento inicial
+     * @param toColumnId Coluna de destino
+     * @param movedAtMillis Momento da movimentação em epoch millis
+     */
+    public void accept(final long cardId, final long fromColumnId, final long toColumnId, final long movedAtMillis) {
+        var to = positionOf(toColumnId);
+        if (to == NO_COLUMN) {
+            return;
+        }
+        processedMovements++;
+        var slot = cards.slotOf(cardId);
+        var from = cards.column[slot];
+        if (from == NO_COLUMN && fromColumnId != 0) {
+            from = positionOf(fromColumnId);
+        }
+
+        var day = ensureDay(epochDay(movedAtMillis));
+        if (from != NO_COLUMN) {
+            dailyDelta[day * kinds.length + from]--;
+        } else {
+            cards.createdAt[slot] = movedAtMillis;
+        }
+        dailyDelta[day * kinds.length + to]++;
+
+        if (cards.startedAt[slot] == 0 && kinds[to] != INITIAL) {
+            cards.startedAt[slot] = movedAtMillis;
+        }
+        if (kinds[to] == FINAL && !cards.done[slot]) {
+            cards.done[slot] = true;
+            var startedAt = cards.startedAt[slot] != 0 ? cards.startedAt[slot] : cards.createdAt[slot];
+            addCycleTime(movedAtMillis - startedAt);
+            var week = ensureWeek(firstDay + day);
+            weeklyThroughput[week]++;
+        }
+        cards.column[slot] = to;
+        cards.enteredAt[slot] = movedAtMillis;
+    }
+
+    /**
+     * Conclui o processamento e monta o resultado
+     *
+     * @param nowMillis Momento de referência para a idade do trabalho em andamento
+     * @return Métricas calculadas
+     */
+    public FlowMetricsDTO finish(final long nowMillis) {
+        if (firstDay != Long.MIN_VALUE) {
+            ensureDay(epochDay(nowMillis));
+        }
+        var columns = kinds.length;
+        var cumulativeFlow = new int[days][];
+        var running = new int[columns];
+        for (var day = 0; day < days; day++) {
+            for (var column = 0; column < columns; column++) {
+                running[column] += dailyDelta[day * columns + column];
+            }
+            cumulativeFlow[day] = running.clone();
+        }
+
+        List<WeeklyThroughputDTO> throughput = new ArrayList<>(weeks);
+        for (var week = 0; week < weeks; week++) {
+            throughput.add(new WeeklyThroughputDTO(LocalDate.ofEpochDay(firstWeek + week * 7L), weeklyThroughput[week]));
+        }
+
+        return new FlowMetricsDTO(
+                columnNames,
+                firstDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(firstDay),
+                cumulativeFlow,
+                throughput,
+                cycleTime(),
+                wipAge(nowMillis),
+                processedMovements
+        );
+    }
+
+    private CycleTimeDTO cycleTime() {
+        if (completed == 0) {
+            return new CycleTimeDTO(0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        }
+        Arrays.sort(cycleTimes, 0, completed);
+        return new CycleTimeDTO(
+                completed,
+                Duration.ofMillis(percentile(0.50)),
+                Duration.ofMillis(percentile(0.85)),
+                Duration.ofMillis(percentile(0.95)),
+                Duration.ofMillis(cycleTimes[completed - 1])
+        );
+    }
+
+    private long percentile(final double quantile) {
+        var rank = (int) Math.ceil(quantile * completed) - 1;
+        return cycleTimes[Math.max(0, Math.min(rank, completed - 1))];
+    }
+
+    private List<WipAgeDTO> wipAge(final long nowMillis) {
+        var columns = kinds.length;
+        var count = new int[columns];
+        var sum = new long[columns];
+        var max = new long[columns];
+        for (var slot = 0; slot < cards.keys.length; slot++) {
+            var column = cards.column[slot];
+            if (cards.keys[slot] == CardStates.EMPTY || column == NO_COLUMN
+                    || kinds[column] == FINAL || kinds[column] == CANCEL) {
+                continue;
+            }
+            var age = Math.max(0, nowMillis - cards.enteredAt[slot]);
+            count[column]++;
+            sum[column] += age;
+            max[column] = Math.max(max[column], age);
+        }
+        List<WipAgeDTO> result = new ArrayList<>();
+        for (var column = 0; column < columns; column++) {
+            if (kinds[column] == FINAL || kinds[column] == CANCEL) {
+                continue;
+            }
+            var average = count[column] == 0 ? 0 : sum[column] / count[column];
+            result.add(new WipAgeDTO(columnNames.get(column), count[column],
+                    Duration.ofMillis(average), Duration.ofMillis(max[column])));
+        }
+        return result;
+    }
+
+    /**
+     * @return Dia local, no fuso do engine, do instante informado
+     */
+    private long epochDay(final long millis) {
+        if (millis < offsetFrom || millis >= offsetUntil) {
+            var instant = Instant.ofEpochMilli(millis);
+            offsetMillis = zoneRules.getOffset(instant).getTotalSeconds() * 1000L;
+            // Transição no próprio instante ou antes dele, e a primeira depois dele
+            var previous = zoneRules.previousTransition(instant.plusMillis(1));
+            var next = zoneRules.nextTransition(instant);
+            offsetFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000L;
+            offsetUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000L;
+        }
+        return Math.floorDiv(millis + offsetMillis, DAY_MILLIS);
+    }
+
+    private int positionOf(final long columnId) {
+        var index = Arrays.binarySearch(sortedColumnIds, columnId);
+        return index < 0 ? NO_COLUMN : sortedColumnPositions[index];
+    }
+
+    private int ensureDay(final long epochDay) {
+        if (firstDay == Long.MIN_VALUE) {
+            firstDay = epochDay;
+        }
+        var day = (int) Math.max(0, epochDay - firstDay);
+        if (day >= days) {
+            days = day + 1;
+            var required = days * kinds.length;
+            if (required > dailyDelta.length) {
+                dailyDelta = Arrays.copyOf(dailyDelta, Math.max(required, dailyDelta.length * 2));
+            }
+        }
+        return day;
+    }
+
+    private int ensureWeek(final long epochDay) {
+        var weekStart = epochDay - Math.floorMod(epochDay + 3, 7);
+        if (firstWeek == Long.MIN_VALUE) {
+            firstWeek = weekStart;
+        }
+        var week = (int) Math.max(0, (weekStart - firstWeek) / 7);
+        if (week >= weeks) {
+            weeks = week + 1;
+            if (weeks > weeklyThroughput.length) {
+                weeklyThroughput = Arrays.copyOf(weeklyThroughput, Math.max(weeks, weeklyThroughput.length * 2));
+            }
+        }
+        return week;
+    }
+
+    private void addCycleTime(final long millis) {
+        if (completed == cycleTimes.length) {
+            cycleTimes = Arrays.copyOf(cycleTimes, completed * 2);
+        }
+        cycleTimes[completed++] = Math.max(0, millis);
+    }
+
+    /**
+     * Estado por card em tabela hash de endereçamento aberto com arrays paralelos
+     */
+    private static final class CardStates {
+
+        private static final long EMPTY = 0;
+
+        private long[] keys = new long[1024];
+        private int[] column = newColumns(1024);
+        private long[] enteredAt = new long[1024];
+        private long[] createdAt = new long[1024];
+        private long[] startedAt = new long[1024];
+        private boolean[] done = new boolean[1024];
+        private int size;
+
+        int slotOf(final long cardId) {
+            var slot = find(keys, cardId);
+            if (keys[slot] == cardId) {
+                return slot;
+            }
+            if ((size + 1) * 4 > keys.length * 3) {
+                grow();
+                slot = find(keys, cardId);
+            }
+            keys[slot] = cardId;
+            size++;
+            return slot;
+        }
+
+        private static int find(final long[] keys, final long cardId) {
+            var mask = keys.length - 1;
+            var slot = Long.hashCode(cardId * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != cardId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            var oldKeys = keys;
+            var oldColumn = column;
+            var oldEnteredAt = enteredAt;
+            var oldCreatedAt = createdAt;
+            var oldStartedAt = startedAt;
+            var oldDone = done;
+            var capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            column = newColumns(capacity);
+            enteredAt = new long[capacity];
+            createdAt = new long[capacity];
+            startedAt = new long[capacity];
+            done = new boolean[capacity];
+            for (var old = 0; old < oldKeys.length; old++) {
+                if (oldKeys[old] == EMPTY) {
+                    continue;
+                }
+                var slot = find(keys, oldKeys[old]);
+                keys[slot] = oldKeys[old];
+                column[slot] = oldColumn[old];
+                enteredAt[slot] = oldEnteredAt[old];
+                createdAt[slot] = oldCreatedAt[old];
+                startedAt[slot] = oldStartedAt[old];
+                done[slot] = oldDone[old];
+            }
+        }
+
+        private static int[] newColumns(final int capacity) {
+            var columns = new int[capacity];
+            Arrays.fill(columns, NO_COLUMN);
+            return columns;
+        }
+    }
+
+}
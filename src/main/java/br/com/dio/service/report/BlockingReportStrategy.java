@@ -1,13 +1,12 @@
 package br.com.dio.service.report;
 
 import br.com.dio.dto.CardBlockingReportDTO;
+import br.com.dio.service.BlockingAnalyticsService;
+import br.com.dio.ui.util.Terminal;
 import br.com.dio.ui.util.TerminalColors;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -17,49 +16,7 @@ public class BlockingReportStrategy implements ReportStrategy<CardBlockingReport
 
     @Override
     public List<CardBlockingReportDTO> generateReport(Long boardId, Connection connection) throws SQLException {
-        List<CardBlockingReportDTO> report = new ArrayList<>();
-
-        String sql = """
-            SELECT c.id, c.title, 
-                   b.blocked_at, b.block_reason,
-                   b.unblocked_at, b.unblock_reason
-            FROM CARDS c
-            INNER JOIN BLOCKS b ON c.id = b.card_id
-            INNER JOIN BOARDS_COLUMNS bc ON c.board_column_id = bc.id
-            WHERE bc.board_id = ?
-            ORDER BY c.id, b.blocked_at;
-        """;
-
-        try (var statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, boardId);
-            var resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                LocalDateTime blockedAt = resultSet.getTimestamp("blocked_at").toLocalDateTime();
-                LocalDateTime unblockedAt = null;
-
-                if (resultSet.getTimestamp("unblocked_at") != null) {
-                    unblockedAt = resultSet.getTimestamp("unblocked_at").toLocalDateTime();
-                }
-
-                Duration blockedTime = unblockedAt != null ?
-                        Duration.between(blockedAt, unblockedAt) :
-                        Duration.between(blockedAt, LocalDateTime.now());
-
-                CardBlockingReportDTO dto = new CardBlockingReportDTO(
-                        resultSet.getLong("id"),
-                        resultSet.getString("title"),
-                        blockedAt,
-                        resultSet.getString("block_reason"),
-                        unblockedAt,
-                        resultSet.getString("unblock_reason"),
-                        blockedTime
-                );
-                report.add(dto);
-            }
-        }
-
-        return report;
+        return new BlockingAnalyticsService(connection).getBlockingReport(boardId);
     }
 
     @Override
@@ -107,13 +64,7 @@ public class BlockingReportStrategy implements ReportStrategy<CardBlockingReport
             System.out.println("Bloqueios resolvidos: " + (totalBlocks - openBlocks));
         }
 
-        System.out.println("\n" + TerminalColors.YELLOW +
-                "Pressione ENTER para voltar ao menu..." + TerminalColors.RESET);
-        try {
-            System.in.read();
-        } catch (Exception e) {
-            // Ignorar exceção
-        }
+        Terminal.waitForEnter();
     }
 
     /**
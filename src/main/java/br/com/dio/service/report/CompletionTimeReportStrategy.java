@@ -1,15 +1,16 @@
 package br.com.dio.service.report;
+import br.com.dio.ui.util.Terminal;
 import br.com.dio.ui.util.TerminalColors;
 
 import br.com.dio.dto.CardCompletionTimeDTO;
+import br.com.dio.service.ReportService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
+import static br.com.dio.persistence.mapper.ResultSets.list;
+
 /**
  * Implementação do Strategy para relatórios de tempo de conclusão de cards
  */
@@ -17,8 +18,6 @@ public class CompletionTimeReportStrategy implements ReportStrategy<CardCompleti
 
     @Override
     public List<CardCompletionTimeDTO> generateReport(Long boardId, Connection connection) throws SQLException {
-        List<CardCompletionTimeDTO> report = new ArrayList<>();
-
         // Usar a primeira entrada do histórico como data de criação
         String sql = """
             SELECT c.id, c.title, 
@@ -38,25 +37,8 @@ public class CompletionTimeReportStrategy implements ReportStrategy<CardCompleti
 
         try (var statement = connection.prepareStatement(sql)) {
             statement.setLong(1, boardId);
-            var resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                LocalDateTime startTime = resultSet.getTimestamp("start_time").toLocalDateTime();
-                LocalDateTime endTime = resultSet.getTimestamp("end_time").toLocalDateTime();
-                Duration duration = Duration.between(startTime, endTime);
-
-                CardCompletionTimeDTO dto = new CardCompletionTimeDTO(
-                        resultSet.getLong("id"),
-                        resultSet.getString("title"),
-                        startTime,
-                        endTime,
-                        duration
-                );
-                report.add(dto);
-            }
+            return list(statement.executeQuery(), ReportService.COMPLETION_TIME_MAPPER);
         }
-
-        return report;
     }
 
     @Override
@@ -82,13 +64,7 @@ public class CompletionTimeReportStrategy implements ReportStrategy<CardCompleti
             }
         }
 
-        System.out.println("\n" + TerminalColors.YELLOW +
-                "Pressione ENTER para voltar ao menu..." + TerminalColors.RESET);
-        try {
-            System.in.read();
-        } catch (Exception e) {
-            // Ignorar exceção
-        }
+        Terminal.waitForEnter();
     }
 
     /**
@@ -0,0 +1,349 @@
+package br.com.dio.service.search;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.dto.CardSearchPageDTO;
+import br.com.dio.dto.CardSearchResultDTO;
+import br.com.dio.event.BoardEvent;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.shard.ShardRouter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static br.com.dio.event.BoardEventType.BOARD_DELETED;
+import static br.com.dio.event.BoardEventType.BOARD_RENAMED;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Índice invertido em memória para busca de cards por prefixo (type-ahead).
+ * <p>
+ * Os termos ficam em um mapa ordenado, então uma busca por prefixo é um intervalo do mapa.
+ * Cada termo aponta para uma lista de postings com o id do card e o peso do termo
+ * (título pesa mais que motivo de bloqueio, que pesa mais que descrição). Cada termo da busca pode
+ * ser encontrado em qualquer um dos campos, e cada motivo de bloqueio conta uma única vez por card,
+ * como na busca FULLTEXT do {@code CardDAO}. O índice é carregado
+ * do banco na primeira busca e depois mantido incrementalmente por {@code CardService} e pelos
+ * eventos remotos do {@link BoardEventBus}. Com shards, a carga percorre todos eles.
+ * É habilitado com {@code search.index.enabled=true}.
+ */
+public final class CardSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float BLOCK_REASON_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.8f;
+
+    private static final CardSearchIndex INSTANCE = new CardSearchIndex(
+            ApplicationProperties.getInstance().getBoolean("search.index.enabled", false));
+
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, IndexedCard> cards = new HashMap<>();
+    private volatile boolean loaded;
+
+    private CardSearchIndex(final boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            BoardEventBus.getInstance().subscribe(null, this::onRemoteEvent);
+        }
+    }
+
+    public static CardSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Índice vazio, já considerado carregado e sem assinar eventos, alimentado apenas por
+     * {@link #onCardCreated} e {@link #onCardBlocked}
+     */
+    static CardSearchIndex empty() {
+        var index = new CardSearchIndex(false);
+        index.loaded = true;
+        return index;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Carrega o índice a partir do banco, caso ainda não tenha sido carregado
+     *
+     * @param connection Conexão usada na carga do seu shard; os demais shards são lidos em conexões próprias
+     * @throws SQLException se ocorrer erro no acesso ao banco
+     */
+    public void ensureLoaded(final Connection connection) throws SQLException {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            var router = ShardRouter.getInstance();
+            var connectionShard = router.shardOf(connection);
+            try {
+                for (var shard : router.getShardIds()) {
+                    if (shard == connectionShard) {
+                        load(connection);
+                        continue;
+                    }
+                    try (var shardConnection = ConnectionConfig.getReadConnection(shard)) {
+                        load(shardConnection);
+                        shardConnection.commit();
+                    }
+                }
+            } catch (SQLException ex) {
+                // Uma carga parcial seria repetida por cima na próxima busca
+                terms.clear();
+                cards.clear();
+                throw ex;
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load(final Connection connection) throws SQLException {
+        new CardDAO(connection).forEachSearchableCard((cardId, title, description, boardId, boardName, blockReason) -> {
+            if (!cards.containsKey(cardId)) {
+                indexCard(cardId, title, description, boardId, boardName);
+            }
+            indexBlockReason(cardId, blockReason);
+        });
+    }
+
+    /**
+     * Adiciona um card recém-criado ao índice. Ignorado enquanto o índice não foi carregado,
+     * pois a carga inicial já vai encontrá-lo no banco.
+     */
+    public void onCardCreated(final long cardId, final String title, final String description,
+                              final long boardId, final String boardName) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            indexCard(cardId, title, description, boardId, boardName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adiciona o motivo de um novo bloqueio aos termos do card
+     */
+    public void onCardBlocked(final long cardId, final String reason) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (cards.containsKey(cardId)) {
+                indexBlockReason(cardId, reason);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica alterações feitas por outros processos. Bloqueios trazem o motivo e são indexados
+     * diretamente; cards novos não trazem título e descrição, então o índice é descartado e
+     * recarregado na próxima busca. A exclusão de um board, local ou remota, também descarta o
+     * índice, que deixa de conter os cards do board, e a troca de nome atualiza o nome do board
+     * devolvido nos resultados.
+     */
+    private void onRemoteEvent(final BoardEvent event) {
+        if (event.type() == BOARD_DELETED) {
+            invalidate();
+            return;
+        }
+        if (event.type() == BOARD_RENAMED) {
+            onBoardRenamed(event.boardId(), event.detail());
+            return;
+        }
+        if (!event.remote()) {
+            return;
+        }
+        switch (event.type()) {
+            case CARD_BLOCKED -> onCardBlocked(event.cardId(), event.detail());
+            case CARD_CREATED -> invalidate();
+            default -> {
+                // movimentações não alteram os termos indexados
+            }
+        }
+    }
+
+    /**
+     * Troca o nome do board nos cards indexados
+     */
+    void onBoardRenamed(final long boardId, final String boardName) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            cards.replaceAll((cardId, card) -> card.boardId() == boardId
+                    ? new IndexedCard(card.title(), boardId, boardName, card.blockReasons())
+                    : card);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void invalidate() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            terms.clear();
+            cards.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca cards que contenham todos os termos informados (cada termo é tratado como prefixo)
+     *
+     * @param query Texto digitado pelo usuário
+     * @param page Página desejada, começando em 0
+     * @param pageSize Quantidade de resultados por página
+     * @return Página de resultados ordenada por relevância
+     */
+    public CardSearchPageDTO search(final String query, final int page, final int pageSize) {
+        var tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new CardSearchPageDTO(query, page, pageSize, List.of(), false);
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, float[]> scores = null;
+            for (var token : tokens) {
+                var tokenScores = scoreToken(token);
+                if (isNull(scores)) {
+                    scores = new HashMap<>(tokenScores.size());
+                    for (var entry : tokenScores.entrySet()) {
+                        scores.put(entry.getKey(), new float[]{entry.getValue()[0]});
+                    }
+                } else {
+                    var current = scores;
+                    current.keySet().retainAll(tokenScores.keySet());
+                    current.forEach((cardId, score) -> score[0] += tokenScores.get(cardId)[0]);
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            var ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Comparator.<Map.Entry<Long, float[]>>comparingDouble(e -> -e.getValue()[0])
+                    .thenComparing(Map.Entry::getKey));
+            var from = Math.min(page * pageSize, ranked.size());
+            var to = Math.min(from + pageSize, ranked.size());
+            List<CardSearchResultDTO> results = new ArrayList<>(to - from);
+            for (var entry : ranked.subList(from, to)) {
+                var card = cards.get(entry.getKey());
+                results.add(new CardSearchResultDTO(entry.getKey(), card.title(), card.boardId(),
+                        card.boardName(), entry.getValue()[0]));
+            }
+            return new CardSearchPageDTO(query, page, pageSize, results, to < ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, float[]> scoreToken(final String token) {
+        Map<Long, float[]> tokenScores = new HashMap<>();
+        var matches = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+        for (var term : matches.entrySet()) {
+            var postings = term.getValue();
+            var idf = (float) Math.log(1 + (double) cards.size() / postings.size);
+            var factor = term.getKey().length() == token.length() ? 1f : PREFIX_MATCH_FACTOR;
+            for (var i = 0; i < postings.size; i++) {
+                var score = postings.weights[i] * idf * factor;
+                var best = tokenScores.computeIfAbsent(postings.cardIds[i], k -> new float[1]);
+                best[0] = Math.max(best[0], score);
+            }
+        }
+        return tokenScores;
+    }
+
+    private void indexCard(final long cardId, final String title, final String description,
+                           final long boardId, final String boardName) {
+        cards.put(cardId, new IndexedCard(title, boardId, boardName, new HashSet<>()));
+        indexText(cardId, title, TITLE_WEIGHT);
+        indexText(cardId, description, DESCRIPTION_WEIGHT);
+    }
+
+    private void indexBlockReason(final long cardId, final String reason) {
+        // Bloqueios repetidos pelo mesmo motivo não aumentam a relevância do card
+        if (nonNull(reason) && cards.get(cardId).blockReasons().add(reason)) {
+            indexText(cardId, reason, BLOCK_REASON_WEIGHT);
+        }
+    }
+
+    private void indexText(final long cardId, final String text, final float weight) {
+        if (isNull(text)) {
+            return;
+        }
+        for (var token : SearchTokenizer.tokenize(text)) {
+            terms.computeIfAbsent(token, k -> new Postings()).add(cardId, weight);
+        }
+    }
+
+    private record IndexedCard(String title, long boardId, String boardName, Set<String> blockReasons) {
+    }
+
+    /**
+     * Lista de postings de um termo em arrays primitivos, ordenada pelo id do card
+     */
+    private static final class Postings {
+
+        private long[] cardIds = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(final long cardId, final float weight) {
+            if (size > 0 && cardIds[size - 1] == cardId) {
+                weights[size - 1] += weight;
+                return;
+            }
+            var position = size == 0 || cardIds[size - 1] < cardId
+                    ? -(size + 1)
+                    : Arrays.binarySearch(cardIds, 0, size, cardId);
+            if (position >= 0) {
+                weights[position] += weight;
+                return;
+            }
+            var insertAt = -(position + 1);
+            if (size == cardIds.length) {
+                cardIds = Arrays.copyOf(cardIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(cardIds, insertAt, cardIds, insertAt + 1, size - insertAt);
+            System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+            cardIds[insertAt] = cardId;
+            weights[insertAt] = weight;
+            size++;
+        }
+    }
+
+}
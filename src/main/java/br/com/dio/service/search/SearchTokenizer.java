@@ -0,0 +1,38 @@
+package br.com.dio.service.search;
+
+import lombok.NoArgsConstructor;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Objects.isNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Quebra textos em termos de busca: remove acentos, converte para minúsculas
+ * e separa por qualquer caractere que não seja letra ou dígito
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class SearchTokenizer {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    public static List<String> tokenize(final String text) {
+        List<String> tokens = new ArrayList<>();
+        if (isNull(text) || text.isBlank()) {
+            return tokens;
+        }
+        var normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        for (var token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+}
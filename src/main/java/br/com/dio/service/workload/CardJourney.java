@@ -0,0 +1,142 @@
+package br.com.dio.service.workload;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Trajetória simulada de um card sintético: chegada, permanência em cada coluna, bloqueios e saída
+ * (conclusão, cancelamento ou ainda em aberto no fim da janela). Os tempos são segundos da época.
+ * <p>
+ * O card passa pelas colunas em ordem, da inicial até a final. A permanência em cada coluna e a duração
+ * de cada bloqueio seguem distribuições exponenciais e os bloqueios chegam como um processo de Poisson
+ * enquanto o card está na coluna; o tempo bloqueado se soma à permanência, porque um card bloqueado não
+ * anda. Ao sair de uma coluna pendente o card pode ser cancelado. O que passaria do fim da janela não
+ * acontece: o card fica na coluna em que estava, com o bloqueio em andamento ainda aberto.
+ * <p>
+ * Os arrays são reaproveitados quando o mesmo objeto simula outro card.
+ */
+final class CardJourney {
+
+    /** Coluna de origem do registro de criação, em {@link #historyFrom} */
+    static final int NONE = -1;
+    /** Coluna de destino de um movimento para o cancelamento, em {@link #historyTo} */
+    static final int CANCELED = -2;
+
+    private final int finalIndex;
+    private final long meanDwellSeconds;
+    private final double blocksPerSecond;
+    private final long meanBlockSeconds;
+    private final double cancelProbability;
+
+    long createdAt;
+    /** Índice da coluna em que o card terminou, ou {@link #CANCELED} */
+    int columnIndex;
+    long completedAt;
+
+    int historySize;
+    int[] historyFrom = new int[8];
+    int[] historyTo = new int[8];
+    long[] historyAt = new long[8];
+
+    int blockSize;
+    int[] blockColumn = new int[4];
+    long[] blockedAt = new long[4];
+    long[] unblockedAt = new long[4];
+    int[] blockReason = new int[4];
+    int[] unblockReason = new int[4];
+
+    /**
+     * @param finalIndex Índice da coluna final; as anteriores são a inicial e as pendentes
+     */
+    CardJourney(final int finalIndex, final long meanDwellSeconds, final double blocksPerDay,
+                final long meanBlockSeconds, final double cancelProbability) {
+        this.finalIndex = finalIndex;
+        this.meanDwellSeconds = meanDwellSeconds;
+        this.blocksPerSecond = blocksPerDay / 86_400.0;
+        this.meanBlockSeconds = meanBlockSeconds;
+        this.cancelProbability = cancelProbability;
+    }
+
+    /**
+     * Simula o card a partir da chegada
+     *
+     * @param random Gerador do board; a mesma sequência produz a mesma trajetória
+     * @param arrival Chegada do card na coluna inicial
+     * @param end Fim da janela
+     * @param reasons Quantidade de motivos de bloqueio disponíveis
+     * @param unblockReasons Quantidade de motivos de desbloqueio disponíveis
+     */
+    void simulate(final SplittableRandom random, final long arrival, final long end, final int reasons,
+                  final int unblockReasons) {
+        createdAt = arrival;
+        completedAt = 0;
+        historySize = 0;
+        blockSize = 0;
+        addHistory(NONE, 0, arrival);
+        var t = arrival;
+        for (var column = 0; column < finalIndex; column++) {
+            var leave = t + exponential(random, meanDwellSeconds);
+            var block = blocksPerSecond > 0 ? t + exponential(random, 1 / blocksPerSecond) : Long.MAX_VALUE;
+            while (block < leave && block < end) {
+                var unblock = block + exponential(random, meanBlockSeconds);
+                var reason = random.nextInt(reasons);
+                if (unblock >= end) {
+                    addBlock(column, block, 0, reason, NONE);
+                    columnIndex = column;
+                    return;
+                }
+                addBlock(column, block, unblock, reason, random.nextInt(unblockReasons));
+                leave += unblock - block;
+                block = unblock + exponential(random, 1 / blocksPerSecond);
+            }
+            if (leave >= end) {
+                columnIndex = column;
+                return;
+            }
+            if (column > 0 && random.nextDouble() < cancelProbability) {
+                addHistory(column, CANCELED, leave);
+                columnIndex = CANCELED;
+                return;
+            }
+            addHistory(column, column + 1, leave);
+            t = leave;
+        }
+        columnIndex = finalIndex;
+        completedAt = t;
+    }
+
+    /**
+     * Tempo até o próximo evento de um processo de Poisson, em segundos, ao menos 1
+     */
+    static long exponential(final SplittableRandom random, final double mean) {
+        return Math.max(1, Math.round(-Math.log(1 - random.nextDouble()) * mean));
+    }
+
+    private void addHistory(final int from, final int to, final long at) {
+        if (historySize == historyAt.length) {
+            historyFrom = Arrays.copyOf(historyFrom, historySize * 2);
+            historyTo = Arrays.copyOf(historyTo, historySize * 2);
+            historyAt = Arrays.copyOf(historyAt, historySize * 2);
+        }
+        historyFrom[historySize] = from;
+        historyTo[historySize] = to;
+        historyAt[historySize++] = at;
+    }
+
+    private void addBlock(final int column, final long blocked, final long unblocked, final int reason,
+                          final int unblockReasonIndex) {
+        if (blockSize == blockedAt.length) {
+            blockColumn = Arrays.copyOf(blockColumn, blockSize * 2);
+            blockedAt = Arrays.copyOf(blockedAt, blockSize * 2);
+            unblockedAt = Arrays.copyOf(unblockedAt, blockSize * 2);
+            blockReason = Arrays.copyOf(blockReason, blockSize * 2);
+            unblockReason = Arrays.copyOf(unblockReason, blockSize * 2);
+        }
+        blockColumn[blockSize] = column;
+        blockedAt[blockSize] = blocked;
+        unblockedAt[blockSize] = unblocked;
+        blockReason[blockSize] = reason;
+        unblockReason[blockSize++] = unblockReasonIndex;
+    }
+
+}
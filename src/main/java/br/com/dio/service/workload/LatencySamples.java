@@ -0,0 +1,62 @@
+package br.com.dio.service.workload;
+
+import java.util.Arrays;
+
+/**
+ * Latências de um tipo de operação, em nanossegundos. Cada usuário virtual tem as suas, sem
+ * sincronização; no fim da simulação as amostras são juntadas e ordenadas, o que dá percentis exatos.
+ */
+final class LatencySamples {
+
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(final long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    void addAll(final LatencySamples other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    /**
+     * Ordena as amostras; deve ser chamado antes de {@link #percentile(double)}
+     */
+    void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    /**
+     * @param percentile Percentil entre 0 e 100
+     * @return Latência do percentil pelo método do posto mais próximo, em milissegundos, ou 0 sem amostras
+     */
+    double percentile(final double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        var rank = (int) Math.ceil(percentile / 100 * size);
+        return values[Math.min(size, Math.max(rank, 1)) - 1] / 1e6;
+    }
+
+}
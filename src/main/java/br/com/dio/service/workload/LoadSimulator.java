@@ -0,0 +1,369 @@
+package br.com.dio.service.workload;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.dto.LoadSimulationResultDTO;
+import br.com.dio.dto.OperationLatencyDTO;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.service.BoardQueryService;
+import br.com.dio.service.CardService;
+import br.com.dio.service.ReportService;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+import static br.com.dio.service.workload.WorkloadOperationEnum.CREATE_CARD;
+import static br.com.dio.service.workload.WorkloadOperationEnum.UNBLOCK_CARD;
+
+/**
+ * Simulação de carga em malha fechada: N usuários virtuais, cada um em uma thread, executam operações
+ * sorteadas ({@link WorkloadOperationEnum}) pelos mesmos serviços e pelo {@link DatabaseExecutor} que os
+ * menus usam, um depois do outro, com uma pausa opcional entre elas ({@code workload.think-time-ms}).
+ * A vazão resulta da latência: um usuário só começa a próxima operação quando a anterior termina.
+ * <p>
+ * Os cards em aberto dos boards são divididos entre os usuários, e cada usuário só move, bloqueia e
+ * desbloqueia os seus e os que ele criou; a disputa entre usuários fica nos contadores das colunas e
+ * nas leituras, como entre pessoas trabalhando no mesmo board. Quando o usuário não tem um card que
+ * sirva para a operação sorteada, ele cria um card.
+ * <p>
+ * As operações dos primeiros {@code workload.warmup-seconds} segundos não entram nas estatísticas. As
+ * latências incluem a espera por uma conexão do pool, então com mais usuários que conexões
+ * ({@code db.pool.max-size}) a fila aparece nos percentis.
+ */
+public final class LoadSimulator {
+
+    private static final LoadSimulator INSTANCE = new LoadSimulator(ApplicationProperties.getInstance());
+
+    private static final int PICK_ATTEMPTS = 8;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final int warmupSeconds;
+    private final long thinkTimeMs;
+    private final Map<WorkloadOperationEnum, Integer> weights = new EnumMap<>(WorkloadOperationEnum.class);
+    private final int totalWeight;
+
+    private LoadSimulator(final ApplicationProperties properties) {
+        this.warmupSeconds = Math.max(0, properties.getInt("workload.warmup-seconds", 5));
+        this.thinkTimeMs = Math.max(0, properties.getLong("workload.think-time-ms", 0));
+        var total = 0;
+        for (var operation : WorkloadOperationEnum.values()) {
+            var weight = Math.max(0, properties.getInt("workload.mix." + operation.getConfigKey(), operation.getDefaultWeight()));
+            weights.put(operation, weight);
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Ao menos uma operação de workload.mix deve ter peso positivo");
+        }
+        this.totalWeight = total;
+    }
+
+    public static LoadSimulator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Executa a simulação e devolve as estatísticas da janela medida
+     *
+     * @param boardIds Boards usados pelos usuários
+     * @param users Quantidade de usuários virtuais
+     * @param durationSeconds Duração total, incluindo o aquecimento
+     * @param seed Semente do sorteio das operações; o usuário {@code u} usa a semente combinada com {@code u}
+     * @return Vazão e percentis de latência por tipo de operação
+     * @throws SQLException se ocorrer erro ao carregar os boards
+     * @throws EntityNotFoundException se algum board não existir
+     */
+    public LoadSimulationResultDTO run(final List<Long> boardIds, final int users, final int durationSeconds,
+                                       final long seed) throws SQLException {
+        if (boardIds.isEmpty() || users <= 0 || durationSeconds <= warmupSeconds) {
+            throw new IllegalArgumentException(("Informe ao menos um board e um usuário, com duração maior que " +
+                    "o aquecimento de %d s").formatted(warmupSeconds));
+        }
+        List<SimulatedBoard> boards = new ArrayList<>();
+        List<List<SimulatedCard>> cardsByUser = new ArrayList<>();
+        for (var u = 0; u < users; u++) {
+            cardsByUser.add(new ArrayList<>());
+        }
+        var next = 0;
+        for (var boardId : boardIds) {
+            var boardIndex = boards.size();
+            boards.add(load(boardId));
+            var snapshot = DatabaseExecutor.getInstance().read(boardId, connection ->
+                    new BoardQueryService(connection).findSnapshot(boardId)).orElseThrow();
+            for (var column : snapshot.columns()) {
+                if (column.kind() != INITIAL && column.kind() != PENDING) {
+                    continue;
+                }
+                for (var card : column.cards()) {
+                    cardsByUser.get(next++ % users).add(new SimulatedCard(card.id(), boardIndex, column.order(), card.blocked()));
+                }
+            }
+        }
+
+        var startedAt = System.nanoTime();
+        var measureFrom = startedAt + warmupSeconds * 1_000_000_000L;
+        var deadline = startedAt + durationSeconds * 1_000_000_000L;
+        var threadNumber = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(users, runnable -> {
+            var thread = new Thread(runnable, "load-user-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Map<WorkloadOperationEnum, LatencySamples>>> futures = new ArrayList<>();
+        try {
+            for (var u = 0; u < users; u++) {
+                var user = new VirtualUser(boards, cardsByUser.get(u), new SplittableRandom(seed + u * 0x9E3779B97F4A7C15L),
+                        measureFrom, deadline);
+                futures.add(executor.submit(user::run));
+            }
+            Map<WorkloadOperationEnum, LatencySamples> merged = new EnumMap<>(WorkloadOperationEnum.class);
+            for (var future : futures) {
+                for (var entry : future.get().entrySet()) {
+                    merged.computeIfAbsent(entry.getKey(), k -> new LatencySamples()).addAll(entry.getValue());
+                }
+            }
+            return summarize(users, Math.max(1, (deadline - measureFrom) / 1_000_000), merged);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("A simulação foi interrompida", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Um usuário virtual falhou: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SimulatedBoard load(final Long boardId) throws SQLException {
+        var entity = DatabaseExecutor.getInstance().read(boardId, connection -> new BoardQueryService(connection).findById(boardId))
+                .orElseThrow(() -> new EntityNotFoundException("O board de id %s não foi encontrado".formatted(boardId)));
+        Map<Integer, BoardColumnKindEnum> kinds = new HashMap<>();
+        entity.getBoardColumns().forEach(c -> kinds.put(c.getOrder(), c.getKind()));
+        var columnsInfo = entity.getBoardColumns().stream()
+                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
+                .toList();
+        return new SimulatedBoard(entity, columnsInfo, kinds, entity.getInitialColumn().getOrder());
+    }
+
+    private LoadSimulationResultDTO summarize(final int users, final long measuredMs,
+                                              final Map<WorkloadOperationEnum, LatencySamples> samples) {
+        List<OperationLatencyDTO> stats = new ArrayList<>();
+        long operations = 0;
+        long errors = 0;
+        for (var operation : WorkloadOperationEnum.values()) {
+            var operationSamples = samples.get(operation);
+            if (operationSamples == null || operationSamples.size() + operationSamples.errors() == 0) {
+                continue;
+            }
+            operationSamples.sort();
+            var p = new double[PERCENTILES.length];
+            for (var i = 0; i < PERCENTILES.length; i++) {
+                p[i] = operationSamples.percentile(PERCENTILES[i]);
+            }
+            stats.add(new OperationLatencyDTO(operation.getConfigKey(), operationSamples.size(), operationSamples.errors(),
+                    operationSamples.size() * 1000.0 / measuredMs, p[0], p[1], p[2], p[3], operationSamples.percentile(100)));
+            operations += operationSamples.size();
+            errors += operationSamples.errors();
+        }
+        return new LoadSimulationResultDTO(users, measuredMs, operations, errors, stats);
+    }
+
+    private record SimulatedBoard(BoardEntity entity, List<BoardColumnInfoDTO> columnsInfo,
+                                  Map<Integer, BoardColumnKindEnum> kinds, int initialOrder) {
+    }
+
+    private static final class SimulatedCard {
+
+        private final long id;
+        private final int boardIndex;
+        private int order;
+        private boolean blocked;
+
+        private SimulatedCard(final long id, final int boardIndex, final int order, final boolean blocked) {
+            this.id = id;
+            this.boardIndex = boardIndex;
+            this.order = order;
+            this.blocked = blocked;
+        }
+    }
+
+    /**
+     * Usuário virtual: sorteia, executa e mede operações até o fim da simulação
+     */
+    private final class VirtualUser {
+
+        private final List<SimulatedBoard> boards;
+        private final List<SimulatedCard> cards;
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long deadline;
+        private final Map<WorkloadOperationEnum, LatencySamples> samples = new EnumMap<>(WorkloadOperationEnum.class);
+
+        private VirtualUser(final List<SimulatedBoard> boards, final List<SimulatedCard> cards,
+                            final SplittableRandom random, final long measureFrom, final long deadline) {
+            this.boards = boards;
+            this.cards = cards;
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+        }
+
+        private Map<WorkloadOperationEnum, LatencySamples> run() throws InterruptedException {
+            while (System.nanoTime() < deadline) {
+                var operation = pick();
+                var startedAt = System.nanoTime();
+                WorkloadOperationEnum executed = operation;
+                var failed = false;
+                try {
+                    executed = execute(operation);
+                } catch (SQLException | RuntimeException ex) {
+                    failed = true;
+                }
+                var finishedAt = System.nanoTime();
+                if (startedAt >= measureFrom && finishedAt <= deadline) {
+                    var operationSamples = samples.computeIfAbsent(executed, k -> new LatencySamples());
+                    if (failed) {
+                        operationSamples.recordError();
+                    } else {
+                        operationSamples.record(finishedAt - startedAt);
+                    }
+                }
+                if (thinkTimeMs > 0) {
+                    Thread.sleep(thinkTimeMs);
+                }
+            }
+            return samples;
+        }
+
+        private WorkloadOperationEnum pick() {
+            var value = random.nextInt(totalWeight);
+            for (var operation : WorkloadOperationEnum.values()) {
+                value -= weights.get(operation);
+                if (value < 0) {
+                    return operation;
+                }
+            }
+            return CREATE_CARD;
+        }
+
+        /**
+         * @return Operação de fato executada: sem card que sirva, a operação vira a criação de um card
+         */
+        private WorkloadOperationEnum execute(final WorkloadOperationEnum operation) throws SQLException {
+            var executor = DatabaseExecutor.getInstance();
+            switch (operation) {
+                case MOVE_CARD, BLOCK_CARD, UNBLOCK_CARD -> {
+                    var index = pickCard(operation == UNBLOCK_CARD);
+                    if (index < 0) {
+                        createCard();
+                        return CREATE_CARD;
+                    }
+                    changeCard(operation, index);
+                }
+                case VIEW_BOARD -> {
+                    var board = randomBoard();
+                    executor.read(board.entity().getId(), connection ->
+                            new BoardQueryService(connection).showBoardDetails(board.entity().getId()));
+                }
+                case COMPLETION_REPORT -> {
+                    var board = randomBoard();
+                    executor.report(board.entity().getId(), connection ->
+                            new ReportService(connection).getCompletionTimeReport(board.entity().getId()));
+                }
+                case BLOCKING_REPORT -> {
+                    var board = randomBoard();
+                    executor.report(board.entity().getId(), connection ->
+                            new ReportService(connection).getBlockingReport(board.entity().getId()));
+                }
+                default -> createCard();
+            }
+            return operation;
+        }
+
+        private void createCard() throws SQLException {
+            var boardIndex = random.nextInt(boards.size());
+            var board = boards.get(boardIndex);
+            var card = new CardEntity();
+            card.setTitle("Carga " + Thread.currentThread().getName());
+            card.setDescription("Card criado pela simulação de carga");
+            card.setBoardColumn(board.entity().getInitialColumn());
+            DatabaseExecutor.getInstance().write(board.entity().getId(), connection -> new CardService(connection).create(card));
+            cards.add(new SimulatedCard(card.getId(), boardIndex, board.initialOrder(), false));
+        }
+
+        private void changeCard(final WorkloadOperationEnum operation, final int index) throws SQLException {
+            var card = cards.get(index);
+            var board = boards.get(card.boardIndex);
+            var boardId = board.entity().getId();
+            try {
+                DatabaseExecutor.getInstance().write(boardId, connection -> {
+                    var service = new CardService(connection);
+                    switch (operation) {
+                        case MOVE_CARD -> service.moveToNextColumn(card.id, board.columnsInfo());
+                        case BLOCK_CARD -> service.block(card.id, "Bloqueio da simulação de carga", board.columnsInfo());
+                        default -> service.unblock(card.id, "Desbloqueio da simulação de carga");
+                    }
+                    return null;
+                });
+            } catch (SQLException | RuntimeException ex) {
+                // O estado do card não é mais o esperado; ele sai do sorteio
+                remove(index);
+                throw ex;
+            }
+            switch (operation) {
+                case MOVE_CARD -> {
+                    card.order++;
+                    if (board.kinds().get(card.order) == FINAL) {
+                        remove(index);
+                    }
+                }
+                case BLOCK_CARD -> card.blocked = true;
+                default -> card.blocked = false;
+            }
+        }
+
+        /**
+         * @param blocked true para sortear um card bloqueado, false para um desbloqueado
+         * @return Posição do card na lista do usuário, ou -1 se nenhum foi encontrado nas tentativas
+         */
+        private int pickCard(final boolean blocked) {
+            if (cards.isEmpty()) {
+                return -1;
+            }
+            for (var attempt = 0; attempt < PICK_ATTEMPTS; attempt++) {
+                var index = random.nextInt(cards.size());
+                if (cards.get(index).blocked == blocked) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private void remove(final int index) {
+            var last = cards.remove(cards.size() - 1);
+            if (index < cards.size()) {
+                cards.set(index, last);
+            }
+        }
+
+        private SimulatedBoard randomBoard() {
+            return boards.get(random.nextInt(boards.size()));
+        }
+
+    }
+
+}
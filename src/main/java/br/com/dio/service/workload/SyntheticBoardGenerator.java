@@ -0,0 +1,391 @@
+package br.com.dio.service.workload;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.dto.WorkloadGenerationResultDTO;
+import br.com.dio.event.BoardEvent;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.event.ChangeFeed;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.BlockReasonDAO;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.id.IdAllocator;
+import br.com.dio.persistence.rank.LexoRank;
+import br.com.dio.persistence.shard.ShardRouter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static br.com.dio.event.BoardEventType.BOARD_CREATED;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+import static br.com.dio.persistence.id.IdEntityEnum.CARD;
+
+/**
+ * Gera boards sintéticos, com volume e formato parecidos com os de produção, para reproduzir localmente
+ * o comportamento dos serviços, das telas e dos relatórios.
+ * <p>
+ * Cada board tem uma coluna inicial, de uma a {@code workload.max-pending-columns} colunas pendentes
+ * sorteadas de uma lista de etapas comuns, uma final e uma de cancelamento. Os cards chegam como um
+ * processo de Poisson ao longo dos últimos {@code workload.window-days} dias e percorrem as colunas com
+ * permanências e bloqueios sorteados ({@link CardJourney}), o que gera o histórico de movimentações,
+ * os bloqueios e as conclusões que os relatórios leem.
+ * <p>
+ * A geração é determinística: a mesma semente produz os mesmos boards, com os tempos relativos ao fim
+ * da janela. As linhas são gravadas direto em {@code CARDS}, {@code CARD_HISTORY} e {@code BLOCKS}, em
+ * lotes de {@code workload.batch-size}, e cada board é gravado em uma transação, como na restauração
+ * de um backup. A ordem dos cards em cada coluna segue a ordem de chegada; para distribuir os ranks de
+ * uma vez, as trajetórias são simuladas duas vezes com a mesma semente, a primeira só para contar os
+ * cards de cada coluna.
+ */
+public final class SyntheticBoardGenerator {
+
+    private static final List<String> STAGES = List.of("Análise", "Refinamento", "Desenvolvimento",
+            "Revisão de código", "Testes", "Homologação", "Deploy");
+    private static final List<String> ACTIONS = List.of("Implementar", "Corrigir", "Revisar", "Documentar",
+            "Testar", "Migrar", "Otimizar", "Remover");
+    private static final List<String> SUBJECTS = List.of("login", "relatório de vendas", "cadastro de clientes",
+            "API de pagamentos", "tela de busca", "exportação CSV", "integração com o ERP", "notificações por e-mail",
+            "controle de estoque", "painel administrativo");
+    private static final List<String> BLOCK_REASONS = List.of("Aguardando o cliente", "Dependência de outro time",
+            "Ambiente indisponível", "Dúvida de requisito", "Aguardando aprovação", "Falha no pipeline");
+    private static final List<String> UNBLOCK_REASONS = List.of("Resolvido", "Cliente respondeu",
+            "Ambiente restabelecido", "Requisito esclarecido", "Aprovado");
+
+    // Depois das listas, que o construtor usa
+    private static final SyntheticBoardGenerator INSTANCE = new SyntheticBoardGenerator(ApplicationProperties.getInstance());
+
+    private final int batchSize;
+    private final int windowDays;
+    private final int maxPendingColumns;
+    private final long meanDwellSeconds;
+    private final double blocksPerDay;
+    private final long meanBlockSeconds;
+    private final double cancelProbability;
+
+    private SyntheticBoardGenerator(final ApplicationProperties properties) {
+        this.batchSize = properties.getInt("workload.batch-size", 5_000);
+        this.windowDays = properties.getInt("workload.window-days", 90);
+        this.maxPendingColumns = Math.min(STAGES.size(), Math.max(1, properties.getInt("workload.max-pending-columns", 4)));
+        this.meanDwellSeconds = properties.getLong("workload.mean-dwell-hours", 36) * 3_600;
+        this.blocksPerDay = Double.parseDouble(properties.getString("workload.blocks-per-day", "0.05"));
+        this.meanBlockSeconds = properties.getLong("workload.mean-block-hours", 20) * 3_600;
+        this.cancelProbability = Double.parseDouble(properties.getString("workload.cancel-probability", "0.04"));
+        if (batchSize <= 0 || windowDays <= 0) {
+            throw new IllegalArgumentException("O lote e a janela da carga sintética devem ser positivos");
+        }
+    }
+
+    public static SyntheticBoardGenerator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gera os boards, um por vez, cada um em uma transação
+     *
+     * @param seed Semente; o board {@code i} usa a semente combinada com {@code i}
+     * @param boards Quantidade de boards
+     * @param cardsPerBoard Quantidade de cards de cada board
+     * @return Resumo da geração, com os ids dos boards criados
+     * @throws SQLException se ocorrer erro no acesso ao banco; os boards já confirmados permanecem
+     */
+    public WorkloadGenerationResultDTO generate(final long seed, final int boards, final int cardsPerBoard)
+            throws SQLException {
+        if (boards <= 0 || cardsPerBoard < 0) {
+            throw new IllegalArgumentException("Informe ao menos um board e uma quantidade de cards não negativa");
+        }
+        var startedAt = System.currentTimeMillis();
+        var end = System.currentTimeMillis() / 1000;
+        List<Long> boardIds = new ArrayList<>(boards);
+        long columns = 0;
+        long cards = 0;
+        long blocks = 0;
+        long history = 0;
+        for (var b = 0; b < boards; b++) {
+            var generated = generateBoard(seed, b, cardsPerBoard, end);
+            boardIds.add(generated.boardId());
+            columns += generated.columns();
+            cards += generated.cards();
+            blocks += generated.blocks();
+            history += generated.history();
+        }
+        return new WorkloadGenerationResultDTO(seed, boardIds, columns, cards, blocks, history,
+                System.currentTimeMillis() - startedAt);
+    }
+
+    private GeneratedBoard generateBoard(final long seed, final int index, final int cards, final long end)
+            throws SQLException {
+        var boardSeed = new SplittableRandom(seed + index * 0x9E3779B97F4A7C15L).nextLong();
+        var columns = layout(new SplittableRandom(boardSeed));
+        var arrivals = arrivals(new SplittableRandom(boardSeed + 1), cards, end);
+        var finalIndex = columns.size() - 2;
+        var cancelIndex = columns.size() - 1;
+
+        // Primeira passada: quantos cards terminam em cada coluna, para distribuir os ranks
+        var columnCards = new int[columns.size()];
+        var journey = new CardJourney(finalIndex, meanDwellSeconds, blocksPerDay, meanBlockSeconds, cancelProbability);
+        var journeyRandom = new SplittableRandom(boardSeed + 2);
+        for (var arrival : arrivals) {
+            journey.simulate(journeyRandom, arrival, end, BLOCK_REASONS.size(), UNBLOCK_REASONS.size());
+            columnCards[journey.columnIndex == CardJourney.CANCELED ? cancelIndex : journey.columnIndex]++;
+        }
+
+        var board = new BoardEntity();
+        board.setId(ShardRouter.getInstance().reserveBoard());
+        board.setName("Sintético %d-%d".formatted(seed, index + 1));
+        var shard = ShardRouter.getInstance().locate(board.getId()).shardId();
+        Writer writer;
+        try (var connection = ConnectionConfig.getConnection(shard)) {
+            try {
+                new BoardDAO(connection).insert(board);
+                columns.forEach(c -> c.setBoard(board));
+                new BoardColumnDAO(connection).insertAll(columns);
+                writer = new Writer(connection, columns, columnCards, seed);
+                writer.write(arrivals, new SplittableRandom(boardSeed + 2), end);
+                // O histórico simulado não é feito de alterações novas para o feed
+                var suspension = ChangeFeed.getInstance().suspend(shard, board.getId());
+                try {
+                    connection.commit();
+                } finally {
+                    suspension.close();
+                }
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        }
+        BoardEventBus.getInstance().afterCommit(ConnectionConfig::recordWrite);
+        BoardEventBus.getInstance().publish(BoardEvent.local(BOARD_CREATED, board.getId(), null,
+                null, null, board.getName()));
+        return new GeneratedBoard(board.getId(), columns.size(), cards, writer.blocks, writer.history);
+    }
+
+    /**
+     * Sorteia as colunas pendentes, mantendo a ordem das etapas
+     */
+    private List<BoardColumnEntity> layout(final SplittableRandom random) {
+        var pending = 1 + random.nextInt(maxPendingColumns);
+        List<String> stages = new ArrayList<>(STAGES);
+        while (stages.size() > pending) {
+            stages.remove(random.nextInt(stages.size()));
+        }
+        List<BoardColumnEntity> columns = new ArrayList<>();
+        columns.add(column("Backlog", INITIAL, 0));
+        for (var stage : stages) {
+            columns.add(column(stage, PENDING, columns.size()));
+        }
+        columns.add(column("Concluído", FINAL, columns.size()));
+        columns.add(column("Cancelado", CANCEL, columns.size()));
+        return columns;
+    }
+
+    private BoardColumnEntity column(final String name, final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+
+    /**
+     * Chegadas de um processo de Poisson que termina no fim da janela, geradas de trás para frente
+     * (o processo é reversível no tempo) e devolvidas em ordem crescente
+     */
+    private long[] arrivals(final SplittableRandom random, final int cards, final long end) {
+        var meanGap = windowDays * 86_400.0 / Math.max(cards, 1);
+        var arrivals = new long[cards];
+        var t = end;
+        for (var i = cards - 1; i >= 0; i--) {
+            t -= CardJourney.exponential(random, meanGap);
+            arrivals[i] = t;
+        }
+        return arrivals;
+    }
+
+    private record GeneratedBoard(Long boardId, int columns, long cards, long blocks, long history) {
+    }
+
+    /**
+     * Grava os cards em blocos de {@code batchSize}: os cards do bloco primeiro, para obter os ids, e
+     * depois o histórico e os bloqueios deles
+     */
+    private final class Writer {
+
+        private final Connection connection;
+        private final List<BoardColumnEntity> columns;
+        private final List<List<String>> ranks = new ArrayList<>();
+        private final int[] nextRank;
+        private final long seed;
+        private final boolean cardIdsGenerated = IdAllocator.getInstance().isDatabaseGenerated(CARD);
+        private final long[] blockReasonIds = new long[BLOCK_REASONS.size()];
+        private final long[] unblockReasonIds = new long[UNBLOCK_REASONS.size()];
+
+        private long history;
+        private long blocks;
+
+        private Writer(final Connection connection, final List<BoardColumnEntity> columns, final int[] columnCards,
+                       final long seed) throws SQLException {
+            this.connection = connection;
+            this.columns = columns;
+            this.seed = seed;
+            for (var count : columnCards) {
+                ranks.add(LexoRank.spaced(count));
+            }
+            this.nextRank = new int[columns.size()];
+            var reasonDAO = new BlockReasonDAO(connection);
+            for (var i = 0; i < BLOCK_REASONS.size(); i++) {
+                blockReasonIds[i] = reasonDAO.findOrCreateId(BLOCK_REASONS.get(i));
+            }
+            for (var i = 0; i < UNBLOCK_REASONS.size(); i++) {
+                unblockReasonIds[i] = reasonDAO.findOrCreateId(UNBLOCK_REASONS.get(i));
+            }
+        }
+
+        private void write(final long[] arrivals, final SplittableRandom random, final long end) throws SQLException {
+            var finalIndex = columns.size() - 2;
+            var journeys = new CardJourney[Math.min(batchSize, Math.max(arrivals.length, 1))];
+            for (var j = 0; j < journeys.length; j++) {
+                journeys[j] = new CardJourney(finalIndex, meanDwellSeconds, blocksPerDay, meanBlockSeconds, cancelProbability);
+            }
+            var cardIds = new long[journeys.length];
+            // Sem ";" no fim: com rewriteBatchedStatements o driver junta cada lote em um único INSERT
+            var cardSql = """
+                    INSERT INTO CARDS (id, title, description, board_column_id, lexo_rank, created_at, completed_at)
+                    VALUES (?, ?, ?, ?, ?, FROM_UNIXTIME(?), FROM_UNIXTIME(?))
+                    """;
+            var historySql = """
+                    INSERT INTO CARD_HISTORY (card_id, from_column_id, to_column_id, moved_at)
+                    VALUES (?, ?, ?, FROM_UNIXTIME(?))
+                    """;
+            var blockSql = """
+                    INSERT INTO BLOCKS (card_id, board_column_id, blocked_at, block_reason_id, unblocked_at, unblock_reason_id)
+                    VALUES (?, ?, FROM_UNIXTIME(?), ?, FROM_UNIXTIME(?), ?)
+                    """;
+            try (var cardStatement = cardIdsGenerated ?
+                    connection.prepareStatement(cardSql, Statement.RETURN_GENERATED_KEYS) :
+                    connection.prepareStatement(cardSql);
+                 var historyStatement = connection.prepareStatement(historySql);
+                 var blockStatement = connection.prepareStatement(blockSql)) {
+                for (var first = 0; first < arrivals.length; first += journeys.length) {
+                    var size = Math.min(journeys.length, arrivals.length - first);
+                    for (var j = 0; j < size; j++) {
+                        var journey = journeys[j];
+                        journey.simulate(random, arrivals[first + j], end, BLOCK_REASONS.size(), UNBLOCK_REASONS.size());
+                        cardIds[j] = addCard(cardStatement, journey, first + j);
+                    }
+                    cardStatement.executeBatch();
+                    if (cardIdsGenerated) {
+                        try (var keys = cardStatement.getGeneratedKeys()) {
+                            for (var j = 0; j < size; j++) {
+                                if (!keys.next()) {
+                                    throw new IllegalStateException("O banco não devolveu os ids de todos os cards do lote");
+                                }
+                                cardIds[j] = keys.getLong(1);
+                            }
+                        }
+                    }
+                    var historyBatch = 0;
+                    var blockBatch = 0;
+                    for (var j = 0; j < size; j++) {
+                        historyBatch += addHistory(historyStatement, journeys[j], cardIds[j]);
+                        blockBatch += addBlocks(blockStatement, journeys[j], cardIds[j]);
+                        if (historyBatch >= batchSize) {
+                            historyStatement.executeBatch();
+                            historyBatch = 0;
+                        }
+                        if (blockBatch >= batchSize) {
+                            blockStatement.executeBatch();
+                            blockBatch = 0;
+                        }
+                    }
+                    if (historyBatch > 0) {
+                        historyStatement.executeBatch();
+                    }
+                    if (blockBatch > 0) {
+                        blockStatement.executeBatch();
+                    }
+                }
+            }
+            updateCardCounts();
+        }
+
+        private long addCard(final PreparedStatement statement, final CardJourney journey, final int number)
+                throws SQLException {
+            var column = journey.columnIndex == CardJourney.CANCELED ? columns.size() - 1 : journey.columnIndex;
+            var id = IdAllocator.getInstance().nextId(CARD);
+            var i = 1;
+            statement.setObject(i ++, id, Types.BIGINT);
+            statement.setString(i ++, "%s %s #%d".formatted(ACTIONS.get(number % ACTIONS.size()),
+                    SUBJECTS.get((number / ACTIONS.size()) % SUBJECTS.size()), number + 1));
+            statement.setString(i ++, "Card gerado pela carga sintética (semente %d)".formatted(seed));
+            statement.setLong(i ++, columns.get(column).getId());
+            statement.setString(i ++, ranks.get(column).get(nextRank[column]++));
+            statement.setLong(i ++, journey.createdAt);
+            statement.setObject(i, journey.completedAt == 0 ? null : journey.completedAt, Types.BIGINT);
+            statement.addBatch();
+            // Com AUTO_INCREMENT o id só é conhecido depois do lote
+            return id == null ? 0 : id;
+        }
+
+        private int addHistory(final PreparedStatement statement, final CardJourney journey, final long cardId)
+                throws SQLException {
+            for (var h = 0; h < journey.historySize; h++) {
+                var from = journey.historyFrom[h];
+                var to = journey.historyTo[h] == CardJourney.CANCELED ? columns.size() - 1 : journey.historyTo[h];
+                var i = 1;
+                statement.setLong(i ++, cardId);
+                statement.setObject(i ++, from == CardJourney.NONE ? null : columns.get(from).getId(), Types.BIGINT);
+                statement.setLong(i ++, columns.get(to).getId());
+                statement.setLong(i, journey.historyAt[h]);
+                statement.addBatch();
+            }
+            history += journey.historySize;
+            return journey.historySize;
+        }
+
+        private int addBlocks(final PreparedStatement statement, final CardJourney journey, final long cardId)
+                throws SQLException {
+            for (var b = 0; b < journey.blockSize; b++) {
+                var open = journey.unblockReason[b] == CardJourney.NONE;
+                var i = 1;
+                statement.setLong(i ++, cardId);
+                statement.setLong(i ++, columns.get(journey.blockColumn[b]).getId());
+                statement.setLong(i ++, journey.blockedAt[b]);
+                statement.setLong(i ++, blockReasonIds[journey.blockReason[b]]);
+                statement.setObject(i ++, open ? null : journey.unblockedAt[b], Types.BIGINT);
+                statement.setObject(i, open ? null : unblockReasonIds[journey.unblockReason[b]], Types.BIGINT);
+                statement.addBatch();
+            }
+            blocks += journey.blockSize;
+            return journey.blockSize;
+        }
+
+        /**
+         * Grava o contador de cards de cada coluna (limite de WIP) a partir dos cards gerados
+         */
+        private void updateCardCounts() throws SQLException {
+            var sql = "UPDATE BOARDS_COLUMNS SET card_count = ? WHERE id = ?";
+            try (var statement = connection.prepareStatement(sql)) {
+                for (var c = 0; c < columns.size(); c++) {
+                    statement.setInt(1, nextRank[c]);
+                    statement.setLong(2, columns.get(c).getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+
+    }
+
+}
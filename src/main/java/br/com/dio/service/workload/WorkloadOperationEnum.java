@@ -0,0 +1,32 @@
+package br.com.dio.service.workload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Operações executadas pelos usuários virtuais do {@link LoadSimulator}. O peso de cada uma no sorteio
+ * vem de {@code workload.mix.<chave>}.
+ */
+@Getter
+@AllArgsConstructor
+public enum WorkloadOperationEnum {
+
+    /** {@code CardService.create} na coluna inicial */
+    CREATE_CARD("create-card", 15),
+    /** {@code CardService.moveToNextColumn} de um card em aberto e desbloqueado */
+    MOVE_CARD("move-card", 35),
+    /** {@code CardService.block} de um card em aberto */
+    BLOCK_CARD("block-card", 5),
+    /** {@code CardService.unblock} de um card bloqueado pelo próprio usuário */
+    UNBLOCK_CARD("unblock-card", 5),
+    /** Tela do board: {@code BoardQueryService.showBoardDetails} */
+    VIEW_BOARD("view-board", 30),
+    /** {@code ReportService.getCompletionTimeReport} */
+    COMPLETION_REPORT("completion-report", 5),
+    /** {@code ReportService.getBlockingReport} */
+    BLOCKING_REPORT("blocking-report", 5);
+
+    private final String configKey;
+    private final int defaultWeight;
+
+}
@@ -1,71 +1,96 @@
 package br.com.dio.ui;
 
+import br.com.dio.dto.BlockedTimeSummaryDTO;
 import br.com.dio.persistence.entity.BoardEntity;
-import br.com.dio.service.ReportService;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.service.BlockingAnalyticsService;
+import br.com.dio.ui.util.AsyncLoader;
+import br.com.dio.ui.util.Pager;
+import br.com.dio.ui.util.Terminal;
 import br.com.dio.ui.util.TerminalColors;
 
-import java.io.IOException;
 import java.sql.SQLException;
-import java.util.Scanner;
-
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import java.util.List;
 
 public class BlockingReportMenu {
     private final BoardEntity entity;
-    private final Scanner scanner = new Scanner(System.in).useDelimiter("\n");
 
     public BlockingReportMenu(BoardEntity entity) {
         this.entity = entity;
     }
 
     public void execute() throws SQLException {
-        try (var connection = getConnection()) {
-            var reportService = new ReportService(connection);
-            var report = reportService.getBlockingReport(entity.getId());
-
-            System.out.println("\n" + TerminalColors.BLUE_BOLD +
-                    "===== RELATÓRIO DE BLOQUEIOS DE CARDS =====" + TerminalColors.RESET);
-            System.out.println(TerminalColors.CYAN + "Board: " + entity.getName() +
-                    " (ID: " + entity.getId() + ")" + TerminalColors.RESET + "\n");
-
-            if (report.isEmpty()) {
-                System.out.println(TerminalColors.YELLOW +
-                        "Não há registros de bloqueios neste board." + TerminalColors.RESET);
-            } else {
-                System.out.printf("%-5s | %-20s | %-20s | %-20s | %-15s | %-30s\n",
-                        "Card", "Título", "Bloqueado em", "Desbloqueado em", "Duração", "Motivo");
-                System.out.println("----------------------------------------------------------------------------------------------------------");
-
-                Long lastCardId = null;
-                for (var blocking : report) {
-                    // Adiciona linha em branco entre cards diferentes
-                    if (lastCardId != null && !lastCardId.equals(blocking.id())) {
-                        System.out.println();
-                    }
-
-                    String status = blocking.isStillBlocked() ?
-                            TerminalColors.RED + "Ainda Bloqueado" + TerminalColors.RESET :
-                            blocking.getFormattedUnblockedAt();
-
-                    System.out.printf("%-5d | %-20s | %-20s | %-20s | %-15s | %-30s\n",
-                            blocking.id(),
-                            truncateString(blocking.title(), 18),
-                            blocking.getFormattedBlockedAt(),
-                            status,
-                            blocking.getFormattedDuration(),
-                            truncateString(blocking.blockReason(), 28));
-
-                    lastCardId = blocking.id();
+        // O relatório e os resumos são consultados em paralelo; o relatório é escrito assim que chega
+        var pendingReport = load(BlockingAnalyticsService::getBlockingReport);
+        var byCard = load(BlockingAnalyticsService::getBlockedTimeByCard);
+        var byReason = load(BlockingAnalyticsService::getBlockedTimeByReason);
+        var byCategory = load(BlockingAnalyticsService::getBlockedTimeByCategory);
+        var byColumn = load(BlockingAnalyticsService::getBlockedTimeByColumn);
+
+        System.out.println("\n" + TerminalColors.BLUE_BOLD +
+                "===== RELATÓRIO DE BLOQUEIOS DE CARDS =====" + TerminalColors.RESET);
+        System.out.println(TerminalColors.CYAN + "Board: " + entity.getName() +
+                " (ID: " + entity.getId() + ")" + TerminalColors.RESET + "\n");
+
+        var report = pendingReport.await();
+        if (report.isEmpty()) {
+            System.out.println(TerminalColors.YELLOW +
+                    "Não há registros de bloqueios neste board." + TerminalColors.RESET);
+        } else {
+            System.out.printf("%-5s | %-20s | %-20s | %-20s | %-15s | %-30s\n",
+                    "Card", "Título", "Bloqueado em", "Desbloqueado em", "Duração", "Motivo");
+            System.out.println("----------------------------------------------------------------------------------------------------------");
+
+            var pager = Pager.create();
+            Long lastCardId = null;
+            for (var blocking : report) {
+                if (!pager.nextRow()) {
+                    break;
                 }
-            }
+                // Adiciona linha em branco entre cards diferentes
+                if (lastCardId != null && !lastCardId.equals(blocking.id())) {
+                    System.out.println();
+                }
+
+                String status = blocking.isStillBlocked() ?
+                        TerminalColors.RED + "Ainda Bloqueado" + TerminalColors.RESET :
+                        blocking.getFormattedUnblockedAt();
 
-            System.out.println("\n" + TerminalColors.YELLOW +
-                    "Pressione ENTER para voltar ao menu..." + TerminalColors.RESET);
-            try {
-                System.in.read();
-            } catch (IOException e) {
-                // Ignorar exceção
+                System.out.printf("%-5d | %-20s | %-20s | %-20s | %-15s | %-30s\n",
+                        blocking.id(),
+                        truncateString(blocking.title(), 18),
+                        blocking.getFormattedBlockedAt(),
+                        status,
+                        blocking.getFormattedDuration(),
+                        truncateString(blocking.blockReason(), 28));
+
+                lastCardId = blocking.id();
             }
+
+            printSummary("Tempo bloqueado por card:", byCard.await());
+            printSummary("Tempo bloqueado por motivo:", byReason.await());
+            printSummary("Tempo bloqueado por categoria de motivo:", byCategory.await());
+            printSummary("Tempo bloqueado por coluna:", byColumn.await());
+        }
+
+        Terminal.waitForEnter();
+    }
+
+    private <T> AsyncLoader.Pending<T> load(final BoardQuery<T> query) {
+        return AsyncLoader.load(() -> DatabaseExecutor.getInstance().report(entity.getId(), connection ->
+                query.run(new BlockingAnalyticsService(connection), entity.getId())));
+    }
+
+    private void printSummary(String title, List<BlockedTimeSummaryDTO> summaries) {
+        System.out.println("\n" + TerminalColors.CYAN_BOLD + title + TerminalColors.RESET);
+        System.out.printf("%-30s | %-9s | %-8s | %-25s\n", "Agrupamento", "Bloqueios", "Abertos", "Tempo total");
+        for (var summary : summaries) {
+            var label = summary.id() != null ? summary.id() + " - " + summary.label() : summary.label();
+            System.out.printf("%-30s | %-9d | %-8d | %-25s\n",
+                    truncateString(label, 28),
+                    summary.blocks(),
+                    summary.openBlocks(),
+                    summary.getFormattedTotalBlockedTime());
         }
     }
 
@@ -73,4 +98,9 @@ public class BlockingReportMenu {
         if (str == null) return "";
         return str.length() > maxLength ? str.substring(0, maxLength - 3) + "..." : str;
     }
+
+    @FunctionalInterface
+    private interface BoardQuery<T> {
+        T run(BlockingAnalyticsService service, Long boardId) throws SQLException;
+    }
 }
\ No newline at end of file
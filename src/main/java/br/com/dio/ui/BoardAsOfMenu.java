@@ -0,0 +1,75 @@
+package br.com.dio.ui;
+
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.service.BoardHistoryService;
+import br.com.dio.ui.util.AsyncLoader;
+import br.com.dio.ui.util.Pager;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Scanner;
+
+public class BoardAsOfMenu {
+
+    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final BoardEntity entity;
+    private final Scanner scanner;
+
+    public BoardAsOfMenu(BoardEntity entity, Scanner scanner) {
+        this.entity = entity;
+        this.scanner = scanner;
+    }
+
+    public void execute() throws SQLException {
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== BOARD EM UMA DATA =====" + TerminalColors.RESET);
+        System.out.println("Informe a data e hora (dd/MM/aaaa HH:mm):");
+        LocalDateTime asOf;
+        try {
+            asOf = LocalDateTime.parse(scanner.next().trim(), INPUT_FORMATTER);
+        } catch (DateTimeParseException ex) {
+            System.out.println(TerminalColors.error("Data inválida, use o formato dd/MM/aaaa HH:mm"));
+            return;
+        }
+        // A data vale até o fim do minuto informado
+        final var until = asOf.plusSeconds(59);
+        var pending = AsyncLoader.load(() -> DatabaseExecutor.getInstance().report(entity.getId(), connection ->
+                new BoardHistoryService(connection).findAsOf(entity.getId(), until)));
+        var optional = pending.await();
+        if (optional.isEmpty()) {
+            return;
+        }
+        var result = optional.get();
+        var b = result.board();
+        System.out.println(TerminalColors.CYAN + "Board: " + b.name() + " (ID: " + b.id() + ") em " +
+                asOf.format(INPUT_FORMATTER) + " - " + b.getTotalCards() + " cards" + TerminalColors.RESET);
+        System.out.println("Checkpoint: " + result.getFormattedCheckpointAt() + ", eventos aplicados: " +
+                result.replayedEvents());
+        var pager = Pager.create();
+        for (var c : b.columns()) {
+            System.out.printf("\n  %s%-20s%s [%s] - %d cards, %d bloqueados\n",
+                    TerminalColors.GREEN_BOLD,
+                    c.name(),
+                    TerminalColors.RESET,
+                    c.kind(),
+                    c.getCardsAmount(),
+                    c.getBlockedAmount());
+            for (var ca : c.cards()) {
+                if (!pager.nextRow()) {
+                    return;
+                }
+                System.out.printf("    %s#%-5d %-30s %s| na coluna desde: %s\n",
+                        ca.blocked() ? TerminalColors.RED : "",
+                        ca.id(),
+                        ca.title(),
+                        ca.blocked() ? "[BLOQUEADO: " + ca.blockReason() + "] " + TerminalColors.RESET : "",
+                        ca.getFormattedLastMovedAt());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package br.com.dio.ui;
+
+import br.com.dio.dto.BoardBackupResultDTO;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.service.BoardBackupService;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Scanner;
+
+public class BoardBackupMenu {
+
+    private final Scanner scanner;
+
+    public BoardBackupMenu(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    public void execute() throws SQLException {
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== BACKUP DE BOARDS =====" + TerminalColors.RESET);
+        System.out.println("1 - Exportar um board para um arquivo");
+        System.out.println("2 - Restaurar um board de um arquivo");
+        var option = scanner.nextInt();
+        try {
+            switch (option) {
+                case 1 -> exportBoard();
+                case 2 -> restoreBoard();
+                default -> System.out.println("Opção inválida, informe uma opção do menu");
+            }
+        } catch (IOException ex) {
+            System.out.println(TerminalColors.error("Erro no arquivo de backup: " + ex.getMessage()));
+        } catch (EntityNotFoundException | IllegalStateException ex) {
+            System.out.println(TerminalColors.error(ex.getMessage()));
+        }
+    }
+
+    private void exportBoard() throws SQLException, IOException {
+        System.out.println("Informe o id do board que será exportado:");
+        var boardId = scanner.nextLong();
+        System.out.println("Informe o nome do arquivo (relativo ao diretório de backups):");
+        var file = BoardBackupService.getInstance().resolve(scanner.next());
+        var result = BoardBackupService.getInstance().export(boardId, file);
+        System.out.println(TerminalColors.success("Board %d exportado para %s".formatted(result.boardId(), result.file())));
+        printSummary(result);
+    }
+
+    private void restoreBoard() throws SQLException, IOException {
+        System.out.println("Informe o nome do arquivo (relativo ao diretório de backups):");
+        var file = BoardBackupService.getInstance().resolve(scanner.next());
+        System.out.println("Informe o nome do board restaurado, ou '-' para manter o nome do backup:");
+        var name = scanner.next();
+        var result = BoardBackupService.getInstance().restore(file, "-".equals(name) ? null : name);
+        System.out.println(TerminalColors.success("Backup restaurado como o board %d".formatted(result.boardId())));
+        printSummary(result);
+    }
+
+    private void printSummary(final BoardBackupResultDTO result) {
+        System.out.printf("Colunas: %d, cards: %d, bloqueios: %d, histórico: %d\n",
+                result.columns(), result.cards(), result.blocks(), result.history());
+        System.out.printf("Arquivo: %.1f KB, tempo: %.1f s\n", result.bytes() / 1024.0, result.elapsedMs() / 1000.0);
+    }
+
+}
@@ -0,0 +1,58 @@
+package br.com.dio.ui;
+
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.persistence.resilience.OperationTypeEnum;
+import br.com.dio.persistence.shard.ShardRouter;
+import br.com.dio.service.BoardService;
+import br.com.dio.ui.util.Pager;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BoardListMenu {
+
+    public void execute() throws SQLException {
+        var router = ShardRouter.getInstance();
+        var perShard = DatabaseExecutor.getInstance().fanOut(OperationTypeEnum.READ, connection ->
+                new BoardService(connection).listAllBoards());
+        // Guarda o shard de cada linha para exibi-lo depois da junção
+        Map<Integer, List<ShardBoard>> rows = new LinkedHashMap<>();
+        perShard.forEach((shard, boards) -> rows.put(shard, boards.stream().map(b -> new ShardBoard(shard, b)).toList()));
+        var boards = router.merge(rows, row -> row.board().getId()).stream()
+                .sorted(Comparator.comparing(row -> row.board().getId()))
+                .toList();
+
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== BOARDS =====" + TerminalColors.RESET + "\n");
+        if (boards.isEmpty()) {
+            System.out.println(TerminalColors.YELLOW + "Não há boards cadastrados." + TerminalColors.RESET);
+            return;
+        }
+        if (router.isSharded()) {
+            System.out.printf("%-20s | %-40s | %-5s\n", "ID", "Board", "Shard");
+        } else {
+            System.out.printf("%-20s | %-40s\n", "ID", "Board");
+        }
+        System.out.println("----------------------------------------------------------------------");
+        var pager = Pager.create();
+        for (var row : boards) {
+            if (!pager.nextRow()) {
+                break;
+            }
+            if (router.isSharded()) {
+                System.out.printf("%-20d | %-40s | %-5d\n", row.board().getId(), row.board().getName(), row.shard());
+            } else {
+                System.out.printf("%-20d | %-40s\n", row.board().getId(), row.board().getName());
+            }
+        }
+        System.out.println("\nBoards: " + boards.size());
+    }
+
+    private record ShardBoard(int shard, BoardEntity board) {
+    }
+
+}
@@ -1,46 +1,109 @@
 package br.com.dio.ui;
+import br.com.dio.ui.util.Terminal;
 import br.com.dio.ui.util.TerminalColors;
 
+import br.com.dio.event.BoardEvent;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.exception.BoardMovingException;
+import br.com.dio.exception.DatabaseUnavailableException;
+import br.com.dio.exception.ExceptionHandler;
+import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.persistence.entity.BoardEntity;
 import lombok.AllArgsConstructor;
 
 import java.sql.SQLException;
+import java.util.Queue;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static br.com.dio.event.BoardEventType.BOARD_RENAMED;
 
 @AllArgsConstructor
 public class BoardMenu {
 
-    private final Scanner scanner = new Scanner(System.in).useDelimiter("\n");
+    private final Scanner scanner = Terminal.scanner();
+    private final Queue<String> notifications = new ConcurrentLinkedQueue<>();
     private final BoardEntity entity;
 
     public void execute() {
+        // Alterações feitas por outros processos chegam pelo feed e são mostradas antes do próximo menu
+        var subscription = BoardEventBus.getInstance().subscribe(entity.getId(), this::onEvent);
         try {
             System.out.println(TerminalColors.header("Bem vindo ao board " + entity.getName() + " (ID: " + entity.getId() + ")"));
             var option = -1;
             while (option != 9) {
+                printNotifications();
                 printMenu();
                 option = scanner.nextInt();
-                switch (option) {
-                    case 1 -> new CardCreationMenu(entity, scanner).execute();
-                    case 2 -> new CardMovementMenu(entity, scanner).execute();
-                    case 3 -> new CardBlockingMenu(entity, scanner).execute();
-                    case 4 -> new CardUnblockingMenu(entity, scanner).execute();
-                    case 5 -> new CardCancelMenu(entity, scanner).execute();
-                    case 6 -> new BoardViewMenu(entity).execute();
-                    case 7 -> new ColumnViewMenu(entity, scanner).execute();
-                    case 8 -> new CardViewMenu(scanner).execute();
-                    case 9 -> System.out.println(TerminalColors.warning("Voltando para o menu anterior"));
-                    case 10 -> System.exit(0);
-                    case 11 -> new CompletionReportMenu(entity).execute();
-                    case 12 -> new BlockingReportMenu(entity).execute();
-                    case 13 -> new CardTimelineMenu(entity).execute();
-                    default -> System.out.println(TerminalColors.error("Opção inválida, informe uma opção do menu"));
+                try {
+                    switch (option) {
+                        case 1 -> new CardCreationMenu(entity, scanner).execute();
+                        case 2 -> new CardMovementMenu(entity, scanner).execute();
+                        case 3 -> new CardBlockingMenu(entity, scanner).execute();
+                        case 4 -> new CardUnblockingMenu(entity, scanner).execute();
+                        case 5 -> new CardCancelMenu(entity, scanner).execute();
+                        case 6 -> new BoardViewMenu(entity).execute();
+                        case 7 -> new ColumnViewMenu(entity, scanner).execute();
+                        case 8 -> new CardViewMenu(entity, scanner).execute();
+                        case 9 -> System.out.println(TerminalColors.warning("Voltando para o menu anterior"));
+                        case 10 -> System.exit(0);
+                        case 11 -> new CompletionReportMenu(entity).execute();
+                        case 12 -> new BlockingReportMenu(entity).execute();
+                        case 13 -> new CardTimelineMenu(entity).execute();
+                        case 14 -> new CardSearchMenu(scanner).execute();
+                        case 15 -> new FlowMetricsMenu(entity).execute();
+                        case 16 -> new CardReorderMenu(entity, scanner).execute();
+                        case 17 -> new ColumnWipLimitMenu(entity, scanner).execute();
+                        case 18 -> new BoardAsOfMenu(entity, scanner).execute();
+                        default -> System.out.println(TerminalColors.error("Opção inválida, informe uma opção do menu"));
+                    }
+                } catch (SQLException | DatabaseUnavailableException | BoardMovingException ex) {
+                    // Falhas do banco não encerram a aplicação; o usuário continua no board e pode tentar de novo
+                    ExceptionHandler.handle(ex);
                 }
             }
-        } catch (SQLException ex) {
-            System.out.println(TerminalColors.error("Erro ao acessar o banco de dados: " + ex.getMessage()));
-            ex.printStackTrace();
-            System.exit(0);
+        } finally {
+            subscription.close();
+        }
+    }
+
+    private void onEvent(final BoardEvent event) {
+        if (event.type() == BOARD_RENAMED) {
+            // Só chega de dentro deste processo: o feed não lê trocas de nome
+            entity.setName(event.detail());
+            return;
+        }
+        if (!event.remote()) {
+            return;
+        }
+        var message = switch (event.type()) {
+            case CARD_CREATED -> "Card %s criado na coluna %s".formatted(event.cardId(), columnName(event.toColumnId()));
+            case CARD_MOVED -> "Card %s movido de %s para %s".formatted(event.cardId(),
+                    columnName(event.fromColumnId()), columnName(event.toColumnId()));
+            case CARD_CANCELED -> "Card %s cancelado".formatted(event.cardId());
+            case CARD_BLOCKED -> "Card %s bloqueado: %s".formatted(event.cardId(), event.detail());
+            case CARD_UNBLOCKED -> "Card %s desbloqueado: %s".formatted(event.cardId(), event.detail());
+            default -> "Board alterado (%s)".formatted(event.type());
+        };
+        notifications.add(message);
+    }
+
+    private String columnName(final Long columnId) {
+        return entity.getBoardColumns().stream()
+                .filter(bc -> bc.getId().equals(columnId))
+                .map(BoardColumnEntity::getName)
+                .findFirst()
+                .orElse(String.valueOf(columnId));
+    }
+
+    private void printNotifications() {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "[ Atualizações de outros usuários ]" + TerminalColors.RESET);
+        String message;
+        while ((message = notifications.poll()) != null) {
+            System.out.println("  " + message);
         }
     }
 
@@ -52,16 +115,21 @@ public class BoardMenu {
         System.out.println("  3 - Bloquear um card");
         System.out.println("  4 - Desbloquear um card");
         System.out.println("  5 - Cancelar um card");
+        System.out.println("  16 - Reordenar um card na coluna");
+        System.out.println("  17 - Definir limite de WIP das colunas");
 
         System.out.println(TerminalColors.YELLOW + "\n[ Visualização ]" + TerminalColors.RESET);
         System.out.println("  6 - Ver board");
         System.out.println("  7 - Ver coluna com cards");
         System.out.println("  8 - Ver card");
+        System.out.println("  14 - Buscar cards");
 
         System.out.println(TerminalColors.YELLOW + "\n[ Relatórios ]" + TerminalColors.RESET);
         System.out.println("  11 - Relatório de tempo de conclusão");
         System.out.println("  12 - Relatório de bloqueios");
         System.out.println("  13 - Timeline detalhada de um card");
+        System.out.println("  15 - Métricas de fluxo (CFD, vazão, cycle time, idade do WIP)");
+        System.out.println("  18 - Ver board em uma data passada");
 
         System.out.println(TerminalColors.YELLOW + "\n[ Navegação ]" + TerminalColors.RESET);
         System.out.println("  9 - Voltar para o menu anterior");
@@ -0,0 +1,41 @@
+package br.com.dio.ui;
+
+import br.com.dio.service.BoardPurger;
+import br.com.dio.ui.util.TerminalColors;
+
+public class BoardPurgeMenu {
+
+    public void execute() {
+        var progress = BoardPurger.getInstance().getProgress();
+
+        System.out.println("\n" + TerminalColors.BLUE_BOLD +
+                "===== REMOÇÃO DE BOARDS EXCLUÍDOS =====" + TerminalColors.RESET + "\n");
+
+        if (progress.isEmpty()) {
+            System.out.println(TerminalColors.YELLOW + "Nenhuma remoção em andamento." + TerminalColors.RESET);
+            return;
+        }
+
+        System.out.printf("%-5s | %-25s | %-12s | %-12s | %-7s | %-10s\n",
+                "ID", "Board", "Removidas", "Estimadas", "%", "Linhas/s");
+        System.out.println("-------------------------------------------------------------------------------------");
+        for (var board : progress) {
+            var status = board.finished() ?
+                    TerminalColors.GREEN + "concluída" + TerminalColors.RESET :
+                    TerminalColors.YELLOW + "em andamento" + TerminalColors.RESET;
+            System.out.printf("%-5d | %-25s | %-12d | %-12d | %6.1f%% | %-10.0f %s\n",
+                    board.boardId(),
+                    truncateString(board.name(), 25),
+                    board.purgedRows(),
+                    board.totalRows(),
+                    board.getPercent(),
+                    board.rowsPerSecond(),
+                    status);
+        }
+    }
+
+    private String truncateString(String str, int maxLength) {
+        if (str == null) return "";
+        return str.length() > maxLength ? str.substring(0, maxLength - 3) + "..." : str;
+    }
+}
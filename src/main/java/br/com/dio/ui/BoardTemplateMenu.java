@@ -0,0 +1,122 @@
+package br.com.dio.ui;
+
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.persistence.shard.ShardRouter;
+import br.com.dio.service.BoardCloneService;
+import br.com.dio.service.BoardQueryService;
+import br.com.dio.service.BoardService;
+import br.com.dio.service.BoardTemplateService;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.util.Scanner;
+
+public class BoardTemplateMenu {
+
+    private final Scanner scanner;
+
+    public BoardTemplateMenu(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    public void execute() throws SQLException {
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== TEMPLATES E CÓPIAS DE BOARDS =====" + TerminalColors.RESET);
+        System.out.println("1 - Listar os templates");
+        System.out.println("2 - Criar um board a partir de um template");
+        System.out.println("3 - Salvar as colunas de um board como template");
+        System.out.println("4 - Excluir um template");
+        System.out.println("5 - Copiar um board");
+        var option = scanner.nextInt();
+        try {
+            switch (option) {
+                case 1 -> listTemplates();
+                case 2 -> createFromTemplate();
+                case 3 -> saveTemplate();
+                case 4 -> deleteTemplate();
+                case 5 -> cloneBoard();
+                default -> System.out.println("Opção inválida, informe uma opção do menu");
+            }
+        } catch (EntityNotFoundException | IllegalArgumentException | IllegalStateException ex) {
+            System.out.println(TerminalColors.error(ex.getMessage()));
+        }
+    }
+
+    private void listTemplates() throws SQLException {
+        var templates = DatabaseExecutor.getInstance().read(connection -> new BoardTemplateService(connection).findAll());
+        if (templates.isEmpty()) {
+            System.out.println(TerminalColors.YELLOW + "Nenhum template cadastrado." + TerminalColors.RESET);
+            return;
+        }
+        System.out.printf("%-5s | %-30s | %s\n", "ID", "Template", "Colunas");
+        System.out.println("--------------------------------------------------");
+        for (var template : templates) {
+            System.out.printf("%-5d | %-30s | %d\n", template.id(), template.name(), template.columns());
+        }
+    }
+
+    private void createFromTemplate() throws SQLException {
+        System.out.println("Informe o id do template:");
+        var templateId = scanner.nextLong();
+        var columns = DatabaseExecutor.getInstance().read(connection ->
+                new BoardTemplateService(connection).findColumns(templateId));
+        if (columns.isEmpty()) {
+            System.out.printf("Não foi encontrado um template com id %s\n", templateId);
+            return;
+        }
+        System.out.println("Informe o nome do seu board");
+        var entity = new BoardEntity();
+        entity.setName(scanner.next());
+        entity.setBoardColumns(columns);
+        // Com shards, o id é reservado no catálogo e define em qual shard o board será gravado
+        entity.setId(ShardRouter.getInstance().reserveBoard());
+        DatabaseExecutor.getInstance().write(entity.getId(), connection -> new BoardService(connection).insert(entity));
+        System.out.println(TerminalColors.success("Board %d criado com %d colunas".formatted(entity.getId(), columns.size())));
+    }
+
+    private void saveTemplate() throws SQLException {
+        System.out.println("Informe o id do board cujas colunas serão salvas:");
+        var boardId = scanner.nextLong();
+        var board = DatabaseExecutor.getInstance().read(boardId, connection ->
+                new BoardQueryService(connection).findById(boardId));
+        if (board.isEmpty()) {
+            System.out.printf("Não foi encontrado um board com id %s\n", boardId);
+            return;
+        }
+        System.out.println("Informe o nome do template:");
+        var name = scanner.next();
+        // Os templates ficam no shard 0, então a gravação não usa o shard do board
+        var template = DatabaseExecutor.getInstance().write(connection ->
+                new BoardTemplateService(connection).create(name, board.get().getBoardColumns()));
+        System.out.println(TerminalColors.success("Template %d (%s) salvo com %d colunas"
+                .formatted(template.id(), template.name(), template.columns())));
+    }
+
+    private void deleteTemplate() throws SQLException {
+        System.out.println("Informe o id do template que será excluído:");
+        var templateId = scanner.nextLong();
+        if (DatabaseExecutor.getInstance().write(connection -> new BoardTemplateService(connection).delete(templateId))) {
+            System.out.printf("O template %s foi excluído; os boards criados a partir dele não mudam\n", templateId);
+        } else {
+            System.out.printf("Não foi encontrado um template com id %s\n", templateId);
+        }
+    }
+
+    private void cloneBoard() throws SQLException {
+        System.out.println("Informe o id do board que será copiado:");
+        var sourceId = scanner.nextLong();
+        System.out.println("Informe o nome do novo board");
+        var name = scanner.next();
+        System.out.println("Copiar também os cards em aberto? (s/n)");
+        var withOpenCards = scanner.next().trim().equalsIgnoreCase("s");
+        // A cópia é feita pelo banco, então o board novo fica no mesmo shard do board de origem
+        var router = ShardRouter.getInstance();
+        var boardId = router.reserveBoard(router.locate(sourceId).shardId());
+        var result = DatabaseExecutor.getInstance().write(sourceId, connection ->
+                new BoardCloneService(connection).clone(sourceId, boardId, name, withOpenCards));
+        System.out.println(TerminalColors.success("Board %d criado com %d colunas e %d cards em %d ms"
+                .formatted(result.boardId(), result.columns(), result.cards(), result.elapsedMs())));
+    }
+
+}
@@ -1,13 +1,14 @@
 package br.com.dio.ui;
+import br.com.dio.ui.util.AsyncLoader;
+import br.com.dio.ui.util.Pager;
 import br.com.dio.ui.util.TerminalColors;
 
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
 import br.com.dio.service.BoardQueryService;
 
 import java.sql.SQLException;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 public class BoardViewMenu {
     private final BoardEntity entity;
 
@@ -16,21 +17,38 @@ public class BoardViewMenu {
     }
 
     public void execute() throws SQLException {
+        var snapshot = AsyncLoader.load(() -> DatabaseExecutor.getInstance().read(entity.getId(), connection ->
+                new BoardQueryService(connection).findSnapshot(entity.getId())));
         System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== VISUALIZAÇÃO DO BOARD =====" + TerminalColors.RESET);
-        try(var connection = getConnection()){
-            var optional = new BoardQueryService(connection).showBoardDetails(entity.getId());
-            optional.ifPresent(b -> {
-                System.out.println(TerminalColors.CYAN + "Board: " + b.name() + " (ID: " + b.id() + ")" + TerminalColors.RESET);
-                System.out.println("\nColunas:");
-                b.columns().forEach(c ->
-                        System.out.printf("  %s%-20s%s [%s] - %s cards\n",
-                                TerminalColors.GREEN_BOLD,
-                                c.name(),
-                                TerminalColors.RESET,
-                                c.kind(),
-                                c.cardsAmount())
-                );
-            });
+        var optional = snapshot.await();
+        if (optional.isEmpty()) {
+            return;
+        }
+        var b = optional.get();
+        System.out.println(TerminalColors.CYAN + "Board: " + b.name() + " (ID: " + b.id() + ") - " +
+                b.getTotalCards() + " cards" + TerminalColors.RESET);
+        var pager = Pager.create();
+        for (var c : b.columns()) {
+            System.out.printf("\n  %s%-20s%s [%s] - %s%s cards%s, %s bloqueados\n",
+                    TerminalColors.GREEN_BOLD,
+                    c.name(),
+                    TerminalColors.RESET,
+                    c.kind(),
+                    c.isAtWipLimit() ? TerminalColors.RED : "",
+                    c.wipLimit() == null ? c.getCardsAmount() : c.getCardsAmount() + "/" + c.wipLimit(),
+                    c.isAtWipLimit() ? TerminalColors.RESET : "",
+                    c.getBlockedAmount());
+            for (var ca : c.cards()) {
+                if (!pager.nextRow()) {
+                    return;
+                }
+                System.out.printf("    %s#%-5d %-30s %s| última movimentação: %s\n",
+                        ca.blocked() ? TerminalColors.RED : "",
+                        ca.id(),
+                        ca.title(),
+                        ca.blocked() ? "[BLOQUEADO] " + TerminalColors.RESET : "",
+                        ca.getFormattedLastMovedAt());
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -3,13 +3,12 @@ import br.com.dio.ui.util.TerminalColors;
 
 import br.com.dio.dto.BoardColumnInfoDTO;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
 import br.com.dio.service.CardService;
 
 import java.sql.SQLException;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 public class CardBlockingMenu {
     private final BoardEntity entity;
     private final Scanner scanner;
@@ -28,8 +27,11 @@ public class CardBlockingMenu {
         var boardColumnsInfo = entity.getBoardColumns().stream()
                 .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
                 .toList();
-        try(var connection = getConnection()){
-            new CardService(connection).block(cardId, reason, boardColumnsInfo);
+        try {
+            DatabaseExecutor.getInstance().write(entity.getId(), connection -> {
+                new CardService(connection).block(cardId, reason, boardColumnsInfo);
+                return null;
+            });
             System.out.println(TerminalColors.success("Card bloqueado com sucesso!"));
         } catch (RuntimeException ex){
             System.out.println(TerminalColors.error(ex.getMessage()));
@@ -3,13 +3,12 @@ import br.com.dio.ui.util.TerminalColors;
 
 import br.com.dio.dto.BoardColumnInfoDTO;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
 import br.com.dio.service.CardService;
 
 import java.sql.SQLException;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 public class CardCancelMenu {
     private final BoardEntity entity;
     private final Scanner scanner;
@@ -27,8 +26,11 @@ public class CardCancelMenu {
         var boardColumnsInfo = entity.getBoardColumns().stream()
                 .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
                 .toList();
-        try(var connection = getConnection()){
-            new CardService(connection).cancel(cardId, cancelColumn.getId(), boardColumnsInfo);
+        try {
+            DatabaseExecutor.getInstance().write(entity.getId(), connection -> {
+                new CardService(connection).cancel(cardId, cancelColumn.getId(), boardColumnsInfo);
+                return null;
+            });
             System.out.println(TerminalColors.success("Card cancelado com sucesso!"));
         } catch (RuntimeException ex){
             System.out.println(TerminalColors.error(ex.getMessage()));
@@ -1,15 +1,15 @@
 package br.com.dio.ui;
 import br.com.dio.ui.util.TerminalColors;
 
+import br.com.dio.exception.WipLimitExceededException;
 import br.com.dio.persistence.entity.BoardEntity;
 import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
 import br.com.dio.service.CardService;
 
 import java.sql.SQLException;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 public class CardCreationMenu {
     private final BoardEntity entity;
     private final Scanner scanner;
@@ -27,9 +27,11 @@ public class CardCreationMenu {
         System.out.println("Informe a descrição do card:");
         card.setDescription(scanner.next());
         card.setBoardColumn(entity.getInitialColumn());
-        try(var connection = getConnection()){
-            new CardService(connection).create(card);
+        try {
+            DatabaseExecutor.getInstance().write(entity.getId(), connection -> new CardService(connection).create(card));
             System.out.println(TerminalColors.success("Card criado com sucesso! ID: " + card.getId()));
+        } catch (WipLimitExceededException ex) {
+            System.out.println(TerminalColors.error(ex.getMessage()));
         }
     }
 }
\ No newline at end of file
@@ -3,13 +3,12 @@ import br.com.dio.ui.util.TerminalColors;
 
 import br.com.dio.dto.BoardColumnInfoDTO;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
 import br.com.dio.service.CardService;
 
 import java.sql.SQLException;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 public class CardMovementMenu {
     private final BoardEntity entity;
     private final Scanner scanner;
@@ -26,8 +25,11 @@ public class CardMovementMenu {
         var boardColumnsInfo = entity.getBoardColumns().stream()
                 .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
                 .toList();
-        try(var connection = getConnection()){
-            new CardService(connection).moveToNextColumn(cardId, boardColumnsInfo);
+        try {
+            DatabaseExecutor.getInstance().write(entity.getId(), connection -> {
+                new CardService(connection).moveToNextColumn(cardId, boardColumnsInfo);
+                return null;
+            });
             System.out.println(TerminalColors.success("Card movido com sucesso!"));
         } catch (RuntimeException ex){
             System.out.println(TerminalColors.error(ex.getMessage()));
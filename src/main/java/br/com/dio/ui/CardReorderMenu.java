@@ -0,0 +1,76 @@
+package br.com.dio.ui;
+
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.service.BoardColumnQueryService;
+import br.com.dio.service.CardQueryService;
+import br.com.dio.service.CardService;
+import br.com.dio.ui.util.Pager;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.util.Scanner;
+
+public class CardReorderMenu {
+
+    private final BoardEntity entity;
+    private final Scanner scanner;
+
+    public CardReorderMenu(BoardEntity entity, Scanner scanner) {
+        this.entity = entity;
+        this.scanner = scanner;
+    }
+
+    public void execute() throws SQLException {
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== REORDENAR CARD NA COLUNA =====" + TerminalColors.RESET);
+        System.out.println("Informe o id do card que deseja reposicionar:");
+        var cardId = scanner.nextLong();
+        var card = DatabaseExecutor.getInstance().read(entity.getId(), connection -> new CardQueryService(connection).findById(cardId))
+                .filter(c -> c.boardId().equals(entity.getId()));
+        if (card.isEmpty()) {
+            System.out.println(TerminalColors.error("Não existe um card com o id " + cardId + " neste board"));
+            return;
+        }
+        var column = DatabaseExecutor.getInstance().read(entity.getId(), connection ->
+                new BoardColumnQueryService(connection).findById(card.get().columnId()));
+        if (column.isEmpty()) {
+            return;
+        }
+
+        // Posições contadas sem o card que está sendo movido
+        var others = column.get().cards().stream().filter(c -> c.id() != cardId).toList();
+        System.out.println(TerminalColors.CYAN + "\nColuna: " + column.get().name() + TerminalColors.RESET);
+        var pager = Pager.create();
+        var position = 1;
+        for (var c : column.get().cards()) {
+            if (!pager.nextRow()) {
+                break;
+            }
+            if (c.id() == cardId) {
+                System.out.printf("  %s#%-6d %s (posição atual)%s\n", TerminalColors.YELLOW, c.id(), c.title(), TerminalColors.RESET);
+            } else {
+                System.out.printf("  %4d - #%-6d %s\n", position++, c.id(), c.title());
+            }
+        }
+
+        var target = -1;
+        while (target < 1 || target > others.size() + 1) {
+            System.out.printf("Informe a nova posição do card (1 a %d):\n", others.size() + 1);
+            target = scanner.nextInt();
+            if (target < 1 || target > others.size() + 1) {
+                System.out.println(TerminalColors.error("Posição inválida!"));
+            }
+        }
+        final var previousCardId = target == 1 ? null : others.get(target - 2).id();
+        try {
+            boolean moved = DatabaseExecutor.getInstance().write(entity.getId(), connection ->
+                    new CardService(connection).reorder(cardId, previousCardId));
+            System.out.println(moved ?
+                    TerminalColors.success("Card reposicionado com sucesso!") :
+                    TerminalColors.warning("O card já está nessa posição"));
+        } catch (RuntimeException ex) {
+            System.out.println(TerminalColors.error(ex.getMessage()));
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package br.com.dio.ui;
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.ui.util.TerminalColors;
+
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.persistence.resilience.OperationTypeEnum;
+import br.com.dio.persistence.shard.ShardRouter;
+import br.com.dio.service.CardSearchService;
+import br.com.dio.service.search.CardSearchIndex;
+
+import java.sql.SQLException;
+import java.util.Scanner;
+
+public class CardSearchMenu {
+    private final Scanner scanner;
+
+    public CardSearchMenu(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    public void execute() throws SQLException {
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== BUSCAR CARDS =====" + TerminalColors.RESET);
+        System.out.println("Informe o texto a ser buscado (título, descrição ou motivo de bloqueio):");
+        var query = scanner.next();
+        var pageSize = ApplicationProperties.getInstance().getInt("search.page-size", 10);
+        var page = 0;
+        var executor = DatabaseExecutor.getInstance();
+        var singleQuery = CardSearchIndex.getInstance().isEnabled() || !ShardRouter.getInstance().isSharded();
+        while (true) {
+            final var currentPage = page;
+            var result = singleQuery ?
+                    executor.read(connection -> new CardSearchService(connection).search(query, currentPage, pageSize)) :
+                    CardSearchService.merge(query, currentPage, pageSize, executor.fanOut(OperationTypeEnum.READ,
+                            connection -> new CardSearchService(connection).search(query, 0, (currentPage + 1) * pageSize)).values());
+            if (result.results().isEmpty()) {
+                System.out.println(TerminalColors.YELLOW + "Nenhum card encontrado." + TerminalColors.RESET);
+                return;
+            }
+            System.out.printf("\n%-6s | %-30s | %-25s | %-8s\n", "Card", "Título", "Board", "Score");
+            System.out.println("------------------------------------------------------------------------------");
+            result.results().forEach(r -> System.out.printf("%-6d | %-30s | %-25s | %8.2f\n",
+                    r.cardId(), r.title(), r.boardName() + " (" + r.boardId() + ")", r.score()));
+            if (!result.hasNextPage()) {
+                return;
+            }
+            System.out.println("\nDigite 'n' para a próxima página ou qualquer outra tecla para voltar:");
+            if (!scanner.next().trim().equalsIgnoreCase("n")) {
+                return;
+            }
+            page++;
+        }
+    }
+}
@@ -1,20 +1,23 @@
 package br.com.dio.ui;
 
+import br.com.dio.ui.util.AsyncLoader;
+import br.com.dio.ui.util.Pager;
+import br.com.dio.ui.util.Terminal;
 import br.com.dio.ui.util.TerminalColors;
 import br.com.dio.dto.CardBlockingReportDTO;
+import br.com.dio.dto.CardTimelineEventDTO;
 import br.com.dio.dto.ColumnTimeDTO;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
 import br.com.dio.service.ReportService;
 
-import java.io.IOException;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 public class CardTimelineMenu {
     private final BoardEntity entity;
-    private final Scanner scanner = new Scanner(System.in).useDelimiter("\n");
+    private final Scanner scanner = Terminal.scanner();
 
     public CardTimelineMenu(BoardEntity entity) {
         this.entity = entity;
@@ -24,79 +27,105 @@ public class CardTimelineMenu {
         System.out.println("\nInforme o ID do card para visualizar a timeline detalhada: ");
         Long cardId = scanner.nextLong();
 
-        try (var connection = getConnection()) {
-            var reportService = new ReportService(connection);
-            var timeline = reportService.getCardDetailedTimeline(cardId);
+        var timeline = AsyncLoader.load(() -> DatabaseExecutor.getInstance().report(entity.getId(), connection ->
+                new ReportService(connection).getCardDetailedTimeline(cardId))).await();
 
-            if (timeline == null) {
-                System.out.println(TerminalColors.RED +
-                        "Card não encontrado ou não pertence a este board." + TerminalColors.RESET);
-                return;
-            }
+        if (timeline == null) {
+            System.out.println(TerminalColors.RED +
+                    "Card não encontrado ou não pertence a este board." + TerminalColors.RESET);
+            return;
+        }
 
-            System.out.println("\n" + TerminalColors.BLUE_BOLD +
-                    "===== TIMELINE DETALHADA DO CARD =====" + TerminalColors.RESET);
-            System.out.println(TerminalColors.CYAN + "Card: " + timeline.cardTitle() +
-                    " (ID: " + timeline.cardId() + ")" + TerminalColors.RESET);
-
-            // Status do card
-            if (timeline.isCompleted()) {
-                System.out.println("\n" + TerminalColors.GREEN + "Status: CONCLUÍDO" + TerminalColors.RESET);
-                System.out.println("Data de início: " + timeline.completionTime().getFormattedStartTime());
-                System.out.println("Data de conclusão: " + timeline.completionTime().getFormattedEndTime());
-                System.out.println("Tempo total: " + timeline.completionTime().getFormattedDuration());
-            } else {
-                System.out.println("\n" + TerminalColors.YELLOW + "Status: EM ANDAMENTO" + TerminalColors.RESET);
-            }
+        System.out.println("\n" + TerminalColors.BLUE_BOLD +
+                "===== TIMELINE DETALHADA DO CARD =====" + TerminalColors.RESET);
+        System.out.println(TerminalColors.CYAN + "Card: " + timeline.cardTitle() +
+                " (ID: " + timeline.cardId() + ")" + TerminalColors.RESET);
+
+        // Status do card
+        if (timeline.isCompleted()) {
+            System.out.println("\n" + TerminalColors.GREEN + "Status: CONCLUÍDO" + TerminalColors.RESET);
+            System.out.println("Data de início: " + timeline.completionTime().getFormattedStartTime());
+            System.out.println("Data de conclusão: " + timeline.completionTime().getFormattedEndTime());
+            System.out.println("Tempo total: " + timeline.completionTime().getFormattedDuration());
+        } else {
+            System.out.println("\n" + TerminalColors.YELLOW + "Status: EM ANDAMENTO" + TerminalColors.RESET);
+        }
 
-            // Tempo por coluna
-            System.out.println("\n" + TerminalColors.PURPLE_BOLD + "TEMPO POR COLUNA:" + TerminalColors.RESET);
-            if (timeline.columnTimes().isEmpty()) {
-                System.out.println("Não há registros de movimentação entre colunas.");
-            } else {
-                System.out.printf("%-25s | %-20s\n", "Coluna", "Tempo Gasto");
-                System.out.println("---------------------------------------");
-
-                for (ColumnTimeDTO columnTime : timeline.columnTimes()) {
-                    System.out.printf("%-25s | %-20s\n",
-                            columnTime.columnName(),
-                            columnTime.getFormattedDuration());
-                }
+        // Tempo por coluna
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "TEMPO POR COLUNA:" + TerminalColors.RESET);
+        if (timeline.columnTimes().isEmpty()) {
+            System.out.println("Não há registros de movimentação entre colunas.");
+        } else {
+            System.out.printf("%-25s | %-30s | %-30s\n", "Coluna", "Tempo Gasto", "Tempo Bloqueado");
+            System.out.println("------------------------------------------------------------------------------------------");
+
+            for (ColumnTimeDTO columnTime : timeline.columnTimes()) {
+                System.out.printf("%-25s | %-30s | %-30s\n",
+                        columnTime.columnName(),
+                        columnTime.getFormattedDuration(),
+                        columnTime.blockedTime().isZero() ? "-" : columnTime.getFormattedBlockedTime());
             }
+            System.out.println("\nTempo ativo (sem bloqueios): " + formatDuration(timeline.getTotalActiveTime()));
+        }
+
+        // Histórico de bloqueios
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "HISTÓRICO DE BLOQUEIOS:" + TerminalColors.RESET);
+        if (timeline.blockingHistory().isEmpty()) {
+            System.out.println("O card nunca foi bloqueado.");
+        } else {
+            System.out.printf("%-20s | %-20s | %-15s | %-30s | %-30s\n",
+                    "Bloqueado em", "Desbloqueado em", "Duração", "Motivo Bloqueio", "Motivo Desbloqueio");
+            System.out.println("-----------------------------------------------------------------------------------------------------------------");
+
+            for (CardBlockingReportDTO blocking : timeline.blockingHistory()) {
+                String status = blocking.isStillBlocked() ?
+                        TerminalColors.RED + "Ainda Bloqueado" + TerminalColors.RESET :
+                        blocking.getFormattedUnblockedAt();
 
-            // Histórico de bloqueios
-            System.out.println("\n" + TerminalColors.PURPLE_BOLD + "HISTÓRICO DE BLOQUEIOS:" + TerminalColors.RESET);
-            if (timeline.blockingHistory().isEmpty()) {
-                System.out.println("O card nunca foi bloqueado.");
-            } else {
                 System.out.printf("%-20s | %-20s | %-15s | %-30s | %-30s\n",
-                        "Bloqueado em", "Desbloqueado em", "Duração", "Motivo Bloqueio", "Motivo Desbloqueio");
-                System.out.println("-----------------------------------------------------------------------------------------------------------------");
-
-                for (CardBlockingReportDTO blocking : timeline.blockingHistory()) {
-                    String status = blocking.isStillBlocked() ?
-                            TerminalColors.RED + "Ainda Bloqueado" + TerminalColors.RESET :
-                            blocking.getFormattedUnblockedAt();
-
-                    System.out.printf("%-20s | %-20s | %-15s | %-30s | %-30s\n",
-                            blocking.getFormattedBlockedAt(),
-                            status,
-                            blocking.getFormattedDuration(),
-                            truncateString(blocking.blockReason(), 28),
-                            truncateString(blocking.unblockReason(), 28));
-                }
-
-                // Total de bloqueios
-                System.out.println("\nTotal de vezes que o card foi bloqueado: " + timeline.blockingHistory().size());
+                        blocking.getFormattedBlockedAt(),
+                        status,
+                        blocking.getFormattedDuration(),
+                        truncateString(blocking.blockReason(), 28),
+                        truncateString(blocking.unblockReason(), 28));
             }
 
-            System.out.println("\n" + TerminalColors.YELLOW +
-                    "Pressione ENTER para voltar ao menu..." + TerminalColors.RESET);
-            try {
-                System.in.read();
-            } catch (IOException e) {
-                // Ignorar exceção
+            // Total de bloqueios
+            System.out.println("\nTotal de vezes que o card foi bloqueado: " + timeline.blockingHistory().size());
+        }
+
+        // Eventos em ordem cronológica
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "EVENTOS:" + TerminalColors.RESET);
+        var pager = Pager.create();
+        for (CardTimelineEventDTO event : timeline.events()) {
+            if (!pager.nextRow()) {
+                break;
             }
+            var description = switch (event.type()) {
+                case CREATED -> "Criado em " + event.columnName();
+                case MOVED -> "Movido para " + event.columnName();
+                case BLOCKED -> TerminalColors.RED + "Bloqueado" + TerminalColors.RESET + " em " +
+                        event.columnName() + ": " + event.reason();
+                case UNBLOCKED -> TerminalColors.GREEN + "Desbloqueado" + TerminalColors.RESET + " em " +
+                        event.columnName() + (event.reason() != null ? ": " + event.reason() : "");
+            };
+            System.out.printf("%-16s | %s\n", event.getFormattedOccurredAt(), description);
+        }
+
+        Terminal.waitForEnter();
+    }
+
+    private String formatDuration(final Duration duration) {
+        long days = duration.toDays();
+        long hours = duration.toHoursPart();
+        long minutes = duration.toMinutesPart();
+
+        if (days > 0) {
+            return String.format("%d dias, %d horas e %d minutos", days, hours, minutes);
+        } else if (hours > 0) {
+            return String.format("%d horas e %d minutos", hours, minutes);
+        } else {
+            return String.format("%d minutos", minutes);
         }
     }
 
@@ -3,13 +3,12 @@ import br.com.dio.ui.util.TerminalColors;
 
 
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
 import br.com.dio.service.CardService;
 
 import java.sql.SQLException;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 public class CardUnblockingMenu {
     private final BoardEntity entity;
     private final Scanner scanner;
@@ -25,8 +24,11 @@ public class CardUnblockingMenu {
         var cardId = scanner.nextLong();
         System.out.println("Informe o motivo do desbloqueio:");
         var reason = scanner.next();
-        try(var connection = getConnection()){
-            new CardService(connection).unblock(cardId, reason);
+        try {
+            DatabaseExecutor.getInstance().write(entity.getId(), connection -> {
+                new CardService(connection).unblock(cardId, reason);
+                return null;
+            });
             System.out.println(TerminalColors.success("Card desbloqueado com sucesso!"));
         } catch (RuntimeException ex){
             System.out.println(TerminalColors.error(ex.getMessage()));
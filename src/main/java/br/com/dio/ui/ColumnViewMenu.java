@@ -1,15 +1,15 @@
 package br.com.dio.ui;
+import br.com.dio.ui.util.Pager;
 import br.com.dio.ui.util.TerminalColors;
 
 import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.persistence.entity.BoardEntity;
-import br.com.dio.service.BoardColumnQueryService;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.service.BoardQueryService;
 
 import java.sql.SQLException;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 public class ColumnViewMenu {
     private final BoardEntity entity;
     private final Scanner scanner;
@@ -33,25 +33,35 @@ public class ColumnViewMenu {
                 System.out.println(TerminalColors.error("ID de coluna inválido!"));
             }
         }
-        try(var connection = getConnection()){
-            var column = new BoardColumnQueryService(connection).findById(selectedColumnId);
-            column.ifPresent(co -> {
-                System.out.println(TerminalColors.CYAN + "\nColuna: " + co.getName() +
-                        " (Tipo: " + co.getKind() + ")" + TerminalColors.RESET);
+        final var columnId = selectedColumnId;
+        var column = DatabaseExecutor.getInstance().read(entity.getId(), connection ->
+                new BoardQueryService(connection).findColumnSnapshot(entity.getId(), columnId));
+        if (column.isEmpty()) {
+            return;
+        }
+        var co = column.get();
+        System.out.println(TerminalColors.CYAN + "\nColuna: " + co.name() +
+                " (Tipo: " + co.kind() + ")" + TerminalColors.RESET);
 
-                if (co.getCards().isEmpty()) {
-                    System.out.println(TerminalColors.YELLOW + "\nNão há cards nesta coluna." +
-                            TerminalColors.RESET);
-                } else {
-                    System.out.println("\nCards:");
-                    co.getCards().forEach(ca -> {
-                        System.out.println(TerminalColors.GREEN_BOLD +
-                                "\n  Card " + ca.getId() + " - " + ca.getTitle() +
-                                TerminalColors.RESET);
-                        System.out.println("  Descrição: " + ca.getDescription());
-                    });
-                }
-            });
+        if (co.cards().isEmpty()) {
+            System.out.println(TerminalColors.YELLOW + "\nNão há cards nesta coluna." +
+                    TerminalColors.RESET);
+            return;
+        }
+        System.out.println("\nCards:");
+        var pager = Pager.create();
+        for (var ca : co.cards()) {
+            if (!pager.nextRow()) {
+                return;
+            }
+            System.out.println(TerminalColors.GREEN_BOLD +
+                    "\n  Card " + ca.id() + " - " + ca.title() +
+                    TerminalColors.RESET);
+            System.out.println("  Descrição: " + ca.description());
+            if (ca.blocked()) {
+                System.out.println(TerminalColors.RED + "  Bloqueado: " + ca.blockReason() +
+                        TerminalColors.RESET);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package br.com.dio.ui;
+
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.service.BoardColumnQueryService;
+import br.com.dio.service.BoardColumnService;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.util.Scanner;
+
+public class ColumnWipLimitMenu {
+
+    private final BoardEntity entity;
+    private final Scanner scanner;
+
+    public ColumnWipLimitMenu(BoardEntity entity, Scanner scanner) {
+        this.entity = entity;
+        this.scanner = scanner;
+    }
+
+    public void execute() throws SQLException {
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== LIMITE DE WIP DAS COLUNAS =====" + TerminalColors.RESET);
+        var columns = DatabaseExecutor.getInstance().read(entity.getId(), connection ->
+                new BoardColumnQueryService(connection).findWipByBoardId(entity.getId()));
+        System.out.printf("%-8s | %-20s | %-8s | %-6s | %-6s\n", "ID", "Coluna", "Tipo", "Cards", "Limite");
+        System.out.println("----------------------------------------------------------------");
+        for (var c : columns) {
+            var limit = c.wipLimit() == null ? "-" : c.wipLimit().toString();
+            System.out.printf("%s%-8d | %-20s | %-8s | %-6d | %-6s%s\n",
+                    c.isFull() ? TerminalColors.RED : "",
+                    c.id(), c.name(), c.kind(), c.cardCount(), limit,
+                    c.isFull() ? TerminalColors.RESET : "");
+        }
+
+        System.out.println("\nInforme o id da coluna:");
+        var columnId = scanner.nextLong();
+        var column = entity.getBoardColumns().stream().filter(bc -> bc.getId().equals(columnId)).findFirst();
+        if (column.isEmpty()) {
+            System.out.println(TerminalColors.error("ID de coluna inválido!"));
+            return;
+        }
+        System.out.println("Informe o novo limite de WIP (0 para remover o limite):");
+        var value = scanner.nextInt();
+        final Integer wipLimit = value == 0 ? null : value;
+        try {
+            DatabaseExecutor.getInstance().write(entity.getId(), connection -> {
+                new BoardColumnService(connection).updateWipLimit(columnId, wipLimit);
+                return null;
+            });
+            column.get().setWipLimit(wipLimit);
+            System.out.println(TerminalColors.success(wipLimit == null ?
+                    "Limite de WIP removido" :
+                    "Limite de WIP definido; cards que já estão na coluna permanecem nela"));
+        } catch (RuntimeException ex) {
+            System.out.println(TerminalColors.error(ex.getMessage()));
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package br.com.dio.ui;
+
+import br.com.dio.dto.ActiveTimeDTO;
+import br.com.dio.dto.FlowMetricsDTO;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.service.ActiveTimeService;
+import br.com.dio.service.FlowMetricsService;
+import br.com.dio.ui.util.AsyncLoader;
+import br.com.dio.ui.util.Terminal;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+public class FlowMetricsMenu {
+    private static final int CFD_DAYS = 14;
+    private static final int THROUGHPUT_WEEKS = 8;
+    private static final int MOST_BLOCKED_CARDS = 5;
+
+    private final BoardEntity entity;
+
+    public FlowMetricsMenu(BoardEntity entity) {
+        this.entity = entity;
+    }
+
+    public void execute() throws SQLException {
+        // As duas passadas pelo histórico do board rodam em paralelo, cada uma na sua conexão
+        var executor = DatabaseExecutor.getInstance();
+        var pendingMetrics = AsyncLoader.load(() -> executor.report(entity.getId(), connection ->
+                new FlowMetricsService(connection).getFlowMetrics(entity.getId())));
+        var pendingActiveTime = AsyncLoader.load(() -> executor.report(entity.getId(), connection ->
+                new ActiveTimeService(connection).getActiveTime(entity.getId())));
+
+        System.out.println("\n" + TerminalColors.BLUE_BOLD +
+                "===== MÉTRICAS DE FLUXO =====" + TerminalColors.RESET);
+        var metrics = pendingMetrics.await();
+        System.out.println(TerminalColors.CYAN + "Board: " + entity.getName() +
+                " (ID: " + entity.getId() + ") - " + metrics.processedMovements() + " movimentações" +
+                TerminalColors.RESET);
+
+        if (metrics.firstDay() == null) {
+            System.out.println(TerminalColors.YELLOW + "\nNão há movimentações neste board." + TerminalColors.RESET);
+        } else {
+            printCumulativeFlow(metrics);
+            printThroughput(metrics);
+            printCycleTime(metrics);
+            printWipAge(metrics);
+            printActiveTime(pendingActiveTime.await());
+        }
+
+        Terminal.waitForEnter();
+    }
+
+    private void printCumulativeFlow(final FlowMetricsDTO metrics) {
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "FLUXO CUMULATIVO (últimos " + CFD_DAYS + " dias):" +
+                TerminalColors.RESET);
+        System.out.printf("%-12s", "Dia");
+        metrics.columnNames().forEach(name -> System.out.printf(" | %10s", truncateString(name, 10)));
+        System.out.println();
+        var days = metrics.cumulativeFlow().length;
+        for (var day = Math.max(0, days - CFD_DAYS); day < days; day++) {
+            System.out.printf("%-12s", metrics.firstDay().plusDays(day));
+            for (var count : metrics.cumulativeFlow()[day]) {
+                System.out.printf(" | %10d", count);
+            }
+            System.out.println();
+        }
+    }
+
+    private void printThroughput(final FlowMetricsDTO metrics) {
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "VAZÃO SEMANAL:" + TerminalColors.RESET);
+        var throughput = metrics.weeklyThroughput();
+        if (throughput.isEmpty()) {
+            System.out.println("Nenhum card concluído.");
+            return;
+        }
+        throughput.subList(Math.max(0, throughput.size() - THROUGHPUT_WEEKS), throughput.size())
+                .forEach(w -> System.out.printf("Semana de %-12s | %d cards concluídos\n", w.weekStart(), w.completedCards()));
+    }
+
+    private void printCycleTime(final FlowMetricsDTO metrics) {
+        var cycleTime = metrics.cycleTime();
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "CYCLE TIME (" + cycleTime.completedCards() +
+                " cards concluídos):" + TerminalColors.RESET);
+        System.out.println("P50: " + formatDuration(cycleTime.p50()));
+        System.out.println("P85: " + formatDuration(cycleTime.p85()));
+        System.out.println("P95: " + formatDuration(cycleTime.p95()));
+        System.out.println("Máximo: " + formatDuration(cycleTime.max()));
+    }
+
+    private void printWipAge(final FlowMetricsDTO metrics) {
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "IDADE DO WIP POR COLUNA:" + TerminalColors.RESET);
+        System.out.printf("%-20s | %-6s | %-25s | %-25s\n", "Coluna", "Cards", "Idade média", "Idade máxima");
+        metrics.wipAge().forEach(w -> System.out.printf("%-20s | %-6d | %-25s | %-25s\n",
+                truncateString(w.columnName(), 20), w.cards(), formatDuration(w.averageAge()), formatDuration(w.maxAge())));
+    }
+
+    private void printActiveTime(final ActiveTimeDTO activeTime) {
+        System.out.println("\n" + TerminalColors.PURPLE_BOLD + "TEMPO ATIVO X BLOQUEADO POR COLUNA:" + TerminalColors.RESET);
+        System.out.printf("%-20s | %-6s | %-25s | %-25s | %-9s\n", "Coluna", "Cards", "Tempo ativo", "Tempo bloqueado", "Bloqueado");
+        activeTime.columns().forEach(c -> System.out.printf("%-20s | %-6d | %-25s | %-25s | %8.1f%%\n",
+                truncateString(c.columnName(), 20), c.cards(), formatDuration(c.activeTime()),
+                formatDuration(c.blockedTime()), c.getBlockedPercent()));
+        System.out.printf("Eficiência de fluxo (tempo ativo nas colunas de trabalho): %.1f%%\n", activeTime.getFlowEfficiency());
+
+        var mostBlocked = activeTime.cards().stream().filter(c -> !c.blockedTime().isZero()).limit(MOST_BLOCKED_CARDS).toList();
+        if (!mostBlocked.isEmpty()) {
+            System.out.println("\nCards mais bloqueados:");
+            mostBlocked.forEach(c -> System.out.printf("Card %-6d | ativo: %-25s | bloqueado: %s\n",
+                    c.cardId(), formatDuration(c.activeTime()), formatDuration(c.blockedTime())));
+        }
+    }
+
+    private String formatDuration(final Duration duration) {
+        long days = duration.toDays();
+        long hours = duration.toHoursPart();
+        long minutes = duration.toMinutesPart();
+
+        if (days > 0) {
+            return String.format("%d dias, %d horas e %d minutos", days, hours, minutes);
+        } else if (hours > 0) {
+            return String.format("%d horas e %d minutos", hours, minutes);
+        } else {
+            return String.format("%d minutos", minutes);
+        }
+    }
+
+    private String truncateString(String str, int maxLength) {
+        if (str == null) return "";
+        return str.length() > maxLength ? str.substring(0, maxLength - 3) + "..." : str;
+    }
+}
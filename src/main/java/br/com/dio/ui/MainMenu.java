@@ -1,17 +1,22 @@
 package br.com.dio.ui;
 
+import br.com.dio.exception.BoardMovingException;
+import br.com.dio.exception.DatabaseUnavailableException;
+import br.com.dio.exception.ExceptionHandler;
 import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.persistence.entity.BoardColumnKindEnum;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.persistence.shard.ShardRouter;
 import br.com.dio.service.BoardQueryService;
 import br.com.dio.service.BoardService;
+import br.com.dio.ui.util.Terminal;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
@@ -19,7 +24,7 @@ import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
 
 public class MainMenu {
 
-    private final Scanner scanner = new Scanner(System.in).useDelimiter("\n");
+    private final Scanner scanner = Terminal.scanner();
 
     public void execute() throws SQLException {
         System.out.println("Bem vindo ao gerenciador de boards, escolha a opção desejada");
@@ -29,13 +34,40 @@ public class MainMenu {
             System.out.println("2 - Selecionar um board existente");
             System.out.println("3 - Excluir um board");
             System.out.println("4 - Sair");
+            System.out.println("5 - Painel de portfólio (todos os boards)");
+            System.out.println("6 - Acompanhar a remoção de boards excluídos");
+            System.out.println("7 - Listar os boards");
+            if (ShardRouter.getInstance().isSharded()) {
+                System.out.println("8 - Mover um board para outro shard");
+            }
+            System.out.println("9 - Exportar ou restaurar um board (backup)");
+            System.out.println("10 - Templates e cópias de boards");
+            System.out.println("11 - Carga sintética e simulação de usuários");
             option = scanner.nextInt();
-            switch (option){
-                case 1 -> createBoard();
-                case 2 -> selectBoard();
-                case 3 -> deleteBoard();
-                case 4 -> System.exit(0);
-                default -> System.out.println("Opção inválida, informe uma opção do menu");
+            try {
+                switch (option){
+                    case 1 -> createBoard();
+                    case 2 -> selectBoard();
+                    case 3 -> deleteBoard();
+                    case 4 -> System.exit(0);
+                    case 5 -> new PortfolioMenu().execute();
+                    case 6 -> new BoardPurgeMenu().execute();
+                    case 7 -> new BoardListMenu().execute();
+                    case 8 -> {
+                        if (ShardRouter.getInstance().isSharded()) {
+                            new ShardMoveMenu(scanner).execute();
+                        } else {
+                            System.out.println("Opção inválida, informe uma opção do menu");
+                        }
+                    }
+                    case 9 -> new BoardBackupMenu(scanner).execute();
+                    case 10 -> new BoardTemplateMenu(scanner).execute();
+                    case 11 -> new WorkloadMenu(scanner).execute();
+                    default -> System.out.println("Opção inválida, informe uma opção do menu");
+                }
+            } catch (SQLException | DatabaseUnavailableException | BoardMovingException ex) {
+                // Falhas do banco não encerram a aplicação; o usuário pode tentar de novo pelo menu
+                ExceptionHandler.handle(ex);
             }
         }
     }
@@ -73,36 +105,28 @@ public class MainMenu {
         columns.add(cancelColumn);
 
         entity.setBoardColumns(columns);
-        try(var connection = getConnection()){
-            var service = new BoardService(connection);
-            service.insert(entity);
-        }
-
+        // Com shards, o id é reservado no catálogo e define em qual shard o board será gravado
+        entity.setId(ShardRouter.getInstance().reserveBoard());
+        DatabaseExecutor.getInstance().write(entity.getId(), connection -> new BoardService(connection).insert(entity));
     }
 
     private void selectBoard() throws SQLException {
         System.out.println("Informe o id do board que deseja selecionar");
         var id = scanner.nextLong();
-        try(var connection = getConnection()){
-            var queryService = new BoardQueryService(connection);
-            var optional = queryService.findById(id);
-            optional.ifPresentOrElse(
-                    b -> new BoardMenu(b).execute(),
-                    () -> System.out.printf("Não foi encontrado um board com id %s\n", id)
-            );
-        }
+        var optional = DatabaseExecutor.getInstance().read(id, connection -> new BoardQueryService(connection).findById(id));
+        optional.ifPresentOrElse(
+                b -> new BoardMenu(b).execute(),
+                () -> System.out.printf("Não foi encontrado um board com id %s\n", id)
+        );
     }
 
     private void deleteBoard() throws SQLException {
         System.out.println("Informe o id do board que será excluido");
         var id = scanner.nextLong();
-        try(var connection = getConnection()){
-            var service = new BoardService(connection);
-            if (service.delete(id)){
-                System.out.printf("O board %s foi excluido\n", id);
-            } else {
-                System.out.printf("Não foi encontrado um board com id %s\n", id);
-            }
+        if (DatabaseExecutor.getInstance().write(id, connection -> new BoardService(connection).delete(id))){
+            System.out.printf("O board %s foi excluido; seus dados serão removidos em segundo plano (opção 6)\n", id);
+        } else {
+            System.out.printf("Não foi encontrado um board com id %s\n", id);
         }
     }
 
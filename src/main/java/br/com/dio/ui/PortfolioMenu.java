@@ -0,0 +1,79 @@
+package br.com.dio.ui;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.dto.BoardPortfolioDTO;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.persistence.resilience.OperationTypeEnum;
+import br.com.dio.persistence.shard.ShardRouter;
+import br.com.dio.service.PortfolioService;
+import br.com.dio.ui.util.AsyncLoader;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+
+public class PortfolioMenu {
+
+    public void execute() throws SQLException {
+        var windowDays = ApplicationProperties.getInstance().getInt("portfolio.window-days", 30);
+        var pending = AsyncLoader.load(() -> loadPortfolio(windowDays));
+
+        System.out.println("\n" + TerminalColors.BLUE_BOLD +
+                "===== PAINEL DE PORTFÓLIO =====" + TerminalColors.RESET);
+        System.out.println(TerminalColors.CYAN + "Vazão e lead time dos últimos " + windowDays + " dias" +
+                TerminalColors.RESET + "\n");
+
+        var portfolio = pending.await();
+        if (portfolio.isEmpty()) {
+            System.out.println(TerminalColors.YELLOW + "Não há boards cadastrados." + TerminalColors.RESET);
+            return;
+        }
+
+        System.out.printf("%-5s | %-25s | %-6s | %-6s | %-10s | %-6s | %-12s\n",
+                "ID", "Board", "Cards", "WIP", "Bloqueados", "Vazão", "Lead time");
+        System.out.println("------------------------------------------------------------------------------------------");
+        var totalCards = 0;
+        var totalWip = 0;
+        var totalBlocked = 0;
+        var totalThroughput = 0;
+        for (var board : portfolio) {
+            var blocked = board.blocked() > 0 ?
+                    TerminalColors.RED + "%-10d".formatted(board.blocked()) + TerminalColors.RESET :
+                    "%-10d".formatted(board.blocked());
+            System.out.printf("%-5d | %-25s | %-6d | %-6d | %s | %-6d | %-12s\n",
+                    board.boardId(),
+                    truncateString(board.name(), 25),
+                    board.cards(),
+                    board.wip(),
+                    blocked,
+                    board.throughput(),
+                    board.getFormattedAverageLeadTime());
+            totalCards += board.cards();
+            totalWip += board.wip();
+            totalBlocked += board.blocked();
+            totalThroughput += board.throughput();
+        }
+
+        System.out.println("\n" + TerminalColors.CYAN_BOLD + "Totais:" + TerminalColors.RESET);
+        System.out.println("Boards: " + portfolio.size());
+        System.out.println("Cards: " + totalCards + " (WIP: " + totalWip + ", bloqueados: " + totalBlocked + ")");
+        System.out.println("Concluídos na janela: " + totalThroughput);
+    }
+
+    /**
+     * Calcula o portfólio em todos os shards e junta os boards pelo id
+     */
+    private List<BoardPortfolioDTO> loadPortfolio(final int windowDays) throws SQLException {
+        var perShard = DatabaseExecutor.getInstance().fanOut(OperationTypeEnum.REPORT, connection ->
+                new PortfolioService(connection).getPortfolio(windowDays));
+        return ShardRouter.getInstance().merge(perShard, BoardPortfolioDTO::boardId).stream()
+                .sorted(Comparator.comparing(BoardPortfolioDTO::boardId))
+                .toList();
+    }
+
+    private String truncateString(String str, int maxLength) {
+        if (str == null) return "";
+        return str.length() > maxLength ? str.substring(0, maxLength - 3) + "..." : str;
+    }
+}
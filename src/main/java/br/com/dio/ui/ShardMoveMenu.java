@@ -0,0 +1,45 @@
+package br.com.dio.ui;
+
+import br.com.dio.persistence.shard.ShardRouter;
+import br.com.dio.service.ShardMover;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.util.Scanner;
+
+public class ShardMoveMenu {
+
+    private final Scanner scanner;
+
+    public ShardMoveMenu(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    public void execute() throws SQLException {
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== MOVER BOARD DE SHARD =====" + TerminalColors.RESET);
+        System.out.println("Informe o id do board que será movido:");
+        var boardId = scanner.nextLong();
+        var location = ShardRouter.getInstance().locate(boardId);
+        System.out.println("O board está no shard " + location.shardId() + ". Shards disponíveis: " +
+                ShardRouter.getInstance().getShardIds());
+        System.out.println("Informe o shard de destino:");
+        var toShard = scanner.nextInt();
+        System.out.println(TerminalColors.warning(
+                "Durante a mudança o board pode ser consultado, mas não aceita alterações."));
+        try {
+            var result = ShardMover.getInstance().move(boardId, toShard,
+                    message -> System.out.println(TerminalColors.CYAN + message + TerminalColors.RESET));
+            System.out.println(TerminalColors.success("Board %d movido do shard %d para o shard %d em %.1f s"
+                    .formatted(result.boardId(), result.fromShard(), result.toShard(), result.elapsedMs() / 1000.0)));
+            System.out.printf("Colunas: %d, cards: %d, bloqueios: %d, histórico: %d\n",
+                    result.columns(), result.cards(), result.blocks(), result.history());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            System.out.println(TerminalColors.error("Mudança interrompida; o board está no shard " +
+                    ShardRouter.getInstance().locate(boardId).shardId()));
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            System.out.println(TerminalColors.error(ex.getMessage()));
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package br.com.dio.ui;
+
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.service.workload.LoadSimulator;
+import br.com.dio.service.workload.SyntheticBoardGenerator;
+import br.com.dio.ui.util.TerminalColors;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Scanner;
+
+public class WorkloadMenu {
+
+    private final Scanner scanner;
+
+    public WorkloadMenu(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    public void execute() throws SQLException {
+        System.out.println("\n" + TerminalColors.BLUE_BOLD + "===== CARGA SINTÉTICA =====" + TerminalColors.RESET);
+        System.out.println("1 - Gerar boards sintéticos");
+        System.out.println("2 - Simular usuários sobre boards existentes");
+        var option = scanner.nextInt();
+        try {
+            switch (option) {
+                case 1 -> generate();
+                case 2 -> simulate();
+                default -> System.out.println("Opção inválida, informe uma opção do menu");
+            }
+        } catch (EntityNotFoundException | IllegalArgumentException | IllegalStateException ex) {
+            System.out.println(TerminalColors.error(ex.getMessage()));
+        }
+    }
+
+    private void generate() throws SQLException {
+        System.out.println("Informe a semente (a mesma semente gera os mesmos boards):");
+        var seed = scanner.nextLong();
+        System.out.println("Informe a quantidade de boards:");
+        var boards = scanner.nextInt();
+        System.out.println("Informe a quantidade de cards de cada board:");
+        var cards = scanner.nextInt();
+        var result = SyntheticBoardGenerator.getInstance().generate(seed, boards, cards);
+        System.out.println(TerminalColors.success("Boards gerados: " + result.boardIds()));
+        System.out.printf("Colunas: %d, cards: %d, bloqueios: %d, histórico: %d\n",
+                result.columns(), result.cards(), result.blocks(), result.history());
+        System.out.printf("Tempo: %.1f s\n", result.elapsedMs() / 1000.0);
+    }
+
+    private void simulate() throws SQLException {
+        System.out.println("Informe os ids dos boards, separados por vírgula:");
+        var boardIds = Arrays.stream(scanner.next().split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Long::parseLong)
+                .toList();
+        System.out.println("Informe a quantidade de usuários virtuais:");
+        var users = scanner.nextInt();
+        System.out.println("Informe a duração em segundos (incluindo o aquecimento):");
+        var duration = scanner.nextInt();
+        System.out.println("Informe a semente do sorteio das operações:");
+        var seed = scanner.nextLong();
+        System.out.println(TerminalColors.CYAN + "Simulando..." + TerminalColors.RESET);
+        System.out.flush();
+        var result = LoadSimulator.getInstance().run(boardIds, users, duration, seed);
+
+        System.out.printf("\n%-18s | %8s | %6s | %8s | %8s | %8s | %8s | %8s | %8s\n",
+                "Operação", "Ops", "Erros", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms");
+        System.out.println("---------------------------------------------------------------------------------------------------------");
+        for (var stats : result.operationStats()) {
+            System.out.printf("%-18s | %8d | %6d | %8.1f | %8.2f | %8.2f | %8.2f | %8.2f | %8.2f\n",
+                    stats.operation(), stats.count(), stats.errors(), stats.perSecond(),
+                    stats.p50Ms(), stats.p90Ms(), stats.p99Ms(), stats.p999Ms(), stats.maxMs());
+        }
+        System.out.printf("\n%d usuários, %d operações (%d com erro) em %.1f s: %.1f ops/s\n",
+                result.users(), result.operations(), result.errors(), result.measuredMs() / 1000.0,
+                result.getThroughput());
+    }
+
+}
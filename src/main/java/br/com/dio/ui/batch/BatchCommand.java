@@ -0,0 +1,107 @@
+package br.com.dio.ui.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comando do modo batch, já separado em palavras. Palavras são separadas por espaços e podem vir
+ * entre aspas duplas para conter espaços, com {@code \"} e {@code \\} dentro das aspas. Linhas vazias
+ * e iniciadas por {@code #} são ignoradas.
+ *
+ * @param line Número da linha na entrada, a partir de 1
+ * @param name Nome do comando: o grupo e a ação ({@code card move}), ou só a ação ({@code commit})
+ * @param args Argumentos, depois do nome
+ */
+public record BatchCommand(int line, String name, List<String> args) {
+
+    private static final List<String> GROUPS = List.of("board", "card", "report");
+
+    /**
+     * @param line Número da linha
+     * @param text Conteúdo da linha
+     * @return O comando, ou null para linhas vazias e comentários
+     * @throws IllegalArgumentException se as aspas não forem fechadas
+     */
+    public static BatchCommand parse(final int line, final String text) {
+        var words = split(line, text);
+        if (words.isEmpty() || words.get(0).startsWith("#")) {
+            return null;
+        }
+        var group = words.get(0).toLowerCase();
+        if (GROUPS.contains(group) && words.size() > 1) {
+            return new BatchCommand(line, group + " " + words.get(1).toLowerCase(), words.subList(2, words.size()));
+        }
+        return new BatchCommand(line, group, words.subList(1, words.size()));
+    }
+
+    public String arg(final int index) {
+        if (index >= args.size()) {
+            throw new IllegalArgumentException("O comando %s precisa de pelo menos %d argumento(s)".formatted(name, index + 1));
+        }
+        return args.get(index);
+    }
+
+    public Long longArg(final int index) {
+        var value = arg(index);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("O argumento %d do comando %s deve ser um número: %s"
+                    .formatted(index + 1, name, value));
+        }
+    }
+
+    /**
+     * @return Os argumentos a partir do índice, unidos por espaço, ou null se não houver nenhum
+     */
+    public String rest(final int index) {
+        return index >= args.size() ? null : String.join(" ", args.subList(index, args.size()));
+    }
+
+    /**
+     * @return Os argumentos a partir do índice, unidos por espaço; ao menos um é obrigatório
+     */
+    public String text(final int index) {
+        arg(index);
+        return rest(index);
+    }
+
+    private static List<String> split(final int line, final String text) {
+        List<String> words = new ArrayList<>();
+        var word = new StringBuilder();
+        var inWord = false;
+        var quoted = false;
+        for (var i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (quoted) {
+                if (c == '\\' && i + 1 < text.length()) {
+                    word.append(text.charAt(++ i));
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    word.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inWord = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inWord) {
+                    words.add(word.toString());
+                    word.setLength(0);
+                    inWord = false;
+                }
+            } else {
+                word.append(c);
+                inWord = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha %d".formatted(line));
+        }
+        if (inWord) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+}
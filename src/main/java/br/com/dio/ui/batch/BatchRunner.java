@@ -0,0 +1,341 @@
+package br.com.dio.ui.batch;
+
+import br.com.dio.config.ApplicationProperties;
+import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.event.BoardEventBus;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.resilience.BatchOutcome;
+import br.com.dio.persistence.resilience.DatabaseCall;
+import br.com.dio.persistence.resilience.DatabaseExecutor;
+import br.com.dio.persistence.shard.ShardRouter;
+import br.com.dio.service.BoardQueryService;
+import br.com.dio.service.BoardService;
+import br.com.dio.service.CardService;
+import br.com.dio.service.ReportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+import static java.util.Objects.isNull;
+
+/**
+ * Modo batch: executa comandos lidos de um arquivo ou da entrada padrão, sem menus, e escreve uma
+ * linha JSON por comando na saída padrão, na ordem da entrada. Comandos:
+ * <pre>
+ * board create &lt;nome&gt; &lt;coluna inicial&gt; [colunas pendentes...] &lt;coluna final&gt; &lt;coluna de cancelamento&gt;
+ * board use &lt;id do board&gt;
+ * card create &lt;título&gt; [descrição]
+ * card move &lt;id do card&gt;
+ * card cancel &lt;id do card&gt;
+ * card block &lt;id do card&gt; &lt;motivo&gt;
+ * card unblock &lt;id do card&gt; &lt;motivo&gt;
+ * report completion [id do board]
+ * report blocking [id do board]
+ * commit
+ * </pre>
+ * Os comandos {@code card} valem para o board atual, escolhido por {@code board use} ou pelo último
+ * {@code board create}. Comandos {@code card} seguidos são executados em lote, em uma transação
+ * ({@link DatabaseExecutor#writeBatch}) de até {@code batch.transaction-size} comandos: o lote é
+ * confirmado quando enche, quando chega um comando de outro tipo ou {@code commit}, ou quando a entrada
+ * não tem mais nada pronto para ler, para que um produtor lento não espere o lote encher. A falha de um
+ * comando não desfaz os demais do lote; os resultados do lote só são escritos depois do commit.
+ * <p>
+ * Cada linha de comando traz {@code line}, {@code command} e {@code ok}. Ao fim da entrada é escrita
+ * uma última linha, com {@code "summary": true}, com as quantidades de comandos, falhas e lotes e o tempo
+ * total.
+ */
+public class BatchRunner {
+
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final int transactionSize;
+    private final List<PendingCommand> pending = new ArrayList<>();
+
+    private BoardEntity board;
+    private long batches;
+    private long executed;
+    private long failed;
+
+    public BatchRunner(final BufferedReader input, final PrintStream output) {
+        this.input = input;
+        this.output = output;
+        this.transactionSize = Math.max(1, ApplicationProperties.getInstance().getInt("batch.transaction-size", 200));
+    }
+
+    /**
+     * @param file Arquivo de comandos, ou null ou {@code -} para a entrada padrão
+     */
+    public static BatchRunner of(final String file, final PrintStream output) throws IOException {
+        var reader = isNull(file) || "-".equals(file) ?
+                new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)) :
+                Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8);
+        return new BatchRunner(reader, output);
+    }
+
+    /**
+     * Executa todos os comandos da entrada
+     *
+     * @return Código de saída do processo: 0 se todos os comandos deram certo, 1 se algum falhou
+     * @throws IOException se ocorrer erro na leitura da entrada
+     */
+    public int execute() throws IOException {
+        var startedAt = System.nanoTime();
+        var lineNumber = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            BatchCommand command;
+            try {
+                command = BatchCommand.parse(lineNumber, line);
+            } catch (IllegalArgumentException ex) {
+                flush();
+                print(new BatchCommand(lineNumber, "?", List.of()), null, 0, ex);
+                continue;
+            }
+            if (isNull(command)) {
+                continue;
+            }
+            if (command.name().startsWith("card ")) {
+                enqueue(command);
+                if (pending.size() >= transactionSize || !input.ready()) {
+                    flush();
+                }
+            } else {
+                flush();
+                executeAlone(command);
+            }
+        }
+        flush();
+        var elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        output.println(new JsonLine()
+                .add("summary", true)
+                .add("commands", executed)
+                .add("failed", failed)
+                .add("batches", batches)
+                .add("seconds", elapsedSeconds, 3)
+                .add("commandsPerSecond", executed / Math.max(elapsedSeconds, 1e-9), 1));
+        output.flush();
+        return failed == 0 ? 0 : 1;
+    }
+
+    private void enqueue(final BatchCommand command) {
+        var current = board;
+        if (!pending.isEmpty() && !sameBoard(pending.get(0).board(), current)) {
+            flush();
+        }
+        pending.add(new PendingCommand(command, current, connection -> {
+            // Eventos e efeitos locais (índice de busca, leitura das próprias escritas) só são liberados depois
+            // do commit do lote; numa repetição do lote, os da tentativa desfeita são descartados
+            try (var deferral = BoardEventBus.getInstance().defer()) {
+                var result = executeCard(command, current, connection);
+                return new CommandResult(result, deferral.pending());
+            }
+        }));
+    }
+
+    /**
+     * Executa os comandos pendentes em uma transação e escreve os resultados
+     */
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        batches++;
+        var boardId = isNull(pending.get(0).board()) ? null : pending.get(0).board().getId();
+        List<BatchOutcome<CommandResult>> outcomes = null;
+        Exception batchError = null;
+        try {
+            outcomes = DatabaseExecutor.getInstance().writeBatch(boardId,
+                    pending.stream().map(PendingCommand::call).toList());
+        } catch (Exception ex) {
+            batchError = ex;
+        }
+        for (var i = 0; i < pending.size(); i++) {
+            var command = pending.get(i).command();
+            if (isNull(outcomes)) {
+                print(command, batches, 0, batchError);
+                continue;
+            }
+            var outcome = outcomes.get(i);
+            if (outcome.succeeded()) {
+                BoardEventBus.getInstance().release(outcome.result().pending());
+                print(command, batches, outcome.elapsedNanos(), outcome.result().json());
+            } else {
+                print(command, batches, outcome.elapsedNanos(), outcome.error());
+            }
+        }
+        pending.clear();
+        output.flush();
+    }
+
+    private JsonLine executeCard(final BatchCommand command, final BoardEntity current,
+                                 final Connection connection) throws SQLException {
+        if (isNull(current)) {
+            throw new IllegalStateException("Nenhum board selecionado; use board use ou board create antes dos comandos card");
+        }
+        var service = new CardService(connection);
+        switch (command.name()) {
+            case "card create" -> {
+                var card = new CardEntity();
+                card.setTitle(command.arg(0));
+                card.setDescription(command.rest(1));
+                card.setBoardColumn(current.getInitialColumn());
+                service.create(card);
+                return new JsonLine().add("card", card.getId());
+            }
+            case "card move" -> service.moveToNextColumn(command.longArg(0), columnsInfo(current));
+            case "card cancel" -> service.cancel(command.longArg(0), current.getCancelColumn().getId(), columnsInfo(current));
+            case "card block" -> service.block(command.longArg(0), command.text(1), columnsInfo(current));
+            case "card unblock" -> service.unblock(command.longArg(0), command.text(1));
+            default -> throw new IllegalArgumentException("Comando desconhecido: " + command.name());
+        }
+        return new JsonLine().add("card", command.longArg(0));
+    }
+
+    private void executeAlone(final BatchCommand command) {
+        var startedAt = System.nanoTime();
+        try {
+            var result = switch (command.name()) {
+                case "board create" -> createBoard(command);
+                case "board use" -> useBoard(command.longArg(0));
+                case "report completion" -> completionReport(reportBoardId(command));
+                case "report blocking" -> blockingReport(reportBoardId(command));
+                case "commit" -> null;
+                default -> throw new IllegalArgumentException("Comando desconhecido: " + command.name());
+            };
+            print(command, null, System.nanoTime() - startedAt, result);
+        } catch (Exception ex) {
+            print(command, null, System.nanoTime() - startedAt, ex);
+        }
+        output.flush();
+    }
+
+    private JsonLine createBoard(final BatchCommand command) throws SQLException {
+        var names = command.args().subList(Math.min(1, command.args().size()), command.args().size());
+        if (names.size() < 3) {
+            throw new IllegalArgumentException("O board precisa de pelo menos as colunas inicial, final e de cancelamento");
+        }
+        List<BoardColumnEntity> columns = new ArrayList<>();
+        for (var i = 0; i < names.size(); i++) {
+            BoardColumnKindEnum kind;
+            if (i == 0) {
+                kind = INITIAL;
+            } else if (i == names.size() - 2) {
+                kind = FINAL;
+            } else if (i == names.size() - 1) {
+                kind = CANCEL;
+            } else {
+                kind = PENDING;
+            }
+            var column = new BoardColumnEntity();
+            column.setName(names.get(i));
+            column.setKind(kind);
+            column.setOrder(i);
+            columns.add(column);
+        }
+        var entity = new BoardEntity();
+        entity.setName(command.arg(0));
+        entity.setBoardColumns(columns);
+        entity.setId(ShardRouter.getInstance().reserveBoard());
+        DatabaseExecutor.getInstance().write(entity.getId(), connection -> new BoardService(connection).insert(entity));
+        return useBoard(entity.getId());
+    }
+
+    private JsonLine useBoard(final Long boardId) throws SQLException {
+        board = DatabaseExecutor.getInstance().read(boardId, connection -> new BoardQueryService(connection).findById(boardId))
+                .orElseThrow(() -> new EntityNotFoundException("O board de id %s não foi encontrado".formatted(boardId)));
+        return new JsonLine()
+                .add("board", board.getId())
+                .add("name", board.getName())
+                .add("columns", board.getBoardColumns().stream()
+                        .map(c -> new JsonLine().add("id", c.getId()).add("name", c.getName()).add("kind", c.getKind()))
+                        .toList());
+    }
+
+    private JsonLine completionReport(final Long boardId) throws SQLException {
+        var rows = DatabaseExecutor.getInstance().report(boardId, connection ->
+                new ReportService(connection).getCompletionTimeReport(boardId));
+        return new JsonLine()
+                .add("board", boardId)
+                .add("cards", rows.stream()
+                        .map(r -> new JsonLine().add("id", r.id()).add("title", r.title())
+                                .add("start", r.startTime()).add("end", r.endTime()).add("seconds", r.totalTime()))
+                        .toList());
+    }
+
+    private JsonLine blockingReport(final Long boardId) throws SQLException {
+        var rows = DatabaseExecutor.getInstance().report(boardId, connection ->
+                new ReportService(connection).getBlockingReport(boardId));
+        return new JsonLine()
+                .add("board", boardId)
+                .add("blocks", rows.stream()
+                        .map(r -> new JsonLine().add("id", r.id()).add("title", r.title())
+                                .add("blockedAt", r.blockedAt()).add("reason", r.blockReason())
+                                .add("unblockedAt", r.unblockedAt()).add("unblockReason", r.unblockReason())
+                                .add("seconds", r.blockedTime()))
+                        .toList());
+    }
+
+    private Long reportBoardId(final BatchCommand command) {
+        if (!command.args().isEmpty()) {
+            return command.longArg(0);
+        }
+        if (isNull(board)) {
+            throw new IllegalStateException("Nenhum board selecionado; informe o id do board do relatório");
+        }
+        return board.getId();
+    }
+
+    private void print(final BatchCommand command, final Long batch, final long elapsedNanos, final Object result) {
+        var json = new JsonLine()
+                .add("line", command.line())
+                .add("command", command.name())
+                .add("ok", !(result instanceof Exception));
+        if (!isNull(batch)) {
+            json.add("batch", batch);
+        }
+        json.add("ms", elapsedNanos / 1e6, 3);
+        executed++;
+        if (result instanceof Exception ex) {
+            failed++;
+            json.add("error", ex.getClass().getSimpleName()).add("message", ex.getMessage());
+        } else if (!isNull(result)) {
+            json.add("result", result);
+        }
+        output.println(json);
+    }
+
+    private static List<BoardColumnInfoDTO> columnsInfo(final BoardEntity board) {
+        return board.getBoardColumns().stream()
+                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
+                .toList();
+    }
+
+    private static boolean sameBoard(final BoardEntity a, final BoardEntity b) {
+        return a == b || (!isNull(a) && !isNull(b) && a.getId().equals(b.getId()));
+    }
+
+    private record PendingCommand(BatchCommand command, BoardEntity board, DatabaseCall<CommandResult> call) {
+    }
+
+    private record CommandResult(JsonLine json, List<Runnable> pending) {
+    }
+
+}
@@ -0,0 +1,90 @@
+package br.com.dio.ui.batch;
+
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Objeto JSON escrito em uma única linha, na ordem em que os campos são adicionados. Aceita textos,
+ * números, booleanos, datas (ISO-8601), durações (em segundos), listas e outros {@link JsonLine}.
+ */
+final class JsonLine {
+
+    private final StringBuilder builder = new StringBuilder("{");
+
+    JsonLine add(final String name, final Object value) {
+        if (builder.length() > 1) {
+            builder.append(',');
+        }
+        appendString(name);
+        builder.append(':');
+        appendValue(value);
+        return this;
+    }
+
+    /**
+     * @param decimals Casas decimais, para tempos medidos
+     */
+    JsonLine add(final String name, final double value, final int decimals) {
+        return add(name, new RawNumber(String.format(Locale.ROOT, "%." + decimals + "f", value)));
+    }
+
+    @Override
+    public String toString() {
+        return builder + "}";
+    }
+
+    private void appendValue(final Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof JsonLine || value instanceof Boolean || value instanceof Number) {
+            builder.append(value);
+        } else if (value instanceof RawNumber number) {
+            builder.append(number.text());
+        } else if (value instanceof Duration duration) {
+            builder.append(duration.toSeconds());
+        } else if (value instanceof TemporalAccessor || value instanceof Enum<?>) {
+            appendString(value.toString());
+        } else if (value instanceof Collection<?> values) {
+            builder.append('[');
+            var first = true;
+            for (var item : values) {
+                if (!first) {
+                    builder.append(',');
+                }
+                appendValue(item);
+                first = false;
+            }
+            builder.append(']');
+        } else {
+            appendString(value.toString());
+        }
+    }
+
+    private void appendString(final String value) {
+        builder.append('"');
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append("\\u%04x".formatted((int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    private record RawNumber(String text) {
+    }
+
+}
@@ -0,0 +1,110 @@
+package br.com.dio.ui.util;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Busca os dados de uma tela em segundo plano, para que o menu escreva o cabeçalho (e as partes já
+ * carregadas) enquanto as consultas rodam. Várias cargas iniciadas juntas rodam em paralelo, cada uma
+ * na sua conexão.
+ * <p>
+ * Se o resultado ainda não chegou quando o menu precisa dele, um aviso de carregamento é mostrado até
+ * a consulta terminar.
+ */
+public final class AsyncLoader {
+
+    private static final long LOADING_NOTICE_DELAY_MS = 150;
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "ui-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AsyncLoader() {
+    }
+
+    /**
+     * Inicia a carga
+     *
+     * @param loader Consulta a ser executada
+     * @return Carga pendente, cujo resultado é obtido com {@link Pending#await()}
+     */
+    public static <T> Pending<T> load(final Loader<T> loader) {
+        return new Pending<>(CompletableFuture.supplyAsync(() -> {
+            try {
+                return loader.load();
+            } catch (SQLException ex) {
+                throw new CompletionException(ex);
+            }
+        }, EXECUTOR));
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    public static final class Pending<T> {
+
+        private final CompletableFuture<T> future;
+
+        private Pending(final CompletableFuture<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * Espera o resultado da carga
+         *
+         * @return Resultado da consulta
+         * @throws SQLException se a consulta falhar
+         */
+        public T await() throws SQLException {
+            try {
+                return future.get(LOADING_NOTICE_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                System.out.print(TerminalColors.YELLOW + "Carregando..." + TerminalColors.RESET);
+                Terminal.flush();
+                try {
+                    return join();
+                } finally {
+                    // Apaga o aviso antes de escrever o resultado
+                    System.out.print("\r\033[2K");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Carregamento interrompido", ex);
+            } catch (ExecutionException ex) {
+                throw unwrap(ex.getCause());
+            }
+        }
+
+        private T join() throws SQLException {
+            try {
+                return future.join();
+            } catch (CompletionException ex) {
+                throw unwrap(ex.getCause());
+            }
+        }
+
+        private static SQLException unwrap(final Throwable cause) {
+            if (cause instanceof SQLException sqlException) {
+                return sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new SQLException(cause);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package br.com.dio.ui.util;
+
+import br.com.dio.config.ApplicationProperties;
+
+/**
+ * Divide tabelas longas em páginas de {@code ui.page-size} linhas. Cada página é descarregada no
+ * terminal inteira e, antes da seguinte, o usuário escolhe continuar ou parar.
+ */
+public final class Pager {
+
+    private final int pageSize;
+    private int rows;
+    private boolean stopped;
+
+    private Pager(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public static Pager create() {
+        return new Pager(ApplicationProperties.getInstance().getInt("ui.page-size", 40));
+    }
+
+    /**
+     * Deve ser chamado antes de escrever cada linha da tabela
+     *
+     * @return true se a linha deve ser escrita, false se o usuário pediu para parar
+     */
+    public boolean nextRow() {
+        if (stopped) {
+            return false;
+        }
+        if (pageSize > 0 && rows > 0 && rows % pageSize == 0) {
+            System.out.println(TerminalColors.CYAN + "-- " + rows +
+                    " linhas; ENTER para continuar ou 'q' para parar --" + TerminalColors.RESET);
+            stopped = Terminal.scanner().next().trim().equalsIgnoreCase("q");
+            if (stopped) {
+                return false;
+            }
+        }
+        rows++;
+        return true;
+    }
+
+}
@@ -0,0 +1,86 @@
+package br.com.dio.ui.util;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.Scanner;
+
+/**
+ * Entrada e saída do terminal compartilhadas por todos os menus.
+ * <p>
+ * {@link #install()} troca a saída padrão por uma com buffer e sem autoflush, então as tabelas grandes
+ * são escritas em poucos blocos em vez de uma chamada ao sistema por linha. O buffer é descarregado
+ * sempre que o programa vai esperar o usuário (o {@link #scanner()} descarrega antes de ler), quando um
+ * carregamento demora ({@link AsyncLoader}) e ao encerrar.
+ * <p>
+ * Existe um único {@link Scanner} para toda a aplicação: vários scanners sobre o mesmo
+ * {@code System.in} disputam o que já foi lido para os buffers de cada um.
+ */
+public final class Terminal {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private static final Scanner SCANNER = new Scanner(new FlushingInputStream(System.in)).useDelimiter("\n");
+
+    private Terminal() {
+    }
+
+    /**
+     * Instala a saída com buffer. Deve ser chamado uma vez, no início do programa.
+     */
+    public static void install() {
+        var out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE),
+                false, Charset.defaultCharset());
+        System.setOut(out);
+        Runtime.getRuntime().addShutdownHook(new Thread(out::flush));
+    }
+
+    /**
+     * @return Scanner da entrada padrão, com uma linha por token
+     */
+    public static Scanner scanner() {
+        return SCANNER;
+    }
+
+    /**
+     * Mostra o aviso de retorno e espera o usuário pressionar ENTER
+     */
+    public static void waitForEnter() {
+        System.out.println("\n" + TerminalColors.YELLOW +
+                "Pressione ENTER para voltar ao menu..." + TerminalColors.RESET);
+        // Com o delimitador de linha, uma linha vazia é lida como um token vazio
+        SCANNER.next();
+    }
+
+    public static void flush() {
+        System.out.flush();
+    }
+
+    /**
+     * Descarrega a saída antes de cada leitura, para que o usuário veja o que está sendo perguntado
+     */
+    private static final class FlushingInputStream extends FilterInputStream {
+
+        private FlushingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            flush();
+            return super.read();
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            flush();
+            return super.read(b, off, len);
+        }
+    }
+
+}
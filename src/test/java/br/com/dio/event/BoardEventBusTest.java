@@ -0,0 +1,91 @@
+package br.com.dio.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.dio.event.BoardEventType.CARD_CREATED;
+import static br.com.dio.event.BoardEventType.CARD_MOVED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Retenção de eventos e efeitos depois do commit, como o modo batch usa em cada comando de um lote
+ */
+class BoardEventBusTest {
+
+    private static final long BOARD_ID = -1L;
+
+    private final List<String> delivered = new ArrayList<>();
+    private BoardEventBus.Subscription subscription;
+
+    @BeforeEach
+    void subscribe() {
+        subscription = BoardEventBus.getInstance().subscribe(BOARD_ID, event -> delivered.add(event.type().name()));
+    }
+
+    @AfterEach
+    void unsubscribe() {
+        subscription.close();
+    }
+
+    @Test
+    void deferredEffectsAndEventsWaitForReleaseAndKeepTheirOrder() {
+        List<Runnable> pending;
+        try (var deferral = BoardEventBus.getInstance().defer()) {
+            simulateWrite();
+            pending = deferral.pending();
+        }
+        assertTrue(delivered.isEmpty(), "Nada deve acontecer antes da liberação");
+
+        BoardEventBus.getInstance().release(pending);
+
+        assertEquals(List.of("recordWrite", "index", "CARD_CREATED"), delivered);
+    }
+
+    @Test
+    void discardedDeferralNeverRuns() {
+        // Tentativa desfeita, como em uma repetição do lote por deadlock
+        try (var deferral = BoardEventBus.getInstance().defer()) {
+            simulateWrite();
+            assertEquals(3, deferral.pending().size());
+        }
+        assertTrue(delivered.isEmpty(), "Uma retenção descartada não deve liberar nada");
+
+        BoardEventBus.getInstance().afterCommit(() -> delivered.add("depois"));
+        assertEquals(List.of("depois"), delivered, "O fechamento deve encerrar a retenção");
+    }
+
+    @Test
+    void releaseInsideAnOpenDeferralFails() {
+        try (var outer = BoardEventBus.getInstance().defer()) {
+            simulateWrite();
+            var pending = outer.pending();
+            assertThrows(IllegalStateException.class, () -> BoardEventBus.getInstance().release(pending));
+        }
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    void withoutDeferralEffectsRunImmediatelyAndFailuresAreContained() {
+        BoardEventBus.getInstance().afterCommit(() -> {
+            throw new IllegalStateException("falha no efeito");
+        });
+        BoardEventBus.getInstance().afterCommit(() -> delivered.add("index"));
+        BoardEventBus.getInstance().publish(BoardEvent.local(CARD_MOVED, BOARD_ID, 1L, 1L, 2L, null));
+
+        assertEquals(List.of("index", "CARD_MOVED"), delivered);
+    }
+
+    private void simulateWrite() {
+        var bus = BoardEventBus.getInstance();
+        bus.afterCommit(() -> delivered.add("recordWrite"));
+        bus.afterCommit(() -> delivered.add("index"));
+        bus.publish(BoardEvent.local(CARD_CREATED, BOARD_ID, 1L, null, 1L, "card"));
+    }
+
+}
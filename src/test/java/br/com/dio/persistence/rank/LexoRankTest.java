@@ -0,0 +1,162 @@
+package br.com.dio.persistence.rank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranks lexicográficos comparados com {@link String#compareTo(String)}, que para esses caracteres ordena
+ * como a collation {@code ascii_bin} do índice único {@code (board_column_id, lexo_rank)}
+ */
+class LexoRankTest {
+
+    @Test
+    void emptyColumnStartsInTheMiddle() {
+        assertEquals("I00000", LexoRank.between(null, null));
+    }
+
+    @Test
+    void betweenNullAndRankGoesOneStepBefore() {
+        var rank = LexoRank.between(null, "I00000");
+
+        assertEquals("HZZ000", rank);
+        assertBetween(null, rank, "I00000");
+    }
+
+    @Test
+    void betweenRankAndNullGoesOneStepAfter() {
+        var rank = LexoRank.between("I00000", null);
+
+        assertEquals("I01000", rank);
+        assertBetween("I00000", rank, null);
+    }
+
+    @Test
+    void distantRanksGetTheIntegerMidpoint() {
+        assertEquals("000005", LexoRank.between("000000", "00000A"));
+        assertEquals("00000I", LexoRank.between("000000", "000010"));
+    }
+
+    @Test
+    void adjacentRanksGrowAFraction() {
+        assertEquals("000010I", LexoRank.between("000010", "000011"));
+        assertEquals("0000109", LexoRank.between("000010", "000010I"));
+        assertEquals("000010R", LexoRank.between("000010I", "000011"));
+        assertEquals("0000100I", LexoRank.between("000010", "0000101"));
+        assertEquals("000010I", LexoRank.between("000010HZZ", "000010IZ"));
+    }
+
+    @Test
+    void maximumIntegerDigitsStillLeaveRoomAtTheEdges() {
+        var last = LexoRank.between("ZZZZZZ", null);
+        var first = LexoRank.between(null, "000001");
+
+        assertEquals("ZZZZZZI", last);
+        assertEquals("000000I", first);
+        assertBetween("ZZZZZZ", last, null);
+        assertBetween(null, first, "000001");
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between(null, "000000"));
+    }
+
+    @Test
+    void rejectsUnorderedOrInvalidRanks() {
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("I00000", "I00000"));
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("I00001", "I00000"));
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("I0000", null));
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("I0000~", null));
+    }
+
+    @Test
+    void repeatedInsertionsAtTheSameSpotGrowTheFractionUntilARespaceIsNeeded() {
+        var before = "000010";
+        var after = "000011";
+        var insertions = 0;
+        while (after.length() <= LexoRank.MAX_LENGTH) {
+            var rank = LexoRank.between(before, after);
+            assertBetween(before, rank, after);
+            after = rank;
+            insertions++;
+        }
+        // Cada dígito da fração acomoda cerca de log2(36) inserções pelo ponto médio
+        assertTrue(insertions > 200, "Foram só " + insertions + " inserções antes do limite");
+    }
+
+    @Test
+    void spacedRanksAreIncreasingCenteredAndLeaveRoomAtBothEnds() {
+        for (var count : new int[]{0, 1, 2, 1_000, 100_000}) {
+            var ranks = LexoRank.spaced(count);
+
+            assertEquals(count, ranks.size());
+            for (var i = 0; i < count; i++) {
+                assertEquals(LexoRank.INTEGER_DIGITS, ranks.get(i).length());
+                if (i > 0) {
+                    assertTrue(ranks.get(i - 1).compareTo(ranks.get(i)) < 0);
+                }
+            }
+            if (count > 0) {
+                assertEquals(LexoRank.INTEGER_DIGITS, LexoRank.between(null, ranks.get(0)).length());
+                assertEquals(LexoRank.INTEGER_DIGITS, LexoRank.between(ranks.get(count - 1), null).length());
+            }
+        }
+        assertEquals(List.of("I00000"), LexoRank.spaced(1));
+    }
+
+    @Test
+    void respaceKeepsTheOrderAndNeverCollidesUnderTheUniqueIndex() {
+        // Coluna com fração longa no meio, como depois de muitas inserções no mesmo lugar
+        var column = new TreeMap<String, Long>();
+        var before = "000010";
+        var after = "000011";
+        column.put(before, 10L);
+        column.put(after, 11L);
+        for (var id = 100L; after.length() <= LexoRank.MAX_LENGTH; id++) {
+            after = LexoRank.between(before, after);
+            column.put(after, id);
+        }
+        column.put(LexoRank.between(column.lastKey(), null), 12L);
+        List<Long> order = new ArrayList<>(column.values());
+
+        // Passo 1 do respace: CONCAT('~', id), único por card e maior que qualquer rank válido
+        var provisional = new TreeMap<String, Long>();
+        for (var id : order) {
+            var value = "~" + id;
+            assertTrue(value.compareTo("ZZZZZZ" + "Z".repeat(LexoRank.MAX_LENGTH)) > 0);
+            assertNull(provisional.put(value, id), "Valor provisório repetido: " + value);
+        }
+        // Passo 2: ranks espaçados na ordem lida antes; cada um só pode colidir com um valor provisório
+        var ranks = LexoRank.spaced(order.size());
+        var respaced = new TreeMap<String, Long>();
+        for (var i = 0; i < order.size(); i++) {
+            assertFalse(provisional.containsKey(ranks.get(i)));
+            respaced.put(ranks.get(i), order.get(i));
+        }
+
+        assertEquals(order, new ArrayList<>(respaced.values()));
+        assertTrue(respaced.keySet().stream().allMatch(rank -> rank.length() == LexoRank.INTEGER_DIGITS));
+        var keys = new ArrayList<>(respaced.keySet());
+        for (var i = 1; i < keys.size(); i++) {
+            var rank = LexoRank.between(keys.get(i - 1), keys.get(i));
+            assertBetween(keys.get(i - 1), rank, keys.get(i));
+            assertTrue(rank.length() <= LexoRank.INTEGER_DIGITS + 1, "Depois do respace há espaço entre vizinhos");
+        }
+    }
+
+    private static void assertBetween(final String before, final String rank, final String after) {
+        if (before != null) {
+            assertTrue(before.compareTo(rank) < 0, "'%s' deveria ser menor que '%s'".formatted(before, rank));
+        }
+        if (after != null) {
+            assertTrue(rank.compareTo(after) < 0, "'%s' deveria ser menor que '%s'".formatted(rank, after));
+        }
+        assertTrue(!rank.endsWith("0") || rank.length() == LexoRank.INTEGER_DIGITS, "Fração terminando em zero: " + rank);
+    }
+
+}
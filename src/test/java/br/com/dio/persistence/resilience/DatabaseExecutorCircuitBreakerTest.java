@@ -0,0 +1,170 @@
+package br.com.dio.persistence.resilience;
+
+import br.com.dio.exception.DatabaseUnavailableException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static br.com.dio.persistence.resilience.CircuitBreaker.State.CLOSED;
+import static br.com.dio.persistence.resilience.CircuitBreaker.State.HALF_OPEN;
+import static br.com.dio.persistence.resilience.CircuitBreaker.State.OPEN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transições do circuit breaker do {@link DatabaseExecutor}, com uma origem de conexões que injeta as
+ * falhas: banco fora do ar (SQLState 08), pool sem conexão livre dentro do timeout (sem SQLState, como o
+ * HikariCP informa um pool apenas esgotado) e conexão derrubada no meio da chamada.
+ */
+class DatabaseExecutorCircuitBreakerTest {
+
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_MS = 100;
+
+    private enum Fault { NONE, CONNECTION_REFUSED, POOL_TIMEOUT }
+
+    private volatile Fault fault;
+    private final AtomicInteger opened = new AtomicInteger();
+    private DatabaseExecutor executor;
+
+    @BeforeAll
+    static void configure() {
+        // O executor passa pelo ShardRouter, que lê a configuração do banco, mas nenhuma conexão real é aberta
+        System.setProperty("db.password", "");
+        System.setProperty("db.shards", "");
+    }
+
+    @BeforeEach
+    void setUp() {
+        fault = Fault.NONE;
+        opened.set(0);
+        var timeouts = new EnumMap<OperationTypeEnum, Integer>(OperationTypeEnum.class);
+        for (var type : OperationTypeEnum.values()) {
+            timeouts.put(type, 0);
+        }
+        var config = new ResilienceConfig(timeouts, 1, 0, 0, THRESHOLD, OPEN_MS);
+        executor = new DatabaseExecutor(config, (type, shard) -> {
+            opened.incrementAndGet();
+            return switch (fault) {
+                case NONE -> connection();
+                case CONNECTION_REFUSED -> throw new SQLException("Communications link failure", "08S01");
+                case POOL_TIMEOUT -> throw new SQLTransientConnectionException(
+                        "board-pool - Connection is not available, request timed out after 30000ms.");
+            };
+        });
+    }
+
+    @Test
+    void closedOpensHalfOpensAndClosesAgain() throws Exception {
+        openCircuit();
+        var attempts = opened.get();
+        var rejected = assertThrows(DatabaseUnavailableException.class, this::read);
+        assertTrue(rejected.getMessage().contains("nova tentativa"));
+        assertEquals(attempts, opened.get(), "com o circuito aberto o pool não deve ser consultado");
+
+        Thread.sleep(OPEN_MS + 20);
+        fault = Fault.NONE;
+        var duringProbe = executor.read(connection -> {
+            var concurrent = CompletableFuture.supplyAsync(() -> assertThrows(DatabaseUnavailableException.class, this::read));
+            return new Object[]{breaker().getState(), concurrent.join().getMessage()};
+        });
+        assertEquals(HALF_OPEN, duringProbe[0]);
+        assertTrue(((String) duringProbe[1]).contains("chamada de teste"));
+        assertEquals(CLOSED, breaker().getState());
+        assertEquals("ok", read());
+    }
+
+    @Test
+    void failedProbeReopens() throws Exception {
+        openCircuit();
+        Thread.sleep(OPEN_MS + 20);
+        assertThrows(DatabaseUnavailableException.class, this::read);
+        assertEquals(OPEN, breaker().getState());
+        fault = Fault.NONE;
+        assertThrows(DatabaseUnavailableException.class, this::read, "o circuito reaberto deve esperar de novo");
+    }
+
+    @Test
+    void probeWithoutPoolConnectionReopensInsteadOfStayingHalfOpen() throws Exception {
+        openCircuit();
+        Thread.sleep(OPEN_MS + 20);
+        fault = Fault.POOL_TIMEOUT;
+        var timeout = assertThrows(DatabaseUnavailableException.class, this::read);
+        assertTrue(timeout.getMessage().startsWith("Nenhuma conexão livre"));
+        assertEquals(OPEN, breaker().getState());
+
+        Thread.sleep(OPEN_MS + 20);
+        fault = Fault.NONE;
+        assertEquals("ok", read());
+        assertEquals(CLOSED, breaker().getState());
+    }
+
+    @Test
+    void probeDroppedMidCallReopens() throws Exception {
+        openCircuit();
+        Thread.sleep(OPEN_MS + 20);
+        fault = Fault.NONE;
+        var ex = assertThrows(DatabaseUnavailableException.class, () -> executor.read(connection -> {
+            throw new SQLException("Connection reset", "08S01");
+        }));
+        assertInstanceOf(SQLException.class, ex.getCause());
+        assertEquals(OPEN, breaker().getState());
+    }
+
+    @Test
+    void probeAnsweredWithSqlErrorCloses() throws Exception {
+        openCircuit();
+        Thread.sleep(OPEN_MS + 20);
+        fault = Fault.NONE;
+        assertThrows(SQLException.class, () -> executor.read(connection -> {
+            throw new SQLException("Table 'board.CARDS' doesn't exist", "42S02", 1146);
+        }));
+        assertEquals(CLOSED, breaker().getState());
+    }
+
+    @Test
+    void exhaustedPoolDoesNotOpenTheCircuit() {
+        fault = Fault.POOL_TIMEOUT;
+        for (var i = 0; i < THRESHOLD * 2; i++) {
+            assertThrows(DatabaseUnavailableException.class, this::read);
+        }
+        assertEquals(CLOSED, breaker().getState());
+    }
+
+    private void openCircuit() {
+        fault = Fault.CONNECTION_REFUSED;
+        for (var i = 0; i < THRESHOLD; i++) {
+            assertEquals(CLOSED, breaker().getState());
+            assertThrows(DatabaseUnavailableException.class, this::read);
+        }
+        assertEquals(OPEN, breaker().getState());
+    }
+
+    private String read() throws SQLException {
+        return executor.read(connection -> "ok");
+    }
+
+    private CircuitBreaker breaker() {
+        return executor.circuitBreaker(0);
+    }
+
+    private static Connection connection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isClosed" -> false;
+                    case "close", "commit", "rollback" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
@@ -0,0 +1,220 @@
+package br.com.dio.service.backup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static br.com.dio.service.backup.BoardArchiveFormat.BLOCK_SIZE;
+import static br.com.dio.service.backup.BoardArchiveFormat.MAGIC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Backup gravado pelo {@link BoardArchiveWriter} e lido de volta pelo {@link BoardArchiveReader}
+ */
+class BoardArchiveRoundTripTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyRecordRoundTrips() throws IOException, SQLException {
+        var file = directory.resolve("board.kbrd");
+        var bigDescription = text(new Random(47), BLOCK_SIZE + BLOCK_SIZE / 2);
+        List<String> expected = new ArrayList<>();
+        try (var writer = BoardArchiveWriter.create(file)) {
+            writer.writeBoard("Board de backup");
+            expected.add("board Board de backup");
+            writer.writeColumn(500, "A fazer", 0, "INITIAL", null);
+            expected.add("column 0 500 A fazer 0 INITIAL null");
+            writer.writeColumn(498, "Fazendo", 1, "PENDING", 3);
+            expected.add("column 1 498 Fazendo 1 PENDING 3");
+            writer.writeColumn(510, "Revisão", 2, "PENDING", 0);
+            expected.add("column 2 510 Revisão 2 PENDING 0");
+            writer.writeColumn(511, "Pronto", 3, "FINAL", null);
+            expected.add("column 3 511 Pronto 3 FINAL null");
+
+            writer.writeCard(9_000, 1, "Aberto", null, "0|hzzzzz:", NOW, null);
+            expected.add("card 0 9000 1 Aberto null 0|hzzzzz: " + NOW + " null");
+            writer.writeCard(8_990, 3, "Concluído", "com descrição", "0|i00000:", NOW - 86_400, NOW + 60);
+            expected.add("card 1 8990 3 Concluído com descrição 0|i00000: " + (NOW - 86_400) + " " + (NOW + 60));
+            // Maior que um bloco inteiro: ocupa um bloco sozinho
+            writer.writeCard(9_500, 0, "Grande", bigDescription, null, NOW + 5, NOW + 3);
+            expected.add("card 2 9500 0 Grande " + bigDescription + " null " + (NOW + 5) + " " + (NOW + 3));
+            writer.writeCard(9_501, 0, "Depois do grande", "", "0|i00008:", NOW + 6, null);
+            expected.add("card 3 9501 0 Depois do grande  0|i00008: " + (NOW + 6) + " null");
+
+            writer.writeBlock(1, 1, NOW - 3_600, "Aguardando cliente", NOW - 1_800, "Cliente respondeu");
+            expected.add("block 1 1 " + (NOW - 3_600) + " Aguardando cliente " + (NOW - 1_800) + " Cliente respondeu");
+            writer.writeBlock(0, 1, NOW + 10, "Aguardando cliente", null, null);
+            expected.add("block 0 1 " + (NOW + 10) + " Aguardando cliente null null");
+            writer.writeBlock(3, 0, NOW + 7, "Sem ambiente", NOW + 7, "Cliente respondeu");
+            expected.add("block 3 0 " + (NOW + 7) + " Sem ambiente " + (NOW + 7) + " Cliente respondeu");
+
+            writer.writeHistory(1, null, 0, NOW - 86_400);
+            expected.add("history 1 null 0 " + (NOW - 86_400));
+            writer.writeHistory(1, 0, 3, NOW + 60);
+            expected.add("history 1 0 3 " + (NOW + 60));
+            writer.writeHistory(0, null, 1, NOW);
+            expected.add("history 0 null 1 " + NOW);
+
+            writer.finish(4, 4, 3, 3);
+            expected.add("end 4 4 3 3");
+            assertEquals(Files.size(file), writer.getBytesWritten());
+        }
+
+        assertTrue(blockCount(Files.readAllBytes(file)) >= 2, "O card grande deveria fechar o primeiro bloco");
+        assertEquals(expected, read(file));
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException, SQLException {
+        var file = sample();
+        var bytes = Files.readAllBytes(file);
+        var firstBlockEnd = MAGIC.length + 1 + 12 + ByteBuffer.wrap(bytes, MAGIC.length + 5, 4).getInt();
+
+        for (var length : new int[]{MAGIC.length, MAGIC.length + 1, MAGIC.length + 7, firstBlockEnd,
+                firstBlockEnd + 20, bytes.length - 1}) {
+            var truncated = directory.resolve("truncated-" + length + ".kbrd");
+            Files.write(truncated, Arrays.copyOf(bytes, length));
+
+            assertThrows(IOException.class, () -> read(truncated), "Truncado em " + length + " bytes");
+        }
+    }
+
+    @Test
+    void rejectsAFlippedByteAnywhereAfterTheHeader() throws IOException, SQLException {
+        var file = sample();
+        var bytes = Files.readAllBytes(file);
+        assertTrue(read(file).size() > 1);
+
+        var random = new Random(3);
+        for (var round = 0; round < 50; round++) {
+            var corrupted = bytes.clone();
+            var at = MAGIC.length + 1 + random.nextInt(bytes.length - MAGIC.length - 1);
+            corrupted[at] ^= (byte) (1 << random.nextInt(8));
+            var flipped = directory.resolve("flipped-" + round + ".kbrd");
+            Files.write(flipped, corrupted);
+
+            assertThrows(IOException.class, () -> read(flipped), "Byte alterado na posição " + at);
+        }
+    }
+
+    @Test
+    void rejectsOtherFilesAndVersions() throws IOException {
+        var other = directory.resolve("other.kbrd");
+        Files.write(other, new byte[]{'P', 'K', 3, 4, 1});
+        var version = directory.resolve("version.kbrd");
+        Files.write(version, new byte[]{MAGIC[0], MAGIC[1], MAGIC[2], MAGIC[3], 2});
+
+        assertThrows(IOException.class, () -> BoardArchiveReader.open(other).close());
+        var ex = assertThrows(IOException.class, () -> BoardArchiveReader.open(version).close());
+        assertTrue(ex.getMessage().contains("versão 2"));
+    }
+
+    /**
+     * Arquivo com dois blocos: o primeiro fecha no card que ultrapassa o tamanho do bloco
+     */
+    private Path sample() throws IOException {
+        var file = directory.resolve("sample.kbrd");
+        try (var writer = BoardArchiveWriter.create(file)) {
+            writer.writeBoard("Amostra");
+            writer.writeColumn(1, "A fazer", 0, "INITIAL", null);
+            writer.writeCard(1, 0, "Grande", text(new Random(5), BLOCK_SIZE), null, NOW, null);
+            writer.writeCard(2, 0, "Pequeno", "descrição", null, NOW, NOW + 1);
+            writer.writeBlock(1, 0, NOW, "Motivo", null, null);
+            writer.writeHistory(0, null, 0, NOW);
+            writer.writeHistory(1, null, 0, NOW);
+            writer.finish(1, 2, 1, 2);
+        }
+        return file;
+    }
+
+    private static List<String> read(final Path file) throws IOException, SQLException {
+        var recorder = new Recorder();
+        try (var reader = BoardArchiveReader.open(file)) {
+            reader.read(recorder);
+        }
+        return recorder.records;
+    }
+
+    private static int blockCount(final byte[] bytes) {
+        var blocks = 0;
+        var buffer = ByteBuffer.wrap(bytes).position(MAGIC.length + 1);
+        while (buffer.hasRemaining()) {
+            buffer.getInt();
+            var compressedLength = buffer.getInt();
+            buffer.getInt();
+            buffer.position(buffer.position() + compressedLength);
+            blocks++;
+        }
+        return blocks;
+    }
+
+    /**
+     * Texto pouco compressível, com acentos para que o tamanho em bytes passe o de caracteres
+     */
+    private static String text(final Random random, final int length) {
+        var alphabet = "abcdefghijklmnopqrstuvwxyzáéíóúç ";
+        var builder = new StringBuilder(length);
+        for (var i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static final class Recorder implements BoardArchiveVisitor {
+
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void board(final String name) {
+            records.add("board " + name);
+        }
+
+        @Override
+        public void column(final int index, final long originalId, final String name, final int order,
+                           final String kind, final Integer wipLimit) {
+            records.add("column %s %s %s %s %s %s".formatted(index, originalId, name, order, kind, wipLimit));
+        }
+
+        @Override
+        public void card(final int index, final long originalId, final int columnIndex, final String title,
+                         final String description, final String lexoRank, final long createdAt, final Long completedAt) {
+            records.add("card %s %s %s %s %s %s %s %s".formatted(index, originalId, columnIndex, title, description,
+                    lexoRank, createdAt, completedAt));
+        }
+
+        @Override
+        public void block(final int cardIndex, final int columnIndex, final long blockedAt, final String blockReason,
+                          final Long unblockedAt, final String unblockReason) {
+            records.add("block %s %s %s %s %s %s".formatted(cardIndex, columnIndex, blockedAt, blockReason,
+                    unblockedAt, unblockReason));
+        }
+
+        @Override
+        public void history(final int cardIndex, final Integer fromColumnIndex, final int toColumnIndex,
+                            final long movedAt) {
+            records.add("history %s %s %s %s".formatted(cardIndex, fromColumnIndex, toColumnIndex, movedAt));
+        }
+
+        @Override
+        public void end(final long columns, final long cards, final long blocks, final long history) {
+            records.add("end %s %s %s %s".formatted(columns, cards, blocks, history));
+        }
+
+    }
+
+}
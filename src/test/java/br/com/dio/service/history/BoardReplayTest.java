@@ -0,0 +1,177 @@
+package br.com.dio.service.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static br.com.dio.service.history.BoardReplay.BLOCK;
+import static br.com.dio.service.history.BoardReplay.MOVE;
+import static br.com.dio.service.history.BoardReplay.UNBLOCK;
+import static br.com.dio.service.history.BoardStateTest.sorted;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reconstrução a partir de um checkpoint comparada com a reconstrução desde o início do histórico, com
+ * eventos na ordem da consulta do {@code BoardHistoryService} (data, tipo e id) e vários por segundo
+ */
+class BoardReplayTest {
+
+    private static final int INTERVAL = 25;
+
+    private record Event(long at, int kind, long id, long cardId, long refId) {
+    }
+
+    private record Checkpoint(long takenAt, long events, byte[] state) {
+    }
+
+    @Test
+    void replayFromACheckpointMatchesAFullReplay() {
+        var events = generate(new Random(46), 2_000);
+        var checkpoints = checkpoint(events);
+        assertTrue(checkpoints.size() > 10, "O histórico deveria gerar vários checkpoints");
+
+        var random = new Random(7);
+        var first = events.get(0).at();
+        var last = events.get(events.size() - 1).at();
+        for (var round = 0; round < 200; round++) {
+            var asOf = first + (long) (random.nextDouble() * (last - first + 2));
+            var expected = replay(new BoardState(), 0, asOf, events);
+
+            Checkpoint latest = null;
+            for (var checkpoint : checkpoints) {
+                if (checkpoint.takenAt() <= asOf) {
+                    latest = checkpoint;
+                }
+            }
+            var from = latest == null ? 0 : latest.takenAt();
+            var state = latest == null ? new BoardState() : BoardState.decode(latest.state());
+            var actual = replay(state, from, asOf, events);
+
+            assertEquals(sorted(expected), sorted(actual), "Estado divergente em " + asOf);
+        }
+    }
+
+    @Test
+    void cutsOnlyHappenOnASecondBoundary() {
+        var events = generate(new Random(13), 2_000);
+
+        for (var checkpoint : checkpoint(events)) {
+            var upToCut = events.stream().filter(event -> event.at() <= checkpoint.takenAt()).count();
+            assertEquals(upToCut, checkpoint.events(), "O checkpoint de " + checkpoint.takenAt() +
+                    " deveria ter todos os eventos do seu segundo");
+            assertTrue(checkpoint.events() >= INTERVAL);
+        }
+    }
+
+    @Test
+    void aSecondWithMoreEventsThanTheIntervalIsNotSplit() {
+        List<Event> events = new ArrayList<>();
+        for (var i = 1; i <= INTERVAL * 3; i++) {
+            events.add(new Event(100, MOVE, i, i, 1));
+        }
+        events.add(new Event(101, MOVE, INTERVAL * 3 + 1, 1, 2));
+
+        var checkpoints = checkpoint(events);
+
+        assertEquals(1, checkpoints.size());
+        assertEquals(100, checkpoints.get(0).takenAt());
+        assertEquals(INTERVAL * 3, checkpoints.get(0).events());
+        assertEquals(INTERVAL * 3, BoardState.decode(checkpoints.get(0).state()).size());
+    }
+
+    @Test
+    void unblockAndNewBlockInTheSameSecondLeaveTheNewBlockOpen() {
+        var state = new BoardState();
+        var replay = new BoardReplay(state, 0, 0, null);
+        replay.apply(10, MOVE, 1, 1, 5);
+        replay.apply(10, BLOCK, 1, 1, 3);
+        // Desbloqueio e novo bloqueio no mesmo segundo: a consulta entrega o bloqueio antes do desbloqueio
+        replay.apply(20, BLOCK, 2, 1, 4);
+        replay.apply(20, UNBLOCK, 1, 1, 0);
+
+        assertEquals(4, replay.finish());
+        var card = state.getCards().iterator().next();
+        assertEquals(2, card.blockId());
+        assertEquals(4, card.blockReasonId());
+    }
+
+    /**
+     * Grava checkpoints como o {@code BoardHistoryService.checkpoint}, partindo do último já gravado a cada rodada
+     */
+    private static List<Checkpoint> checkpoint(final List<Event> events) {
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        var last = events.get(events.size() - 1).at();
+        // Rodadas sucessivas, como o BoardCheckpointer faz a cada intervalo, com cutoff crescente
+        for (var cutoff = events.get(0).at() + 7; cutoff < last + 7; cutoff += 7) {
+            var latest = checkpoints.isEmpty() ? null : checkpoints.get(checkpoints.size() - 1);
+            var state = latest == null ? new BoardState() : BoardState.decode(latest.state());
+            var from = latest == null ? 0 : latest.takenAt();
+            var baseEvents = latest == null ? 0 : latest.events();
+            var replay = new BoardReplay(state, from, INTERVAL, (takenAt, applied) ->
+                    checkpoints.add(new Checkpoint(takenAt, baseEvents + applied, state.encode())));
+            for (var event : events) {
+                if (event.at() > from && event.at() <= cutoff) {
+                    replay.apply(event.at(), event.kind(), event.id(), event.cardId(), event.refId());
+                }
+            }
+            replay.finish();
+        }
+        return checkpoints;
+    }
+
+    private static BoardState replay(final BoardState state, final long after, final long until, final List<Event> events) {
+        var replay = new BoardReplay(state, after, 0, null);
+        for (var event : events) {
+            if (event.at() > after && event.at() <= until) {
+                replay.apply(event.at(), event.kind(), event.id(), event.cardId(), event.refId());
+            }
+        }
+        replay.finish();
+        return state;
+    }
+
+    /**
+     * Histórico de cards criados, movidos, bloqueados e desbloqueados, com vários eventos por segundo e
+     * desbloqueios seguidos de novo bloqueio no mesmo segundo
+     */
+    private static List<Event> generate(final Random random, final int size) {
+        List<Event> events = new ArrayList<>();
+        Map<Long, Long> openBlocks = new HashMap<>();
+        var at = 1_700_000_000L;
+        var historyId = 0L;
+        var blockId = 0L;
+        var cards = 0L;
+        while (events.size() < size) {
+            at += random.nextInt(3);
+            if (cards == 0 || random.nextInt(5) == 0) {
+                cards++;
+                events.add(new Event(at, MOVE, ++historyId, cards, 1));
+                continue;
+            }
+            var cardId = 1 + (long) random.nextInt((int) cards);
+            var open = openBlocks.get(cardId);
+            if (open != null) {
+                events.add(new Event(at, UNBLOCK, open, cardId, 0));
+                openBlocks.remove(cardId);
+                if (random.nextBoolean()) {
+                    openBlocks.put(cardId, ++blockId);
+                    events.add(new Event(at, BLOCK, blockId, cardId, 1 + random.nextInt(5)));
+                }
+            } else if (random.nextInt(3) == 0) {
+                openBlocks.put(cardId, ++blockId);
+                events.add(new Event(at, BLOCK, blockId, cardId, 1 + random.nextInt(5)));
+            } else {
+                events.add(new Event(at, MOVE, ++historyId, cardId, 1 + random.nextInt(6)));
+            }
+        }
+        events.sort(Comparator.comparingLong(Event::at).thenComparingInt(Event::kind).thenComparingLong(Event::id));
+        return events;
+    }
+
+}
@@ -0,0 +1,94 @@
+package br.com.dio.service.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Formato dos checkpoints gravados em {@code BOARD_CHECKPOINTS}
+ */
+class BoardStateTest {
+
+    @Test
+    void emptyStateRoundTrips() {
+        var decoded = BoardState.decode(new BoardState().encode());
+
+        assertEquals(0, decoded.size());
+    }
+
+    @Test
+    void cardsColumnsDatesAndOpenBlocksRoundTrip() {
+        var state = new BoardState();
+        state.place(7, 30, 1_700_000_000L);
+        state.place(3, 10, 1_700_000_500L);
+        state.place(900_000_000_000L, 20, 1_600_000_000L);
+        state.place(8, 10, 1_700_000_000L);
+        state.block(3, 42, 5);
+        state.block(8, 1L << 40, 1L << 35);
+        state.unblock(8, 1L << 40);
+        state.block(7, 43, 6);
+
+        var decoded = BoardState.decode(state.encode());
+
+        assertEquals(sorted(state), sorted(decoded));
+        assertEquals(state.byColumn(), decoded.byColumn());
+    }
+
+    @Test
+    void randomStatesRoundTrip() {
+        var random = new Random(46);
+        for (var round = 0; round < 50; round++) {
+            var state = new BoardState();
+            var cards = random.nextInt(500);
+            for (var i = 0; i < cards; i++) {
+                var cardId = 1 + random.nextInt(100_000);
+                state.place(cardId, 1 + random.nextInt(8), 1_500_000_000L + random.nextInt(200_000_000));
+                if (random.nextInt(4) == 0) {
+                    state.block(cardId, 1 + random.nextInt(1_000_000), 1 + random.nextInt(50));
+                }
+            }
+
+            assertEquals(sorted(state), sorted(BoardState.decode(state.encode())));
+        }
+    }
+
+    @Test
+    void rejectsUnknownVersionsAndTruncatedData() throws IOException {
+        var state = new BoardState();
+        state.place(1, 1, 1_700_000_000L);
+        var data = state.encode();
+
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DeflaterOutputStream(bytes)) {
+            out.write(99);
+        }
+        var version = assertThrows(IllegalArgumentException.class, () -> BoardState.decode(bytes.toByteArray()));
+        assertTrue(version.getMessage().contains("99"));
+        assertThrows(IllegalArgumentException.class, () -> BoardState.decode(Arrays.copyOf(data, data.length / 2)));
+    }
+
+    @Test
+    void negativeValuesAreNotEncoded() {
+        var state = new BoardState();
+        state.place(-1, 1, 1_700_000_000L);
+
+        assertThrows(IllegalArgumentException.class, state::encode);
+    }
+
+    static List<BoardState.CardState> sorted(final BoardState state) {
+        return state.getCards().stream()
+                .sorted(Comparator.comparingLong(BoardState.CardState::cardId))
+                .toList();
+    }
+
+}
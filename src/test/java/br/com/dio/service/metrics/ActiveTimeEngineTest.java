@@ -0,0 +1,132 @@
+package br.com.dio.service.metrics;
+
+import br.com.dio.dto.ActiveTimeDTO;
+import br.com.dio.dto.ActiveTimeDTO.CardActiveTimeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static br.com.dio.service.metrics.MetricsFixture.DOING;
+import static br.com.dio.service.metrics.MetricsFixture.DONE;
+import static br.com.dio.service.metrics.MetricsFixture.TODO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Separação entre tempo ativo e bloqueado, com os tempos em minutos a partir de um instante qualquer
+ */
+class ActiveTimeEngineTest {
+
+    private final ActiveTimeEngine engine = new ActiveTimeEngine(MetricsFixture.columns());
+
+    @Test
+    void overlappingBlocksAreCountedOnceAndSplitAcrossColumns() {
+        engine.acceptMove(1, TODO, minutes(0), 1);
+        engine.acceptMove(1, DOING, minutes(10), 2);
+        engine.acceptMove(1, DONE, minutes(60), 3);
+        // Atravessa a mudança de coluna
+        engine.acceptBlock(1, minutes(8), minutes(12));
+        // Sobrepostos: contam como um bloqueio de 15 a 35
+        engine.acceptBlock(1, minutes(20), minutes(35));
+        engine.acceptBlock(1, minutes(15), minutes(25));
+
+        var result = engine.finish(minutes(100));
+
+        assertColumn(result, 0, 1, 8, 2);
+        assertColumn(result, 1, 1, 28, 22);
+        assertColumn(result, 2, 1, 40, 0);
+        assertColumn(result, 3, 0, 0, 0);
+        // O tempo na coluna final fica fora do tempo do card
+        assertEquals(List.of(card(1, 36, 24)), result.cards());
+    }
+
+    @Test
+    void openBlocksRunUntilNow() {
+        engine.acceptMove(2, DOING, minutes(0), 1);
+        engine.acceptBlock(2, minutes(30), 0);
+
+        var result = engine.finish(minutes(50));
+
+        assertColumn(result, 1, 1, 30, 20);
+        assertEquals(List.of(card(2, 30, 20)), result.cards());
+    }
+
+    @Test
+    void sameInstantMovesAreOrderedBySequenceAndEmptyStaysAreSkipped() {
+        // Entregues fora de ordem: a sequência do histórico decide qual movimentação veio antes
+        engine.acceptMove(3, DONE, minutes(10), 3);
+        engine.acceptMove(3, DOING, minutes(0), 2);
+        engine.acceptMove(3, TODO, minutes(0), 1);
+        engine.acceptMove(4, TODO, minutes(0), 5);
+        engine.acceptMove(4, DOING, minutes(0), 4);
+
+        var result = engine.finish(minutes(10));
+
+        // Card 3 passou zero tempo em "A fazer"; card 4 entrou em "Fazendo" e em seguida em "A fazer"
+        assertColumn(result, 0, 1, 10, 0);
+        assertColumn(result, 1, 1, 10, 0);
+        assertColumn(result, 2, 0, 0, 0);
+        assertEquals(List.of(card(3, 10, 0), card(4, 10, 0)), result.cards());
+    }
+
+    @Test
+    void blocksStartingAfterNowAreIgnored() {
+        // Datas do banco à frente do relógio do processo
+        engine.acceptMove(5, DOING, minutes(0), 1);
+        engine.acceptMove(5, DONE, minutes(130), 2);
+        engine.acceptBlock(5, minutes(90), minutes(95));
+        engine.acceptBlock(5, minutes(110), 0);
+        engine.acceptBlock(5, minutes(120), minutes(125));
+
+        var result = engine.finish(minutes(100));
+
+        assertColumn(result, 1, 1, 125, 5);
+        assertEquals(List.of(card(5, 125, 5)), result.cards());
+    }
+
+    @Test
+    void blocksOfCardsWithoutMovesAreDiscarded() {
+        engine.acceptBlock(1, minutes(0), minutes(5));
+        engine.acceptMove(2, DOING, minutes(0), 1);
+        engine.acceptBlock(2, minutes(1), minutes(3));
+        engine.acceptBlock(3, minutes(0), minutes(5));
+
+        var result = engine.finish(minutes(10));
+
+        assertEquals(List.of(card(2, 8, 2)), result.cards());
+    }
+
+    @Test
+    void cardsAreSortedByBlockedTimeAndArraysGrowPastTheirInitialCapacity() {
+        for (var cardId = 1L; cardId <= 2_000; cardId++) {
+            engine.acceptMove(cardId, DOING, minutes(0), cardId);
+            engine.acceptBlock(cardId, minutes(0), minutes(cardId % 7));
+        }
+
+        var result = engine.finish(minutes(10));
+
+        assertEquals(2_000, result.cards().size());
+        assertEquals(card(6, 4, 6), result.cards().get(0));
+        assertEquals(Duration.ZERO, result.cards().get(result.cards().size() - 1).blockedTime());
+        var column = result.columns().get(1);
+        assertEquals(2_000, column.cards());
+        assertEquals(Duration.ofMinutes(2_000 * 10), column.activeTime().plus(column.blockedTime()));
+    }
+
+    private static void assertColumn(final ActiveTimeDTO result, final int position, final int cards,
+                                     final long activeMinutes, final long blockedMinutes) {
+        var column = result.columns().get(position);
+        assertEquals(cards, column.cards(), column.columnName());
+        assertEquals(Duration.ofMinutes(activeMinutes), column.activeTime(), column.columnName());
+        assertEquals(Duration.ofMinutes(blockedMinutes), column.blockedTime(), column.columnName());
+    }
+
+    private static CardActiveTimeDTO card(final long cardId, final long activeMinutes, final long blockedMinutes) {
+        return new CardActiveTimeDTO(cardId, Duration.ofMinutes(activeMinutes), Duration.ofMinutes(blockedMinutes));
+    }
+
+    private static long minutes(final long minutes) {
+        return 1_700_000_000_000L + Duration.ofMinutes(minutes).toMillis();
+    }
+
+}
@@ -0,0 +1,173 @@
+package br.com.dio.service.metrics;
+
+import br.com.dio.dto.FlowMetricsDTO.CycleTimeDTO;
+import br.com.dio.dto.FlowMetricsDTO.WeeklyThroughputDTO;
+import br.com.dio.dto.FlowMetricsDTO.WipAgeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.service.metrics.MetricsFixture.CANCELED;
+import static br.com.dio.service.metrics.MetricsFixture.DOING;
+import static br.com.dio.service.metrics.MetricsFixture.DONE;
+import static br.com.dio.service.metrics.MetricsFixture.TODO;
+import static br.com.dio.service.metrics.MetricsFixture.column;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Métricas de fluxo a partir de um histórico de movimentações, com os dias virando em UTC
+ */
+class FlowMetricsEngineTest {
+
+    // Segunda-feira
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    private final FlowMetricsEngine engine = new FlowMetricsEngine(MetricsFixture.columns(), ZoneOffset.UTC);
+
+    @Test
+    void cumulativeFlowCountsCardsPerColumnAtTheEndOfEachDay() {
+        engine.accept(1, 0, TODO, at(0, 9));
+        engine.accept(2, 0, TODO, at(0, 10));
+        engine.accept(1, TODO, DOING, at(1, 9));
+        engine.accept(3, 0, TODO, at(1, 11));
+        engine.accept(1, DOING, DONE, at(2, 9));
+        engine.accept(3, TODO, CANCELED, at(2, 10));
+        // Coluna de outro board: ignorada
+        engine.accept(4, 0, 99, at(2, 11));
+
+        var result = engine.finish(at(3, 12));
+
+        assertEquals(List.of("A fazer", "Fazendo", "Pronto", "Cancelado"), result.columnNames());
+        assertEquals(MONDAY, result.firstDay());
+        assertArrayEquals(new int[][]{
+                {2, 0, 0, 0},
+                {2, 1, 0, 0},
+                {1, 0, 1, 1},
+                {1, 0, 1, 1}
+        }, result.cumulativeFlow());
+        assertEquals(6, result.processedMovements());
+    }
+
+    @Test
+    void throughputIsBucketedByMondayStartingWeeksIncludingEmptyOnes() {
+        complete(1, at(0, 8), at(1, 10));
+        complete(2, at(0, 8), at(6, 23));
+        // Domingo às 23h59 ainda é da primeira semana; segunda à 0h já é da segunda
+        complete(3, at(0, 8), at(6, 23) + Duration.ofMinutes(59).toMillis());
+        complete(4, at(0, 8), at(7, 0));
+        complete(5, at(0, 8), at(22, 12));
+        // Voltar para a coluna final não conta de novo
+        engine.accept(5, DONE, DOING, at(23, 9));
+        engine.accept(5, DOING, DONE, at(23, 10));
+
+        var result = engine.finish(at(23, 12));
+
+        assertEquals(List.of(
+                new WeeklyThroughputDTO(MONDAY, 3),
+                new WeeklyThroughputDTO(MONDAY.plusWeeks(1), 1),
+                new WeeklyThroughputDTO(MONDAY.plusWeeks(2), 0),
+                new WeeklyThroughputDTO(MONDAY.plusWeeks(3), 1)
+        ), result.weeklyThroughput());
+        assertEquals(5, result.cycleTime().completedCards());
+    }
+
+    @Test
+    void cycleTimePercentilesUseNearestRankFromTheStartOfWork() {
+        // Cards 1 a 20 esperam um dia em "A fazer", que não conta, e levam i horas até concluir
+        for (var i = 1; i <= 20; i++) {
+            engine.accept(i, 0, TODO, at(0, 0));
+            engine.accept(i, TODO, DOING, at(1, 0));
+            engine.accept(i, DOING, DONE, at(1, 0) + Duration.ofHours(i).toMillis());
+        }
+
+        var result = engine.finish(at(3, 0));
+
+        assertEquals(new CycleTimeDTO(20, Duration.ofHours(10), Duration.ofHours(17), Duration.ofHours(19),
+                Duration.ofHours(20)), result.cycleTime());
+    }
+
+    @Test
+    void cardsThatSkipTheWorkColumnsHaveZeroCycleTime() {
+        engine.accept(1, 0, TODO, at(0, 0));
+        engine.accept(1, TODO, DONE, at(2, 0));
+        engine.accept(2, 0, DOING, at(0, 0));
+        engine.accept(2, DOING, DONE, at(0, 5));
+
+        var result = engine.finish(at(3, 0));
+
+        assertEquals(new CycleTimeDTO(2, Duration.ZERO, Duration.ofHours(5), Duration.ofHours(5),
+                Duration.ofHours(5)), result.cycleTime());
+    }
+
+    @Test
+    void wipAgeCoversOnlyTheWorkColumns() {
+        engine.accept(1, 0, TODO, at(0, 0));
+        engine.accept(2, 0, TODO, at(1, 0));
+        engine.accept(3, 0, DOING, at(0, 0));
+        engine.accept(3, DOING, DONE, at(1, 0));
+
+        var result = engine.finish(at(2, 0));
+
+        assertEquals(List.of(
+                new WipAgeDTO("A fazer", 2, Duration.ofHours(36), Duration.ofHours(48)),
+                new WipAgeDTO("Fazendo", 0, Duration.ZERO, Duration.ZERO)
+        ), result.wipAge());
+    }
+
+    @Test
+    void daysFollowTheOffsetInEffectAtEachMove() {
+        var zone = ZoneId.of("America/New_York");
+        var engine = new FlowMetricsEngine(List.of(column(TODO, "A fazer", INITIAL)), zone);
+        // 23h30 no horário padrão (UTC-5) e 0h30 no horário de verão (UTC-4): com um único deslocamento
+        // para todo o histórico, uma das duas cairia no dia vizinho
+        engine.accept(1, 0, TODO, local(zone, 2024, 1, 15, 23, 30));
+        engine.accept(2, 0, TODO, local(zone, 2024, 7, 1, 10, 0));
+        engine.accept(3, 0, TODO, local(zone, 2024, 7, 2, 0, 30));
+
+        var result = engine.finish(local(zone, 2024, 7, 2, 12, 0));
+
+        var firstDay = LocalDate.of(2024, 1, 15);
+        assertEquals(firstDay, result.firstDay());
+        var july1 = (int) (LocalDate.of(2024, 7, 1).toEpochDay() - firstDay.toEpochDay());
+        assertEquals(1, result.cumulativeFlow()[0][0]);
+        assertEquals(1, result.cumulativeFlow()[1][0]);
+        assertEquals(2, result.cumulativeFlow()[july1][0]);
+        assertEquals(3, result.cumulativeFlow()[july1 + 1][0]);
+        assertEquals(july1 + 2, result.cumulativeFlow().length);
+    }
+
+    @Test
+    void emptyHistoryHasNoDays() {
+        var result = engine.finish(at(0, 0));
+
+        assertNull(result.firstDay());
+        assertEquals(0, result.cumulativeFlow().length);
+        assertEquals(List.of(), result.weeklyThroughput());
+        assertEquals(new CycleTimeDTO(0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO), result.cycleTime());
+    }
+
+    private void complete(final long cardId, final long createdAt, final long doneAt) {
+        engine.accept(cardId, 0, DOING, createdAt);
+        engine.accept(cardId, DOING, DONE, doneAt);
+    }
+
+    private static long local(final ZoneId zone, final int year, final int month, final int day,
+                              final int hour, final int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private static long at(final int day, final int hour) {
+        return LocalDateTime.of(MONDAY.plusDays(day), LocalTime.of(hour, 0))
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+}
@@ -0,0 +1,45 @@
+package br.com.dio.service.metrics;
+
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+
+/**
+ * Board de quatro colunas usado pelos testes dos engines de métricas
+ */
+final class MetricsFixture {
+
+    static final long TODO = 10;
+    static final long DOING = 20;
+    static final long DONE = 30;
+    static final long CANCELED = 40;
+
+    private MetricsFixture() {
+    }
+
+    /**
+     * @return As colunas "A fazer", "Fazendo", "Pronto" e "Cancelado", nessa ordem
+     */
+    static List<BoardColumnEntity> columns() {
+        return List.of(
+                column(TODO, "A fazer", INITIAL),
+                column(DOING, "Fazendo", PENDING),
+                column(DONE, "Pronto", FINAL),
+                column(CANCELED, "Cancelado", CANCEL));
+    }
+
+    static BoardColumnEntity column(final long id, final String name, final BoardColumnKindEnum kind) {
+        var column = new BoardColumnEntity();
+        column.setId(id);
+        column.setName(name);
+        column.setKind(kind);
+        return column;
+    }
+
+}
@@ -0,0 +1,113 @@
+package br.com.dio.service.search;
+
+import br.com.dio.dto.CardSearchPageDTO;
+import br.com.dio.dto.CardSearchResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Busca por prefixo no índice em memória, com os cards adicionados como o {@code CardService} faz
+ */
+class CardSearchIndexTest {
+
+    private final CardSearchIndex index = CardSearchIndex.empty();
+
+    @Test
+    void termsMatchByPrefixAndTitlesOutweighDescriptions() {
+        index.onCardCreated(1, "Deploy", "publicar a versão", 1, "Operação");
+        index.onCardCreated(2, "Deployment manual", null, 1, "Operação");
+        index.onCardCreated(3, "Relatório", "conferir o deploy", 1, "Operação");
+
+        var prefix = ids(index.search("depl", 0, 10));
+        assertEquals(List.of(1L, 2L, 3L), prefix.stream().sorted().toList());
+        assertEquals(3L, prefix.get(2));
+        assertEquals(List.of(2L), ids(index.search("deployment", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("RELATÓ", 0, 10)));
+        assertEquals(List.of(), ids(index.search("deployments", 0, 10)));
+    }
+
+    @Test
+    void everyTermIsRequiredButMayComeFromAnyField() {
+        index.onCardCreated(1, "Migrar banco", null, 1, "Infra");
+        index.onCardCreated(2, "Migrar filas", null, 1, "Infra");
+        index.onCardCreated(3, "Atualizar banco", null, 1, "Infra");
+        // O segundo termo está só no motivo de bloqueio
+        index.onCardBlocked(2, "Aguardando fornecedor");
+
+        assertEquals(List.of(1L), ids(index.search("migrar banco", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("migrar aguard", 0, 10)));
+        assertEquals(List.of(), ids(index.search("atualizar aguard", 0, 10)));
+        assertEquals(List.of(), ids(index.search("migrar inexistente", 0, 10)));
+    }
+
+    @Test
+    void repeatedBlocksWithTheSameReasonCountOnce() {
+        index.onCardCreated(1, "Card um", null, 1, "Board");
+        index.onCardCreated(2, "Card dois", null, 1, "Board");
+        index.onCardBlocked(1, "Aguardando cliente");
+        index.onCardBlocked(1, "Aguardando cliente");
+        index.onCardBlocked(1, "Aguardando cliente");
+        index.onCardBlocked(2, "Aguardando cliente");
+
+        var results = index.search("cliente", 0, 10).results();
+
+        assertEquals(2, results.size());
+        assertEquals(results.get(0).score(), results.get(1).score());
+    }
+
+    @Test
+    void pagesFollowTheRankingAndReportWhetherMoreResultsExist() {
+        for (var cardId = 1L; cardId <= 5; cardId++) {
+            index.onCardCreated(cardId, "Tarefa " + cardId, null, 7, "Sprint");
+        }
+
+        var first = index.search("tarefa", 0, 2);
+        var last = index.search("tarefa", 2, 2);
+        var beyond = index.search("tarefa", 3, 2);
+
+        // Mesma relevância: desempata pelo id
+        assertEquals(List.of(1L, 2L), ids(first));
+        assertTrue(first.hasNextPage());
+        assertEquals(List.of(3L, 4L), ids(index.search("tarefa", 1, 2)));
+        assertEquals(List.of(5L), ids(last));
+        assertFalse(last.hasNextPage());
+        assertEquals(List.of(), ids(beyond));
+        assertFalse(beyond.hasNextPage());
+        var result = first.results().get(0);
+        assertEquals("Tarefa 1", result.title());
+        assertEquals(7, result.boardId());
+        assertEquals("Sprint", result.boardName());
+    }
+
+    @Test
+    void renamingABoardRenamesItInTheResults() {
+        index.onCardCreated(1, "Card um", null, 1, "Antigo");
+        index.onCardCreated(2, "Card dois", null, 2, "Outro");
+
+        index.onBoardRenamed(1, "Novo");
+
+        var results = index.search("card", 0, 10).results();
+        assertEquals("Novo", results.get(0).boardName());
+        assertEquals("Outro", results.get(1).boardName());
+    }
+
+    @Test
+    void queriesWithoutTermsReturnAnEmptyPage() {
+        index.onCardCreated(1, "Card", null, 1, "Board");
+
+        var page = index.search(" - ", 0, 10);
+
+        assertEquals(List.of(), page.results());
+        assertFalse(page.hasNextPage());
+    }
+
+    private static List<Long> ids(final CardSearchPageDTO page) {
+        return page.results().stream().map(CardSearchResultDTO::cardId).toList();
+    }
+
+}
@@ -0,0 +1,27 @@
+package br.com.dio.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Normalização dos textos indexados e das buscas digitadas
+ */
+class SearchTokenizerTest {
+
+    @Test
+    void removesAccentsLowercasesAndSplitsOnAnythingButLettersAndDigits() {
+        assertEquals(List.of("revisao", "do", "pedido", "42", "aguardando", "api"),
+                SearchTokenizer.tokenize("Revisão do pedido #42 — aguardando API!"));
+    }
+
+    @Test
+    void dropsSingleCharacterTokensAndBlankTexts() {
+        assertEquals(List.of("ok"), SearchTokenizer.tokenize("a ok b 1"));
+        assertEquals(List.of(), SearchTokenizer.tokenize("   "));
+        assertEquals(List.of(), SearchTokenizer.tokenize(null));
+    }
+
+}